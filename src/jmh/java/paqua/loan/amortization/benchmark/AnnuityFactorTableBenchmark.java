@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.annual.AnnuityFactorTable;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the calculation of 360-month mortgages with and without precomputed annuity factors
+ *
+ * With {@link LoanScenario#TO_END_DECREASE_MONTHLY_PAYMENT} the monthly payment amount is recalculated in every month,
+ * so (time without table - time with table) / term is the gain per recalculation.
+ * {@link LoanScenario#PLAIN} calculates the factor only once and shows the gain for a loan without early payments.
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnuityFactorTableBenchmark {
+
+    @Param({"360"})
+    private int term;
+
+    @Param({"PLAIN", "TO_END_DECREASE_MONTHLY_PAYMENT"})
+    private LoanScenario scenario;
+
+    private LoanAmortizationCalculator calculator;
+    private LoanAmortizationCalculator tableCalculator;
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        loan = scenario.create(term);
+
+        calculator = LoanAmortizationCalculatorFactory.create();
+        tableCalculator = LoanAmortizationCalculatorFactory.create(AnnuityFactorTable.builder()
+                .rate(loan.getRate())
+                .maxTerm(term)
+                .build());
+    }
+
+    @Benchmark
+    public LoanAmortization calculate() {
+        return calculator.calculate(loan);
+    }
+
+    @Benchmark
+    public LoanAmortization calculateWithAnnuityFactorTable() {
+        return tableCalculator.calculate(loan);
+    }
+}
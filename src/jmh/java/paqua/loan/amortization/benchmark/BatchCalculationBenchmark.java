@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.BatchLoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.batch.BatchLoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time of the calculation of a portfolio of loans by the batch calculator
+ * with different parallelism of the fork-join pool
+ *
+ * The portfolio contains all loan scenarios with terms from 12 to 360 months.
+ * Parallelism 0 means the number of available processors.
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchCalculationBenchmark {
+    private static final int MIN_TERM = 12;
+    private static final int MAX_TERM = 360;
+
+    @Param({"1", "4", "0"})
+    private int parallelism;
+
+    @Param({"100000"})
+    private int portfolioSize;
+
+    @Param({"reference", "fast"})
+    private String engine;
+
+    private ForkJoinPool pool;
+    private BatchLoanAmortizationCalculator calculator;
+    private List<Loan> portfolio;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        calculator = BatchLoanAmortizationCalculatorFactory.create(
+                "fast".equals(engine) ? LoanAmortizationCalculatorFactory.createFast() : LoanAmortizationCalculatorFactory.create(),
+                pool);
+
+        final LoanScenario[] scenarios = LoanScenario.values();
+        portfolio = new ArrayList<>(portfolioSize);
+        for (int i = 0; i < portfolioSize; i++) {
+            portfolio.add(scenarios[i % scenarios.length].create(MIN_TERM + (i * 7) % (MAX_TERM - MIN_TERM + 1)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<LoanAmortizationResult> calculateAll() {
+        return calculator.calculateAll(portfolio);
+    }
+}
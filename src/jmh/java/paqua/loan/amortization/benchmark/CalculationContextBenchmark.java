@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanCalculationContext;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.LoanCalculationContextFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentSchedule;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares allocations of the reference calculator with the reusable calculation context
+ *
+ * Run with the gc profiler ({@code -prof gc}): the context with primitive input
+ * is expected to allocate about 0 B/op in the steady state.
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculationContextBenchmark {
+
+    @Param({"360"})
+    private int term;
+
+    @Param({"PLAIN", "DECREASE_MONTHLY_PAYMENT", "FIRST_PAYMENT_DATE"})
+    private LoanScenario scenario;
+
+    private LoanAmortizationCalculator calculator;
+    private LoanCalculationContext context;
+    private Loan loan;
+
+    // The loan as primitives
+    private long amountCents;
+    private BigDecimal rate;
+    private LocalDate firstPaymentDate;
+    private int[] earlyPaymentNumbers;
+    private long[] earlyPaymentAmounts;
+    private EarlyPaymentStrategy[] earlyPaymentStrategies;
+
+    @Setup
+    public void setUp() {
+        calculator = LoanAmortizationCalculatorFactory.create();
+        context = LoanCalculationContextFactory.create();
+        loan = scenario.create(term);
+
+        amountCents = loan.getAmount().movePointRight(2).longValueExact();
+        rate = loan.getRate();
+        firstPaymentDate = loan.getFirstPaymentDate();
+
+        final EarlyPaymentSchedule earlyPayments = EarlyPaymentSchedule.of(loan);
+        earlyPaymentNumbers = new int[earlyPayments.size()];
+        earlyPaymentAmounts = new long[earlyPayments.size()];
+        earlyPaymentStrategies = new EarlyPaymentStrategy[earlyPayments.size()];
+
+        int i = 0;
+        for (Map.Entry<Integer, EarlyPayment> entry : earlyPayments.entrySet()) {
+            earlyPaymentNumbers[i] = entry.getKey();
+            earlyPaymentAmounts[i] = entry.getValue().getAmount().movePointRight(2).longValueExact();
+            earlyPaymentStrategies[i] = entry.getValue().getStrategy();
+            i++;
+        }
+    }
+
+    @Benchmark
+    public LoanAmortization reference() {
+        return calculator.calculate(loan);
+    }
+
+    @Benchmark
+    public long contextLoan() {
+        return context.calculate(loan) + context.getOverPaymentAmount();
+    }
+
+    @Benchmark
+    public long contextPrimitives() {
+        context.loan(amountCents, rate, term, firstPaymentDate);
+        for (int i = 0; i < earlyPaymentNumbers.length; i++) {
+            context.earlyPayment(earlyPaymentNumbers[i], earlyPaymentAmounts[i], earlyPaymentStrategies[i]);
+        }
+
+        return context.calculate() + context.getOverPaymentAmount();
+    }
+}
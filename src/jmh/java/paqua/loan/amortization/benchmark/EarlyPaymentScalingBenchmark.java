@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shows how the calculation time grows with the term when every month has an early payment
+ * with {@link paqua.loan.amortization.dto.EarlyPaymentStrategy#DECREASE_MONTHLY_PAYMENT} strategy
+ *
+ * Every such payment recalculates the monthly payment amount. The total of the preceding
+ * {@link paqua.loan.amortization.dto.EarlyPaymentStrategy#DECREASE_TERM} payments is a running sum,
+ * so the early payment handling itself is linear in the term: compare the average time per op for different terms.
+ * The fast-path calculator shows the pure loop cost; the reference calculator additionally pays for
+ * {@link java.math.BigDecimal#pow(int)} of the remaining term on every recalculation.
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EarlyPaymentScalingBenchmark {
+
+    @Param({"120", "240", "360", "480", "600"})
+    private int term;
+
+    private LoanAmortizationCalculator calculator;
+    private LoanAmortizationCalculator fastCalculator;
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        calculator = LoanAmortizationCalculatorFactory.create();
+        fastCalculator = LoanAmortizationCalculatorFactory.createFast();
+        loan = LoanScenario.TO_END_DECREASE_MONTHLY_PAYMENT.create(term);
+    }
+
+    @Benchmark
+    public LoanAmortization calculate() {
+        return calculator.calculate(loan);
+    }
+
+    @Benchmark
+    public LoanAmortization calculateFast() {
+        return fastCalculator.calculate(loan);
+    }
+}
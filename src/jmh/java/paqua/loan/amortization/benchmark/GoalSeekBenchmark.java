@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanGoalSeeker;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.LoanGoalSeekerFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the goal seeker with a binary search that calculates the whole amortization for every candidate
+ * The goal is the extra monthly payment that pays a loan off in two thirds of its term
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GoalSeekBenchmark {
+
+    @Param({"60", "360"})
+    private int term;
+
+    private LoanAmortizationCalculator calculator;
+    private LoanGoalSeeker seeker;
+    private Loan loan;
+    private int numberOfPayments;
+
+    @Setup
+    public void setUp() {
+        calculator = LoanAmortizationCalculatorFactory.create();
+        seeker = LoanGoalSeekerFactory.create();
+        loan = Loan.builder()
+                .amount(BigDecimal.valueOf(340_000))
+                .rate(BigDecimal.valueOf(5.25))
+                .term(term)
+                .build();
+        numberOfPayments = term * 2 / 3;
+    }
+
+    @Benchmark
+    public BigDecimal goalSeek() {
+        return seeker.solveExtraPayment(loan, 0, numberOfPayments);
+    }
+
+    @Benchmark
+    public BigDecimal binarySearch() {
+        long lo = 0;
+        long hi = loan.getAmount().movePointRight(2).longValueExact();
+
+        while (hi - lo > 1) {
+            final long extraPayment = (lo + hi) >>> 1;
+            final Loan candidate = Loan.builder()
+                    .amount(loan.getAmount())
+                    .rate(loan.getRate())
+                    .term(loan.getTerm())
+                    .earlyPayment(0, EarlyPayment.builder()
+                            .amount(BigDecimal.valueOf(extraPayment, 2))
+                            .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                            .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_END)
+                            .build())
+                    .build();
+
+            if (calculator.calculate(candidate).getMonthlyPayments().size() <= numberOfPayments) {
+                hi = extraPayment;
+            } else {
+                lo = extraPayment;
+            }
+        }
+
+        return BigDecimal.valueOf(hi, 2);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end benchmark of {@link LoanAmortizationCalculator#calculate(Loan)}
+ *
+ * Covers every {@link LoanScenario} for short, regular and very long loans
+ * with both the reference and the fast-path calculator.
+ * Run it with the gc profiler (enabled by default in the benchmark profile) to see the allocation rate.
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanAmortizationCalculatorBenchmark {
+
+    @Param({"12", "360", "600"})
+    private int term;
+
+    @Param
+    private LoanScenario scenario;
+
+    private LoanAmortizationCalculator calculator;
+    private LoanAmortizationCalculator fastCalculator;
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        calculator = LoanAmortizationCalculatorFactory.create();
+        fastCalculator = LoanAmortizationCalculatorFactory.createFast();
+        loan = scenario.create(term);
+    }
+
+    @Benchmark
+    public LoanAmortization calculate() {
+        return calculator.calculate(loan);
+    }
+
+    @Benchmark
+    public LoanAmortization calculateFast() {
+        return fastCalculator.calculate(loan);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+
+import java.time.LocalDate;
+
+/**
+ * Loan shapes used by the benchmarks
+ *
+ * Every scenario can be built for an arbitrary term, so the same shape can be measured for short and long loans
+ *
+ * @author Artyom Panfutov
+ */
+public enum LoanScenario {
+    /**
+     * A regular loan without any additional payments
+     */
+    PLAIN {
+        @Override
+        public Loan create(int term) {
+            return getBuilder(term).build();
+        }
+    },
+
+    /**
+     * A loan with a few single early payments that decrease the term
+     */
+    DECREASE_TERM {
+        @Override
+        public Loan create(int term) {
+            return withSinglePayments(term, EarlyPaymentStrategy.DECREASE_TERM);
+        }
+    },
+
+    /**
+     * A loan with a few single early payments that decrease the monthly payment
+     */
+    DECREASE_MONTHLY_PAYMENT {
+        @Override
+        public Loan create(int term) {
+            return withSinglePayments(term, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT);
+        }
+    },
+
+    /**
+     * A loan with an early payment repeated from the second month to the end of the term (decreases the term)
+     */
+    TO_END_DECREASE_TERM {
+        @Override
+        public Loan create(int term) {
+            return withRepeatedPayment(term, EarlyPaymentStrategy.DECREASE_TERM);
+        }
+    },
+
+    /**
+     * A loan with an early payment repeated from the second month to the end of the term (decreases the monthly payment)
+     */
+    TO_END_DECREASE_MONTHLY_PAYMENT {
+        @Override
+        public Loan create(int term) {
+            return withRepeatedPayment(term, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT);
+        }
+    },
+
+    /**
+     * A regular loan with the first payment date, so the actual/actual interest calculation is used
+     */
+    FIRST_PAYMENT_DATE {
+        @Override
+        public Loan create(int term) {
+            return getBuilder(term)
+                    .firstPaymentDate(LocalDate.of(2014, 7, 31))
+                    .build();
+        }
+    };
+
+    private static final double AMOUNT = 500000.32;
+    private static final double RATE = 4.56;
+
+    /**
+     * Creates a loan of this shape
+     *
+     * @param term loan term in months
+     * @return loan
+     */
+    public abstract Loan create(int term);
+
+    private static Loan.LoanBuilder getBuilder(int term) {
+        return Loan.builder()
+                .amount(AMOUNT)
+                .rate(RATE)
+                .term(term);
+    }
+
+    private static Loan withSinglePayments(int term, EarlyPaymentStrategy strategy) {
+        Loan.LoanBuilder builder = getBuilder(term);
+
+        for (int number = term / 4; number < term; number += Math.max(term / 4, 1)) {
+            builder.earlyPayment(number, EarlyPayment.builder()
+                    .amount(AMOUNT / 20)
+                    .strategy(strategy)
+                    .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                    .build());
+        }
+
+        return builder.build();
+    }
+
+    private static Loan withRepeatedPayment(int term, EarlyPaymentStrategy strategy) {
+        return getBuilder(term)
+                .earlyPayment(1, EarlyPayment.builder()
+                        .amount(AMOUNT / term / 10)
+                        .strategy(strategy)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_END)
+                        .build())
+                .build();
+    }
+}
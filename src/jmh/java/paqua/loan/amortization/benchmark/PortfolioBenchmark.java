@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.PortfolioCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.PortfolioCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.dto.PortfolioProjection;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the aggregated cash flows of a portfolio calculated loan by loan by the fast-path calculator
+ * with the portfolio calculator that advances all loans in lockstep
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortfolioBenchmark {
+
+    @Param({"10000"})
+    private int numberOfLoans;
+
+    @Param({"PLAIN", "DECREASE_TERM", "DECREASE_MONTHLY_PAYMENT"})
+    private LoanScenario scenario;
+
+    private LoanAmortizationCalculator calculator;
+    private PortfolioCalculator portfolioCalculator;
+    private List<Loan> loans;
+
+    @Setup
+    public void setUp() {
+        calculator = LoanAmortizationCalculatorFactory.createFast();
+        portfolioCalculator = PortfolioCalculatorFactory.create();
+
+        final Random random = new Random(20);
+        loans = new ArrayList<>(numberOfLoans);
+        for (int i = 0; i < numberOfLoans; i++) {
+            final Loan loan = scenario.create(120 + random.nextInt(241));
+            loans.add(Loan.builder()
+                    .amount(loan.getAmount())
+                    .rate(BigDecimal.valueOf(200 + random.nextInt(800), 2))
+                    .term(loan.getTerm())
+                    .earlyPayments(loan.getEarlyPayments())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public long[] loanByLoan() {
+        final long[] interestAmounts = new long[360];
+
+        for (Loan loan : loans) {
+            for (MonthlyPayment payment : calculator.calculate(loan).getMonthlyPayments()) {
+                interestAmounts[payment.getMonthNumber()] += payment.getInterestPaymentAmount().unscaledValue().longValue();
+            }
+        }
+
+        return interestAmounts;
+    }
+
+    @Benchmark
+    public PortfolioProjection lockstep() {
+        return portfolioCalculator.project(loans);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.io.ExportFormat;
+import paqua.loan.amortization.io.ScheduleExportWriter;
+import paqua.loan.amortization.utils.factory.ObjectMapperFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the export writer with Jackson serialization of a calculated loan amortization
+ *
+ * The output is discarded. The write* benchmarks measure formatting of an already calculated amortization
+ * (BigDecimal caches its string, so amounts are formatted only once), the calculateAnd* benchmarks measure
+ * the whole export of a loan: the export writer writes rows while the schedule is calculated.
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleExportBenchmark {
+
+    @Param({"360"})
+    private int term;
+
+    @Param({"FIRST_PAYMENT_DATE"})
+    private LoanScenario scenario;
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.create();
+    private final Writer output = new NullWriter();
+
+    private LoanAmortizationCalculator calculator;
+    private Loan loan;
+    private LoanAmortization amortization;
+    private ScheduleExportWriter csvWriter;
+    private ScheduleExportWriter jsonLinesWriter;
+
+    @Setup
+    public void setUp() {
+        calculator = LoanAmortizationCalculatorFactory.create();
+        loan = scenario.create(term);
+        amortization = calculator.calculate(loan);
+        csvWriter = ScheduleExportWriter.create(output, ExportFormat.CSV);
+        jsonLinesWriter = ScheduleExportWriter.create(output, ExportFormat.JSON_LINES);
+    }
+
+    @Benchmark
+    public ScheduleExportWriter writeCsv() throws IOException {
+        csvWriter.writeAll("1234567890", amortization);
+        return csvWriter;
+    }
+
+    @Benchmark
+    public ScheduleExportWriter writeJsonLines() throws IOException {
+        jsonLinesWriter.writeAll("1234567890", amortization);
+        return jsonLinesWriter;
+    }
+
+    @Benchmark
+    public Writer writeJackson() throws IOException {
+        objectMapper.writeValue(output, amortization);
+        return output;
+    }
+
+    @Benchmark
+    public ScheduleExportWriter calculateAndWriteCsv() throws IOException {
+        csvWriter.writeAll("1234567890", calculator.iterate(loan));
+        return csvWriter;
+    }
+
+    @Benchmark
+    public Writer calculateAndWriteJackson() throws IOException {
+        objectMapper.writeValue(output, calculator.calculate(loan));
+        return output;
+    }
+
+    /**
+     * Writer that discards everything
+     */
+    private static final class NullWriter extends Writer {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.io.BinaryReader;
+import paqua.loan.amortization.io.BinaryWriter;
+import paqua.loan.amortization.utils.factory.ObjectMapperFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary format with Java serialization and Jackson JSON for a calculated loan amortization
+ *
+ * Sizes of the encoded amortization are reported by the write benchmarks as a secondary result ({@link EncodedSize}).
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"12", "360"})
+    private int term;
+
+    @Param({"PLAIN", "TO_END_DECREASE_TERM", "FIRST_PAYMENT_DATE"})
+    private LoanScenario scenario;
+
+    private final BinaryWriter binaryWriter = new BinaryWriter();
+    private final BinaryReader binaryReader = new BinaryReader();
+    private final ObjectMapper objectMapper = ObjectMapperFactory.create();
+
+    private LoanAmortization amortization;
+    private ByteBuffer buffer;
+    private byte[] binary;
+    private byte[] serialized;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        amortization = LoanAmortizationCalculatorFactory.create().calculate(scenario.create(term));
+
+        buffer = ByteBuffer.allocate(1024 * 1024);
+        binary = binaryWriter.toByteArray(amortization);
+        serialized = serialize();
+        json = objectMapper.writeValueAsBytes(amortization);
+    }
+
+    @Benchmark
+    public ByteBuffer writeBinary(EncodedSize size) {
+        buffer.clear();
+        binaryWriter.write(amortization, buffer);
+        size.bytes = buffer.position();
+        return buffer;
+    }
+
+    @Benchmark
+    public LoanAmortization readBinary() {
+        return binaryReader.readLoanAmortization(ByteBuffer.wrap(binary));
+    }
+
+    @Benchmark
+    public byte[] writeJavaSerialization(EncodedSize size) throws IOException {
+        final byte[] bytes = serialize();
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object readJavaSerialization() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return input.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] writeJson(EncodedSize size) throws IOException {
+        final byte[] bytes = objectMapper.writeValueAsBytes(amortization);
+        size.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public LoanAmortization readJson() throws IOException {
+        return objectMapper.readValue(json, LoanAmortization.class);
+    }
+
+    /**
+     * Size of the encoded amortization in bytes (counters are reset by JMH before every iteration,
+     * so the size is set by the benchmark)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSize {
+        public long bytes;
+    }
+
+    private byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(amortization);
+        }
+        return bytes.toByteArray();
+    }
+}
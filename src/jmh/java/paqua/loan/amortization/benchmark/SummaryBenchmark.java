@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationSummary;
+import paqua.loan.amortization.dto.LoanPayoff;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the full calculation with the summary-only calculation and the payoff solver of the same loan
+ *
+ * Run it with the gc profiler (enabled by default in the benchmark profile):
+ * the difference in gc.alloc.rate.norm is the cost of building monthly payments.
+ *
+ * @author Artyom Panfutov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryBenchmark {
+
+    @Param({"12", "360"})
+    private int term;
+
+    @Param({"PLAIN", "DECREASE_TERM"})
+    private LoanScenario scenario;
+
+    private LoanAmortizationCalculator calculator;
+    private Loan loan;
+
+    @Setup
+    public void setUp() {
+        calculator = LoanAmortizationCalculatorFactory.create();
+        loan = scenario.create(term);
+    }
+
+    @Benchmark
+    public LoanAmortization calculate() {
+        return calculator.calculate(loan);
+    }
+
+    @Benchmark
+    public LoanAmortizationSummary summarize() {
+        return calculator.summarize(loan);
+    }
+
+    @Benchmark
+    public LoanPayoff solvePayoff() {
+        return calculator.solvePayoff(loan);
+    }
+}
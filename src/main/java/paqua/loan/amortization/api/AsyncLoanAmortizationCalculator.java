@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous loan amortization calculator
+ *
+ * Calculations are never run in the calling thread: a returned future is completed in a thread of the calculator.
+ * Cancellation of a future that is not started yet releases its place in the queue, the result of a started
+ * calculation is discarded.
+ *
+ * @author Artyom Panfutov
+ */
+public interface AsyncLoanAmortizationCalculator extends AutoCloseable {
+
+    /**
+     * Calculates loan amortization asynchronously
+     *
+     * @param loan loan attributes
+     * @return future of the calculated loan amortization
+     */
+    CompletableFuture<LoanAmortization> calculateAsync(Loan loan);
+
+    /**
+     * Calculates loan amortization asynchronously with a timeout
+     *
+     * The timeout includes the time in the queue. The future is completed
+     * with {@link java.util.concurrent.TimeoutException} when the timeout elapses.
+     *
+     * @param loan loan attributes
+     * @param timeout timeout of the calculation
+     * @param unit unit of the timeout
+     * @return future of the calculated loan amortization
+     */
+    CompletableFuture<LoanAmortization> calculateAsync(Loan loan, long timeout, TimeUnit unit);
+
+    /**
+     * Calculates loan amortization for every loan asynchronously
+     *
+     * A {@link paqua.loan.amortization.exception.LoanAmortizationCalculatorException} thrown for a loan
+     * is returned as the result of this loan. Cancellation of the returned future cancels the calculations of all loans.
+     *
+     * @param loans loans to calculate
+     * @return future of the results in the order of the input loans
+     */
+    CompletableFuture<List<LoanAmortizationResult>> calculateAllAsync(Collection<Loan> loans);
+
+    /**
+     * Calculates loan amortization for every loan asynchronously with a timeout for every loan
+     *
+     * The returned future is completed with {@link java.util.concurrent.TimeoutException} when a loan is not calculated in time.
+     *
+     * @param loans loans to calculate
+     * @param timeout timeout of the calculation of a loan
+     * @param unit unit of the timeout
+     * @return future of the results in the order of the input loans
+     */
+    CompletableFuture<List<LoanAmortizationResult>> calculateAllAsync(Collection<Loan> loans, long timeout, TimeUnit unit);
+
+    /**
+     * Shuts down the executor created by the calculator (an executor passed to the calculator is not shut down)
+     */
+    @Override
+    void close();
+}
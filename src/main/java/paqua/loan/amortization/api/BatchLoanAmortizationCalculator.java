@@ -0,0 +1,50 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Loan amortization calculator for batches of loans
+ *
+ * @author Artyom Panfutov
+ */
+public interface BatchLoanAmortizationCalculator {
+
+    /**
+     * Calculates loan amortization for every loan of the batch
+     *
+     * A {@link paqua.loan.amortization.exception.LoanAmortizationCalculatorException} thrown for a loan
+     * does not stop the calculation of the batch: it is returned as the result of this loan.
+     *
+     * @param loans loans to calculate
+     * @return results of the calculation in the order of the input loans
+     */
+    List<LoanAmortizationResult> calculateAll(Collection<Loan> loans);
+}
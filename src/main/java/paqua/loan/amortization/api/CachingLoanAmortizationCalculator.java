@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+/**
+ * Loan amortization calculator that keeps calculated amortizations of recently calculated loans
+ *
+ * @author Artyom Panfutov
+ */
+public interface CachingLoanAmortizationCalculator extends LoanAmortizationCalculator {
+
+    /**
+     * @return Number of calculations served from the cache
+     */
+    long getHitCount();
+
+    /**
+     * @return Number of calculations that were not found in the cache
+     */
+    long getMissCount();
+
+    /**
+     * @return Number of amortizations evicted from the cache because it reached its maximum size
+     */
+    long getEvictionCount();
+
+    /**
+     * @return Current number of amortizations in the cache
+     */
+    int size();
+
+    /**
+     * Removes all amortizations from the cache (counters are not reset)
+     */
+    void clear();
+}
@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+/**
+ * Receives metrics of calculations (e.g. to publish them to a metrics registry)
+ *
+ * All methods do nothing by default, so an implementation overrides only the metrics it is interested in.
+ * Methods are called in the thread of the calculation, they must be cheap and must not throw exceptions.
+ *
+ * @author Artyom Panfutov
+ */
+public interface CalculationMetrics {
+
+    /**
+     * Metrics that ignore all values
+     */
+    CalculationMetrics NOOP = new CalculationMetrics() {
+    };
+
+    /**
+     * Records duration of a calculation of a loan (including validation and applying of early payments)
+     *
+     * @param durationNanos duration in nanoseconds
+     */
+    default void recordLatency(long durationNanos) {
+    }
+
+    /**
+     * Records term of a calculated loan
+     *
+     * @param term term in months
+     */
+    default void recordTerm(int term) {
+    }
+
+    /**
+     * Records number of early payments of a calculated loan after applying the repeating strategy
+     *
+     * @param numberOfEarlyPayments number of months with an early payment
+     */
+    default void recordEarlyPayments(int numberOfEarlyPayments) {
+    }
+
+    /**
+     * Records a schedule that is finished before the end of the term because the loan is paid off by early payments
+     *
+     * @param term term of the loan in months
+     * @param numberOfPayments actual number of payments in the schedule
+     */
+    default void recordEarlyTermination(int term, int numberOfPayments) {
+    }
+
+    /**
+     * Records a loan that failed the validation
+     *
+     * @param message reason of the failure (the message of the thrown exception)
+     */
+    default void recordValidationFailure(String message) {
+    }
+}
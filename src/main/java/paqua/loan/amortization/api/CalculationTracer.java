@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Receives events of a calculation (opt-in tracing)
+ *
+ * All methods do nothing by default, so an implementation overrides only the events it is interested in.
+ * Arguments are values that the calculator has already calculated: a disabled tracer ({@link #NOOP}) costs nothing.
+ * Methods are called in the thread of the calculation and must not throw exceptions.
+ *
+ * @author Artyom Panfutov
+ */
+public interface CalculationTracer {
+
+    /**
+     * Tracer that ignores all events
+     */
+    CalculationTracer NOOP = new CalculationTracer() {
+    };
+
+    /**
+     * Called when a calculation of a loan is started (before the validation)
+     *
+     * @param loan input loan
+     */
+    default void onCalculationStarted(Loan loan) {
+    }
+
+    /**
+     * Called when the repeating strategy of early payments is applied
+     *
+     * @param earlyPayments early payments of the schedule (key: number of payment)
+     */
+    default void onEarlyPaymentsApplied(Map<Integer, EarlyPayment> earlyPayments) {
+    }
+
+    /**
+     * Called when the monthly payment amount is calculated:
+     * at the beginning of the schedule and after every early payment with decrease monthly payment strategy
+     *
+     * @param paymentNumber number of the first payment with this amount
+     * @param loanBalanceAmount loan balance the amount is calculated for
+     * @param term number of remaining payments
+     * @param monthlyPaymentAmount calculated monthly payment amount
+     */
+    default void onMonthlyPaymentAmountCalculated(int paymentNumber, BigDecimal loanBalanceAmount, int term, BigDecimal monthlyPaymentAmount) {
+    }
+
+    /**
+     * Called when the day of month of the first payment does not exist in a month,
+     * so the last day of the month is used instead
+     *
+     * @param paymentNumber number of the payment
+     * @param paymentDate adjusted payment date
+     */
+    default void onPaymentDateAdjusted(int paymentNumber, LocalDate paymentDate) {
+    }
+
+    /**
+     * Called when the loan is paid off before the end of the term (because of early payments)
+     *
+     * @param lastPaymentNumber number of the last payment
+     */
+    default void onScheduleTerminated(int lastPaymentNumber) {
+    }
+
+    /**
+     * Called when the schedule is finished
+     *
+     * @param numberOfPayments number of payments in the schedule
+     * @param overPaymentAmount total amount of overpayment of interests
+     */
+    default void onScheduleFinished(int numberOfPayments, BigDecimal overPaymentAmount) {
+    }
+}
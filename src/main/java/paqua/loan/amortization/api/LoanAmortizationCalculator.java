@@ -26,6 +26,8 @@ package paqua.loan.amortization.api;
 
 import paqua.loan.amortization.dto.Loan;
 import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationSummary;
+import paqua.loan.amortization.dto.LoanPayoff;
 
 /**
  * Loan amortization calculator
@@ -41,4 +43,74 @@ public interface LoanAmortizationCalculator {
      * @return calculated loan amortization
      */
     LoanAmortization calculate(Loan loan);
+
+    /**
+     * Calculates loan amortization producing monthly payments one by one
+     *
+     * The default implementation calculates the whole amortization and iterates through it.
+     * Implementations that are able to calculate the schedule while it is iterated override this method.
+     *
+     * @param loan loan attributes
+     * @return iterator over the monthly payments of the loan amortization
+     */
+    default LoanAmortizationIterator iterate(Loan loan) {
+        return new MaterializedLoanAmortizationIterator(calculate(loan));
+    }
+
+    /**
+     * Calculates totals of loan amortization without the list of monthly payments
+     *
+     * The default implementation calculates the whole amortization and summarizes it.
+     * Implementations that are able to calculate totals without building monthly payments override this method.
+     *
+     * @param loan loan attributes
+     * @return calculated loan amortization summary
+     */
+    default LoanAmortizationSummary summarize(Loan loan) {
+        return LoanAmortizationSummary.of(calculate(loan));
+    }
+
+    /**
+     * Calculates the payoff of loan amortization: the number and the amount of the last payment and the total interest
+     *
+     * The default implementation calculates the whole amortization and takes its last payment.
+     * Implementations that are able to solve the payoff without the schedule override this method.
+     *
+     * @param loan loan attributes
+     * @return calculated loan payoff
+     */
+    default LoanPayoff solvePayoff(Loan loan) {
+        return LoanPayoff.of(calculate(loan));
+    }
+
+    /**
+     * Recalculates loan amortization after early payments of the loan are added, changed or removed
+     *
+     * Monthly payments of the previous amortization may be reused only if the previous loan has the same amount, rate,
+     * term and first payment date as the loan, otherwise the whole amortization is calculated.
+     * The result is the same as the result of {@link #calculate(Loan)}.
+     * The default implementation calculates the whole amortization.
+     * Implementations that are able to reuse the monthly payments before the first changed early payment override this method.
+     *
+     * @param previousLoan loan attributes the previous amortization is calculated for
+     * @param previous previously calculated loan amortization
+     * @param loan loan attributes with changed early payments
+     * @return calculated loan amortization
+     */
+    default LoanAmortization recalculate(Loan previousLoan, LoanAmortization previous, Loan loan) {
+        return calculate(loan);
+    }
+
+    /**
+     * Compiles a loan template for repeated calculation with different amounts, rates and first payment dates
+     *
+     * The default implementation calculates the loan built from the template on every call of the plan.
+     * Implementations that are able to validate the template and to apply early payment strategies once override this method.
+     *
+     * @param template loan attributes (the term and the early payments are fixed in the plan)
+     * @return compiled loan amortization plan
+     */
+    default LoanAmortizationPlan compile(Loan template) {
+        return new TemplateLoanAmortizationPlan(this, template);
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.MonthlyPayment;
+
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Loan amortization that produces monthly payments one by one
+ *
+ * The schedule is calculated while it is iterated, so the whole list of monthly payments is not kept in memory.
+ * Totals of the schedule are complete once the iteration is finished.
+ *
+ * @author Artyom Panfutov
+ */
+public interface LoanAmortizationIterator extends Iterator<MonthlyPayment> {
+
+    /**
+     * @return Amount of calculated monthly payment
+     */
+    BigDecimal getMonthlyPaymentAmount();
+
+    /**
+     * Total amount of overpayment of interests of the monthly payments that have been iterated
+     *
+     * @return Total amount of overpayment of interests (complete once the iteration is finished)
+     */
+    BigDecimal getOverPaymentAmount();
+
+    /**
+     * Key: number of payment in payment schedule (starts with 0)
+     * Value: early payment data(amount, strategy)
+     *
+     * @return Early payments (additional payments to monthly payments)
+     */
+    Map<Integer, EarlyPayment> getEarlyPayments();
+
+    /**
+     * Returns the remaining monthly payments as a sequential stream
+     *
+     * @return stream of monthly payments
+     */
+    default Stream<MonthlyPayment> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+}
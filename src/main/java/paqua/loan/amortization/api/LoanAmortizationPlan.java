@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Loan template that is compiled for repeated calculation
+ *
+ * The term and the early payments of the template are fixed in the plan, while the amount, the rate and the first payment date
+ * can be given on every calculation. Implementations are immutable and thread-safe.
+ *
+ * @author Artyom Panfutov
+ */
+public interface LoanAmortizationPlan {
+
+    /**
+     * @return loan template of the plan
+     */
+    Loan getTemplate();
+
+    /**
+     * Calculates loan amortization of the template with another amount
+     *
+     * @param amount loan amount
+     * @return calculated loan amortization
+     */
+    default LoanAmortization calculate(BigDecimal amount) {
+        return calculate(amount, getTemplate().getRate(), getTemplate().getFirstPaymentDate());
+    }
+
+    /**
+     * Calculates loan amortization of the template with another amount, rate and first payment date
+     *
+     * @param amount loan amount
+     * @param rate interest rate
+     * @param firstPaymentDate first payment date (null if interest is not calculated by days)
+     * @return calculated loan amortization
+     */
+    LoanAmortization calculate(BigDecimal amount, BigDecimal rate, LocalDate firstPaymentDate);
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Reusable context of the calculation of loan amortization for hot paths
+ *
+ * The context keeps the schedule in preallocated primitive buffers (amounts in cents, dates in epoch days)
+ * that are reused by the next calculation, so a calculation of a loan that is set by {@link #loan(long, BigDecimal, int, LocalDate)}
+ * and {@link #earlyPayment(int, long, EarlyPaymentStrategy)} allocates nothing once the buffers have grown to the term
+ * and the rate has been seen by the context. The results are equal to the results of the reference calculator.
+ *
+ * The context is mutable and not thread-safe: it must be confined to a thread (e.g. kept in a {@link ThreadLocal}).
+ *
+ * @author Artyom Panfutov
+ */
+public interface LoanCalculationContext {
+
+    /**
+     * Payment date of a loan without the first payment date
+     */
+    long NO_DATE = Long.MIN_VALUE;
+
+    /**
+     * Sets the loan to calculate and clears the early payments of the previous loan
+     *
+     * @param amountCents loan amount in cents
+     * @param rate annual interest rate
+     * @param term loan term in months
+     * @param firstPaymentDate first payment date (null if interest is not calculated by days)
+     * @return this context
+     */
+    LoanCalculationContext loan(long amountCents, BigDecimal rate, int term, LocalDate firstPaymentDate);
+
+    /**
+     * Sets a single early payment of the loan (replaces the early payment of the same month)
+     *
+     * @param monthNumber number of the payment (starts with 0)
+     * @param amountCents early payment amount in cents
+     * @param strategy early payment strategy
+     * @return this context
+     */
+    LoanCalculationContext earlyPayment(int monthNumber, long amountCents, EarlyPaymentStrategy strategy);
+
+    /**
+     * Calculates the schedule of the loan that is set in the context
+     *
+     * @return number of monthly payments
+     */
+    int calculate();
+
+    /**
+     * Sets the loan (early payments are implemented by their repeating strategy) and calculates its schedule
+     *
+     * This is a convenience for callers that have {@link Loan}, it allocates the expanded early payments.
+     *
+     * @param loan loan attributes (amounts in whole cents)
+     * @return number of monthly payments
+     */
+    int calculate(Loan loan);
+
+    /**
+     * @return Number of monthly payments of the last calculation
+     */
+    int getNumberOfPayments();
+
+    /**
+     * @return Amount of the initial monthly payment in cents
+     */
+    long getMonthlyPaymentAmount();
+
+    /**
+     * @return Total amount of interests in cents
+     */
+    long getOverPaymentAmount();
+
+    /**
+     * @param index number of the monthly payment
+     * @return Interest amount of the monthly payment in cents
+     */
+    long getInterestPaymentAmount(int index);
+
+    /**
+     * @param index number of the monthly payment
+     * @return Principal (debt) amount of the monthly payment in cents
+     */
+    long getDebtPaymentAmount(int index);
+
+    /**
+     * @param index number of the monthly payment
+     * @return Total amount of the monthly payment in cents
+     */
+    long getPaymentAmount(int index);
+
+    /**
+     * @param index number of the monthly payment
+     * @return Loan balance before the monthly payment in cents
+     */
+    long getLoanBalanceAmount(int index);
+
+    /**
+     * @param index number of the monthly payment
+     * @return Early payment amount of the monthly payment in cents
+     */
+    long getAdditionalPaymentAmount(int index);
+
+    /**
+     * @param index number of the monthly payment
+     * @return Payment date in epoch days or {@link #NO_DATE}
+     */
+    long getPaymentDate(int index);
+
+    /**
+     * Copies the result of the last calculation to a new loan amortization (allocates)
+     *
+     * Amounts have scale 2, so the result is equal to the result of the reference calculator for a loan with amounts of scale 2.
+     *
+     * @return loan amortization
+     */
+    LoanAmortization toLoanAmortization();
+}
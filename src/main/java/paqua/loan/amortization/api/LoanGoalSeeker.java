@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+
+import java.math.BigDecimal;
+
+/**
+ * Solves loan parameters for a goal: the loan is paid off in a number of payments or the monthly payment doesn't exceed an amount
+ *
+ * A goal seeker gives the same answer as a search that calculates the loan amortization for every candidate,
+ * but it evaluates only the balance of the loan, stops as soon as the goal is decided and needs only a few evaluations.
+ *
+ * @author Artyom Panfutov
+ */
+public interface LoanGoalSeeker {
+
+    /**
+     * Solves the minimal extra monthly payment that pays the loan off in the number of payments
+     *
+     * The extra payment is an early payment with {@link EarlyPaymentStrategy#DECREASE_TERM} strategy
+     * and {@link EarlyPaymentRepeatingStrategy#TO_END} repeating strategy made from the month.
+     * Single early payments of the loan are taken into account, single early payments made from the month are replaced
+     * by the extra payment (as a repeated early payment replaces them in the amortization).
+     * Loans with repeating early payments are not supported.
+     *
+     * @param loan loan attributes
+     * @param fromMonthNumber number of the month of the first extra payment
+     * @param numberOfPayments number of monthly payments in which the loan must be paid off
+     * @return minimal extra monthly payment in cents (zero if the loan is paid off without it)
+     */
+    BigDecimal solveExtraPayment(Loan loan, int fromMonthNumber, int numberOfPayments);
+
+    /**
+     * Solves the maximal interest rate at which the monthly payment of the loan doesn't exceed the amount
+     *
+     * The rate of the loan is ignored, early payments don't affect the monthly payment and are ignored too.
+     *
+     * @param loan loan attributes
+     * @param monthlyPaymentAmount maximal monthly payment amount
+     * @return maximal interest rate with 4 decimal places
+     */
+    BigDecimal solveRate(Loan loan, BigDecimal monthlyPaymentAmount);
+
+    /**
+     * Solves the maximal loan amount at which the monthly payment of the loan doesn't exceed the amount
+     *
+     * The amount of the loan is ignored, early payments don't affect the monthly payment and are ignored too.
+     *
+     * @param loan loan attributes
+     * @param monthlyPaymentAmount maximal monthly payment amount
+     * @return maximal loan amount in cents
+     */
+    BigDecimal solvePrincipal(Loan loan, BigDecimal monthlyPaymentAmount);
+}
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api;
+
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Plan that calculates a loan built from the template on every call
+ *
+ * Used by calculators that cannot compile a loan template
+ *
+ * @author Artyom Panfutov
+ */
+final class TemplateLoanAmortizationPlan implements LoanAmortizationPlan {
+    private final LoanAmortizationCalculator calculator;
+    private final Loan template;
+
+    TemplateLoanAmortizationPlan(LoanAmortizationCalculator calculator, Loan template) {
+        this.calculator = calculator;
+        this.template = template;
+    }
+
+    @Override
+    public Loan getTemplate() {
+        return template;
+    }
+
+    @Override
+    public LoanAmortization calculate(BigDecimal amount, BigDecimal rate, LocalDate firstPaymentDate) {
+        return calculator.calculate(Loan.builder()
+                .amount(amount)
+                .rate(rate)
+                .term(template.getTerm())
+                .earlyPayments(template.getEarlyPayments())
+                .firstPaymentDate(firstPaymentDate)
+                .build());
+    }
+}
@@ -24,7 +24,13 @@
  */
 package paqua.loan.amortization.api.impl;
 
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.CalculationTracer;
 import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.annual.AnnualPaymentLoanCalculatorFactory;
+import paqua.loan.amortization.api.impl.annual.AnnuityFactorTable;
+
+import java.util.Objects;
 
 /**
  * Represents a factory for the loan calculator implementation
@@ -44,4 +50,111 @@ public final class LoanAmortizationCalculatorFactory {
     public static LoanAmortizationCalculator create() {
         return new LoanAmortizationCalculatorImpl();
     }
+
+    /**
+     * Creates a new instance of {@link LoanAmortizationCalculatorImpl} that takes annuity factors from the table
+     *
+     * The result is the same as the result of {@link #create()}: factors that are missing in the table are calculated
+     *
+     * @param annuityFactorTable precomputed annuity factors
+     * @return new calculator instance {@link LoanAmortizationCalculatorImpl}
+     */
+    public static LoanAmortizationCalculator create(AnnuityFactorTable annuityFactorTable) {
+        return builder()
+                .annuityFactorTable(annuityFactorTable)
+                .build();
+    }
+
+    /**
+     * Creates a new instance of {@link LoanAmortizationCalculatorImpl} with the fast-path calculation engine
+     *
+     * The fast-path engine works with long cents and unscaled long rates instead of {@link java.math.BigDecimal}
+     * in the monthly loop. The result is the same as the result of {@link #create()}.
+     *
+     * @return new calculator instance {@link LoanAmortizationCalculatorImpl}
+     */
+    public static LoanAmortizationCalculator createFast() {
+        return new LoanAmortizationCalculatorImpl(AnnualPaymentLoanCalculatorFactory.createFast());
+    }
+
+    /**
+     * Creates a builder of {@link LoanAmortizationCalculatorImpl} with optional settings
+     *
+     * @return calculator builder
+     */
+    public static LoanAmortizationCalculatorBuilder builder() {
+        return new LoanAmortizationCalculatorBuilder();
+    }
+
+    /**
+     * Builder for {@link LoanAmortizationCalculatorImpl}
+     */
+    public static final class LoanAmortizationCalculatorBuilder {
+        private AnnuityFactorTable annuityFactorTable = AnnuityFactorTable.empty();
+        private CalculationTracer tracer = CalculationTracer.NOOP;
+        private CalculationMetrics metrics = CalculationMetrics.NOOP;
+        private boolean columnar;
+
+        private LoanAmortizationCalculatorBuilder() {
+        }
+
+        /**
+         * Sets precomputed annuity factors
+         *
+         * @param annuityFactorTable precomputed annuity factors
+         * @return calculator builder
+         */
+        public LoanAmortizationCalculatorBuilder annuityFactorTable(AnnuityFactorTable annuityFactorTable) {
+            this.annuityFactorTable = Objects.requireNonNull(annuityFactorTable);
+            return this;
+        }
+
+        /**
+         * Sets receiver of calculation events (disabled by default)
+         *
+         * @param tracer receiver of calculation events
+         * @return calculator builder
+         */
+        public LoanAmortizationCalculatorBuilder tracer(CalculationTracer tracer) {
+            this.tracer = Objects.requireNonNull(tracer);
+            return this;
+        }
+
+        /**
+         * Sets receiver of calculation metrics (disabled by default)
+         *
+         * @param metrics receiver of calculation metrics
+         * @return calculator builder
+         */
+        public LoanAmortizationCalculatorBuilder metrics(CalculationMetrics metrics) {
+            this.metrics = Objects.requireNonNull(metrics);
+            return this;
+        }
+
+        /**
+         * Enables compact storage of monthly payments (disabled by default)
+         *
+         * Monthly payments are stored in primitive arrays of {@link paqua.loan.amortization.dto.ColumnarMonthlyPayments}
+         * and monthly payment objects are created on access
+         *
+         * @param columnar store monthly payments in primitive arrays
+         * @return calculator builder
+         */
+        public LoanAmortizationCalculatorBuilder columnar(boolean columnar) {
+            this.columnar = columnar;
+            return this;
+        }
+
+        /**
+         * Builds a new calculator
+         *
+         * @return new calculator instance {@link LoanAmortizationCalculatorImpl}
+         */
+        public LoanAmortizationCalculator build() {
+            return new LoanAmortizationCalculatorImpl(
+                    AnnualPaymentLoanCalculatorFactory.create(annuityFactorTable, tracer, metrics, columnar),
+                    tracer,
+                    metrics);
+        }
+    }
 }
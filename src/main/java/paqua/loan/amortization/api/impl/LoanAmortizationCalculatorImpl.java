@@ -24,23 +24,27 @@
  */
 package paqua.loan.amortization.api.impl;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.CalculationTracer;
 import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationIterator;
+import paqua.loan.amortization.api.LoanAmortizationPlan;
 import paqua.loan.amortization.api.impl.annual.AnnualPaymentLoanCalculatorFactory;
 import paqua.loan.amortization.api.impl.message.Messages;
 import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentSchedule;
 import paqua.loan.amortization.exception.ExceptionType;
 import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
 import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
 import paqua.loan.amortization.dto.Loan;
 import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationSummary;
+import paqua.loan.amortization.dto.LoanPayoff;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.time.LocalDate;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * The implementation of loan amortization calculator
@@ -50,8 +54,34 @@ import java.util.stream.Collectors;
  * @author Artyom Panfutov
  */
 class LoanAmortizationCalculatorImpl implements LoanAmortizationCalculator {
-    private static final Logger LOGGER = LoggerFactory.getLogger(LoanAmortizationCalculatorImpl.class);
-    private static final LoanAmortizationCalculator ANNUAL_PAYMENT_LOAN_AMORTIZATION_CALCULATOR = AnnualPaymentLoanCalculatorFactory.create();
+    /**
+     * Calculator that does the actual calculation of the schedule
+     */
+    private final LoanAmortizationCalculator annualPaymentLoanCalculator;
+
+    /**
+     * Receiver of calculation events
+     */
+    private final CalculationTracer tracer;
+
+    /**
+     * Receiver of calculation metrics
+     */
+    private final CalculationMetrics metrics;
+
+    LoanAmortizationCalculatorImpl() {
+        this(AnnualPaymentLoanCalculatorFactory.create());
+    }
+
+    LoanAmortizationCalculatorImpl(LoanAmortizationCalculator annualPaymentLoanCalculator) {
+        this(annualPaymentLoanCalculator, CalculationTracer.NOOP, CalculationMetrics.NOOP);
+    }
+
+    LoanAmortizationCalculatorImpl(LoanAmortizationCalculator annualPaymentLoanCalculator, CalculationTracer tracer, CalculationMetrics metrics) {
+        this.annualPaymentLoanCalculator = annualPaymentLoanCalculator;
+        this.tracer = tracer;
+        this.metrics = metrics;
+    }
 
     /**
      * Calculates annual loan amortization schedule
@@ -60,40 +90,115 @@ class LoanAmortizationCalculatorImpl implements LoanAmortizationCalculator {
      */
     @Override
     public LoanAmortization calculate(Loan inputLoan) {
+        final long startTime = System.nanoTime();
         validate(inputLoan);
 
-        return ANNUAL_PAYMENT_LOAN_AMORTIZATION_CALCULATOR.calculate(
+        final LoanAmortization amortization = annualPaymentLoanCalculator.calculate(
                 getLoanWithImplementedEarlyPaymentStrategy(inputLoan)
         );
+
+        metrics.recordLatency(System.nanoTime() - startTime);
+        return amortization;
+    }
+
+    /**
+     * Calculates annual loan amortization schedule producing monthly payments one by one
+     *
+     * @return Iterator over the calculated loan amortization schedule {@link LoanAmortizationIterator}
+     */
+    @Override
+    public LoanAmortizationIterator iterate(Loan inputLoan) {
+        validate(inputLoan);
+
+        return annualPaymentLoanCalculator.iterate(
+                getLoanWithImplementedEarlyPaymentStrategy(inputLoan)
+        );
+    }
+
+    /**
+     * Calculates totals of annual loan amortization schedule without the list of monthly payments
+     *
+     * @return Calculated loan amortization summary {@link LoanAmortizationSummary}
+     */
+    @Override
+    public LoanAmortizationSummary summarize(Loan inputLoan) {
+        final long startTime = System.nanoTime();
+        validate(inputLoan);
+
+        final LoanAmortizationSummary summary = annualPaymentLoanCalculator.summarize(
+                getLoanWithImplementedEarlyPaymentStrategy(inputLoan)
+        );
+
+        metrics.recordLatency(System.nanoTime() - startTime);
+        return summary;
+    }
+
+    /**
+     * Calculates the payoff of annual loan amortization schedule
+     *
+     * @return Calculated loan payoff {@link LoanPayoff}
+     */
+    @Override
+    public LoanPayoff solvePayoff(Loan inputLoan) {
+        final long startTime = System.nanoTime();
+        validate(inputLoan);
+
+        final LoanPayoff payoff = annualPaymentLoanCalculator.solvePayoff(
+                getLoanWithImplementedEarlyPaymentStrategy(inputLoan)
+        );
+
+        metrics.recordLatency(System.nanoTime() - startTime);
+        return payoff;
+    }
+
+    /**
+     * Recalculates annual loan amortization schedule after early payments of the loan are changed
+     *
+     * @return Calculated loan amortization schedule {@link LoanAmortization}
+     */
+    @Override
+    public LoanAmortization recalculate(Loan previousLoan, LoanAmortization previous, Loan inputLoan) {
+        final long startTime = System.nanoTime();
+        validate(inputLoan);
+
+        if (previousLoan == null || previous == null) {
+            throw fail(Messages.NULL);
+        }
+
+        final LoanAmortization amortization = annualPaymentLoanCalculator.recalculate(
+                previousLoan, previous, getLoanWithImplementedEarlyPaymentStrategy(inputLoan)
+        );
+
+        metrics.recordLatency(System.nanoTime() - startTime);
+        return amortization;
+    }
+
+    /**
+     * Validates the loan template and applies its early payment repeating strategy once
+     *
+     * Early payments of the plan are indexed by the number of payment,
+     * so every calculation of the plan runs only the schedule
+     *
+     * @return Compiled loan amortization plan {@link LoanAmortizationPlan}
+     */
+    @Override
+    public LoanAmortizationPlan compile(Loan template) {
+        validate(template);
+
+        return new CompiledLoanAmortizationPlan(template, EarlyPaymentSchedule.of(template).indexed(template.getTerm()));
     }
 
     /**
      * Implements the first found early payment repeating strategy
      *
      * Iterates through early payments entries and implements first found repeating strategy
-     * @return new loan with filled early payment list (according to a repeating strategy)
+     * @return new loan with early payment schedule (according to a repeating strategy)
      */
     private Loan getLoanWithImplementedEarlyPaymentStrategy(Loan loan) {
-        final Map<Integer, EarlyPayment> allEarlyPayments = new HashMap<>();
+        final EarlyPaymentSchedule allEarlyPayments = EarlyPaymentSchedule.of(loan);
 
-        if (loan.getEarlyPayments() != null) {
-            final Set<Map.Entry<Integer, EarlyPayment>> payments = loan.getEarlyPayments().entrySet();
-
-            allEarlyPayments.putAll(extractOnlySingleEarlyPayments(loan));
-
-            payments.stream()
-                    .filter(p -> p.getValue().getRepeatingStrategy() != EarlyPaymentRepeatingStrategy.SINGLE)
-                    .findFirst()
-                    // If there are more than one early payments with repeating strategy - we ignore them
-                    // This case cannot be supported because it is contradictory - such payments could intersect with each other
-                    .ifPresent(p -> allEarlyPayments.putAll(
-                            p.getValue().getRepeatingStrategy()
-                                    .getRepeated(loan, p.getKey(), p.getValue())
-                            )
-                    );
-        }
+        onEarlyPaymentsApplied(loan.getTerm(), allEarlyPayments);
 
-        LOGGER.debug("After applying repeating strategy: {} ", allEarlyPayments);
         return Loan.builder()
                 .amount(loan.getAmount())
                 .earlyPayments(allEarlyPayments)
@@ -103,56 +208,134 @@ class LoanAmortizationCalculatorImpl implements LoanAmortizationCalculator {
                 .build();
     }
 
-    private void validate(Loan loan) {
-        LOGGER.debug("Validating input. Loan:{} ", loan);
-
-        if (loan == null || loan.getAmount() == null || loan.getRate() == null || loan.getTerm() == null) {
-            throw new LoanAmortizationCalculatorException(
-                    ExceptionType.INPUT_VERIFICATION_EXCEPTION,
-                    Messages.NULL.getMessageText());
-        }
+    private void onEarlyPaymentsApplied(int term, EarlyPaymentSchedule earlyPayments) {
+        tracer.onEarlyPaymentsApplied(earlyPayments);
+        metrics.recordTerm(term);
+        metrics.recordEarlyPayments(earlyPayments.size());
+    }
 
-        if (loan.getAmount().compareTo(BigDecimal.ZERO) <= 0 || loan.getTerm() <= 0 || loan.getRate().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new LoanAmortizationCalculatorException(
-                    ExceptionType.INPUT_VERIFICATION_EXCEPTION,
-                    Messages.NEGATIVE_NUMBER.getMessageText());
-        }
+    private void validate(Loan loan) {
+        tracer.onCalculationStarted(loan);
+        validateAttributes(loan);
 
         if (loan.getEarlyPayments() != null) {
             for (Map.Entry<Integer, EarlyPayment> entry :loan.getEarlyPayments().entrySet()) {
-                if (entry.getKey() == null || entry.getValue() == null) {
-                    throw new LoanAmortizationCalculatorException(
-                            ExceptionType.INPUT_VERIFICATION_EXCEPTION,
-                            Messages.NULL.getMessageText());
+                if (entry.getKey() == null || entry.getValue() == null || entry.getValue().getAmount() == null) {
+                    throw fail(Messages.NULL);
                 }
 
                 if (entry.getKey() < 0) {
-                   throw new LoanAmortizationCalculatorException(
-                           ExceptionType.INPUT_VERIFICATION_EXCEPTION,
-                           Messages.EARLY_PAYMENT_NUMBER_IS_NEGATIVE.getMessageText());
+                    throw fail(Messages.EARLY_PAYMENT_NUMBER_IS_NEGATIVE);
                 }
 
                 if (entry.getValue().getAmount().compareTo(BigDecimal.ZERO) < 0) {
-                    throw new LoanAmortizationCalculatorException(
-                            ExceptionType.INPUT_VERIFICATION_EXCEPTION,
-                            Messages.EARLY_PAYMENT_AMOUNT_IS_NEGATIVE.getMessageText());
+                    throw fail(Messages.EARLY_PAYMENT_AMOUNT_IS_NEGATIVE);
                 }
 
                 if (entry.getValue().getStrategy() == null) {
-                    throw new LoanAmortizationCalculatorException(
-                            ExceptionType.INPUT_VERIFICATION_EXCEPTION,
-                            Messages.EARLY_PAYMENT_STRATEGY_IS_NULL.getMessageText());
+                    throw fail(Messages.EARLY_PAYMENT_STRATEGY_IS_NULL);
+                }
+
+                if (entry.getValue().getRepeatingStrategy() == null) {
+                    throw fail(Messages.EARLY_PAYMENT_REPEATING_STRATEGY_IS_NULL);
+                }
+
+                if (entry.getValue().getRepeatingStrategy() == EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH
+                        && !hasRepeatToMonthNumber(entry.getValue())) {
+                    throw fail(Messages.REPEAT_TO_MONTH_NUMBER_IS_INVALID);
                 }
             }
         }
     }
 
+    private void validateAttributes(Loan loan) {
+        if (loan == null || loan.getAmount() == null || loan.getRate() == null || loan.getTerm() == null) {
+            throw fail(Messages.NULL);
+        }
+
+        if (loan.getAmount().compareTo(BigDecimal.ZERO) <= 0 || loan.getTerm() <= 0 || loan.getRate().compareTo(BigDecimal.ZERO) <= 0) {
+            throw fail(Messages.NEGATIVE_NUMBER);
+        }
+    }
+
+    /**
+     * Checks that the early payment has a month number to repeat to that {@link EarlyPaymentRepeatingStrategy#TO_CERTAIN_MONTH} can parse
+     */
+    private static boolean hasRepeatToMonthNumber(EarlyPayment earlyPayment) {
+        final Map<EarlyPaymentAdditionalParameters, String> parameters = earlyPayment.getAdditionalParameters();
+        if (parameters == null || parameters.get(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER) == null) {
+            return false;
+        }
 
-    private Map<Integer, EarlyPayment> extractOnlySingleEarlyPayments(Loan loan) {
-        return loan.getEarlyPayments().entrySet().stream()
-                .filter(entry -> entry.getValue().getRepeatingStrategy().equals(EarlyPaymentRepeatingStrategy.SINGLE))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        try {
+            Integer.parseInt(parameters.get(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
-}
 
+    /**
+     * Records the validation failure and creates the exception to throw
+     *
+     * @param message reason of the failure
+     * @return exception to throw
+     */
+    private LoanAmortizationCalculatorException fail(Messages message) {
+        metrics.recordValidationFailure(message.getMessageText());
+
+        return new LoanAmortizationCalculatorException(
+                ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                message.getMessageText());
+    }
+
+    /**
+     * Loan template with validated attributes and applied early payment strategy
+     */
+    private final class CompiledLoanAmortizationPlan implements LoanAmortizationPlan {
+        private final Loan template;
+
+        /**
+         * Early payments of the template with applied repeating strategy
+         */
+        private final EarlyPaymentSchedule earlyPayments;
+
+        private CompiledLoanAmortizationPlan(Loan template, EarlyPaymentSchedule earlyPayments) {
+            this.template = template;
+            this.earlyPayments = earlyPayments;
+        }
+
+        @Override
+        public Loan getTemplate() {
+            return template;
+        }
+
+        /**
+         * Calculates annual loan amortization schedule of the template
+         *
+         * Only the amount and the rate are validated, early payments are taken from the plan
+         *
+         * @return Calculated loan amortization schedule {@link LoanAmortization}
+         */
+        @Override
+        public LoanAmortization calculate(BigDecimal amount, BigDecimal rate, LocalDate firstPaymentDate) {
+            final long startTime = System.nanoTime();
+            final Loan loan = Loan.builder()
+                    .amount(amount)
+                    .earlyPayments(earlyPayments)
+                    .rate(rate)
+                    .term(template.getTerm())
+                    .firstPaymentDate(firstPaymentDate)
+                    .build();
+
+            tracer.onCalculationStarted(loan);
+            validateAttributes(loan);
+            onEarlyPaymentsApplied(loan.getTerm(), earlyPayments);
+
+            final LoanAmortization amortization = annualPaymentLoanCalculator.calculate(loan);
 
+            metrics.recordLatency(System.nanoTime() - startTime);
+            return amortization;
+        }
+    }
+}
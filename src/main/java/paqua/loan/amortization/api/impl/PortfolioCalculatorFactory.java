@@ -0,0 +1,51 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl;
+
+import paqua.loan.amortization.api.PortfolioCalculator;
+import paqua.loan.amortization.api.impl.annual.AnnualPaymentLoanCalculatorFactory;
+
+/**
+ * Represents a factory for the portfolio calculator implementation
+ *
+ * @author Artyom Panfutov
+ */
+public final class PortfolioCalculatorFactory {
+    private PortfolioCalculatorFactory() {
+        throw new IllegalStateException("Instantiation of the factory is not allowed");
+    }
+
+    /**
+     * Creates a new instance of the portfolio calculator
+     *
+     * The portfolio is calculated by the fast-path engine: the totals of every loan are equal to the summary
+     * of the schedule calculated by {@link LoanAmortizationCalculatorFactory#createFast()}
+     *
+     * @return new portfolio calculator instance
+     */
+    public static PortfolioCalculator create() {
+        return AnnualPaymentLoanCalculatorFactory.createPortfolio();
+    }
+}
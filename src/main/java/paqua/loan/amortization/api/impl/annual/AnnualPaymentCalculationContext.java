@@ -0,0 +1,513 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import paqua.loan.amortization.api.LoanCalculationContext;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentSchedule;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.chrono.IsoChronology;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static paqua.loan.amortization.api.impl.annual.AnnualPaymentPayoffSolver.MAX_CENTS;
+import static paqua.loan.amortization.api.impl.annual.AnnualPaymentPayoffSolver.NOT_IN_CENTS;
+import static paqua.loan.amortization.api.impl.annual.AnnualPaymentPayoffSolver.RATE_DENOMINATOR;
+import static paqua.loan.amortization.api.impl.annual.AnnualPaymentPayoffSolver.getInterestAmount;
+
+/**
+ * The implementation of the reusable calculation context
+ *
+ * Replays {@link AnnualPaymentSchedule} in long cents: all amounts of the schedule have scale 2 and every product
+ * of an amount and a rate (scale 15) is rounded HALF_UP to cents exactly by {@link AnnualPaymentPayoffSolver#getInterestAmount(long, long)},
+ * so the schedule is equal to the reference one to the cent. Payment dates are advanced as year, month and day numbers.
+ *
+ * Rates are derived with {@link BigDecimal} once per annual rate and cached in the context as unscaled longs:
+ * the monthly rate, the rates by days of month and the annuity factors by the number of remaining payments.
+ * Buffers grow to the longest term and are never shrunk.
+ *
+ * @author Artyom Panfutov
+ */
+final class AnnualPaymentCalculationContext implements LoanCalculationContext {
+    /**
+     * Rates of the cache are dropped when there are more distinct rates
+     */
+    private static final int MAX_CACHED_RATES = 256;
+
+    private static final int MAX_DAYS_IN_MONTH = 31;
+    private static final int DAYS_IN_LEAP_YEAR = 366;
+    private static final long DAYS_0000_TO_1970 = 719_528L;
+
+    private final AnnuityFactorTable annuityFactorTable;
+    private final Map<BigDecimal, InterestRates> cachedRates = new HashMap<>();
+
+    // The loan
+    private long amount;
+    private BigDecimal rate;
+    private InterestRates interestRates;
+    private int term;
+    private LocalDate firstPaymentDate;
+    private long[] earlyPaymentAmounts = new long[0];
+    private EarlyPaymentStrategy[] earlyPaymentStrategies = new EarlyPaymentStrategy[0];
+
+    // The schedule
+    private int numberOfPayments;
+    private long monthlyPaymentAmount;
+    private long overPaymentAmount;
+    private long[] interestPaymentAmounts = new long[0];
+    private long[] debtPaymentAmounts = new long[0];
+    private long[] paymentAmounts = new long[0];
+    private long[] loanBalanceAmounts = new long[0];
+    private long[] additionalPaymentAmounts = new long[0];
+    private long[] paymentDates = new long[0];
+
+    AnnualPaymentCalculationContext(AnnuityFactorTable annuityFactorTable) {
+        this.annuityFactorTable = annuityFactorTable;
+    }
+
+    @Override
+    public LoanCalculationContext loan(long amountCents, BigDecimal rate, int term, LocalDate firstPaymentDate) {
+        if (rate == null) {
+            throw fail(Messages.NULL);
+        }
+
+        if (amountCents <= 0 || term <= 0 || rate.signum() <= 0) {
+            throw fail(Messages.NEGATIVE_NUMBER);
+        }
+
+        if (amountCents >= MAX_CENTS) {
+            throw fail(Messages.AMOUNT_IS_NOT_IN_CENTS);
+        }
+
+        this.interestRates = getInterestRates(rate);
+        this.amount = amountCents;
+        this.rate = rate;
+        this.term = term;
+        this.firstPaymentDate = firstPaymentDate;
+        this.numberOfPayments = 0;
+
+        ensureCapacity(term);
+        Arrays.fill(earlyPaymentStrategies, null);
+
+        return this;
+    }
+
+    @Override
+    public LoanCalculationContext earlyPayment(int monthNumber, long amountCents, EarlyPaymentStrategy strategy) {
+        if (term == 0) {
+            throw fail(Messages.NULL);
+        }
+
+        if (monthNumber < 0) {
+            throw fail(Messages.EARLY_PAYMENT_NUMBER_IS_NEGATIVE);
+        }
+
+        if (amountCents < 0) {
+            throw fail(Messages.EARLY_PAYMENT_AMOUNT_IS_NEGATIVE);
+        }
+
+        if (amountCents >= MAX_CENTS) {
+            throw fail(Messages.AMOUNT_IS_NOT_IN_CENTS);
+        }
+
+        if (strategy == null) {
+            throw fail(Messages.EARLY_PAYMENT_STRATEGY_IS_NULL);
+        }
+
+        // Early payments after the term don't change the schedule
+        if (monthNumber < term) {
+            earlyPaymentAmounts[monthNumber] = amountCents;
+            earlyPaymentStrategies[monthNumber] = strategy;
+        }
+
+        return this;
+    }
+
+    @Override
+    public int calculate() {
+        if (term == 0) {
+            throw fail(Messages.NULL);
+        }
+
+        final InterestRates rates = interestRates;
+        final boolean dated = firstPaymentDate != null;
+        final int dayOfMonth = dated ? firstPaymentDate.getDayOfMonth() : 0;
+        int year = dated ? firstPaymentDate.getYear() : 0;
+        int month = dated ? firstPaymentDate.getMonthValue() : 0;
+        int day = dayOfMonth;
+
+        long loanBalance = amount;
+        long payment = getMonthlyPaymentAmount(rates, loanBalance, term);
+        long overPaidInterestAmount = 0;
+        long decreaseTermPaymentsAmount = 0;
+        int count = 0;
+
+        monthlyPaymentAmount = payment;
+
+        for (int i = 0; i < term; i++) {
+            // If the balance gets negative, the loan is paid off by the previous payment - we correct the amount of it
+            if (loanBalance < 0) {
+                final int last = i - 1;
+
+                paymentAmounts[last] = loanBalanceAmounts[last] + interestPaymentAmounts[last];
+                debtPaymentAmounts[last] = loanBalanceAmounts[last];
+                paymentDates[last] = dated ? toEpochDay(year, month, day) : NO_DATE;
+                break;
+            }
+
+            if (loanBalance >= MAX_CENTS) {
+                throw fail(Messages.AMOUNT_IS_NOT_IN_CENTS);
+            }
+
+            final long interest = getInterestAmount(loanBalance, dated ? rates.getRateByDays(year, month) : rates.monthlyRate);
+            overPaidInterestAmount += interest;
+
+            final EarlyPaymentStrategy strategy = earlyPaymentStrategies[i];
+            final long additional = strategy != null ? earlyPaymentAmounts[i] : 0;
+            final long principal = i + 1 == term ? loanBalance : payment - interest + additional;
+
+            interestPaymentAmounts[i] = interest;
+            debtPaymentAmounts[i] = principal;
+            paymentAmounts[i] = interest + principal;
+            loanBalanceAmounts[i] = loanBalance;
+            additionalPaymentAmounts[i] = additional;
+            paymentDates[i] = dated ? toEpochDay(year, month, day) : NO_DATE;
+            count = i + 1;
+
+            loanBalance -= principal;
+
+            if (strategy == EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT) {
+                // A negative balance is not recalculated: the schedule is finished by the next payment anyway
+                if (term - 1 - i > 0 && loanBalance + decreaseTermPaymentsAmount >= 0) {
+                    payment = getMonthlyPaymentAmount(rates, loanBalance + decreaseTermPaymentsAmount, term - 1 - i);
+                }
+            } else if (strategy == EarlyPaymentStrategy.DECREASE_TERM) {
+                decreaseTermPaymentsAmount += additional;
+            }
+
+            if (dated) {
+                if (++month > 12) {
+                    month = 1;
+                    year++;
+                }
+                day = Math.min(dayOfMonth, lengthOfMonth(year, month));
+            }
+        }
+
+        numberOfPayments = count;
+        overPaymentAmount = overPaidInterestAmount;
+
+        return count;
+    }
+
+    @Override
+    public int calculate(Loan loan) {
+        if (loan == null || loan.getAmount() == null || loan.getRate() == null || loan.getTerm() == null) {
+            throw fail(Messages.NULL);
+        }
+
+        if (loan.getAmount().signum() <= 0) {
+            throw fail(Messages.NEGATIVE_NUMBER);
+        }
+
+        loan(toCents(loan.getAmount()), loan.getRate(), loan.getTerm(), loan.getFirstPaymentDate());
+
+        if (loan.getEarlyPayments() != null) {
+            for (Map.Entry<Integer, EarlyPayment> entry : loan.getEarlyPayments().entrySet()) {
+                if (entry.getKey() == null || entry.getValue() == null || entry.getValue().getAmount() == null) {
+                    throw fail(Messages.NULL);
+                }
+            }
+
+            for (Map.Entry<Integer, EarlyPayment> entry : EarlyPaymentSchedule.of(loan).entrySet()) {
+                final EarlyPayment earlyPayment = entry.getValue();
+                if (earlyPayment.getAmount().signum() < 0) {
+                    throw fail(Messages.EARLY_PAYMENT_AMOUNT_IS_NEGATIVE);
+                }
+
+                earlyPayment(entry.getKey(), toCents(earlyPayment.getAmount()), earlyPayment.getStrategy());
+            }
+        }
+
+        return calculate();
+    }
+
+    @Override
+    public int getNumberOfPayments() {
+        return numberOfPayments;
+    }
+
+    @Override
+    public long getMonthlyPaymentAmount() {
+        return monthlyPaymentAmount;
+    }
+
+    @Override
+    public long getOverPaymentAmount() {
+        return overPaymentAmount;
+    }
+
+    @Override
+    public long getInterestPaymentAmount(int index) {
+        return interestPaymentAmounts[checkIndex(index)];
+    }
+
+    @Override
+    public long getDebtPaymentAmount(int index) {
+        return debtPaymentAmounts[checkIndex(index)];
+    }
+
+    @Override
+    public long getPaymentAmount(int index) {
+        return paymentAmounts[checkIndex(index)];
+    }
+
+    @Override
+    public long getLoanBalanceAmount(int index) {
+        return loanBalanceAmounts[checkIndex(index)];
+    }
+
+    @Override
+    public long getAdditionalPaymentAmount(int index) {
+        return additionalPaymentAmounts[checkIndex(index)];
+    }
+
+    @Override
+    public long getPaymentDate(int index) {
+        return paymentDates[checkIndex(index)];
+    }
+
+    @Override
+    public LoanAmortization toLoanAmortization() {
+        final List<MonthlyPayment> payments = new ArrayList<>(numberOfPayments);
+        for (int i = 0; i < numberOfPayments; i++) {
+            payments.add(MonthlyPayment.builder()
+                    .monthNumber(i)
+                    .interestPaymentAmount(toAmount(interestPaymentAmounts[i]))
+                    .debtPaymentAmount(toAmount(debtPaymentAmounts[i]))
+                    .paymentAmount(toAmount(paymentAmounts[i]))
+                    .loanBalanceAmount(toAmount(loanBalanceAmounts[i]))
+                    .additionalPaymentAmount(additionalPaymentAmounts[i] == 0 ? BigDecimal.ZERO : toAmount(additionalPaymentAmounts[i]))
+                    .paymentDate(paymentDates[i] == NO_DATE ? null : LocalDate.ofEpochDay(paymentDates[i]))
+                    .build());
+        }
+
+        final Map<Integer, EarlyPayment> earlyPayments = new LinkedHashMap<>();
+        for (int i = 0; i < term; i++) {
+            if (earlyPaymentStrategies[i] != null) {
+                earlyPayments.put(i, EarlyPayment.builder()
+                        .amount(toAmount(earlyPaymentAmounts[i]))
+                        .strategy(earlyPaymentStrategies[i])
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                        .build());
+            }
+        }
+
+        return LoanAmortization.builder()
+                .monthlyPaymentAmount(toAmount(monthlyPaymentAmount))
+                .monthlyPayments(Collections.unmodifiableList(payments))
+                .overPaymentAmount(toAmount(overPaymentAmount))
+                .earlyPayments(earlyPayments)
+                .build();
+    }
+
+    /**
+     * Calculates monthly payment amount: amount * annuity factor rounded HALF_UP to cents
+     */
+    private long getMonthlyPaymentAmount(InterestRates rates, long amount, int term) {
+        return getInterestAmount(amount, rates.getAnnuityFactor(term));
+    }
+
+    private InterestRates getInterestRates(BigDecimal rate) {
+        if (rate == this.rate) {
+            return interestRates;
+        }
+
+        InterestRates rates = cachedRates.get(rate);
+        if (rates == null) {
+            final BigDecimal monthlyInterestRate = AnnualPaymentSchedule.getMonthlyInterestRate(rate);
+            if (monthlyInterestRate.compareTo(BigDecimal.ONE) >= 0) {
+                throw fail(Messages.RATE_IS_OUT_OF_RANGE);
+            }
+
+            if (cachedRates.size() >= MAX_CACHED_RATES) {
+                cachedRates.clear();
+            }
+
+            rates = new InterestRates(rate, monthlyInterestRate);
+            cachedRates.put(rate, rates);
+        }
+
+        return rates;
+    }
+
+    private void ensureCapacity(int term) {
+        if (term <= paymentAmounts.length) {
+            return;
+        }
+
+        earlyPaymentAmounts = new long[term];
+        earlyPaymentStrategies = new EarlyPaymentStrategy[term];
+        interestPaymentAmounts = new long[term];
+        debtPaymentAmounts = new long[term];
+        paymentAmounts = new long[term];
+        loanBalanceAmounts = new long[term];
+        additionalPaymentAmounts = new long[term];
+        paymentDates = new long[term];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= numberOfPayments) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + numberOfPayments);
+        }
+
+        return index;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        final long cents = AnnualPaymentPayoffSolver.toCents(amount);
+        if (cents == NOT_IN_CENTS) {
+            throw fail(Messages.AMOUNT_IS_NOT_IN_CENTS);
+        }
+
+        return cents;
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return Month.of(month).length(IsoChronology.INSTANCE.isLeapYear(year));
+    }
+
+    /**
+     * The same as {@link LocalDate#toEpochDay()} without creating the date
+     */
+    static long toEpochDay(int year, int month, int day) {
+        final long y = year;
+        long total = 365 * y;
+
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+
+        total += (367L * month - 362) / 12;
+        total += day - 1;
+
+        if (month > 2) {
+            total--;
+            if (!IsoChronology.INSTANCE.isLeapYear(year)) {
+                total--;
+            }
+        }
+
+        return total - DAYS_0000_TO_1970;
+    }
+
+    private static LoanAmortizationCalculatorException fail(Messages message) {
+        return new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, message.getMessageText());
+    }
+
+    /**
+     * Rates derived from an annual interest rate as unscaled longs with scale 15
+     */
+    private final class InterestRates {
+        private final BigDecimal rate;
+        private final BigDecimal monthlyInterestRate;
+        private final long monthlyRate;
+
+        /**
+         * Rates by days of the month, index is days in month for 365-day years and days in month + 31 for leap years (0 if not calculated yet)
+         */
+        private final long[] ratesByDays = new long[2 * MAX_DAYS_IN_MONTH + 1];
+
+        /**
+         * Annuity factors by the number of payments (0 if not calculated yet)
+         */
+        private long[] annuityFactors = new long[0];
+
+        InterestRates(BigDecimal rate, BigDecimal monthlyInterestRate) {
+            this.rate = rate;
+            this.monthlyInterestRate = monthlyInterestRate;
+            this.monthlyRate = monthlyInterestRate.unscaledValue().longValueExact();
+        }
+
+        /**
+         * @param year year of the payment
+         * @param month month of the payment
+         * @return rate of the month before the payment
+         */
+        long getRateByDays(int year, int month) {
+            final int previousYear = month == 1 ? year - 1 : year;
+            final int previousMonth = month == 1 ? 12 : month - 1;
+            final boolean leap = IsoChronology.INSTANCE.isLeapYear(previousYear);
+            final int daysInMonth = Month.of(previousMonth).length(leap);
+            final int index = leap ? daysInMonth + MAX_DAYS_IN_MONTH : daysInMonth;
+
+            if (ratesByDays[index] == 0) {
+                final BigDecimal rateByDays = AnnualPaymentSchedule.getInterestRateByDays(rate, LocalDate.of(year, month, 1));
+                if (rateByDays.compareTo(BigDecimal.ONE) >= 0) {
+                    throw fail(Messages.RATE_IS_OUT_OF_RANGE);
+                }
+
+                ratesByDays[index] = rateByDays.unscaledValue().longValueExact();
+            }
+
+            return ratesByDays[index];
+        }
+
+        long getAnnuityFactor(int term) {
+            if (term >= annuityFactors.length) {
+                annuityFactors = Arrays.copyOf(annuityFactors, Math.max(term + 1, 2 * annuityFactors.length));
+            }
+
+            if (annuityFactors[term] == 0) {
+                annuityFactors[term] = annuityFactorTable.getAnnuityFactor(monthlyInterestRate, term)
+                        .setScale(15).unscaledValue().longValueExact();
+            }
+
+            return annuityFactors[term];
+        }
+    }
+}
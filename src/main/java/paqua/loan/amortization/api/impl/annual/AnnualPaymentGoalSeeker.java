@@ -0,0 +1,463 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationIterator;
+import paqua.loan.amortization.api.LoanGoalSeeker;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Goal seeker for annual payment loans
+ *
+ * The extra payment is solved by the false position method (the Illinois variant) on the balance of the loan
+ * after the target number of payments. The balance is almost linear in the extra payment, so the first secant step
+ * lands within a few cents of the answer and the bracket is closed after a few evaluations.
+ * The balance is replayed in long cents as in {@link AnnualPaymentPayoffSolver} and the replay stops
+ * as soon as the loan is paid off. Loans that can't be replayed in cents (amounts with fractions of cents,
+ * early payments with {@link EarlyPaymentStrategy#DECREASE_MONTHLY_PAYMENT} strategy) are evaluated
+ * by iterating the amortization only up to the target number of payments.
+ *
+ * The rate and the principal are estimated by the annuity formula in double
+ * and then corrected by exact monthly payment amounts of the neighbour candidates.
+ * The correction of the rate is bounded: a bracket around the estimate is widened exponentially
+ * and then closed by the same method as the extra payment.
+ *
+ * @author Artyom Panfutov
+ */
+final class AnnualPaymentGoalSeeker implements LoanGoalSeeker {
+    /**
+     * Scale of the solved interest rate
+     */
+    private static final int RATE_SCALE = 4;
+
+    private static final int MAX_RATE_ITERATIONS = 200;
+
+    private final LoanAmortizationCalculator calculator;
+    private final AnnuityFactorTable annuityFactorTable;
+
+    /**
+     * @param calculator calculator that evaluates loans that can't be replayed in cents
+     * @param annuityFactorTable precomputed annuity factors
+     */
+    AnnualPaymentGoalSeeker(LoanAmortizationCalculator calculator, AnnuityFactorTable annuityFactorTable) {
+        this.calculator = calculator;
+        this.annuityFactorTable = annuityFactorTable;
+    }
+
+    @Override
+    public BigDecimal solveExtraPayment(Loan loan, int fromMonthNumber, int numberOfPayments) {
+        validate(loan);
+
+        if (fromMonthNumber < 0 || numberOfPayments <= 0) {
+            throw fail(Messages.NEGATIVE_NUMBER);
+        }
+
+        final int term = loan.getTerm();
+        if (numberOfPayments >= term) {
+            // The last payment of the term always pays the loan off
+            return BigDecimal.ZERO.setScale(2);
+        }
+
+        LongUnaryOperator balance = getBalanceReplay(loan, fromMonthNumber, numberOfPayments);
+        if (balance == null) {
+            balance = getBalanceIteration(loan, fromMonthNumber, numberOfPayments);
+        }
+
+        if (balance.applyAsLong(0) < 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+
+        // An extra payment can't help if it is made after the target payments
+        final long maxExtraPayment = loan.getAmount().movePointRight(2).setScale(0, RoundingMode.CEILING).longValueExact();
+        if (fromMonthNumber >= numberOfPayments || balance.applyAsLong(maxExtraPayment) >= 0) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.GOAL_IS_NOT_REACHABLE.getMessageText());
+        }
+
+        return BigDecimal.valueOf(solveMinimalNegative(balance, 0, maxExtraPayment), 2);
+    }
+
+    @Override
+    public BigDecimal solveRate(Loan loan, BigDecimal monthlyPaymentAmount) {
+        if (loan == null || loan.getAmount() == null || loan.getTerm() == null || monthlyPaymentAmount == null) {
+            throw fail(Messages.NULL);
+        }
+
+        if (loan.getAmount().signum() <= 0 || loan.getTerm() <= 0 || monthlyPaymentAmount.signum() <= 0) {
+            throw fail(Messages.NEGATIVE_NUMBER);
+        }
+
+        final BigDecimal amount = loan.getAmount();
+        final int term = loan.getTerm();
+
+        // Remainder of the payment in cents at the rate (negative when the monthly payment amount exceeds the payment)
+        final LongUnaryOperator remainder = rate -> monthlyPaymentAmount.subtract(getMonthlyPaymentAmountByRate(amount, rate, term))
+                .movePointRight(2)
+                .setScale(0, RoundingMode.FLOOR)
+                .longValueExact();
+
+        final long estimate = (long) Math.floor(estimateMonthlyRate(amount.doubleValue(), term, monthlyPaymentAmount.doubleValue()) * 1200 * 10_000);
+
+        // The estimate may be far off (e.g. double loses precision on large amounts),
+        // so the bracket around it is widened exponentially and then closed by solveMinimalNegative
+        long lo = Math.max(1, estimate);
+        long hi;
+        if (remainder.applyAsLong(lo) < 0) {
+            hi = lo;
+            for (long step = 1; lo > 1 && remainder.applyAsLong(lo) < 0; step *= 2) {
+                hi = lo;
+                lo = Math.max(1, lo - step);
+            }
+
+            if (remainder.applyAsLong(lo) < 0) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.GOAL_IS_NOT_REACHABLE.getMessageText());
+            }
+        } else {
+            hi = lo + 1;
+            for (long step = 2; remainder.applyAsLong(hi) >= 0; step *= 2) {
+                lo = hi;
+                hi = lo + step;
+            }
+        }
+
+        // The maximal rate at which the monthly payment amount does not exceed the payment
+        return BigDecimal.valueOf(solveMinimalNegative(remainder, lo, hi) - 1, RATE_SCALE);
+    }
+
+    @Override
+    public BigDecimal solvePrincipal(Loan loan, BigDecimal monthlyPaymentAmount) {
+        if (loan == null || loan.getRate() == null || loan.getTerm() == null || monthlyPaymentAmount == null) {
+            throw fail(Messages.NULL);
+        }
+
+        if (loan.getRate().signum() <= 0 || loan.getTerm() <= 0 || monthlyPaymentAmount.signum() <= 0) {
+            throw fail(Messages.NEGATIVE_NUMBER);
+        }
+
+        final BigDecimal annuityFactor = annuityFactorTable.getAnnuityFactor(
+                AnnualPaymentSchedule.getMonthlyInterestRate(loan.getRate()), loan.getTerm());
+
+        long amount = monthlyPaymentAmount.movePointRight(2).divide(annuityFactor, 0, RoundingMode.FLOOR).longValueExact();
+        while (amount > 0 && getMonthlyPaymentAmountByAmount(amount, annuityFactor).compareTo(monthlyPaymentAmount) > 0) {
+            amount--;
+        }
+        while (getMonthlyPaymentAmountByAmount(amount + 1, annuityFactor).compareTo(monthlyPaymentAmount) <= 0) {
+            amount++;
+        }
+
+        if (amount <= 0) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.GOAL_IS_NOT_REACHABLE.getMessageText());
+        }
+
+        return BigDecimal.valueOf(amount, 2);
+    }
+
+    /**
+     * Solves the minimal argument at which the non-increasing function is negative by the Illinois method
+     *
+     * @param function non-increasing function
+     * @param lo argument at which the function is not negative
+     * @param hi argument at which the function is negative
+     *
+     * @return minimal argument at which the function is negative
+     */
+    static long solveMinimalNegative(LongUnaryOperator function, long lo, long hi) {
+        double valueAtLo = function.applyAsLong(lo);
+        double valueAtHi = function.applyAsLong(hi);
+        int retainedSide = 0;
+
+        while (hi - lo > 1) {
+            long x = lo + (long) Math.ceil((hi - lo) * (valueAtLo / (valueAtLo - valueAtHi)));
+            x = Math.max(lo + 1, Math.min(hi - 1, x));
+
+            final long value = function.applyAsLong(x);
+            if (value < 0) {
+                hi = x;
+                valueAtHi = value;
+                // The low end is retained twice: its weight is halved, so that the next step moves past the root
+                if (retainedSide < 0) {
+                    valueAtLo /= 2;
+                }
+                retainedSide = -1;
+            } else {
+                lo = x;
+                valueAtLo = value;
+                if (retainedSide > 0) {
+                    valueAtHi /= 2;
+                }
+                retainedSide = 1;
+            }
+        }
+
+        return hi;
+    }
+
+    /**
+     * Creates the replay of the loan balance after the number of payments in long cents
+     *
+     * @return function of the extra payment in cents that returns the balance in cents (negative when the loan is paid off)
+     *         or null if the loan can't be replayed in cents
+     */
+    private LongUnaryOperator getBalanceReplay(Loan loan, int fromMonthNumber, int numberOfPayments) {
+        final long amount = AnnualPaymentPayoffSolver.toCents(loan.getAmount());
+        final BigDecimal monthlyInterestRate = AnnualPaymentSchedule.getMonthlyInterestRate(loan.getRate());
+        if (amount == AnnualPaymentPayoffSolver.NOT_IN_CENTS || loan.getAmount().scale() > 2
+                || monthlyInterestRate.compareTo(BigDecimal.ONE) >= 0) {
+            return null;
+        }
+
+        final long[] additionalPayments = new long[numberOfPayments];
+        if (loan.getEarlyPayments() != null) {
+            for (Map.Entry<Integer, EarlyPayment> entry : loan.getEarlyPayments().entrySet()) {
+                final int number = entry.getKey();
+                if (number >= Math.min(fromMonthNumber, numberOfPayments)) {
+                    continue;
+                }
+
+                final long cents = AnnualPaymentPayoffSolver.toCents(entry.getValue().getAmount());
+                if (entry.getValue().getStrategy() != EarlyPaymentStrategy.DECREASE_TERM || cents == AnnualPaymentPayoffSolver.NOT_IN_CENTS) {
+                    return null;
+                }
+                additionalPayments[number] = cents;
+            }
+        }
+
+        final long payment = AnnualPaymentPayoffSolver.toCents(getMonthlyPaymentAmountByAmount(
+                loan.getAmount(), annuityFactorTable.getAnnuityFactor(monthlyInterestRate, loan.getTerm())));
+        if (payment == AnnualPaymentPayoffSolver.NOT_IN_CENTS) {
+            return null;
+        }
+
+        final long[] rates = getRates(loan, monthlyInterestRate, numberOfPayments);
+
+        return extraPayment -> {
+            long loanBalance = amount;
+            for (int i = 0; i < numberOfPayments; i++) {
+                final long interest = AnnualPaymentPayoffSolver.getInterestAmount(loanBalance, rates[i]);
+                loanBalance -= payment - interest + (i < fromMonthNumber ? additionalPayments[i] : extraPayment);
+
+                if (loanBalance < 0) {
+                    return loanBalance;
+                }
+            }
+            return loanBalance;
+        };
+    }
+
+    /**
+     * Creates the evaluation of the loan balance after the number of payments by iterating the amortization
+     *
+     * @return function of the extra payment in cents that returns the balance in cents (negative when the loan is paid off)
+     */
+    private LongUnaryOperator getBalanceIteration(Loan loan, int fromMonthNumber, int numberOfPayments) {
+        return extraPayment -> {
+            final LoanAmortizationIterator payments = calculator.iterate(getLoanWithExtraPayment(loan, fromMonthNumber, extraPayment));
+
+            MonthlyPayment payment = null;
+            for (int i = 0; i < numberOfPayments; i++) {
+                if (!payments.hasNext()) {
+                    return -1;
+                }
+                payment = payments.next();
+            }
+
+            // The schedule is finished before the term only if the loan is paid off
+            if (!payments.hasNext()) {
+                return -1;
+            }
+
+            return payment.getLoanBalanceAmount()
+                    .subtract(payment.getDebtPaymentAmount())
+                    .movePointRight(2)
+                    .setScale(0, RoundingMode.UP)
+                    .longValueExact();
+        };
+    }
+
+    private static Loan getLoanWithExtraPayment(Loan loan, int fromMonthNumber, long extraPayment) {
+        final Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        if (loan.getEarlyPayments() != null) {
+            earlyPayments.putAll(loan.getEarlyPayments());
+        }
+
+        earlyPayments.put(fromMonthNumber, EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(extraPayment, 2))
+                .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_END)
+                .build());
+
+        return Loan.builder()
+                .amount(loan.getAmount())
+                .rate(loan.getRate())
+                .term(loan.getTerm())
+                .firstPaymentDate(loan.getFirstPaymentDate())
+                .earlyPayments(earlyPayments)
+                .build();
+    }
+
+    /**
+     * @return unscaled interest rates (scale 15) of the first payments
+     */
+    private static long[] getRates(Loan loan, BigDecimal monthlyInterestRate, int numberOfPayments) {
+        final long[] rates = new long[numberOfPayments];
+        final LocalDate firstPaymentDate = loan.getFirstPaymentDate();
+
+        if (firstPaymentDate == null) {
+            Arrays.fill(rates, monthlyInterestRate.unscaledValue().longValue());
+            return rates;
+        }
+
+        // Rates by days depend only on the length of the month and of the year
+        final Map<Integer, Long> ratesByDays = new HashMap<>();
+        LocalDate paymentDate = firstPaymentDate;
+        for (int i = 0; i < numberOfPayments; i++) {
+            final LocalDate date = paymentDate;
+            final LocalDate previousMonth = date.minusMonths(1);
+            rates[i] = ratesByDays.computeIfAbsent(
+                    previousMonth.lengthOfYear() * 100 + previousMonth.lengthOfMonth(),
+                    days -> AnnualPaymentSchedule.getInterestRateByDays(loan.getRate(), date).unscaledValue().longValue());
+
+            paymentDate = AnnualPaymentSchedule.getNextMonthPaymentDate(firstPaymentDate, paymentDate);
+        }
+
+        return rates;
+    }
+
+    /**
+     * Estimates the monthly rate at which the annuity payment of the amount equals the payment
+     *
+     * @return monthly rate (zero if the payment is not greater than the amount divided by the term)
+     */
+    private static double estimateMonthlyRate(double amount, int term, double payment) {
+        double lo = 0;
+        double hi = payment / amount;
+        double valueAtLo = amount / term - payment;
+        double valueAtHi = getAnnuityPayment(amount, hi, term) - payment;
+        if (valueAtLo >= 0) {
+            return 0;
+        }
+
+        int retainedSide = 0;
+        for (int i = 0; i < MAX_RATE_ITERATIONS && hi - lo > Math.ulp(hi); i++) {
+            double rate = lo + (hi - lo) * (valueAtLo / (valueAtLo - valueAtHi));
+            if (!(rate > lo && rate < hi)) {
+                rate = (lo + hi) / 2;
+            }
+
+            final double value = getAnnuityPayment(amount, rate, term) - payment;
+            if (value == 0) {
+                return rate;
+            }
+
+            if (value > 0) {
+                hi = rate;
+                valueAtHi = value;
+                if (retainedSide < 0) {
+                    valueAtLo /= 2;
+                }
+                retainedSide = -1;
+            } else {
+                lo = rate;
+                valueAtLo = value;
+                if (retainedSide > 0) {
+                    valueAtHi /= 2;
+                }
+                retainedSide = 1;
+            }
+        }
+
+        return lo;
+    }
+
+    private static double getAnnuityPayment(double amount, double rate, int term) {
+        return amount * rate / -Math.expm1(-term * Math.log1p(rate));
+    }
+
+    private BigDecimal getMonthlyPaymentAmountByRate(BigDecimal amount, long rate, int term) {
+        return getMonthlyPaymentAmountByAmount(amount, annuityFactorTable.getAnnuityFactor(
+                AnnualPaymentSchedule.getMonthlyInterestRate(BigDecimal.valueOf(rate, RATE_SCALE)), term));
+    }
+
+    private static BigDecimal getMonthlyPaymentAmountByAmount(long amount, BigDecimal annuityFactor) {
+        return getMonthlyPaymentAmountByAmount(BigDecimal.valueOf(amount, 2), annuityFactor);
+    }
+
+    private static BigDecimal getMonthlyPaymentAmountByAmount(BigDecimal amount, BigDecimal annuityFactor) {
+        return amount.multiply(annuityFactor).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static void validate(Loan loan) {
+        if (loan == null || loan.getAmount() == null || loan.getRate() == null || loan.getTerm() == null) {
+            throw fail(Messages.NULL);
+        }
+
+        if (loan.getAmount().signum() <= 0 || loan.getTerm() <= 0 || loan.getRate().signum() <= 0) {
+            throw fail(Messages.NEGATIVE_NUMBER);
+        }
+
+        if (loan.getEarlyPayments() != null) {
+            for (Map.Entry<Integer, EarlyPayment> entry : loan.getEarlyPayments().entrySet()) {
+                if (entry.getKey() == null || entry.getValue() == null || entry.getValue().getAmount() == null) {
+                    throw fail(Messages.NULL);
+                }
+
+                if (entry.getKey() < 0) {
+                    throw fail(Messages.EARLY_PAYMENT_NUMBER_IS_NEGATIVE);
+                }
+
+                if (entry.getValue().getAmount().signum() < 0) {
+                    throw fail(Messages.EARLY_PAYMENT_AMOUNT_IS_NEGATIVE);
+                }
+
+                if (entry.getValue().getStrategy() == null) {
+                    throw fail(Messages.EARLY_PAYMENT_STRATEGY_IS_NULL);
+                }
+
+                if (entry.getValue().getRepeatingStrategy() != EarlyPaymentRepeatingStrategy.SINGLE) {
+                    throw fail(Messages.REPEATING_EARLY_PAYMENTS_ARE_NOT_SUPPORTED);
+                }
+            }
+        }
+    }
+
+    private static LoanAmortizationCalculatorException fail(Messages message) {
+        return new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, message.getMessageText());
+    }
+}
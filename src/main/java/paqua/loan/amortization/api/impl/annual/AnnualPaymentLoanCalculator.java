@@ -24,19 +24,26 @@
  */
 package paqua.loan.amortization.api.impl.annual;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.CalculationTracer;
 import paqua.loan.amortization.api.LoanAmortizationCalculator;
-import paqua.loan.amortization.dto.*;
+import paqua.loan.amortization.api.LoanAmortizationIterator;
+import paqua.loan.amortization.dto.ColumnarMonthlyPayments;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationSummary;
+import paqua.loan.amortization.dto.LoanPayoff;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Implementation of the annual payment loan amortization calculator
@@ -44,241 +51,276 @@ import java.util.Map;
  * @author Artyom Panfutov
  */
 class AnnualPaymentLoanCalculator implements LoanAmortizationCalculator {
-    private static final Logger LOGGER = LoggerFactory.getLogger(AnnualPaymentLoanCalculator.class);
+    /**
+     * Precomputed annuity factors (empty if not configured)
+     */
+    private final AnnuityFactorTable annuityFactorTable;
+
+    /**
+     * Receiver of calculation events
+     */
+    private final CalculationTracer tracer;
+
+    /**
+     * Receiver of calculation metrics
+     */
+    private final CalculationMetrics metrics;
+
+    /**
+     * Monthly payments are stored in {@link ColumnarMonthlyPayments}
+     */
+    private final boolean columnar;
+
+    AnnualPaymentLoanCalculator() {
+        this(AnnuityFactorTable.empty(), CalculationTracer.NOOP, CalculationMetrics.NOOP, false);
+    }
+
+    AnnualPaymentLoanCalculator(AnnuityFactorTable annuityFactorTable, CalculationTracer tracer, CalculationMetrics metrics, boolean columnar) {
+        this.annuityFactorTable = annuityFactorTable;
+        this.tracer = tracer;
+        this.metrics = metrics;
+        this.columnar = columnar;
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
     public LoanAmortization calculate(Loan loan) {
-        BigDecimal overPaidInterestAmount = BigDecimal.ZERO;
-
-        final Map<Integer, EarlyPayment> earlyPayments = loan.getEarlyPayments() != null ? loan.getEarlyPayments() : Collections.emptyMap();
-        BigDecimal loanBalance = loan.getAmount();
+        final AnnualPaymentSchedule schedule = new AnnualPaymentSchedule(loan, annuityFactorTable, tracer, metrics);
 
-        final int term = loan.getTerm();
+        return LoanAmortization.builder()
+                .monthlyPaymentAmount(schedule.getMonthlyPaymentAmount())
+                .monthlyPayments(getMonthlyPayments(Collections.emptyList(), schedule, loan.getTerm()))
+                .overPaymentAmount(schedule.getOverPaymentAmount())
+                .earlyPayments(schedule.getEarlyPayments())
+                .build();
+    }
 
-        final BigDecimal monthlyInterestRate = getMonthlyInterestRate(loan.getRate());
-        BigDecimal monthlyPaymentAmount = getMonthlyPaymentAmount(loanBalance, monthlyInterestRate, term);
+    /**
+     * {@inheritDoc}
+     *
+     * Runs the same schedule as {@link #calculate(Loan)}, but monthly payments are not built
+     */
+    @Override
+    public LoanAmortizationSummary summarize(Loan loan) {
+        final AnnualPaymentSchedule schedule = new AnnualPaymentSchedule(loan, annuityFactorTable, tracer, metrics);
 
-        LoanAmortization.LoanAmortizationBuilder amortizationBuilder = LoanAmortization.builder()
-                .monthlyPaymentAmount(monthlyPaymentAmount);
+        BigDecimal totalPaymentAmount = BigDecimal.ZERO;
+        int numberOfPayments = 0;
+        LocalDate payoffDate = null;
 
-        LocalDate paymentDate = loan.getFirstPaymentDate();
+        while (schedule.advance()) {
+            totalPaymentAmount = totalPaymentAmount.add(schedule.getPaymentAmount());
+            payoffDate = schedule.getPaymentDate();
+            numberOfPayments++;
+        }
 
-        // Calculate amortization schedule
-        List<MonthlyPayment> payments = new ArrayList<>();
-        for (int i = 0; i < term; i++) {
-            BigDecimal principalAmount;
-            BigDecimal paymentAmount;
-            BigDecimal additionalPaymentAmount = BigDecimal.ZERO;
+        return LoanAmortizationSummary.builder()
+                .monthlyPaymentAmount(schedule.getMonthlyPaymentAmount())
+                .overPaymentAmount(schedule.getOverPaymentAmount())
+                .totalPaymentAmount(totalPaymentAmount)
+                .numberOfPayments(numberOfPayments)
+                .payoffDate(payoffDate)
+                .build();
+    }
 
-            final BigDecimal interestAmount = calculateInterestAmount(loan, loanBalance, monthlyInterestRate, paymentDate);
+    /**
+     * {@inheritDoc}
+     *
+     * Loans without first payment date and with early payments of {@link EarlyPaymentStrategy#DECREASE_TERM} strategy only
+     * are solved by {@link AnnualPaymentPayoffSolver}, other loans run the same schedule as {@link #calculate(Loan)}
+     */
+    @Override
+    public LoanPayoff solvePayoff(Loan loan) {
+        final AnnualPaymentSchedule schedule = new AnnualPaymentSchedule(loan, annuityFactorTable, tracer, metrics);
+
+        final LoanPayoff payoff = AnnualPaymentPayoffSolver.solve(loan, schedule.getMonthlyPaymentAmount());
+        if (payoff != null) {
+            final int numberOfPayments = payoff.getPayoffMonthNumber() + 1;
+            if (numberOfPayments < loan.getTerm()) {
+                tracer.onScheduleTerminated(payoff.getPayoffMonthNumber());
+                metrics.recordEarlyTermination(loan.getTerm(), numberOfPayments);
+            }
+            tracer.onScheduleFinished(numberOfPayments, payoff.getTotalInterestAmount());
 
-            // If something gets negative for some reason (because of early payments) we stop calculating and correct the amount in the last payment
-            if (interestAmount.compareTo(BigDecimal.ZERO) < 0 || loanBalance.compareTo(BigDecimal.ZERO) < 0) {
-                final int lastPaymentNumber = i - 1;
+            return payoff;
+        }
 
-                if (lastPaymentNumber >= 0) {
-                    final MonthlyPayment lastPayment = payments.get(lastPaymentNumber);
+        Integer payoffMonthNumber = null;
+        BigDecimal finalPaymentAmount = null;
+        LocalDate payoffDate = null;
 
-                    payments.set(lastPaymentNumber, new MonthlyPayment.MonthlyPaymentBuilder()
-                            .monthNumber(lastPayment.getMonthNumber())
-                            .additionalPaymentAmount(lastPayment.getAdditionalPaymentAmount())
-                            .paymentAmount(lastPayment.getLoanBalanceAmount()
-                                    .add(lastPayment.getInterestPaymentAmount()))
-                            .debtPaymentAmount(lastPayment.getLoanBalanceAmount())
-                            .interestPaymentAmount(lastPayment.getInterestPaymentAmount())
-                            .paymentDate(paymentDate)
-                            .loanBalanceAmount(lastPayment.getLoanBalanceAmount())
-                            .build());
-                }
+        while (schedule.advance()) {
+            payoffMonthNumber = schedule.getMonthNumber();
+            finalPaymentAmount = schedule.getPaymentAmount();
+            payoffDate = schedule.getPaymentDate();
+        }
 
-                break;
-            }
+        return LoanPayoff.builder()
+                .payoffMonthNumber(payoffMonthNumber)
+                .totalInterestAmount(schedule.getOverPaymentAmount())
+                .finalPaymentAmount(finalPaymentAmount)
+                .payoffDate(payoffDate)
+                .build();
+    }
 
-            overPaidInterestAmount = overPaidInterestAmount.add(interestAmount);
+    /**
+     * {@inheritDoc}
+     *
+     * Monthly payments are calculated while the schedule is iterated
+     */
+    @Override
+    public LoanAmortizationIterator iterate(Loan loan) {
+        return new AnnualPaymentSchedule(loan, annuityFactorTable, tracer, metrics);
+    }
 
-            EarlyPayment earlyPayment = earlyPayments.get(i);
-            if (earlyPayment != null) {
-                additionalPaymentAmount = earlyPayment.getAmount();
-            }
+    /**
+     * {@inheritDoc}
+     *
+     * Monthly payments before the first changed early payment are taken from the previous amortization,
+     * the schedule is resumed from the month of the changed early payment.
+     * If the previous loan does not have the same amount, rate, term and first payment date as the loan,
+     * the whole amortization is calculated.
+     */
+    @Override
+    public LoanAmortization recalculate(Loan previousLoan, LoanAmortization previous, Loan loan) {
+        if (!isResumable(previousLoan, previous, loan)) {
+            return calculate(loan);
+        }
 
-            if (i + 1 == loan.getTerm()) {
-                principalAmount = loanBalance;
-            } else {
-                principalAmount = (monthlyPaymentAmount.subtract(interestAmount))
-                        .add(additionalPaymentAmount)
-                        .setScale(2, RoundingMode.HALF_UP);
-            }
+        final AnnualPaymentSchedule schedule = new AnnualPaymentSchedule(loan, annuityFactorTable, tracer, metrics);
+        final List<MonthlyPayment> previousPayments = previous.getMonthlyPayments();
 
-            paymentAmount = interestAmount.add(principalAmount);
+        final int resumeMonthNumber = getFirstChangedMonthNumber(previous, schedule.getEarlyPayments());
+        final Map<Integer, EarlyPayment> previousEarlyPayments = getEarlyPayments(previous);
 
-            payments.add(MonthlyPayment.builder()
-                    .interestPaymentAmount(interestAmount)
-                    .debtPaymentAmount(principalAmount)
-                    .paymentAmount(paymentAmount)
-                    .loanBalanceAmount(loanBalance)
-                    .monthNumber(i)
-                    .additionalPaymentAmount(additionalPaymentAmount)
-                    .paymentDate(paymentDate)
-                    .build());
+        BigDecimal overPaidInterestAmount = BigDecimal.ZERO;
+        BigDecimal decreaseTermPaymentsAmount = BigDecimal.ZERO;
+        BigDecimal monthlyPaymentAmount = schedule.getMonthlyPaymentAmount();
 
-            loanBalance = loanBalance.subtract(principalAmount);
+        for (int i = 0; i < resumeMonthNumber; i++) {
+            MonthlyPayment payment = previousPayments.get(i);
+            EarlyPayment earlyPayment = previousEarlyPayments.get(i);
 
-            if (earlyPayment != null && earlyPayment.getStrategy() == EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT) {
-                BigDecimal additionalPaymentsWithRemainingLoanBalance = getTotalAmountOfEarlyPaymentsWithLoanBalanceUntilPayment(loan, loanBalance, i);
+            overPaidInterestAmount = overPaidInterestAmount.add(payment.getInterestPaymentAmount());
 
-                if (term - 1 - i > 0) {
-                    monthlyPaymentAmount = getMonthlyPaymentAmount(additionalPaymentsWithRemainingLoanBalance, monthlyInterestRate, term - 1 - i);
-                }
+            // Repeat the recalculation of the monthly payment amount the same way as the schedule does
+            if (earlyPayment != null && earlyPayment.getStrategy() == EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT
+                    && loan.getTerm() - 1 - i > 0) {
+                BigDecimal loanBalance = payment.getLoanBalanceAmount().subtract(payment.getDebtPaymentAmount());
+                monthlyPaymentAmount = schedule.calculateMonthlyPaymentAmount(loanBalance.add(decreaseTermPaymentsAmount), loan.getTerm() - 1 - i);
             }
 
-            if (loan.getFirstPaymentDate() != null && paymentDate != null) {
-                paymentDate = getNextMonthPaymentDate(loan.getFirstPaymentDate(), paymentDate);
+            if (earlyPayment != null && earlyPayment.getStrategy() == EarlyPaymentStrategy.DECREASE_TERM) {
+                decreaseTermPaymentsAmount = decreaseTermPaymentsAmount.add(earlyPayment.getAmount());
             }
         }
 
-        LoanAmortization result = amortizationBuilder
-                .monthlyPayments(Collections.unmodifiableList(payments))
-                .overPaymentAmount(overPaidInterestAmount)
-                .earlyPayments(earlyPayments)
+        // The date of the last payment may be corrected, so the date is always rolled from the previous payment
+        LocalDate paymentDate = resumeMonthNumber == 0
+                ? loan.getFirstPaymentDate()
+                : schedule.calculateNextPaymentDate(resumeMonthNumber, previousPayments.get(resumeMonthNumber - 1).getPaymentDate());
+
+        schedule.resume(resumeMonthNumber,
+                previousPayments.get(resumeMonthNumber).getLoanBalanceAmount(),
+                monthlyPaymentAmount,
+                paymentDate,
+                decreaseTermPaymentsAmount,
+                overPaidInterestAmount);
+
+        return LoanAmortization.builder()
+                .monthlyPaymentAmount(schedule.getMonthlyPaymentAmount())
+                .monthlyPayments(getMonthlyPayments(previousPayments.subList(0, resumeMonthNumber), schedule, previousPayments.size()))
+                .overPaymentAmount(schedule.getOverPaymentAmount())
+                .earlyPayments(schedule.getEarlyPayments())
                 .build();
-
-        LOGGER.debug("Calculation result: {}", result);
-
-        return result;
-    }
-
-    private BigDecimal getMonthlyInterestRate(BigDecimal rate) {
-        final BigDecimal monthlyInterestRate = rate
-                .divide(BigDecimal.valueOf(100), 15, RoundingMode.HALF_UP)
-                .divide(BigDecimal.valueOf(12), 15, RoundingMode.HALF_UP);
-
-        LOGGER.debug("Calculated monthly interest rate: {}", monthlyInterestRate);
-        return monthlyInterestRate;
     }
 
     /**
-     * Calculates next payment date
-     *
-     * @param firstPaymentDate first payment date
-     * @param paymentDate payment date
+     * Calculates the rest of the schedule and collects monthly payments
      *
-     * @return next payment date
+     * @param calculatedPayments monthly payments that are calculated before
+     * @param schedule schedule that calculates the rest of monthly payments
+     * @param expectedSize expected number of monthly payments
+     * @return list of monthly payments
      */
-    private LocalDate getNextMonthPaymentDate(LocalDate firstPaymentDate, LocalDate paymentDate) {
-        LocalDate nextMonth = paymentDate.plusMonths(1);
-
-        try {
-            paymentDate = nextMonth.withDayOfMonth(firstPaymentDate.getDayOfMonth());
-        } catch (DateTimeException e) {
-            LOGGER.info("Cannot construct next payment date with the requested day of month. The last month day will be used instead.");
-            paymentDate = nextMonth.withDayOfMonth(nextMonth.lengthOfMonth());
-        }
-        return paymentDate;
-    }
+    private List<MonthlyPayment> getMonthlyPayments(List<MonthlyPayment> calculatedPayments, AnnualPaymentSchedule schedule, int expectedSize) {
+        if (columnar) {
+            ColumnarMonthlyPayments.ColumnarMonthlyPaymentsBuilder payments = ColumnarMonthlyPayments.builder(expectedSize);
+            for (MonthlyPayment payment : calculatedPayments) {
+                payments.add(payment);
+            }
 
+            // Attributes are put to the columns directly, monthly payment objects are not created
+            while (schedule.advance()) {
+                payments.add(schedule.getMonthNumber(),
+                        schedule.getLoanBalanceAmount(),
+                        schedule.getDebtPaymentAmount(),
+                        schedule.getInterestPaymentAmount(),
+                        schedule.getPaymentAmount(),
+                        schedule.getAdditionalPaymentAmount(),
+                        schedule.getPaymentDate());
+            }
 
-    /**
-     * Calculates total amount of early payments with strategy {@link EarlyPaymentStrategy#DECREASE_TERM}
-     * until certain payment number in the schedule + remaining loan balance
-     *
-     * This method is used for right calculation of amortization when there are different kinds of additional payments
-     * and we need to include this amount in calculation of monthly payment amount
-     *
-     * @param loan loan attributes
-     * @param loanBalance current loan balance
-     * @param untilThisPayment current payment number
-     *
-     * @return total amount of early payments + remaining loan balance
-     */
-    private BigDecimal getTotalAmountOfEarlyPaymentsWithLoanBalanceUntilPayment(Loan loan, BigDecimal loanBalance, int untilThisPayment) {
-        BigDecimal totalAmount = BigDecimal.ZERO;
+            return payments.build();
+        }
 
-        for (Map.Entry<Integer, EarlyPayment> entry : loan.getEarlyPayments().entrySet()) {
-            if (entry.getKey() < untilThisPayment && entry.getValue().getStrategy() == EarlyPaymentStrategy.DECREASE_TERM)  {
-                totalAmount = totalAmount.add(entry.getValue().getAmount());
-            }
+        List<MonthlyPayment> payments = new ArrayList<>(calculatedPayments);
+        while (schedule.advance()) {
+            payments.add(schedule.toMonthlyPayment());
         }
-        totalAmount = loanBalance.add(totalAmount);
-        LOGGER.info("Calculating total amount of early payments(decrease term strategy) with remaining loan balance:{}, until payment number: {}\n Result: {}",
-                loanBalance, untilThisPayment, totalAmount);
 
-        return totalAmount;
+        return Collections.unmodifiableList(payments);
     }
 
     /**
-     * Calculates monthly payment amount
-     *
-     * @param amount loan balance
-     * @param rate monthly interest rate
-     * @param term loan term in months
+     * Checks that the previous loan has the same amount, rate, term and first payment date as the loan
      *
-     * @return monthly payment amount
+     * @param previousLoan loan attributes the previous amortization is calculated for
+     * @param previous previously calculated loan amortization
+     * @param loan loan attributes
+     * @return true if the monthly payments of the previous amortization can be reused
      */
-    private BigDecimal getMonthlyPaymentAmount(BigDecimal amount, BigDecimal rate, Integer term) {
-        LOGGER.info("Calculating monthly payment amount for: {}, {}, {}", amount, rate, term);
+    private static boolean isResumable(Loan previousLoan, LoanAmortization previous, Loan loan) {
+        final List<MonthlyPayment> previousPayments = previous.getMonthlyPayments();
 
-        BigDecimal monthlyPaymentAmount = getInterestAmountByBalanceAndMonthlyInterestRate(
-                amount,
-                (rate.multiply(BigDecimal.ONE.add(rate).pow(term)))
-                        .divide((BigDecimal.ONE.add(rate).pow(term).subtract(BigDecimal.ONE)), 15, RoundingMode.HALF_UP)
-        );
+        // The last payment is always recalculated, so nothing can be reused from a single payment
+        if (previousPayments == null || previousPayments.size() < 2 || previousPayments.size() > loan.getTerm()) {
+            return false;
+        }
 
-        LOGGER.info("Calculate monthly payment amount: {}", amount);
-        return monthlyPaymentAmount;
+        return Objects.equals(previousLoan.getAmount(), loan.getAmount())
+                && Objects.equals(previousLoan.getRate(), loan.getRate())
+                && Objects.equals(previousLoan.getTerm(), loan.getTerm())
+                && Objects.equals(previousLoan.getFirstPaymentDate(), loan.getFirstPaymentDate())
+                && Objects.equals(previousPayments.get(0).getLoanBalanceAmount(), loan.getAmount());
     }
 
     /**
-     * Calculates interest amount
+     * Finds the month from which the schedule must be recalculated
      *
-     * @param currentLoanBalance current loan balance
-     * @param annualInterestRate interest rate
-     * @param daysInMonth days in current month
-     * @param daysInYear days in current year
+     * The last payment of the previous amortization is always recalculated because it may be corrected
+     * when the loan is paid off before the end of the term.
      *
-     * @return interest amount
+     * @param previous previously calculated loan amortization
+     * @param earlyPayments early payments of the loan
+     * @return number of the first month to recalculate
      */
-    private BigDecimal getInterestAmountByBalanceRateAndDays(BigDecimal currentLoanBalance, BigDecimal annualInterestRate, int daysInMonth, int daysInYear) {
-        return currentLoanBalance.multiply(
-                (annualInterestRate.multiply(BigDecimal.valueOf(daysInMonth)))
-                        .divide(BigDecimal.valueOf(100).multiply(BigDecimal.valueOf(daysInYear)), 15, RoundingMode.HALF_UP)
-        ).setScale(2, RoundingMode.HALF_UP);
-    }
+    private static int getFirstChangedMonthNumber(LoanAmortization previous, Map<Integer, EarlyPayment> earlyPayments) {
+        final Map<Integer, EarlyPayment> previousEarlyPayments = getEarlyPayments(previous);
+        final int lastMonthNumber = previous.getMonthlyPayments().size() - 1;
 
+        for (int i = 0; i < lastMonthNumber; i++) {
+            if (!Objects.equals(previousEarlyPayments.get(i), earlyPayments.get(i))) {
+                return i;
+            }
+        }
 
-    /**
-     * Calculates interest amount
-     *
-     * @param currentLoanBalance current loan balance
-     * @param monthlyInterestRate calculated monthly interest rate
-     *
-     * @return interest amount
-     */
-    private BigDecimal getInterestAmountByBalanceAndMonthlyInterestRate(BigDecimal currentLoanBalance, BigDecimal monthlyInterestRate) {
-        return currentLoanBalance
-                .multiply(monthlyInterestRate)
-                .setScale(2, RoundingMode.HALF_UP);
+        return lastMonthNumber;
     }
 
-    /**
-     * Calculates loan balance
-     *
-     * @param loan loan
-     * @param currentLoanBalance current loan balance
-     * @param monthlyInterestRate monthly interest rate
-     * @param paymentDate current payment date
-     *
-     * @return interest amount
-     */
-    private BigDecimal calculateInterestAmount(Loan loan, BigDecimal currentLoanBalance, BigDecimal monthlyInterestRate, LocalDate paymentDate) {
-        return paymentDate == null
-                ? getInterestAmountByBalanceAndMonthlyInterestRate(currentLoanBalance, monthlyInterestRate)
-                : getInterestAmountByBalanceRateAndDays(
-                    currentLoanBalance, loan.getRate(),
-                    paymentDate.minusMonths(1).lengthOfMonth(),
-                    paymentDate.minusMonths(1).lengthOfYear()
-                );
+    private static Map<Integer, EarlyPayment> getEarlyPayments(LoanAmortization amortization) {
+        return amortization.getEarlyPayments() != null ? amortization.getEarlyPayments() : Collections.emptyMap();
     }
 }
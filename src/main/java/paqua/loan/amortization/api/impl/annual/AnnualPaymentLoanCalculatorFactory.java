@@ -24,7 +24,14 @@
  */
 package paqua.loan.amortization.api.impl.annual;
 
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.CalculationTracer;
 import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanCalculationContext;
+import paqua.loan.amortization.api.LoanGoalSeeker;
+import paqua.loan.amortization.api.PortfolioCalculator;
+
+import java.util.Objects;
 
 /**
  * Represents a factory for annual payment loan calculator
@@ -41,6 +48,87 @@ public final class AnnualPaymentLoanCalculatorFactory {
         return new AnnualPaymentLoanCalculator();
     }
 
+    /**
+     * Creates a new instance of annual payment loan calculator that takes annuity factors from the table
+     *
+     * @param annuityFactorTable precomputed annuity factors
+     * @return {@link AnnualPaymentLoanCalculator}
+     */
+    public static LoanAmortizationCalculator create(AnnuityFactorTable annuityFactorTable) {
+        return create(annuityFactorTable, CalculationTracer.NOOP, CalculationMetrics.NOOP);
+    }
+
+    /**
+     * Creates a new instance of annual payment loan calculator
+     *
+     * @param annuityFactorTable precomputed annuity factors
+     * @param tracer receiver of calculation events
+     * @param metrics receiver of calculation metrics
+     * @return {@link AnnualPaymentLoanCalculator}
+     */
+    public static LoanAmortizationCalculator create(AnnuityFactorTable annuityFactorTable, CalculationTracer tracer, CalculationMetrics metrics) {
+        return create(annuityFactorTable, tracer, metrics, false);
+    }
+
+    /**
+     * Creates a new instance of annual payment loan calculator
+     *
+     * @param annuityFactorTable precomputed annuity factors
+     * @param tracer receiver of calculation events
+     * @param metrics receiver of calculation metrics
+     * @param columnar store monthly payments in {@link paqua.loan.amortization.dto.ColumnarMonthlyPayments}
+     * @return {@link AnnualPaymentLoanCalculator}
+     */
+    public static LoanAmortizationCalculator create(AnnuityFactorTable annuityFactorTable, CalculationTracer tracer, CalculationMetrics metrics, boolean columnar) {
+        return new AnnualPaymentLoanCalculator(
+                Objects.requireNonNull(annuityFactorTable),
+                Objects.requireNonNull(tracer),
+                Objects.requireNonNull(metrics),
+                columnar);
+    }
+
+    /**
+     * Creates a new instance of the fast-path annual payment loan calculator
+     * It works with long cents and unscaled long rates, the results are the same as the results of the reference calculator
+     *
+     * @return {@link FastAnnualPaymentLoanCalculator}
+     */
+    public static LoanAmortizationCalculator createFast() {
+        return new FastAnnualPaymentLoanCalculator();
+    }
+
+    /**
+     * Creates a new instance of annual payment goal seeker
+     *
+     * @param calculator calculator that evaluates loans that the seeker can't replay in cents
+     * @param annuityFactorTable precomputed annuity factors
+     * @return {@link AnnualPaymentGoalSeeker}
+     */
+    public static LoanGoalSeeker createGoalSeeker(LoanAmortizationCalculator calculator, AnnuityFactorTable annuityFactorTable) {
+        return new AnnualPaymentGoalSeeker(Objects.requireNonNull(calculator), Objects.requireNonNull(annuityFactorTable));
+    }
+
+    /**
+     * Creates a new instance of annual payment portfolio calculator
+     * It has the same results as {@link FastAnnualPaymentLoanCalculator}
+     *
+     * @return {@link AnnualPaymentPortfolioCalculator}
+     */
+    public static PortfolioCalculator createPortfolio() {
+        return new AnnualPaymentPortfolioCalculator();
+    }
+
+    /**
+     * Creates a new reusable calculation context
+     * It has the same results as {@link AnnualPaymentLoanCalculator}
+     *
+     * @param annuityFactorTable precomputed annuity factors
+     * @return {@link AnnualPaymentCalculationContext}
+     */
+    public static LoanCalculationContext createContext(AnnuityFactorTable annuityFactorTable) {
+        return new AnnualPaymentCalculationContext(Objects.requireNonNull(annuityFactorTable));
+    }
+
     private AnnualPaymentLoanCalculatorFactory() {
         throw new IllegalStateException("Instantiation is not allowed");
     }
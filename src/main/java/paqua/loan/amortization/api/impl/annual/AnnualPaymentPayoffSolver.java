@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanPayoff;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Solves the payoff of a loan without calculating the schedule
+ *
+ * Interests of {@link AnnualPaymentSchedule} are rounded to cents every month and the rounding errors grow
+ * with interest, so the closed-form annuity formulas miss the payoff of the schedule by several cents
+ * (by 3 cents on a 32-month loan). To be exact, the solver replays the recurrence of the loan balance
+ * in long cents: interest is balance * monthly rate (scale 15) rounded HALF_UP to cents, which is done
+ * exactly in integer arithmetic. No monthly payments and no {@link BigDecimal} are created per month.
+ *
+ * The solver is applicable when the schedule uses the same formulas in every month: the loan has no first payment date
+ * (interest is not calculated by days), all early payments have {@link EarlyPaymentStrategy#DECREASE_TERM} strategy
+ * (the monthly payment amount is never recalculated) and all amounts are in whole cents.
+ *
+ * @author Artyom Panfutov
+ */
+final class AnnualPaymentPayoffSolver {
+    /**
+     * Denominator of the monthly interest rate (it has scale 15)
+     */
+    static final long RATE_DENOMINATOR = 1_000_000_000_000_000L;
+
+    /**
+     * Amounts are limited, so that a product of an amount and the monthly rate is estimated by double within a few cents
+     */
+    static final long MAX_CENTS = 1L << 53;
+
+    static final long NOT_IN_CENTS = -1;
+
+    private AnnualPaymentPayoffSolver() {
+        throw new IllegalStateException("Instantiation of the solver is not allowed");
+    }
+
+    /**
+     * Solves the payoff of the loan
+     *
+     * @param loan loan with early payments implemented by a repeating strategy
+     * @param monthlyPaymentAmount monthly payment amount of the schedule
+     *
+     * @return payoff of the loan or null if the solver is not applicable to the loan
+     */
+    static LoanPayoff solve(Loan loan, BigDecimal monthlyPaymentAmount) {
+        if (loan.getFirstPaymentDate() != null || loan.getAmount().scale() > 2) {
+            return null;
+        }
+
+        final int term = loan.getTerm();
+        final long[] additionalPayments = getAdditionalPayments(loan.getEarlyPayments(), term);
+        final long amount = toCents(loan.getAmount());
+        final long payment = toCents(monthlyPaymentAmount);
+        final BigDecimal monthlyInterestRate = AnnualPaymentSchedule.getMonthlyInterestRate(loan.getRate());
+
+        if (additionalPayments == null || amount == NOT_IN_CENTS || payment == NOT_IN_CENTS
+                || monthlyInterestRate.compareTo(BigDecimal.ONE) >= 0) {
+            return null;
+        }
+
+        final long rate = monthlyInterestRate.unscaledValue().longValue();
+
+        long loanBalance = amount;
+        long overPaidInterestAmount = 0;
+        for (int i = 0; ; i++) {
+            final long interest = getInterestAmount(loanBalance, rate);
+            overPaidInterestAmount += interest;
+
+            if (i + 1 == term) {
+                return payoff(i, overPaidInterestAmount, loanBalance + interest);
+            }
+
+            final long nextLoanBalance = loanBalance - (payment - interest + additionalPayments[i]);
+
+            // If the balance gets negative, the loan is paid off by this payment (the schedule corrects its amount)
+            if (nextLoanBalance < 0) {
+                return payoff(i, overPaidInterestAmount, loanBalance + interest);
+            }
+
+            if (nextLoanBalance >= MAX_CENTS) {
+                return null;
+            }
+
+            loanBalance = nextLoanBalance;
+        }
+    }
+
+    /**
+     * Calculates balance * rate / 10^15 rounded HALF_UP
+     *
+     * The quotient is estimated by double and corrected by the exact remainder:
+     * the remainder is small, so it is calculated correctly by long arithmetic even if the product overflows
+     *
+     * @param loanBalance loan balance in cents (not negative)
+     * @param rate unscaled monthly interest rate with scale 15
+     *
+     * @return interest amount in cents
+     */
+    static long getInterestAmount(long loanBalance, long rate) {
+        long quotient = (long) ((double) loanBalance * rate / RATE_DENOMINATOR);
+        long remainder = loanBalance * rate - quotient * RATE_DENOMINATOR;
+
+        while (remainder < 0) {
+            quotient--;
+            remainder += RATE_DENOMINATOR;
+        }
+        while (remainder >= RATE_DENOMINATOR) {
+            quotient++;
+            remainder -= RATE_DENOMINATOR;
+        }
+
+        return remainder >= RATE_DENOMINATOR - remainder ? quotient + 1 : quotient;
+    }
+
+    /**
+     * @return amounts of early payments in cents by the number of payment or null if the solver is not applicable
+     */
+    private static long[] getAdditionalPayments(Map<Integer, EarlyPayment> earlyPayments, int term) {
+        final long[] additionalPayments = new long[term];
+        if (earlyPayments == null) {
+            return additionalPayments;
+        }
+
+        for (Map.Entry<Integer, EarlyPayment> entry : earlyPayments.entrySet()) {
+            final EarlyPayment earlyPayment = entry.getValue();
+            if (earlyPayment.getStrategy() != EarlyPaymentStrategy.DECREASE_TERM) {
+                return null;
+            }
+
+            final long cents = toCents(earlyPayment.getAmount());
+            if (cents == NOT_IN_CENTS) {
+                return null;
+            }
+
+            if (entry.getKey() < term) {
+                additionalPayments[entry.getKey()] = cents;
+            }
+        }
+
+        return additionalPayments;
+    }
+
+    static long toCents(BigDecimal amount) {
+        try {
+            final long cents = amount.setScale(2).unscaledValue().longValueExact();
+            return cents >= 0 && cents < MAX_CENTS ? cents : NOT_IN_CENTS;
+        } catch (ArithmeticException e) {
+            return NOT_IN_CENTS;
+        }
+    }
+
+    private static LoanPayoff payoff(int payoffMonthNumber, long overPaidInterestAmount, long finalPaymentAmount) {
+        return LoanPayoff.builder()
+                .payoffMonthNumber(payoffMonthNumber)
+                .totalInterestAmount(BigDecimal.valueOf(overPaidInterestAmount, 2))
+                .finalPaymentAmount(BigDecimal.valueOf(finalPaymentAmount, 2))
+                .build();
+    }
+}
@@ -0,0 +1,573 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import paqua.loan.amortization.api.PortfolioCalculator;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentSchedule;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.PortfolioProjection;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Portfolio calculator that advances all loans of the portfolio one month at a time
+ *
+ * The state of the loans is kept in primitive arrays (one array per attribute, indexed by the loan),
+ * so every month is a few passes over the arrays instead of a schedule per loan. The dense passes
+ * (interest, principal, balance and the aggregates) have no calls and no allocations, so they can be unrolled
+ * and vectorized by the JIT. Early payments, the end of the term and the payoff of a loan are rare
+ * and are handled in separate sparse passes.
+ *
+ * The results are the same as the results of {@link FastAnnualPaymentLoanCalculator}: amounts are in long cents,
+ * rates are unscaled longs of scale 15, interest is calculated exactly and monthly payment amounts are calculated
+ * with the annuity factor of the reference calculator, so the totals of every loan are equal to the summary of its schedule.
+ * Loan and early payment amounts must be in whole cents.
+ *
+ * @author Artyom Panfutov
+ */
+final class AnnualPaymentPortfolioCalculator implements PortfolioCalculator {
+    /**
+     * Number of combinations of the length of a month and the length of a year, see {@link #getMonthKind(int)}
+     */
+    private static final int MONTH_KINDS = 8;
+
+    @Override
+    public PortfolioProjection project(List<Loan> loans) {
+        if (loans == null) {
+            throw fail(Messages.NULL);
+        }
+
+        final Portfolio portfolio = new Portfolio(loans);
+        for (int month = 0; portfolio.activeLoans > 0; month++) {
+            portfolio.advance(month);
+        }
+
+        return portfolio.toProjection();
+    }
+
+    /**
+     * Calculates the kind of the month: index = days in month - 28 (+ 4 in a leap year)
+     *
+     * @param epochMonth number of the month since 0000-01
+     * @return kind of the month
+     */
+    static int getMonthKind(int epochMonth) {
+        final int year = Math.floorDiv(epochMonth, 12);
+        final boolean leapYear = Year.isLeap(year);
+
+        return Month.of(Math.floorMod(epochMonth, 12) + 1).length(leapYear) - 28 + (leapYear ? 4 : 0);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        final long cents = AnnualPaymentPayoffSolver.toCents(amount);
+        if (cents == AnnualPaymentPayoffSolver.NOT_IN_CENTS) {
+            throw fail(Messages.AMOUNT_IS_NOT_IN_CENTS);
+        }
+
+        return cents;
+    }
+
+    private static LoanAmortizationCalculatorException fail(Messages message) {
+        return new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, message.getMessageText());
+    }
+
+    /**
+     * State of all loans of the portfolio
+     *
+     * Loans are ordered by the term (the longest first), so the loans that are not paid off by the term yet
+     * take the first positions of the arrays and the dense passes stop at the last of them.
+     * Arrays of the state are indexed by the position, arrays of the results are indexed by the index of the loan.
+     */
+    private static final class Portfolio {
+        private final int size;
+
+        // Index of the loan by the position
+        private final int[] loanIndexes;
+
+        // Number of loans with the term longer than the month number (by the month number)
+        private final int[] loansWithinTerm;
+
+        // Attributes of the loans
+        private final long[] loanAmounts;
+        private final int[] terms;
+        private final BigDecimal[] monthlyInterestRates;
+        private final int[] repeatedFrom;
+        private final int[] repeatedTo;
+        private final long[] repeatedAmounts;
+        private final long[] repeatedDecreaseTermAmounts;
+
+        // State of the loans
+        private final long[] loanBalances;
+        private final long[] monthlyPaymentAmounts;
+        private final long[] interestRates;
+        private final long[] decreaseTermPaymentsAmounts;
+        private final long[] overPaidInterestAmounts;
+        private final boolean[] active;
+        private int activeLoans;
+
+        // Amounts of the current month
+        private final long[] interestAmounts;
+        private final long[] principalAmounts;
+
+        // Results of the loans
+        private final long[] initialMonthlyPaymentAmounts;
+        private final long[] overPaymentAmounts;
+        private final long[] totalPaymentAmounts;
+        private final int[] numberOfPayments;
+        private final int[] payoffDates;
+
+        // Loans with dates: position of the loan, epoch month of the first payment, first payment date, rates by the kind of the month
+        private final int[] datedLoans;
+        private final int[] firstPaymentMonths;
+        private final LocalDate[] firstPaymentDates;
+        private final long[] datedInterestRates;
+
+        // Single early payments grouped by the month number
+        private final int[] earlyPaymentOffsets;
+        private final int[] earlyPaymentLoans;
+        private final long[] earlyPaymentAmounts;
+        private final boolean[] earlyPaymentDecreasesMonthlyPayment;
+
+        // Loans with a repeated early payment that decreases the monthly payment
+        private final int[] repeatedMonthlyPaymentLoans;
+
+        // Aggregates by the month number
+        private long[] monthlyInterestAmounts;
+        private long[] monthlyPrincipalAmounts;
+        private long[] monthlyLoanBalanceAmounts;
+        private int[] monthlyActiveLoans;
+        private int numberOfMonths;
+
+        // Annuity factors by the monthly interest rate, calculated on demand (index is the term)
+        private final Map<BigDecimal, BigDecimal[]> annuityFactors = new HashMap<>();
+
+        Portfolio(List<Loan> loans) {
+            size = loans.size();
+
+            final int[] loanTerms = new int[size];
+            int maxTerm = 0;
+            for (int i = 0; i < size; i++) {
+                final Loan loan = loans.get(i);
+                validate(loan);
+
+                loanTerms[i] = loan.getTerm();
+                maxTerm = Math.max(maxTerm, loanTerms[i]);
+            }
+
+            // Order the loans by the term (counting sort)
+            loansWithinTerm = new int[maxTerm + 1];
+            for (int i = 0; i < size; i++) {
+                loansWithinTerm[loanTerms[i] - 1]++;
+            }
+            for (int m = maxTerm - 1; m > 0; m--) {
+                loansWithinTerm[m - 1] += loansWithinTerm[m];
+            }
+            loanIndexes = new int[size];
+            final int[] nextPosition = Arrays.copyOfRange(loansWithinTerm, 1, maxTerm + 1);
+            for (int i = 0; i < size; i++) {
+                loanIndexes[nextPosition[loanTerms[i] - 1]++] = i;
+            }
+
+            loanAmounts = new long[size];
+            terms = new int[size];
+            monthlyInterestRates = new BigDecimal[size];
+            repeatedFrom = new int[size];
+            repeatedTo = new int[size];
+            repeatedAmounts = new long[size];
+            repeatedDecreaseTermAmounts = new long[size];
+            loanBalances = new long[size];
+            monthlyPaymentAmounts = new long[size];
+            interestRates = new long[size];
+            decreaseTermPaymentsAmounts = new long[size];
+            overPaidInterestAmounts = new long[size];
+            active = new boolean[size];
+            interestAmounts = new long[size];
+            principalAmounts = new long[size];
+            initialMonthlyPaymentAmounts = new long[size];
+            overPaymentAmounts = new long[size];
+            totalPaymentAmounts = new long[size];
+            numberOfPayments = new int[size];
+            payoffDates = new int[size];
+
+            final Map<BigDecimal, BigDecimal> monthlyRates = new HashMap<>();
+            final Map<BigDecimal, long[]> ratesByMonthKind = new HashMap<>();
+
+            int numberOfDatedLoans = 0;
+            int[] dated = new int[16];
+            long[] datedRates = new long[16 * MONTH_KINDS];
+
+            int numberOfEarlyPayments = 0;
+            int[] earlyPaymentMonths = new int[16];
+            int[] earlyPaymentLoanIndexes = new int[16];
+            long[] earlyPaymentCents = new long[16];
+            boolean[] earlyPaymentStrategies = new boolean[16];
+
+            int numberOfRepeatedMonthlyPaymentLoans = 0;
+            int[] repeatedMonthlyPayment = new int[16];
+
+            for (int p = 0; p < size; p++) {
+                final int i = loanIndexes[p];
+                final Loan loan = loans.get(i);
+
+                final long amount = toCents(loan.getAmount());
+                final int term = loan.getTerm();
+                final BigDecimal rate = monthlyRates.computeIfAbsent(loan.getRate(), AnnualPaymentSchedule::getMonthlyInterestRate);
+                final long monthlyPaymentAmount = getMonthlyPaymentAmount(amount, rate, term);
+
+                loanAmounts[p] = amount;
+                terms[p] = term;
+                monthlyInterestRates[p] = rate;
+                loanBalances[p] = amount;
+                monthlyPaymentAmounts[p] = monthlyPaymentAmount;
+                interestRates[p] = rate.unscaledValue().longValueExact();
+                active[p] = true;
+                initialMonthlyPaymentAmounts[i] = monthlyPaymentAmount;
+                payoffDates[i] = PortfolioProjection.NULL_DATE;
+
+                final EarlyPaymentSchedule earlyPayments = EarlyPaymentSchedule.of(loan);
+                final EarlyPayment repeatedPayment = earlyPayments.getRepeatedPayment();
+                if (repeatedPayment != null && earlyPayments.getFromPayment() < Math.min(earlyPayments.getToPayment(), term)) {
+                    final long cents = toCents(repeatedPayment.getAmount());
+                    final boolean decreasesMonthlyPayment = repeatedPayment.getStrategy() == EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT;
+
+                    repeatedFrom[p] = earlyPayments.getFromPayment();
+                    repeatedTo[p] = Math.min(earlyPayments.getToPayment(), term);
+                    repeatedAmounts[p] = cents;
+                    repeatedDecreaseTermAmounts[p] = decreasesMonthlyPayment ? 0 : cents;
+
+                    if (decreasesMonthlyPayment) {
+                        if (numberOfRepeatedMonthlyPaymentLoans == repeatedMonthlyPayment.length) {
+                            repeatedMonthlyPayment = Arrays.copyOf(repeatedMonthlyPayment, 2 * numberOfRepeatedMonthlyPaymentLoans);
+                        }
+                        repeatedMonthlyPayment[numberOfRepeatedMonthlyPaymentLoans++] = p;
+                    }
+                }
+
+                for (Map.Entry<Integer, EarlyPayment> entry : earlyPayments.getSinglePayments().entrySet()) {
+                    final int number = entry.getKey();
+                    if (number >= term || number >= repeatedFrom[p] && number < repeatedTo[p]) {
+                        continue;
+                    }
+
+                    if (numberOfEarlyPayments == earlyPaymentMonths.length) {
+                        earlyPaymentMonths = Arrays.copyOf(earlyPaymentMonths, 2 * numberOfEarlyPayments);
+                        earlyPaymentLoanIndexes = Arrays.copyOf(earlyPaymentLoanIndexes, 2 * numberOfEarlyPayments);
+                        earlyPaymentCents = Arrays.copyOf(earlyPaymentCents, 2 * numberOfEarlyPayments);
+                        earlyPaymentStrategies = Arrays.copyOf(earlyPaymentStrategies, 2 * numberOfEarlyPayments);
+                    }
+
+                    earlyPaymentMonths[numberOfEarlyPayments] = number;
+                    earlyPaymentLoanIndexes[numberOfEarlyPayments] = p;
+                    earlyPaymentCents[numberOfEarlyPayments] = toCents(entry.getValue().getAmount());
+                    earlyPaymentStrategies[numberOfEarlyPayments] = entry.getValue().getStrategy() == EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT;
+                    numberOfEarlyPayments++;
+                }
+
+                if (loan.getFirstPaymentDate() != null) {
+                    if (numberOfDatedLoans == dated.length) {
+                        dated = Arrays.copyOf(dated, 2 * numberOfDatedLoans);
+                        datedRates = Arrays.copyOf(datedRates, 2 * numberOfDatedLoans * MONTH_KINDS);
+                    }
+
+                    System.arraycopy(ratesByMonthKind.computeIfAbsent(loan.getRate(), Portfolio::getInterestRatesByMonthKind),
+                            0, datedRates, numberOfDatedLoans * MONTH_KINDS, MONTH_KINDS);
+                    dated[numberOfDatedLoans++] = p;
+                }
+            }
+
+            activeLoans = size;
+
+            datedLoans = Arrays.copyOf(dated, numberOfDatedLoans);
+            datedInterestRates = datedRates;
+            firstPaymentMonths = new int[numberOfDatedLoans];
+            firstPaymentDates = new LocalDate[numberOfDatedLoans];
+            for (int d = 0; d < numberOfDatedLoans; d++) {
+                final LocalDate firstPaymentDate = loans.get(loanIndexes[datedLoans[d]]).getFirstPaymentDate();
+                firstPaymentDates[d] = firstPaymentDate;
+                firstPaymentMonths[d] = firstPaymentDate.getYear() * 12 + firstPaymentDate.getMonthValue() - 1;
+            }
+
+            repeatedMonthlyPaymentLoans = Arrays.copyOf(repeatedMonthlyPayment, numberOfRepeatedMonthlyPaymentLoans);
+
+            // Group early payments by the month number (counting sort)
+            earlyPaymentOffsets = new int[maxTerm + 1];
+            for (int e = 0; e < numberOfEarlyPayments; e++) {
+                earlyPaymentOffsets[earlyPaymentMonths[e] + 1]++;
+            }
+            for (int m = 0; m < maxTerm; m++) {
+                earlyPaymentOffsets[m + 1] += earlyPaymentOffsets[m];
+            }
+            earlyPaymentLoans = new int[numberOfEarlyPayments];
+            earlyPaymentAmounts = new long[numberOfEarlyPayments];
+            earlyPaymentDecreasesMonthlyPayment = new boolean[numberOfEarlyPayments];
+            final int[] next = Arrays.copyOf(earlyPaymentOffsets, maxTerm);
+            for (int e = 0; e < numberOfEarlyPayments; e++) {
+                final int position = next[earlyPaymentMonths[e]]++;
+                earlyPaymentLoans[position] = earlyPaymentLoanIndexes[e];
+                earlyPaymentAmounts[position] = earlyPaymentCents[e];
+                earlyPaymentDecreasesMonthlyPayment[position] = earlyPaymentStrategies[e];
+            }
+
+            monthlyInterestAmounts = new long[maxTerm];
+            monthlyPrincipalAmounts = new long[maxTerm];
+            monthlyLoanBalanceAmounts = new long[maxTerm];
+            monthlyActiveLoans = new int[maxTerm];
+        }
+
+        /**
+         * Calculates the payments of all loans in the month
+         *
+         * @param month number of the month
+         */
+        void advance(int month) {
+            // Rates of loans with dates depend on the length of the previous month
+            for (int d = 0; d < datedLoans.length; d++) {
+                final int i = datedLoans[d];
+                if (active[i]) {
+                    interestRates[i] = datedInterestRates[d * MONTH_KINDS + getMonthKind(firstPaymentMonths[d] + month - 1)];
+                }
+            }
+
+            final int withinTerm = loansWithinTerm[month];
+
+            // Dense pass: interest and principal of the monthly payment. Paid off loans have zero balance, rate and payment
+            long loanBalanceAmount = 0;
+            for (int i = 0; i < withinTerm; i++) {
+                final long loanBalance = loanBalances[i];
+                final long interestAmount = AnnualPaymentPayoffSolver.getInterestAmount(loanBalance, interestRates[i]);
+                final boolean repeated = month >= repeatedFrom[i] && month < repeatedTo[i];
+
+                interestAmounts[i] = interestAmount;
+                principalAmounts[i] = monthlyPaymentAmounts[i] - interestAmount + (repeated ? repeatedAmounts[i] : 0);
+                decreaseTermPaymentsAmounts[i] += repeated ? repeatedDecreaseTermAmounts[i] : 0;
+                overPaidInterestAmounts[i] += interestAmount;
+                loanBalanceAmount += loanBalance;
+            }
+
+            // Sparse pass: single early payments of the month
+            for (int e = earlyPaymentOffsets[month]; e < earlyPaymentOffsets[month + 1]; e++) {
+                final int i = earlyPaymentLoans[e];
+                if (active[i]) {
+                    principalAmounts[i] += earlyPaymentAmounts[e];
+                    if (!earlyPaymentDecreasesMonthlyPayment[e]) {
+                        decreaseTermPaymentsAmounts[i] += earlyPaymentAmounts[e];
+                    }
+                }
+            }
+
+            // Sparse pass: the last payment of the term pays the remaining balance
+            for (int i = loansWithinTerm[month + 1]; i < withinTerm; i++) {
+                if (active[i]) {
+                    principalAmounts[i] = loanBalances[i];
+                }
+            }
+
+            // Dense pass: balances and the aggregates of the month
+            long interestAmount = 0;
+            long principalAmount = 0;
+            long minLoanBalance = 0;
+            for (int i = 0; i < withinTerm; i++) {
+                final long loanBalance = loanBalances[i] - principalAmounts[i];
+
+                loanBalances[i] = loanBalance;
+                interestAmount += interestAmounts[i];
+                principalAmount += principalAmounts[i];
+                minLoanBalance = Math.min(minLoanBalance, loanBalance);
+            }
+
+            monthlyInterestAmounts[month] = interestAmount;
+            monthlyLoanBalanceAmounts[month] = loanBalanceAmount;
+            monthlyActiveLoans[month] = activeLoans;
+            numberOfMonths = month + 1;
+
+            // Sparse pass: a negative balance means that the loan is paid off, the payment is corrected to the balance
+            if (minLoanBalance < 0) {
+                for (int i = 0; i < withinTerm; i++) {
+                    if (loanBalances[i] < 0) {
+                        principalAmount += loanBalances[i];
+                        payOff(i, month, true);
+                    }
+                }
+            }
+            monthlyPrincipalAmounts[month] = principalAmount;
+
+            for (int i = loansWithinTerm[month + 1]; i < withinTerm; i++) {
+                if (active[i]) {
+                    payOff(i, month, false);
+                }
+            }
+
+            // Sparse pass: early payments that decrease the monthly payment
+            for (int e = earlyPaymentOffsets[month]; e < earlyPaymentOffsets[month + 1]; e++) {
+                if (earlyPaymentDecreasesMonthlyPayment[e]) {
+                    recalculateMonthlyPayment(earlyPaymentLoans[e], month);
+                }
+            }
+            for (int i : repeatedMonthlyPaymentLoans) {
+                if (month >= repeatedFrom[i] && month < repeatedTo[i]) {
+                    recalculateMonthlyPayment(i, month);
+                }
+            }
+        }
+
+        private void recalculateMonthlyPayment(int i, int month) {
+            final int remainingTerm = terms[i] - 1 - month;
+
+            if (active[i] && remainingTerm > 0) {
+                monthlyPaymentAmounts[i] = getMonthlyPaymentAmount(
+                        loanBalances[i] + decreaseTermPaymentsAmounts[i], monthlyInterestRates[i], remainingTerm);
+            }
+        }
+
+        /**
+         * Calculates monthly payment amount exactly as the reference calculator does
+         *
+         * Loans of a portfolio share a few rates and terms, so annuity factors are calculated once per rate and term
+         *
+         * @param amount loan balance in cents
+         * @param rate monthly interest rate (scale 15)
+         * @param term remaining term in months
+         * @return monthly payment amount in cents
+         */
+        private long getMonthlyPaymentAmount(long amount, BigDecimal rate, int term) {
+            // The term is never longer than the longest term of the portfolio
+            final BigDecimal[] factors = annuityFactors.computeIfAbsent(rate, r -> new BigDecimal[loansWithinTerm.length]);
+
+            if (factors[term] == null) {
+                factors[term] = AnnualPaymentSchedule.getAnnuityFactor(rate, term);
+            }
+
+            return BigDecimal.valueOf(amount, 2)
+                    .multiply(factors[term])
+                    .setScale(2, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        }
+
+        /**
+         * Records the results of the paid off loan and zeroes its state, so that the dense passes don't change it anymore
+         *
+         * @param p position of the loan
+         * @param month number of the last payment
+         * @param corrected the last payment is corrected (it gets the date of the next payment as in the schedule)
+         */
+        private void payOff(int p, int month, boolean corrected) {
+            final int i = loanIndexes[p];
+
+            active[p] = false;
+            activeLoans--;
+
+            numberOfPayments[i] = month + 1;
+            overPaymentAmounts[i] = overPaidInterestAmounts[p];
+            totalPaymentAmounts[i] = loanAmounts[p] + overPaidInterestAmounts[p];
+
+            loanBalances[p] = 0;
+            monthlyPaymentAmounts[p] = 0;
+            interestRates[p] = 0;
+            repeatedAmounts[p] = 0;
+            repeatedDecreaseTermAmounts[p] = 0;
+
+            final int d = Arrays.binarySearch(datedLoans, p);
+            if (d >= 0) {
+                payoffDates[i] = (int) firstPaymentDates[d].plusMonths(month + (corrected ? 1 : 0)).toEpochDay();
+            }
+        }
+
+        PortfolioProjection toProjection() {
+            return PortfolioProjection.builder()
+                    .interestAmounts(Arrays.copyOf(monthlyInterestAmounts, numberOfMonths))
+                    .principalAmounts(Arrays.copyOf(monthlyPrincipalAmounts, numberOfMonths))
+                    .loanBalanceAmounts(Arrays.copyOf(monthlyLoanBalanceAmounts, numberOfMonths))
+                    .numberOfActiveLoans(Arrays.copyOf(monthlyActiveLoans, numberOfMonths))
+                    .monthlyPaymentAmounts(initialMonthlyPaymentAmounts)
+                    .overPaymentAmounts(overPaymentAmounts)
+                    .totalPaymentAmounts(totalPaymentAmounts)
+                    .numberOfPayments(numberOfPayments)
+                    .payoffDates(payoffDates)
+                    .build();
+        }
+
+        /**
+         * Calculates interest rates by days exactly as the reference calculator does (scale 15) for every kind of month
+         */
+        private static long[] getInterestRatesByMonthKind(BigDecimal annualInterestRate) {
+            final long[] rates = new long[MONTH_KINDS];
+            for (int kind = 0; kind < MONTH_KINDS; kind++) {
+                final boolean leapYear = kind >= 4;
+                final int daysInMonth = 28 + kind % 4;
+                final int daysInYear = leapYear ? 366 : 365;
+
+                rates[kind] = annualInterestRate.multiply(BigDecimal.valueOf(daysInMonth))
+                        .divide(BigDecimal.valueOf(100).multiply(BigDecimal.valueOf(daysInYear)), 15, RoundingMode.HALF_UP)
+                        .unscaledValue()
+                        .longValueExact();
+            }
+            return rates;
+        }
+
+        private static void validate(Loan loan) {
+            if (loan == null || loan.getAmount() == null || loan.getRate() == null || loan.getTerm() == null) {
+                throw fail(Messages.NULL);
+            }
+
+            if (loan.getAmount().signum() <= 0 || loan.getTerm() <= 0 || loan.getRate().signum() <= 0) {
+                throw fail(Messages.NEGATIVE_NUMBER);
+            }
+
+            if (loan.getEarlyPayments() != null) {
+                for (Map.Entry<Integer, EarlyPayment> entry : loan.getEarlyPayments().entrySet()) {
+                    if (entry.getKey() == null || entry.getValue() == null || entry.getValue().getAmount() == null) {
+                        throw fail(Messages.NULL);
+                    }
+
+                    if (entry.getKey() < 0) {
+                        throw fail(Messages.EARLY_PAYMENT_NUMBER_IS_NEGATIVE);
+                    }
+
+                    if (entry.getValue().getAmount().signum() < 0) {
+                        throw fail(Messages.EARLY_PAYMENT_AMOUNT_IS_NEGATIVE);
+                    }
+
+                    if (entry.getValue().getStrategy() == null) {
+                        throw fail(Messages.EARLY_PAYMENT_STRATEGY_IS_NULL);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,520 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.CalculationTracer;
+import paqua.loan.amortization.api.LoanAmortizationIterator;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.MonthlyPayment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Annual payment schedule of a loan that is calculated month by month
+ *
+ * Works as a cursor: {@link #advance()} calculates the next monthly payment and the getters return its attributes.
+ * If the loan is paid off earlier than the term (because of early payments), the last payment must be corrected.
+ * To find it out, the schedule looks one month ahead after calculating each payment.
+ *
+ * @author Artyom Panfutov
+ */
+class AnnualPaymentSchedule implements LoanAmortizationIterator {
+    private final Loan loan;
+    private final AnnuityFactorTable annuityFactorTable;
+    private final CalculationTracer tracer;
+    private final CalculationMetrics metrics;
+    private final Map<Integer, EarlyPayment> earlyPayments;
+    private final int term;
+    private final BigDecimal monthlyInterestRate;
+    private final BigDecimal initialMonthlyPaymentAmount;
+
+    private BigDecimal overPaidInterestAmount = BigDecimal.ZERO;
+
+    // Running total of early payments with DECREASE_TERM strategy in the months before the current one
+    private BigDecimal decreaseTermPaymentsAmount = BigDecimal.ZERO;
+
+    private BigDecimal loanBalance;
+    private BigDecimal monthlyPaymentAmount;
+    private LocalDate paymentDate;
+
+    /**
+     * Number of the next payment to calculate
+     */
+    private int nextMonthNumber;
+
+    /**
+     * Interest amount of the next payment calculated by looking ahead (null if it is not calculated yet)
+     */
+    private BigDecimal nextInterestAmount;
+
+    /**
+     * The current payment is the last one because the loan is paid off before the end of the term
+     */
+    private boolean lastPayment;
+
+    private boolean finished;
+
+    // Iterator state
+    private boolean advanced;
+    private boolean hasPayment;
+
+    // Attributes of the current payment
+    private int monthNumber;
+    private BigDecimal interestAmount;
+    private BigDecimal principalAmount;
+    private BigDecimal paymentAmount;
+    private BigDecimal loanBalanceAmount;
+    private BigDecimal additionalPaymentAmount;
+    private LocalDate currentPaymentDate;
+
+    AnnualPaymentSchedule(Loan loan, AnnuityFactorTable annuityFactorTable, CalculationTracer tracer, CalculationMetrics metrics) {
+        this.loan = loan;
+        this.annuityFactorTable = annuityFactorTable;
+        this.tracer = tracer;
+        this.metrics = metrics;
+        this.earlyPayments = loan.getEarlyPayments() != null ? loan.getEarlyPayments() : Collections.emptyMap();
+        this.term = loan.getTerm();
+        this.loanBalance = loan.getAmount();
+        this.monthlyInterestRate = getMonthlyInterestRate(loan.getRate());
+        this.initialMonthlyPaymentAmount = getMonthlyPaymentAmount(loanBalance, monthlyInterestRate, term);
+        this.monthlyPaymentAmount = initialMonthlyPaymentAmount;
+        this.paymentDate = loan.getFirstPaymentDate();
+
+        tracer.onMonthlyPaymentAmountCalculated(0, loanBalance, term, initialMonthlyPaymentAmount);
+    }
+
+    /**
+     * Continues the schedule from the payment instead of the first one
+     *
+     * Must be called before the first {@link #advance()}. The state must be the state of the schedule
+     * before calculating the payment (as if all previous payments were calculated by this schedule).
+     *
+     * @param paymentNumber number of the payment to continue from
+     * @param loanBalance loan balance before the payment
+     * @param monthlyPaymentAmount monthly payment amount in force for the payment
+     * @param paymentDate date of the payment (null if the loan has no first payment date)
+     * @param decreaseTermPaymentsAmount total amount of early payments with {@link EarlyPaymentStrategy#DECREASE_TERM} before the payment
+     * @param overPaidInterestAmount total amount of interests of the previous payments
+     */
+    void resume(int paymentNumber, BigDecimal loanBalance, BigDecimal monthlyPaymentAmount, LocalDate paymentDate,
+                BigDecimal decreaseTermPaymentsAmount, BigDecimal overPaidInterestAmount) {
+        this.nextMonthNumber = paymentNumber;
+        this.loanBalance = loanBalance;
+        this.monthlyPaymentAmount = monthlyPaymentAmount;
+        this.paymentDate = paymentDate;
+        this.decreaseTermPaymentsAmount = decreaseTermPaymentsAmount;
+        this.overPaidInterestAmount = overPaidInterestAmount;
+    }
+
+    /**
+     * Calculates monthly payment amount after an early payment with {@link EarlyPaymentStrategy#DECREASE_MONTHLY_PAYMENT} strategy
+     * the same way as the schedule does
+     *
+     * @param loanBalanceAmount loan balance after the payment including early payments with {@link EarlyPaymentStrategy#DECREASE_TERM} strategy
+     * @param remainingTerm number of remaining payments
+     *
+     * @return monthly payment amount
+     */
+    BigDecimal calculateMonthlyPaymentAmount(BigDecimal loanBalanceAmount, int remainingTerm) {
+        return getMonthlyPaymentAmount(loanBalanceAmount, monthlyInterestRate, remainingTerm);
+    }
+
+    /**
+     * Calculates date of the payment that follows a payment with the date
+     *
+     * @param paymentNumber number of the next payment
+     * @param paymentDate date of the previous payment
+     *
+     * @return date of the next payment (null if the loan has no first payment date)
+     */
+    LocalDate calculateNextPaymentDate(int paymentNumber, LocalDate paymentDate) {
+        if (loan.getFirstPaymentDate() == null || paymentDate == null) {
+            return paymentDate;
+        }
+
+        return getNextMonthPaymentDate(paymentNumber, loan.getFirstPaymentDate(), paymentDate);
+    }
+
+    /**
+     * Calculates the next monthly payment
+     *
+     * @return true if the payment is calculated, false if the schedule is finished
+     */
+    boolean advance() {
+        if (finished) {
+            return false;
+        }
+
+        if (lastPayment || nextMonthNumber >= term) {
+            finish();
+            return false;
+        }
+
+        final int i = nextMonthNumber;
+        BigDecimal interest = nextInterestAmount;
+
+        if (interest == null) {
+            interest = calculateInterestAmount(loan, loanBalance, monthlyInterestRate, paymentDate);
+
+            // If something gets negative for some reason (because of early payments) we stop calculating
+            if (isNegative(interest)) {
+                finish();
+                return false;
+            }
+        }
+
+        overPaidInterestAmount = overPaidInterestAmount.add(interest);
+
+        BigDecimal additional = BigDecimal.ZERO;
+        EarlyPayment earlyPayment = earlyPayments.get(i);
+        if (earlyPayment != null) {
+            additional = earlyPayment.getAmount();
+        }
+
+        BigDecimal principal;
+        if (i + 1 == term) {
+            principal = loanBalance;
+        } else {
+            principal = (monthlyPaymentAmount.subtract(interest))
+                    .add(additional)
+                    .setScale(2, RoundingMode.HALF_UP);
+        }
+
+        monthNumber = i;
+        interestAmount = interest;
+        principalAmount = principal;
+        paymentAmount = interest.add(principal);
+        loanBalanceAmount = loanBalance;
+        additionalPaymentAmount = additional;
+        currentPaymentDate = paymentDate;
+
+        loanBalance = loanBalance.subtract(principal);
+
+        if (earlyPayment != null && earlyPayment.getStrategy() == EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT) {
+            BigDecimal additionalPaymentsWithRemainingLoanBalance = getTotalAmountOfEarlyPaymentsWithLoanBalance(decreaseTermPaymentsAmount, loanBalance);
+
+            if (term - 1 - i > 0) {
+                monthlyPaymentAmount = getMonthlyPaymentAmount(additionalPaymentsWithRemainingLoanBalance, monthlyInterestRate, term - 1 - i);
+                tracer.onMonthlyPaymentAmountCalculated(i + 1, additionalPaymentsWithRemainingLoanBalance, term - 1 - i, monthlyPaymentAmount);
+            }
+        }
+
+        if (earlyPayment != null && earlyPayment.getStrategy() == EarlyPaymentStrategy.DECREASE_TERM) {
+            decreaseTermPaymentsAmount = decreaseTermPaymentsAmount.add(earlyPayment.getAmount());
+        }
+
+        if (loan.getFirstPaymentDate() != null && paymentDate != null) {
+            paymentDate = getNextMonthPaymentDate(i + 1, loan.getFirstPaymentDate(), paymentDate);
+        }
+
+        nextMonthNumber = i + 1;
+        nextInterestAmount = null;
+
+        if (nextMonthNumber < term) {
+            nextInterestAmount = calculateInterestAmount(loan, loanBalance, monthlyInterestRate, paymentDate);
+
+            // If something gets negative in the next month, the loan is paid off by this payment - we correct the amount of it
+            if (isNegative(nextInterestAmount)) {
+                paymentAmount = loanBalanceAmount.add(interestAmount);
+                principalAmount = loanBalanceAmount;
+                currentPaymentDate = paymentDate;
+                lastPayment = true;
+
+                tracer.onScheduleTerminated(i);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Number of the current payment (starts with 0)
+     */
+    int getMonthNumber() {
+        return monthNumber;
+    }
+
+    /**
+     * @return Interest amount of the current payment
+     */
+    BigDecimal getInterestPaymentAmount() {
+        return interestAmount;
+    }
+
+    /**
+     * @return Principal (debt) amount of the current payment
+     */
+    BigDecimal getDebtPaymentAmount() {
+        return principalAmount;
+    }
+
+    /**
+     * @return Total amount of the current payment
+     */
+    BigDecimal getPaymentAmount() {
+        return paymentAmount;
+    }
+
+    /**
+     * @return Loan balance before the current payment
+     */
+    BigDecimal getLoanBalanceAmount() {
+        return loanBalanceAmount;
+    }
+
+    /**
+     * @return Early payment amount of the current payment
+     */
+    BigDecimal getAdditionalPaymentAmount() {
+        return additionalPaymentAmount;
+    }
+
+    /**
+     * @return Date of the current payment (null if the loan has no first payment date)
+     */
+    LocalDate getPaymentDate() {
+        return currentPaymentDate;
+    }
+
+    /**
+     * @return The current payment
+     */
+    MonthlyPayment toMonthlyPayment() {
+        return MonthlyPayment.builder()
+                .interestPaymentAmount(interestAmount)
+                .debtPaymentAmount(principalAmount)
+                .paymentAmount(paymentAmount)
+                .loanBalanceAmount(loanBalanceAmount)
+                .monthNumber(monthNumber)
+                .additionalPaymentAmount(additionalPaymentAmount)
+                .paymentDate(currentPaymentDate)
+                .build();
+    }
+
+    @Override
+    public BigDecimal getMonthlyPaymentAmount() {
+        return initialMonthlyPaymentAmount;
+    }
+
+    @Override
+    public BigDecimal getOverPaymentAmount() {
+        return overPaidInterestAmount;
+    }
+
+    @Override
+    public Map<Integer, EarlyPayment> getEarlyPayments() {
+        return earlyPayments;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!advanced) {
+            hasPayment = advance();
+            advanced = true;
+        }
+
+        return hasPayment;
+    }
+
+    @Override
+    public MonthlyPayment next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        advanced = false;
+        return toMonthlyPayment();
+    }
+
+    private void finish() {
+        finished = true;
+        tracer.onScheduleFinished(nextMonthNumber, overPaidInterestAmount);
+
+        if (nextMonthNumber < term) {
+            metrics.recordEarlyTermination(term, nextMonthNumber);
+        }
+    }
+
+    private boolean isNegative(BigDecimal interest) {
+        return interest.compareTo(BigDecimal.ZERO) < 0 || loanBalance.compareTo(BigDecimal.ZERO) < 0;
+    }
+
+    static BigDecimal getMonthlyInterestRate(BigDecimal rate) {
+        return rate
+                .divide(BigDecimal.valueOf(100), 15, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(12), 15, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates next payment date
+     *
+     * If the day of month of the first payment does not exist in the next month, the last day of the month is used instead
+     *
+     * @param paymentNumber number of the next payment
+     * @param firstPaymentDate first payment date
+     * @param paymentDate payment date
+     *
+     * @return next payment date
+     */
+    private LocalDate getNextMonthPaymentDate(int paymentNumber, LocalDate firstPaymentDate, LocalDate paymentDate) {
+        final LocalDate nextPaymentDate = getNextMonthPaymentDate(firstPaymentDate, paymentDate);
+
+        if (nextPaymentDate.getDayOfMonth() != firstPaymentDate.getDayOfMonth()) {
+            tracer.onPaymentDateAdjusted(paymentNumber, nextPaymentDate);
+        }
+
+        return nextPaymentDate;
+    }
+
+    /**
+     * Calculates next payment date without tracing
+     *
+     * @param firstPaymentDate first payment date
+     * @param paymentDate payment date
+     *
+     * @return next payment date
+     */
+    static LocalDate getNextMonthPaymentDate(LocalDate firstPaymentDate, LocalDate paymentDate) {
+        final LocalDate nextMonth = paymentDate.plusMonths(1);
+        final int dayOfMonth = firstPaymentDate.getDayOfMonth();
+        final int lengthOfMonth = nextMonth.lengthOfMonth();
+
+        if (dayOfMonth > lengthOfMonth) {
+            return nextMonth.withDayOfMonth(lengthOfMonth);
+        }
+
+        return nextMonth.withDayOfMonth(dayOfMonth);
+    }
+
+
+    /**
+     * Calculates total amount of early payments with strategy {@link EarlyPaymentStrategy#DECREASE_TERM}
+     * until certain payment number in the schedule + remaining loan balance
+     *
+     * This method is used for right calculation of amortization when there are different kinds of additional payments
+     * and we need to include this amount in calculation of monthly payment amount
+     *
+     * The total of early payments is maintained by the schedule loop as a running sum, so this is O(1)
+     * regardless of the number of early payments
+     *
+     * @param decreaseTermPaymentsAmount total amount of early payments with {@link EarlyPaymentStrategy#DECREASE_TERM} before the current payment
+     * @param loanBalance current loan balance
+     *
+     * @return total amount of early payments + remaining loan balance
+     */
+    private BigDecimal getTotalAmountOfEarlyPaymentsWithLoanBalance(BigDecimal decreaseTermPaymentsAmount, BigDecimal loanBalance) {
+        return loanBalance.add(decreaseTermPaymentsAmount);
+    }
+
+    /**
+     * Calculates monthly payment amount
+     *
+     * @param amount loan balance
+     * @param rate monthly interest rate
+     * @param term loan term in months
+     *
+     * @return monthly payment amount
+     */
+    private BigDecimal getMonthlyPaymentAmount(BigDecimal amount, BigDecimal rate, int term) {
+        return getInterestAmountByBalanceAndMonthlyInterestRate(
+                amount,
+                annuityFactorTable.getAnnuityFactor(rate, term)
+        );
+    }
+
+    /**
+     * Calculates annuity factor: rate * (1 + rate)^term / ((1 + rate)^term - 1)
+     *
+     * @param rate monthly interest rate
+     * @param term loan term in months
+     *
+     * @return annuity factor
+     */
+    static BigDecimal getAnnuityFactor(BigDecimal rate, int term) {
+        final BigDecimal growth = BigDecimal.ONE.add(rate).pow(term);
+
+        return rate.multiply(growth)
+                .divide(growth.subtract(BigDecimal.ONE), 15, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates interest rate of the month that ends with the payment: rate * days in month / (100 * days in year)
+     *
+     * @param annualInterestRate interest rate
+     * @param paymentDate payment date
+     *
+     * @return interest rate of the month (scale 15)
+     */
+    static BigDecimal getInterestRateByDays(BigDecimal annualInterestRate, LocalDate paymentDate) {
+        final LocalDate previousMonth = paymentDate.minusMonths(1);
+
+        return annualInterestRate.multiply(BigDecimal.valueOf(previousMonth.lengthOfMonth()))
+                .divide(BigDecimal.valueOf(100).multiply(BigDecimal.valueOf(previousMonth.lengthOfYear())), 15, RoundingMode.HALF_UP);
+    }
+
+
+    /**
+     * Calculates interest amount
+     *
+     * @param currentLoanBalance current loan balance
+     * @param monthlyInterestRate calculated monthly interest rate
+     *
+     * @return interest amount
+     */
+    private BigDecimal getInterestAmountByBalanceAndMonthlyInterestRate(BigDecimal currentLoanBalance, BigDecimal monthlyInterestRate) {
+        return currentLoanBalance
+                .multiply(monthlyInterestRate)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates loan balance
+     *
+     * @param loan loan
+     * @param currentLoanBalance current loan balance
+     * @param monthlyInterestRate monthly interest rate
+     * @param paymentDate current payment date
+     *
+     * @return interest amount
+     */
+    private BigDecimal calculateInterestAmount(Loan loan, BigDecimal currentLoanBalance, BigDecimal monthlyInterestRate, LocalDate paymentDate) {
+        if (paymentDate == null) {
+            return getInterestAmountByBalanceAndMonthlyInterestRate(currentLoanBalance, monthlyInterestRate);
+        }
+
+        return getInterestAmountByBalanceAndMonthlyInterestRate(
+                currentLoanBalance,
+                getInterestRateByDays(loan.getRate(), paymentDate)
+        );
+    }
+}
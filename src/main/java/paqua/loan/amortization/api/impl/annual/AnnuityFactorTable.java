@@ -0,0 +1,204 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Precomputed annuity factors for a grid of interest rates and terms
+ *
+ * The annuity factor rate * (1 + rate)^term / ((1 + rate)^term - 1) is the most expensive part of the calculation
+ * of a monthly payment amount. It depends only on the monthly interest rate and the remaining term,
+ * so for standard rates of a product catalog it can be calculated once.
+ *
+ * Factors are calculated with the same formula and rounding as the calculator, so the table does not change results.
+ * A factor that is missing in the table is calculated on each request.
+ * The table is immutable and can be shared between calculators and threads.
+ *
+ * @author Artyom Panfutov
+ */
+public final class AnnuityFactorTable {
+    private static final AnnuityFactorTable EMPTY = new AnnuityFactorTable(Collections.emptyMap());
+
+    /**
+     * Key: monthly interest rate
+     * Value: annuity factors where index is the term in months
+     */
+    private final Map<BigDecimal, BigDecimal[]> factors;
+
+    private AnnuityFactorTable(Map<BigDecimal, BigDecimal[]> factors) {
+        this.factors = factors;
+    }
+
+    /**
+     * @return table without precomputed factors (every factor is calculated)
+     */
+    public static AnnuityFactorTable empty() {
+        return EMPTY;
+    }
+
+    public static AnnuityFactorTableBuilder builder() {
+        return new AnnuityFactorTableBuilder();
+    }
+
+    /**
+     * Returns annuity factor for the monthly interest rate and term
+     *
+     * @param monthlyInterestRate monthly interest rate (scale 15 as calculated by the calculator)
+     * @param term term in months
+     *
+     * @return annuity factor
+     */
+    BigDecimal getAnnuityFactor(BigDecimal monthlyInterestRate, int term) {
+        final BigDecimal[] rateFactors = factors.isEmpty() ? null : factors.get(monthlyInterestRate);
+
+        if (rateFactors != null && term > 0 && term < rateFactors.length) {
+            return rateFactors[term];
+        }
+
+        return AnnualPaymentSchedule.getAnnuityFactor(monthlyInterestRate, term);
+    }
+
+    /**
+     * @return number of precomputed factors
+     */
+    public int size() {
+        int size = 0;
+        for (BigDecimal[] rateFactors : factors.values()) {
+            size += rateFactors.length - 1;
+        }
+        return size;
+    }
+
+    /**
+     * Builder for AnnuityFactorTable class
+     */
+    public static final class AnnuityFactorTableBuilder {
+        private final Set<BigDecimal> rates = new LinkedHashSet<>();
+        private int maxTerm;
+
+        public AnnuityFactorTableBuilder() {
+        }
+
+        /**
+         * Adds an interest rate to the grid
+         *
+         * @param rate annual interest rate (as in {@link paqua.loan.amortization.dto.Loan#getRate()})
+         * @return annuity factor table builder
+         */
+        public AnnuityFactorTableBuilder rate(BigDecimal rate) {
+            this.rates.add(rate);
+            return this;
+        }
+
+        /**
+         * Adds interest rates to the grid
+         *
+         * @param rates annual interest rates (as in {@link paqua.loan.amortization.dto.Loan#getRate()})
+         * @return annuity factor table builder
+         */
+        public AnnuityFactorTableBuilder rates(Iterable<BigDecimal> rates) {
+            for (BigDecimal rate : rates) {
+                rate(rate);
+            }
+            return this;
+        }
+
+        /**
+         * Sets maximum term of the grid (factors are calculated for every term from 1 to the maximum term)
+         *
+         * @param maxTerm maximum term in months
+         * @return annuity factor table builder
+         */
+        public AnnuityFactorTableBuilder maxTerm(int maxTerm) {
+            this.maxTerm = maxTerm;
+            return this;
+        }
+
+        /**
+         * Calculates annuity factors for every rate and term of the grid
+         *
+         * @return annuity factor table
+         */
+        public AnnuityFactorTable build() {
+            if (maxTerm <= 0) {
+                throw new LoanAmortizationCalculatorException(
+                        ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                        Messages.NEGATIVE_NUMBER.getMessageText());
+            }
+
+            final Map<BigDecimal, BigDecimal[]> factors = new HashMap<>();
+
+            for (BigDecimal rate : rates) {
+                if (rate == null) {
+                    throw new LoanAmortizationCalculatorException(
+                            ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                            Messages.NULL.getMessageText());
+                }
+
+                if (rate.compareTo(BigDecimal.ZERO) <= 0) {
+                    throw new LoanAmortizationCalculatorException(
+                            ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                            Messages.NEGATIVE_NUMBER.getMessageText());
+                }
+
+                final BigDecimal monthlyInterestRate = AnnualPaymentSchedule.getMonthlyInterestRate(rate);
+                factors.put(monthlyInterestRate, calculateFactors(monthlyInterestRate, maxTerm));
+            }
+
+            return new AnnuityFactorTable(factors);
+        }
+
+        /**
+         * Calculates factors for terms from 1 to maxTerm
+         *
+         * (1 + rate)^term is exact, so it is multiplied term by term instead of calling pow for every term
+         */
+        private static BigDecimal[] calculateFactors(BigDecimal monthlyInterestRate, int maxTerm) {
+            final BigDecimal[] rateFactors = new BigDecimal[maxTerm + 1];
+            final BigDecimal base = BigDecimal.ONE.add(monthlyInterestRate);
+
+            BigDecimal growth = BigDecimal.ONE;
+            for (int term = 1; term <= maxTerm; term++) {
+                growth = growth.multiply(base);
+
+                rateFactors[term] = monthlyInterestRate.multiply(growth)
+                        .divide(growth.subtract(BigDecimal.ONE), 15, RoundingMode.HALF_UP);
+            }
+
+            return rateFactors;
+        }
+    }
+}
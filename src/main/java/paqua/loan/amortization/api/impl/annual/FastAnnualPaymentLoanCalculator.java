@@ -0,0 +1,255 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.dto.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fast-path implementation of the annual payment loan amortization calculator
+ *
+ * Follows the same algorithm as {@link AnnualPaymentLoanCalculator}, but amounts are kept in long cents
+ * and rates in unscaled longs of scale 15 instead of {@link BigDecimal}.
+ * It is intended for mass pricing (what-if quotes).
+ *
+ * <p>The result is the same as the result of the reference engine. Rates are derived exactly as in the reference engine,
+ * the interest amount is calculated exactly in long arithmetic and rounded to cents (HALF_UP).
+ * The monthly payment amount is calculated with the same annuity factor of scale 15 as in the reference engine
+ * once per calculation and once per early payment with {@link EarlyPaymentStrategy#DECREASE_MONTHLY_PAYMENT} strategy.
+ * Neither amount may be approximated: with a high rate a difference of one cent in the loan balance or in the monthly payment
+ * is compounded at the monthly rate in the following months.
+ *
+ * <p>Loans with amounts that can't be stored in long cents (fractions of a cent or too large amounts)
+ * are calculated by the reference engine.
+ *
+ * @author Artyom Panfutov
+ */
+class FastAnnualPaymentLoanCalculator implements LoanAmortizationCalculator {
+    private static final int DAYS_IN_LEAP_YEAR = 366;
+    private static final int MAX_DAYS_IN_MONTH = 31;
+
+    private final LoanAmortizationCalculator referenceCalculator = new AnnualPaymentLoanCalculator();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LoanAmortization calculate(Loan loan) {
+        if (!isInCents(loan)) {
+            return referenceCalculator.calculate(loan);
+        }
+
+        long overPaidInterestAmount = 0;
+        long decreaseTermPaymentsAmount = 0;
+
+        final Map<Integer, EarlyPayment> earlyPayments = loan.getEarlyPayments() != null ? loan.getEarlyPayments() : Collections.emptyMap();
+        long loanBalance = AnnualPaymentPayoffSolver.toCents(loan.getAmount());
+
+        final int term = loan.getTerm();
+
+        final BigDecimal monthlyInterestRate = AnnualPaymentSchedule.getMonthlyInterestRate(loan.getRate());
+        final long unscaledMonthlyInterestRate = monthlyInterestRate.unscaledValue().longValueExact();
+        final long[] dailyInterestRates = new long[2 * MAX_DAYS_IN_MONTH + 1];
+        long monthlyPaymentAmount = getMonthlyPaymentAmount(loanBalance, monthlyInterestRate, term);
+
+        LoanAmortization.LoanAmortizationBuilder amortizationBuilder = LoanAmortization.builder()
+                .monthlyPaymentAmount(toAmount(monthlyPaymentAmount));
+
+        LocalDate paymentDate = loan.getFirstPaymentDate();
+
+        // Calculate amortization schedule
+        List<MonthlyPayment> payments = new ArrayList<>();
+        for (int i = 0; i < term; i++) {
+            long principalAmount;
+            long additionalPaymentAmount = 0;
+
+            final long interestAmount = paymentDate == null
+                    ? AnnualPaymentPayoffSolver.getInterestAmount(loanBalance, unscaledMonthlyInterestRate)
+                    : getInterestAmountByRateAndDays(loanBalance, loan.getRate(), dailyInterestRates, paymentDate);
+
+            // If something gets negative for some reason (because of early payments) we stop calculating and correct the amount in the last payment
+            if (interestAmount < 0 || loanBalance < 0) {
+                final int lastPaymentNumber = i - 1;
+
+                if (lastPaymentNumber >= 0) {
+                    final MonthlyPayment lastPayment = payments.get(lastPaymentNumber);
+
+                    payments.set(lastPaymentNumber, MonthlyPayment.builder()
+                            .monthNumber(lastPayment.getMonthNumber())
+                            .additionalPaymentAmount(lastPayment.getAdditionalPaymentAmount())
+                            .paymentAmount(lastPayment.getLoanBalanceAmount()
+                                    .add(lastPayment.getInterestPaymentAmount()))
+                            .debtPaymentAmount(lastPayment.getLoanBalanceAmount())
+                            .interestPaymentAmount(lastPayment.getInterestPaymentAmount())
+                            .paymentDate(paymentDate)
+                            .loanBalanceAmount(lastPayment.getLoanBalanceAmount())
+                            .build());
+                }
+
+                break;
+            }
+
+            overPaidInterestAmount += interestAmount;
+
+            final EarlyPayment earlyPayment = earlyPayments.get(i);
+            if (earlyPayment != null) {
+                additionalPaymentAmount = AnnualPaymentPayoffSolver.toCents(earlyPayment.getAmount());
+            }
+
+            if (i + 1 == term) {
+                principalAmount = loanBalance;
+            } else {
+                principalAmount = monthlyPaymentAmount - interestAmount + additionalPaymentAmount;
+            }
+
+            payments.add(MonthlyPayment.builder()
+                    .interestPaymentAmount(toAmount(interestAmount))
+                    .debtPaymentAmount(toAmount(principalAmount))
+                    .paymentAmount(toAmount(interestAmount + principalAmount))
+                    .loanBalanceAmount(i == 0 ? loan.getAmount() : toAmount(loanBalance))
+                    .monthNumber(i)
+                    .additionalPaymentAmount(earlyPayment != null ? earlyPayment.getAmount() : BigDecimal.ZERO)
+                    .paymentDate(paymentDate)
+                    .build());
+
+            loanBalance -= principalAmount;
+
+            if (earlyPayment != null) {
+                if (earlyPayment.getStrategy() == EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT) {
+                    if (term - 1 - i > 0) {
+                        monthlyPaymentAmount = getMonthlyPaymentAmount(loanBalance + decreaseTermPaymentsAmount, monthlyInterestRate, term - 1 - i);
+                    }
+                } else {
+                    decreaseTermPaymentsAmount += additionalPaymentAmount;
+                }
+            }
+
+            if (paymentDate != null) {
+                paymentDate = getNextMonthPaymentDate(loan.getFirstPaymentDate(), paymentDate);
+            }
+        }
+
+        return amortizationBuilder
+                .monthlyPayments(Collections.unmodifiableList(payments))
+                .overPaymentAmount(toAmount(overPaidInterestAmount))
+                .earlyPayments(earlyPayments)
+                .build();
+    }
+
+    /**
+     * Calculates monthly payment amount exactly as the reference calculator does
+     *
+     * A difference of one cent in the monthly payment would be repeated in every month and compounded with the interest,
+     * so the annuity factor is not approximated
+     *
+     * @param amount loan balance in cents
+     * @param rate monthly interest rate (scale 15)
+     * @param term loan term in months
+     *
+     * @return monthly payment amount in cents
+     */
+    static long getMonthlyPaymentAmount(long amount, BigDecimal rate, int term) {
+        return BigDecimal.valueOf(amount, 2)
+                .multiply(AnnualPaymentSchedule.getAnnuityFactor(rate, term))
+                .setScale(2, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * Calculates interest amount with actual number of days in the month and in the year
+     *
+     * The rate for the number of days is calculated exactly as the reference calculator does (scale 15).
+     * There are only a few distinct combinations of days in month and days in year, so the rates are cached per calculation
+     *
+     * @param loanBalance loan balance in cents
+     * @param annualInterestRate annual interest rate
+     * @param dailyInterestRates cache of unscaled rates (scale 15), index is days in month for 365-day years and days in month + 31 for leap years
+     * @param paymentDate current payment date
+     *
+     * @return interest amount in cents
+     */
+    private long getInterestAmountByRateAndDays(long loanBalance, BigDecimal annualInterestRate, long[] dailyInterestRates, LocalDate paymentDate) {
+        final LocalDate previousMonth = paymentDate.minusMonths(1);
+        final int daysInMonth = previousMonth.lengthOfMonth();
+        final int daysInYear = previousMonth.lengthOfYear();
+        final int index = daysInYear == DAYS_IN_LEAP_YEAR ? daysInMonth + MAX_DAYS_IN_MONTH : daysInMonth;
+
+        if (dailyInterestRates[index] == 0) {
+            dailyInterestRates[index] = annualInterestRate.multiply(BigDecimal.valueOf(daysInMonth))
+                    .divide(BigDecimal.valueOf(100).multiply(BigDecimal.valueOf(daysInYear)), 15, RoundingMode.HALF_UP)
+                    .unscaledValue()
+                    .longValueExact();
+        }
+
+        return AnnualPaymentPayoffSolver.getInterestAmount(loanBalance, dailyInterestRates[index]);
+    }
+
+    /**
+     * Calculates next payment date
+     * If the next month is shorter than the day of the first payment, the last day of the month is used
+     *
+     * @param firstPaymentDate first payment date
+     * @param paymentDate payment date
+     *
+     * @return next payment date
+     */
+    private LocalDate getNextMonthPaymentDate(LocalDate firstPaymentDate, LocalDate paymentDate) {
+        final LocalDate nextMonth = paymentDate.plusMonths(1);
+
+        return nextMonth.withDayOfMonth(Math.min(firstPaymentDate.getDayOfMonth(), nextMonth.lengthOfMonth()));
+    }
+
+    /**
+     * @return true if the amount of the loan and amounts of all its early payments can be stored in long cents
+     */
+    private static boolean isInCents(Loan loan) {
+        if (AnnualPaymentPayoffSolver.toCents(loan.getAmount()) == AnnualPaymentPayoffSolver.NOT_IN_CENTS) {
+            return false;
+        }
+
+        if (loan.getEarlyPayments() != null) {
+            for (EarlyPayment earlyPayment : loan.getEarlyPayments().values()) {
+                if (AnnualPaymentPayoffSolver.toCents(earlyPayment.getAmount()) == AnnualPaymentPayoffSolver.NOT_IN_CENTS) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.async;
+
+import paqua.loan.amortization.api.AsyncLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents a factory for the asynchronous loan calculator implementation
+ *
+ * @author Artyom Panfutov
+ */
+public final class AsyncLoanAmortizationCalculatorFactory {
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private AsyncLoanAmortizationCalculatorFactory() {
+        throw new IllegalStateException("Instantiation of the factory is not allowed");
+    }
+
+    /**
+     * Creates a new instance of {@link ExecutorAsyncLoanAmortizationCalculator} that calculates
+     * as many loans at a time as there are processors
+     *
+     * @return new calculator instance {@link ExecutorAsyncLoanAmortizationCalculator}
+     */
+    public static AsyncLoanAmortizationCalculator create() {
+        return create(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new instance of {@link ExecutorAsyncLoanAmortizationCalculator}
+     *
+     * @param maxConcurrency maximum number of loans calculated at a time
+     * @return new calculator instance {@link ExecutorAsyncLoanAmortizationCalculator}
+     */
+    public static AsyncLoanAmortizationCalculator create(int maxConcurrency) {
+        return create(LoanAmortizationCalculatorFactory.create(), maxConcurrency);
+    }
+
+    /**
+     * Creates a new instance of {@link ExecutorAsyncLoanAmortizationCalculator}
+     *
+     * Loans are calculated in virtual threads on Java 21 and later, and in a pool of {@code maxConcurrency} daemon threads otherwise.
+     * The executor is shut down when the calculator is closed.
+     *
+     * @param calculator calculator of a single loan (must be thread-safe)
+     * @param maxConcurrency maximum number of loans calculated at a time
+     * @return new calculator instance {@link ExecutorAsyncLoanAmortizationCalculator}
+     */
+    public static AsyncLoanAmortizationCalculator create(LoanAmortizationCalculator calculator, int maxConcurrency) {
+        requirePositive(maxConcurrency);
+
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(maxConcurrency, task -> {
+                final Thread thread = new Thread(task, "loan-calculator-async-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        return new ExecutorAsyncLoanAmortizationCalculator(Objects.requireNonNull(calculator), executor, executor, maxConcurrency);
+    }
+
+    /**
+     * Creates a new instance of {@link ExecutorAsyncLoanAmortizationCalculator}
+     *
+     * The executor is not shut down when the calculator is closed. It must not run tasks in the submitting thread.
+     *
+     * @param calculator calculator of a single loan (must be thread-safe)
+     * @param executor executor in which loans are calculated
+     * @param maxConcurrency maximum number of loans submitted to the executor at a time
+     * @return new calculator instance {@link ExecutorAsyncLoanAmortizationCalculator}
+     */
+    public static AsyncLoanAmortizationCalculator create(LoanAmortizationCalculator calculator, Executor executor, int maxConcurrency) {
+        requirePositive(maxConcurrency);
+
+        return new ExecutorAsyncLoanAmortizationCalculator(Objects.requireNonNull(calculator), Objects.requireNonNull(executor), null, maxConcurrency);
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread for every task
+     *
+     * The method is looked up reflectively, so the library is still compiled for Java 8.
+     *
+     * @return executor or null if virtual threads are not available in the runtime
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available before Java 21 (or requires --enable-preview on Java 19-20)
+            return null;
+        }
+    }
+
+    private static void requirePositive(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                    Messages.MAX_CONCURRENCY_IS_NOT_POSITIVE.getMessageText());
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.async;
+
+import paqua.loan.amortization.api.AsyncLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The implementation of asynchronous loan amortization calculator
+ *
+ * Calculations wait in a queue until one of the permits is free, so no more than the maximum number of calculations
+ * is submitted to the executor at a time and no thread is blocked waiting for a permit.
+ * Timeouts are scheduled in a single daemon thread shared by all calculators.
+ *
+ * @author Artyom Panfutov
+ */
+class ExecutorAsyncLoanAmortizationCalculator implements AsyncLoanAmortizationCalculator {
+    private final LoanAmortizationCalculator calculator;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Semaphore permits;
+    private final Queue<Calculation> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param calculator calculator of a single loan
+     * @param executor executor in which loans are calculated
+     * @param ownedExecutor executor to shut down on close (null if the executor is not owned by the calculator)
+     * @param maxConcurrency maximum number of calculations submitted to the executor at a time
+     */
+    ExecutorAsyncLoanAmortizationCalculator(LoanAmortizationCalculator calculator, Executor executor, ExecutorService ownedExecutor, int maxConcurrency) {
+        this.calculator = calculator;
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public CompletableFuture<LoanAmortization> calculateAsync(Loan loan) {
+        final Calculation calculation = new Calculation(loan);
+        submit(calculation);
+
+        return calculation;
+    }
+
+    @Override
+    public CompletableFuture<LoanAmortization> calculateAsync(Loan loan, long timeout, TimeUnit unit) {
+        requirePositive(timeout);
+
+        final Calculation calculation = new Calculation(loan);
+        scheduleTimeout(calculation, timeout, Objects.requireNonNull(unit));
+        submit(calculation);
+
+        return calculation;
+    }
+
+    @Override
+    public CompletableFuture<List<LoanAmortizationResult>> calculateAllAsync(Collection<Loan> loans) {
+        return calculateAll(loans, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CompletableFuture<List<LoanAmortizationResult>> calculateAllAsync(Collection<Loan> loans, long timeout, TimeUnit unit) {
+        requirePositive(timeout);
+
+        return calculateAll(loans, timeout, Objects.requireNonNull(unit));
+    }
+
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Calculates loans with the timeout for every loan (no timeout if it is 0)
+     */
+    private CompletableFuture<List<LoanAmortizationResult>> calculateAll(Collection<Loan> loans, long timeout, TimeUnit unit) {
+        final List<Calculation> calculations = new ArrayList<>(loans.size());
+        for (Loan loan : loans) {
+            calculations.add(new Calculation(loan));
+        }
+
+        final CompletableFuture<List<LoanAmortizationResult>> result = new CompletableFuture<>();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final List<CompletableFuture<LoanAmortizationResult>> results = new ArrayList<>(calculations.size());
+
+        for (Calculation calculation : calculations) {
+            final CompletableFuture<LoanAmortizationResult> loanResult = calculation.handle(ExecutorAsyncLoanAmortizationCalculator::toResult);
+
+            // The first failure other than a failure of the calculation fails the batch without waiting for other loans.
+            // Other loans are cancelled before the batch is completed, so none of them is calculated after that.
+            loanResult.whenComplete((ignored, exception) -> {
+                if (exception != null && failed.compareAndSet(false, true)) {
+                    calculations.forEach(other -> other.cancel(false));
+                    result.completeExceptionally(exception);
+                }
+            });
+
+            results.add(loanResult);
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            final List<LoanAmortizationResult> list = new ArrayList<>(results.size());
+            for (CompletableFuture<LoanAmortizationResult> loanResult : results) {
+                list.add(loanResult.join());
+            }
+
+            result.complete(Collections.unmodifiableList(list));
+        });
+
+        result.whenComplete((ignored, exception) -> {
+            if (exception != null) {
+                calculations.forEach(calculation -> calculation.cancel(false));
+            }
+        });
+
+        for (Calculation calculation : calculations) {
+            if (timeout > 0) {
+                scheduleTimeout(calculation, timeout, unit);
+            }
+            submit(calculation);
+        }
+
+        return result;
+    }
+
+    private static void scheduleTimeout(Calculation calculation, long timeout, TimeUnit unit) {
+        final ScheduledFuture<?> timer = Timer.SCHEDULER.schedule(
+                () -> calculation.completeExceptionally(new TimeoutException()), timeout, unit);
+        calculation.whenComplete((amortization, exception) -> timer.cancel(false));
+    }
+
+    private static void requirePositive(long timeout) {
+        if (timeout <= 0) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                    Messages.TIMEOUT_IS_NOT_POSITIVE.getMessageText());
+        }
+    }
+
+    private static LoanAmortizationResult toResult(LoanAmortization amortization, Throwable exception) {
+        if (exception == null) {
+            return LoanAmortizationResult.success(amortization);
+        }
+
+        final Throwable cause = exception instanceof CompletionException && exception.getCause() != null ? exception.getCause() : exception;
+        if (cause instanceof LoanAmortizationCalculatorException) {
+            return LoanAmortizationResult.failure((LoanAmortizationCalculatorException) cause);
+        }
+
+        throw exception instanceof CompletionException ? (CompletionException) exception : new CompletionException(exception);
+    }
+
+    private void submit(Calculation calculation) {
+        pending.add(calculation);
+        dispatch();
+    }
+
+    /**
+     * Submits waiting calculations to the executor while there are free permits
+     *
+     * A permit is released before the queue is checked again, so a calculation added concurrently is never left in the queue.
+     */
+    private void dispatch() {
+        while (!pending.isEmpty() && permits.tryAcquire()) {
+            final Calculation calculation = pending.poll();
+
+            if (calculation == null || calculation.isDone()) {
+                // The queue is drained by another thread or the calculation is cancelled (or timed out) in the queue
+                permits.release();
+                continue;
+            }
+
+            try {
+                executor.execute(calculation);
+            } catch (RejectedExecutionException e) {
+                calculation.completeExceptionally(e);
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Calculation of a loan that is completed by itself
+     */
+    private final class Calculation extends CompletableFuture<LoanAmortization> implements Runnable {
+        private final Loan loan;
+
+        Calculation(Loan loan) {
+            this.loan = loan;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!isDone()) {
+                    complete(calculator.calculate(loan));
+                }
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            } finally {
+                permits.release();
+                dispatch();
+            }
+        }
+    }
+
+    /**
+     * Holder of the scheduler of timeouts (the thread is started on the first calculation with a timeout)
+     */
+    private static final class Timer {
+        static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, task -> {
+            final Thread thread = new Thread(task, "loan-calculator-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
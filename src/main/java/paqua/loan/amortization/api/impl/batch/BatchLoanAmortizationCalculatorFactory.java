@@ -0,0 +1,73 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.batch;
+
+import paqua.loan.amortization.api.BatchLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Represents a factory for the batch loan calculator implementation
+ *
+ * @author Artyom Panfutov
+ */
+public final class BatchLoanAmortizationCalculatorFactory {
+    private BatchLoanAmortizationCalculatorFactory() {
+        throw new IllegalStateException("Instantiation of the factory is not allowed");
+    }
+
+    /**
+     * Creates a new instance of {@link ForkJoinBatchLoanAmortizationCalculator} that uses the common fork-join pool
+     *
+     * @return new calculator instance {@link ForkJoinBatchLoanAmortizationCalculator}
+     */
+    public static BatchLoanAmortizationCalculator create() {
+        return create(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new instance of {@link ForkJoinBatchLoanAmortizationCalculator}
+     *
+     * @param pool pool in which loans are calculated
+     * @return new calculator instance {@link ForkJoinBatchLoanAmortizationCalculator}
+     */
+    public static BatchLoanAmortizationCalculator create(ForkJoinPool pool) {
+        return create(LoanAmortizationCalculatorFactory.create(), pool);
+    }
+
+    /**
+     * Creates a new instance of {@link ForkJoinBatchLoanAmortizationCalculator}
+     *
+     * @param calculator calculator of a single loan (must be thread-safe)
+     * @param pool pool in which loans are calculated
+     * @return new calculator instance {@link ForkJoinBatchLoanAmortizationCalculator}
+     */
+    public static BatchLoanAmortizationCalculator create(LoanAmortizationCalculator calculator, ForkJoinPool pool) {
+        return new ForkJoinBatchLoanAmortizationCalculator(Objects.requireNonNull(calculator), Objects.requireNonNull(pool));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.batch;
+
+import paqua.loan.amortization.api.BatchLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The implementation of batch loan amortization calculator
+ *
+ * Splits the batch into ranges of loans and calculates them in a fork-join pool.
+ * Every task writes results to its own range of the result array, so the order of the input is preserved without merging.
+ *
+ * @author Artyom Panfutov
+ */
+class ForkJoinBatchLoanAmortizationCalculator implements BatchLoanAmortizationCalculator {
+    /**
+     * Number of tasks per a thread of the pool (more tasks - better balance for loans of different terms)
+     */
+    private static final int TASKS_PER_THREAD = 8;
+
+    private final LoanAmortizationCalculator calculator;
+    private final ForkJoinPool pool;
+
+    ForkJoinBatchLoanAmortizationCalculator(LoanAmortizationCalculator calculator, ForkJoinPool pool) {
+        this.calculator = calculator;
+        this.pool = pool;
+    }
+
+    @Override
+    public List<LoanAmortizationResult> calculateAll(Collection<Loan> loans) {
+        final Loan[] input = loans.toArray(new Loan[0]);
+        final LoanAmortizationResult[] results = new LoanAmortizationResult[input.length];
+
+        if (input.length == 0) {
+            return Collections.emptyList();
+        }
+
+        final int threshold = Math.max(1, input.length / (pool.getParallelism() * TASKS_PER_THREAD));
+        pool.invoke(new CalculationTask(input, results, 0, input.length, threshold));
+
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private LoanAmortizationResult calculate(Loan loan) {
+        try {
+            return LoanAmortizationResult.success(calculator.calculate(loan));
+        } catch (LoanAmortizationCalculatorException e) {
+            return LoanAmortizationResult.failure(e);
+        } catch (RuntimeException e) {
+            // Any other failure of the calculation is a failure of this loan only
+            return LoanAmortizationResult.failure(new LoanAmortizationCalculatorException(ExceptionType.CALCULATION_EXCEPTION, e));
+        }
+    }
+
+    /**
+     * Calculates loans in the range [from, to)
+     */
+    private final class CalculationTask extends RecursiveAction {
+        private static final long serialVersionUID = 4857126305146830167L;
+
+        private final Loan[] loans;
+        private final LoanAmortizationResult[] results;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        CalculationTask(Loan[] loans, LoanAmortizationResult[] results, int from, int to, int threshold) {
+            this.loans = loans;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    results[i] = calculate(loans[i]);
+                }
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(
+                    new CalculationTask(loans, results, from, middle, threshold),
+                    new CalculationTask(loans, results, middle, to, threshold));
+        }
+    }
+}
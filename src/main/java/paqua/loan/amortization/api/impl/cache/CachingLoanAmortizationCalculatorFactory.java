@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.cache;
+
+import paqua.loan.amortization.api.CachingLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.util.Objects;
+
+/**
+ * Represents a factory for the caching loan calculator implementation
+ *
+ * @author Artyom Panfutov
+ */
+public final class CachingLoanAmortizationCalculatorFactory {
+    private CachingLoanAmortizationCalculatorFactory() {
+        throw new IllegalStateException("Instantiation of the factory is not allowed");
+    }
+
+    /**
+     * Creates a new instance of {@link LruCachingLoanAmortizationCalculator} in front of the default calculator
+     *
+     * @param maximumSize maximum number of cached amortizations
+     * @return new calculator instance {@link LruCachingLoanAmortizationCalculator}
+     */
+    public static CachingLoanAmortizationCalculator create(int maximumSize) {
+        return create(LoanAmortizationCalculatorFactory.create(), maximumSize);
+    }
+
+    /**
+     * Creates a new instance of {@link LruCachingLoanAmortizationCalculator}
+     *
+     * @param calculator calculator which results are cached (must be thread-safe)
+     * @param maximumSize maximum number of cached amortizations
+     * @return new calculator instance {@link LruCachingLoanAmortizationCalculator}
+     */
+    public static CachingLoanAmortizationCalculator create(LoanAmortizationCalculator calculator, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new LoanAmortizationCalculatorException(
+                    ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                    Messages.CACHE_SIZE_IS_NOT_POSITIVE.getMessageText());
+        }
+
+        return new LruCachingLoanAmortizationCalculator(Objects.requireNonNull(calculator), maximumSize);
+    }
+}
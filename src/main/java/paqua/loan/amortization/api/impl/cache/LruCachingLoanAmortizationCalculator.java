@@ -0,0 +1,223 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.cache;
+
+import paqua.loan.amortization.api.CachingLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The implementation of caching loan amortization calculator with least recently used eviction
+ *
+ * The cache is split into segments by the hash of the loan. Every segment is an access-ordered {@link LinkedHashMap}
+ * guarded by its own lock, so threads calculating different loans rarely wait for each other.
+ * The least recently used loan is evicted within a segment, so for a large cache the eviction order is approximate.
+ * The calculation itself is done outside of the lock: concurrent misses of the same loan may calculate it twice,
+ * but they never block lookups of other loans.
+ *
+ * A loan is stored in the cache as a snapshot: the early payments map (and additional parameters of early payments)
+ * are copied, so a map that is changed by the caller after the calculation does not corrupt the cache.
+ *
+ * @author Artyom Panfutov
+ */
+class LruCachingLoanAmortizationCalculator implements CachingLoanAmortizationCalculator {
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * Minimal size of a segment (small caches are not split, so they evict exactly the least recently used loan)
+     */
+    private static final int MIN_SEGMENT_SIZE = 64;
+
+    private final LoanAmortizationCalculator calculator;
+    private final Segment[] segments;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    LruCachingLoanAmortizationCalculator(LoanAmortizationCalculator calculator, int maximumSize) {
+        this.calculator = calculator;
+
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maximumSize / MIN_SEGMENT_SIZE)));
+        this.segments = new Segment[segmentCount];
+
+        for (int i = 0; i < segmentCount; i++) {
+            // Distribute the maximum size between segments so that the total does not exceed it
+            segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Returns the cached amortization of the loan or calculates it
+     *
+     * Failed calculations are not cached
+     *
+     * @return Calculated loan amortization {@link LoanAmortization}
+     */
+    @Override
+    public LoanAmortization calculate(Loan loan) {
+        if (loan == null) {
+            return calculator.calculate(null);
+        }
+
+        // The amortization is calculated from the same snapshot it is cached by,
+        // changes of the early payments of the loan during the calculation can't affect the key
+        final Loan key = snapshot(loan);
+        final Segment segment = segmentFor(key);
+
+        LoanAmortization amortization = segment.get(key);
+        if (amortization != null) {
+            hitCount.increment();
+            return amortization;
+        }
+
+        missCount.increment();
+        amortization = calculator.calculate(key);
+        segment.put(key, amortization);
+
+        return amortization;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(Loan loan) {
+        int hash = loan.hashCode();
+        hash ^= (hash >>> 16);
+
+        return segments[hash & (segments.length - 1)];
+    }
+
+    /**
+     * Creates a copy of the loan that is not affected by changes of the maps of the original loan
+     */
+    private static Loan snapshot(Loan loan) {
+        if (loan.getEarlyPayments() == null) {
+            return loan;
+        }
+
+        final Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        for (Map.Entry<Integer, EarlyPayment> entry : loan.getEarlyPayments().entrySet()) {
+            earlyPayments.put(entry.getKey(), snapshot(entry.getValue()));
+        }
+
+        return Loan.builder()
+                .amount(loan.getAmount())
+                .rate(loan.getRate())
+                .term(loan.getTerm())
+                .firstPaymentDate(loan.getFirstPaymentDate())
+                .earlyPayments(Collections.unmodifiableMap(earlyPayments))
+                .build();
+    }
+
+    private static EarlyPayment snapshot(EarlyPayment earlyPayment) {
+        if (earlyPayment == null || earlyPayment.getAdditionalParameters() == null) {
+            return earlyPayment;
+        }
+
+        return new EarlyPayment(
+                earlyPayment.getAmount(),
+                earlyPayment.getStrategy(),
+                earlyPayment.getRepeatingStrategy(),
+                earlyPayment.getAdditionalParameters().isEmpty()
+                        ? Collections.emptyMap()
+                        : Collections.unmodifiableMap(new EnumMap<>(earlyPayment.getAdditionalParameters())));
+    }
+
+    /**
+     * Part of the cache with its own lock and maximum size
+     */
+    private final class Segment {
+        private final LinkedHashMap<Loan, LoanAmortization> entries;
+
+        Segment(int maximumSize) {
+            this.entries = new LinkedHashMap<Loan, LoanAmortization>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Loan, LoanAmortization> eldest) {
+                    if (size() > maximumSize) {
+                        evictionCount.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized LoanAmortization get(Loan loan) {
+            return entries.get(loan);
+        }
+
+        synchronized void put(Loan loan, LoanAmortization amortization) {
+            entries.put(loan, amortization);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+    }
+}
@@ -35,7 +35,27 @@ public enum Messages {
     NEGATIVE_NUMBER("Input can't be negative!"),
     EARLY_PAYMENT_NUMBER_IS_NEGATIVE("Early payment number can't be negative!"),
     EARLY_PAYMENT_AMOUNT_IS_NEGATIVE("Early payment amount can't be negative!"),
-    EARLY_PAYMENT_STRATEGY_IS_NULL("Early payment strategy can't be null");
+    EARLY_PAYMENT_STRATEGY_IS_NULL("Early payment strategy can't be null"),
+    CACHE_SIZE_IS_NOT_POSITIVE("Maximum size of the cache must be positive!"),
+    UNSUPPORTED_FORMAT_VERSION("Unsupported version of the binary format!"),
+    UNEXPECTED_RECORD_TYPE("Unexpected type of the binary record!"),
+    MALFORMED_BINARY_DATA("Binary data is malformed!"),
+    AMOUNT_IS_NOT_IN_CENTS("Amount can't be stored in cents!"),
+    DUPLICATE_LOAN_ID("Schedule of the loan is already stored!"),
+    MALFORMED_LOAN_RECORD("Loan record is malformed!"),
+    MISSING_LOAN_FILE_COLUMNS("Header of the loan file doesn't contain required columns!"),
+    PARALLELISM_IS_NOT_POSITIVE("Parallelism must be positive!"),
+    MAX_IN_FLIGHT_IS_NOT_POSITIVE("Maximum number of records in flight must be positive!"),
+    GOAL_IS_NOT_REACHABLE("Goal can't be reached for the loan!"),
+    REPEATING_EARLY_PAYMENTS_ARE_NOT_SUPPORTED("Loan with repeating early payments isn't supported!"),
+    NUMBER_OF_SCENARIOS_IS_NOT_POSITIVE("Number of scenarios must be positive!"),
+    PROBABILITY_IS_OUT_OF_RANGE("Probability must be between 0 and 1!"),
+    PREPAYMENT_AMOUNT_RANGE_IS_INVALID("Prepayment amount range is invalid!"),
+    MAX_CONCURRENCY_IS_NOT_POSITIVE("Maximum number of concurrent calculations must be positive!"),
+    TIMEOUT_IS_NOT_POSITIVE("Timeout must be positive!"),
+    RATE_IS_OUT_OF_RANGE("Interest rate is out of the supported range!"),
+    EARLY_PAYMENT_REPEATING_STRATEGY_IS_NULL("Early payment repeating strategy can't be null"),
+    REPEAT_TO_MONTH_NUMBER_IS_INVALID("Early payment repeated to a certain month must have a valid month number!");
 
     private final String messageText;
 
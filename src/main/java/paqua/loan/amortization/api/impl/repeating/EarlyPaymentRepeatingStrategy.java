@@ -30,10 +30,6 @@ import paqua.loan.amortization.dto.EarlyPayment;
 import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
 import paqua.loan.amortization.dto.Loan;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Represents strategies with implementation for repeating early payments
  *
@@ -46,11 +42,11 @@ public enum EarlyPaymentRepeatingStrategy implements RepeatableEarlyPayment {
      */
     SINGLE {
         @Override
-        public Map<Integer, EarlyPayment> getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment) {
+        public EarlyPaymentSchedule getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment) {
             log(earlyPayment, SINGLE);
 
             // This strategy must not repeat payments. It is the default strategy for all early payments
-            return Collections.emptyMap();
+            return EarlyPaymentSchedule.empty();
         }
     },
 
@@ -59,7 +55,7 @@ public enum EarlyPaymentRepeatingStrategy implements RepeatableEarlyPayment {
      */
     TO_END {
         @Override
-        public Map<Integer, EarlyPayment> getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment) {
+        public EarlyPaymentSchedule getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment) {
             log(earlyPayment, TO_END);
 
             return repeat(
@@ -77,7 +73,7 @@ public enum EarlyPaymentRepeatingStrategy implements RepeatableEarlyPayment {
      */
     TO_CERTAIN_MONTH {
         @Override
-        public Map<Integer, EarlyPayment> getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment) {
+        public EarlyPaymentSchedule getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment) {
             log(earlyPayment, EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH);
 
             int repeatTo = Integer.parseInt(earlyPayment.getAdditionalParameters().get(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER));
@@ -93,24 +89,23 @@ public enum EarlyPaymentRepeatingStrategy implements RepeatableEarlyPayment {
     private static final Logger LOGGER = LoggerFactory.getLogger(EarlyPaymentRepeatingStrategy.class);
 
     /**
-     * Copies an early payment within this range
+     * Repeats an early payment within this range
+     *
+     * The payment is not copied to every month: the returned schedule holds one single payment for the whole range
      *
-     * @param earlyPayment source payment to copy
-     * @param fromPayment number of the payment from which to start copying (left boundary, inclusive)
-     * @param toPayment number of the payment to stop copying (right boundary, exclusive)
+     * @param earlyPayment source payment to repeat
+     * @param fromPayment number of the payment from which to start repeating (left boundary, inclusive)
+     * @param toPayment number of the payment to stop repeating (right boundary, exclusive)
      */
-    Map<Integer, EarlyPayment> repeat(EarlyPayment earlyPayment, int fromPayment, int toPayment) {
-        Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
-
-        for (int i = fromPayment; i < toPayment; i++) {
-            earlyPayments.put(i, new EarlyPayment(
+    EarlyPaymentSchedule repeat(EarlyPayment earlyPayment, int fromPayment, int toPayment) {
+        return EarlyPaymentSchedule.repeated(
+                new EarlyPayment(
                     earlyPayment.getAmount(),
                     earlyPayment.getStrategy(),
                     EarlyPaymentRepeatingStrategy.SINGLE,
-                    null));
-        }
-
-        return earlyPayments;
+                    null),
+                fromPayment,
+                toPayment);
     }
 
     void log(EarlyPayment earlyPayment, EarlyPaymentRepeatingStrategy strategy) {
@@ -0,0 +1,308 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.repeating;
+
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.Loan;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only view of early payments of a loan with an applied repeating strategy
+ *
+ * A repeated payment is not copied to every month of its range. The view keeps one payment
+ * with the range of months [fromPayment, toPayment) and answers which early payment applies in a month on demand.
+ * Single payments are kept as they are. If a single payment falls into the range of the repeated payment,
+ * the repeated payment takes precedence.
+ *
+ * The view is a regular {@link Map} (key: number of payment, value: early payment) that is equal to the map
+ * with every repeated payment copied to its month, so callers that read early payments see the same content.
+ *
+ * @author Artyom Panfutov
+ */
+public final class EarlyPaymentSchedule extends AbstractMap<Integer, EarlyPayment> implements Serializable {
+    private static final long serialVersionUID = 2716368254407751845L;
+
+    private static final EarlyPaymentSchedule EMPTY = new EarlyPaymentSchedule(Collections.emptyMap(), null, 0, 0, null);
+
+    /**
+     * Early payments that are not repeated
+     */
+    private final Map<Integer, EarlyPayment> singlePayments;
+
+    /**
+     * Repeated early payment (can be null)
+     */
+    private final EarlyPayment repeatedPayment;
+
+    /**
+     * Number of the payment from which the payment is repeated (inclusive)
+     */
+    private final int fromPayment;
+
+    /**
+     * Number of the payment to which the payment is repeated (exclusive)
+     */
+    private final int toPayment;
+
+    private final int size;
+
+    /**
+     * Early payments by number of payment (null if the schedule is not indexed)
+     */
+    private final EarlyPayment[] index;
+
+    private transient Set<Entry<Integer, EarlyPayment>> entrySet;
+
+    private EarlyPaymentSchedule(Map<Integer, EarlyPayment> singlePayments, EarlyPayment repeatedPayment, int fromPayment, int toPayment,
+                                 EarlyPayment[] index) {
+        this.singlePayments = singlePayments;
+        this.index = index;
+        this.repeatedPayment = repeatedPayment;
+        this.fromPayment = fromPayment;
+        this.toPayment = repeatedPayment != null ? Math.max(fromPayment, toPayment) : fromPayment;
+
+        int shadowedPayments = 0;
+        for (Integer number : singlePayments.keySet()) {
+            if (isRepeated(number)) {
+                shadowedPayments++;
+            }
+        }
+        this.size = singlePayments.size() - shadowedPayments + (this.toPayment - this.fromPayment);
+    }
+
+    /**
+     * @return schedule without early payments
+     */
+    public static EarlyPaymentSchedule empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a schedule of early payments of the loan
+     *
+     * Only the first found early payment with a repeating strategy is repeated.
+     * If there are more than one early payments with repeating strategy - the others are ignored:
+     * this case cannot be supported because it is contradictory - such payments could intersect with each other
+     *
+     * @param loan loan with early payments
+     * @return early payment schedule
+     */
+    public static EarlyPaymentSchedule of(Loan loan) {
+        if (loan.getEarlyPayments() == null) {
+            return EMPTY;
+        }
+
+        return loan.getEarlyPayments().entrySet().stream()
+                .filter(p -> p.getValue().getRepeatingStrategy() != EarlyPaymentRepeatingStrategy.SINGLE)
+                .findFirst()
+                .map(p -> p.getValue().getRepeatingStrategy().getRepeated(loan, p.getKey(), p.getValue()))
+                .orElse(EarlyPaymentSchedule.empty())
+                .withSinglePayments(loan.getEarlyPayments().entrySet().stream()
+                        .filter(entry -> entry.getValue().getRepeatingStrategy().equals(EarlyPaymentRepeatingStrategy.SINGLE))
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+    }
+
+    /**
+     * Creates a schedule with one payment repeated in every month of the range
+     *
+     * @param repeatedPayment payment to repeat
+     * @param fromPayment number of the payment from which to start repeating (left boundary, inclusive)
+     * @param toPayment number of the payment to stop repeating (right boundary, exclusive)
+     *
+     * @return early payment schedule
+     */
+    public static EarlyPaymentSchedule repeated(EarlyPayment repeatedPayment, int fromPayment, int toPayment) {
+        return new EarlyPaymentSchedule(Collections.emptyMap(), repeatedPayment, fromPayment, toPayment, null);
+    }
+
+    /**
+     * Creates a schedule with the same repeated payment and the given single payments
+     *
+     * @param singlePayments payments that are not repeated (the map is copied)
+     * @return early payment schedule
+     */
+    public EarlyPaymentSchedule withSinglePayments(Map<Integer, EarlyPayment> singlePayments) {
+        return new EarlyPaymentSchedule(
+                singlePayments.isEmpty() ? Collections.emptyMap() : new HashMap<>(singlePayments),
+                repeatedPayment,
+                fromPayment,
+                toPayment,
+                null);
+    }
+
+    /**
+     * Creates the same schedule with early payments of the first payments put to an array
+     *
+     * An early payment of a payment number below the given number is found by the index in the array.
+     * The schedule is equal to this schedule.
+     *
+     * @param numberOfPayments number of payments to index (usually the term of the loan)
+     * @return indexed early payment schedule
+     */
+    public EarlyPaymentSchedule indexed(int numberOfPayments) {
+        final EarlyPayment[] payments = new EarlyPayment[Math.max(numberOfPayments, 0)];
+        for (int i = 0; i < payments.length; i++) {
+            payments[i] = getPayment(i);
+        }
+
+        return new EarlyPaymentSchedule(singlePayments, repeatedPayment, fromPayment, toPayment, payments);
+    }
+
+    /**
+     * @return repeated early payment or null if no payment is repeated
+     */
+    public EarlyPayment getRepeatedPayment() {
+        return repeatedPayment;
+    }
+
+    /**
+     * @return number of the payment from which the payment is repeated (inclusive)
+     */
+    public int getFromPayment() {
+        return fromPayment;
+    }
+
+    /**
+     * @return number of the payment to which the payment is repeated (exclusive)
+     */
+    public int getToPayment() {
+        return toPayment;
+    }
+
+    /**
+     * @return early payments that are not repeated, including the ones in the range of the repeated payment
+     */
+    public Map<Integer, EarlyPayment> getSinglePayments() {
+        return Collections.unmodifiableMap(singlePayments);
+    }
+
+    /**
+     * Finds the early payment that applies in the month
+     *
+     * @param number payment number in the schedule (starts with 0)
+     * @return early payment or null if there is no early payment in this month
+     */
+    public EarlyPayment getPayment(int number) {
+        if (index != null && number >= 0 && number < index.length) {
+            return index[number];
+        }
+
+        if (isRepeated(number)) {
+            return repeatedPayment;
+        }
+
+        return singlePayments.isEmpty() ? null : singlePayments.get(number);
+    }
+
+    @Override
+    public EarlyPayment get(Object key) {
+        return key instanceof Integer ? getPayment((Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<Integer, EarlyPayment>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<Integer, EarlyPayment>>() {
+                @Override
+                public Iterator<Entry<Integer, EarlyPayment>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        return entrySet;
+    }
+
+    private boolean isRepeated(int number) {
+        return number >= fromPayment && number < toPayment;
+    }
+
+    /**
+     * Iterates through the single payments that are not shadowed by the repeated payment and then through the repeated range
+     */
+    private final class EntryIterator implements Iterator<Entry<Integer, EarlyPayment>> {
+        private final Iterator<Entry<Integer, EarlyPayment>> singlePaymentsIterator = singlePayments.entrySet().iterator();
+        private Entry<Integer, EarlyPayment> nextSinglePayment = findNextSinglePayment();
+        private int nextRepeatedPayment = fromPayment;
+
+        @Override
+        public boolean hasNext() {
+            return nextSinglePayment != null || nextRepeatedPayment < toPayment;
+        }
+
+        @Override
+        public Entry<Integer, EarlyPayment> next() {
+            if (nextSinglePayment != null) {
+                final Entry<Integer, EarlyPayment> entry = nextSinglePayment;
+                nextSinglePayment = findNextSinglePayment();
+
+                return entry;
+            }
+
+            if (nextRepeatedPayment < toPayment) {
+                return new SimpleImmutableEntry<>(nextRepeatedPayment++, repeatedPayment);
+            }
+
+            throw new NoSuchElementException();
+        }
+
+        private Entry<Integer, EarlyPayment> findNextSinglePayment() {
+            while (singlePaymentsIterator.hasNext()) {
+                final Entry<Integer, EarlyPayment> entry = singlePaymentsIterator.next();
+
+                if (!isRepeated(entry.getKey())) {
+                    return new SimpleImmutableEntry<>(entry);
+                }
+            }
+
+            return null;
+        }
+    }
+}
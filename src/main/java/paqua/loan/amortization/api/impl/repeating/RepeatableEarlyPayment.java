@@ -27,8 +27,6 @@ package paqua.loan.amortization.api.impl.repeating;
 import paqua.loan.amortization.dto.EarlyPayment;
 import paqua.loan.amortization.dto.Loan;
 
-import java.util.Map;
-
 interface RepeatableEarlyPayment {
     /**
      * Copies an early payment
@@ -39,5 +37,5 @@ interface RepeatableEarlyPayment {
      *
      * @return early payments with applied repeating strategy
      */
-    Map<Integer, EarlyPayment> getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment);
+    EarlyPaymentSchedule getRepeated(final Loan loan, final int startNumber, final EarlyPayment earlyPayment);
 }
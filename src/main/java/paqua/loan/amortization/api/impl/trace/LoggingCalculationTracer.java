@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import paqua.loan.amortization.api.CalculationTracer;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.Loan;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Tracer that writes calculation events to the log at DEBUG level
+ *
+ * @author Artyom Panfutov
+ */
+class LoggingCalculationTracer implements CalculationTracer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoggingCalculationTracer.class);
+
+    @Override
+    public void onCalculationStarted(Loan loan) {
+        LOGGER.debug("Calculation started. Loan: {}", loan);
+    }
+
+    @Override
+    public void onEarlyPaymentsApplied(Map<Integer, EarlyPayment> earlyPayments) {
+        LOGGER.debug("After applying repeating strategy: {}", earlyPayments);
+    }
+
+    @Override
+    public void onMonthlyPaymentAmountCalculated(int paymentNumber, BigDecimal loanBalanceAmount, int term, BigDecimal monthlyPaymentAmount) {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Monthly payment amount from payment {}: {} (loan balance: {}, term: {})",
+                    paymentNumber, monthlyPaymentAmount, loanBalanceAmount, term);
+        }
+    }
+
+    @Override
+    public void onPaymentDateAdjusted(int paymentNumber, LocalDate paymentDate) {
+        LOGGER.debug("Payment {}: the requested day of month does not exist, the last day of month is used: {}", paymentNumber, paymentDate);
+    }
+
+    @Override
+    public void onScheduleTerminated(int lastPaymentNumber) {
+        LOGGER.debug("The loan is paid off by payment {}", lastPaymentNumber);
+    }
+
+    @Override
+    public void onScheduleFinished(int numberOfPayments, BigDecimal overPaymentAmount) {
+        LOGGER.debug("Schedule finished. Number of payments: {}, overpayment: {}", numberOfPayments, overPaymentAmount);
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Compact list of monthly payments that is stored in primitive arrays (one array per attribute)
+ *
+ * Amounts are stored as unscaled long values (cents if the scale is 2), dates are stored as epoch days.
+ * {@link MonthlyPayment} objects are created on access, so the list takes several times less memory
+ * than a list of monthly payments when the schedule is kept for a long time.
+ *
+ * The list is immutable.
+ *
+ * @author Artyom Panfutov
+ */
+public final class ColumnarMonthlyPayments extends AbstractList<MonthlyPayment> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 4470934176582711354L;
+
+    /**
+     * Marks a missing month number or payment date
+     */
+    private static final int NULL_VALUE = Integer.MIN_VALUE;
+
+    private final int size;
+    private final int[] monthNumbers;
+    private final DecimalColumn loanBalanceAmounts;
+    private final DecimalColumn debtPaymentAmounts;
+    private final DecimalColumn interestPaymentAmounts;
+    private final DecimalColumn paymentAmounts;
+    private final DecimalColumn additionalPaymentAmounts;
+    private final int[] paymentDates;
+
+    private ColumnarMonthlyPayments(ColumnarMonthlyPaymentsBuilder builder) {
+        this.size = builder.size;
+        this.monthNumbers = Arrays.copyOf(builder.monthNumbers, size);
+        this.loanBalanceAmounts = builder.loanBalanceAmounts.trim(size);
+        this.debtPaymentAmounts = builder.debtPaymentAmounts.trim(size);
+        this.interestPaymentAmounts = builder.interestPaymentAmounts.trim(size);
+        this.paymentAmounts = builder.paymentAmounts.trim(size);
+        this.additionalPaymentAmounts = builder.additionalPaymentAmounts.trim(size);
+        this.paymentDates = Arrays.copyOf(builder.paymentDates, size);
+    }
+
+    /**
+     * Creates a builder of the list
+     *
+     * @param expectedSize expected number of monthly payments
+     * @return list builder
+     */
+    public static ColumnarMonthlyPaymentsBuilder builder(int expectedSize) {
+        return new ColumnarMonthlyPaymentsBuilder(expectedSize);
+    }
+
+    /**
+     * Creates a new monthly payment from the stored attributes
+     *
+     * @param index index of the monthly payment
+     * @return monthly payment
+     */
+    @Override
+    public MonthlyPayment get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        return new MonthlyPayment(
+                monthNumbers[index] == NULL_VALUE ? null : monthNumbers[index],
+                loanBalanceAmounts.get(index),
+                debtPaymentAmounts.get(index),
+                interestPaymentAmounts.get(index),
+                paymentAmounts.get(index),
+                additionalPaymentAmounts.get(index),
+                paymentDates[index] == NULL_VALUE ? null : LocalDate.ofEpochDay(paymentDates[index]));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Builder for ColumnarMonthlyPayments
+     */
+    public static final class ColumnarMonthlyPaymentsBuilder {
+        private int size;
+        private int[] monthNumbers;
+        private final DecimalColumn loanBalanceAmounts;
+        private final DecimalColumn debtPaymentAmounts;
+        private final DecimalColumn interestPaymentAmounts;
+        private final DecimalColumn paymentAmounts;
+        private final DecimalColumn additionalPaymentAmounts;
+        private int[] paymentDates;
+
+        private ColumnarMonthlyPaymentsBuilder(int expectedSize) {
+            final int capacity = Math.max(expectedSize, 1);
+
+            this.monthNumbers = new int[capacity];
+            this.loanBalanceAmounts = new DecimalColumn(capacity);
+            this.debtPaymentAmounts = new DecimalColumn(capacity);
+            this.interestPaymentAmounts = new DecimalColumn(capacity);
+            this.paymentAmounts = new DecimalColumn(capacity);
+            this.additionalPaymentAmounts = new DecimalColumn(capacity);
+            this.paymentDates = new int[capacity];
+        }
+
+        /**
+         * Adds a monthly payment
+         *
+         * @param payment monthly payment
+         * @return list builder
+         */
+        public ColumnarMonthlyPaymentsBuilder add(MonthlyPayment payment) {
+            return add(payment.getMonthNumber(),
+                    payment.getLoanBalanceAmount(),
+                    payment.getDebtPaymentAmount(),
+                    payment.getInterestPaymentAmount(),
+                    payment.getPaymentAmount(),
+                    payment.getAdditionalPaymentAmount(),
+                    payment.getPaymentDate());
+        }
+
+        /**
+         * Adds a monthly payment by its attributes
+         *
+         * @param monthNumber month number (starts with 0)
+         * @param loanBalanceAmount amount of remaining debt (loan balance)
+         * @param debtPaymentAmount amount of debt in payment
+         * @param interestPaymentAmount amount of interest in payment
+         * @param paymentAmount payment amount
+         * @param additionalPaymentAmount additional payment amount
+         * @param paymentDate payment date (optional)
+         * @return list builder
+         */
+        public ColumnarMonthlyPaymentsBuilder add(Integer monthNumber, BigDecimal loanBalanceAmount, BigDecimal debtPaymentAmount,
+                                                  BigDecimal interestPaymentAmount, BigDecimal paymentAmount,
+                                                  BigDecimal additionalPaymentAmount, LocalDate paymentDate) {
+            if (size == monthNumbers.length) {
+                grow();
+            }
+
+            monthNumbers[size] = monthNumber == null ? NULL_VALUE : monthNumber;
+            loanBalanceAmounts.set(size, loanBalanceAmount);
+            debtPaymentAmounts.set(size, debtPaymentAmount);
+            interestPaymentAmounts.set(size, interestPaymentAmount);
+            paymentAmounts.set(size, paymentAmount);
+            additionalPaymentAmounts.set(size, additionalPaymentAmount);
+            paymentDates[size] = paymentDate == null ? NULL_VALUE : Math.toIntExact(paymentDate.toEpochDay());
+
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds an immutable list of monthly payments
+         *
+         * @return list of monthly payments
+         */
+        public ColumnarMonthlyPayments build() {
+            return new ColumnarMonthlyPayments(this);
+        }
+
+        private void grow() {
+            final int capacity = monthNumbers.length * 2;
+
+            monthNumbers = Arrays.copyOf(monthNumbers, capacity);
+            loanBalanceAmounts.grow(capacity);
+            debtPaymentAmounts.grow(capacity);
+            interestPaymentAmounts.grow(capacity);
+            paymentAmounts.grow(capacity);
+            additionalPaymentAmounts.grow(capacity);
+            paymentDates = Arrays.copyOf(paymentDates, capacity);
+        }
+    }
+
+    /**
+     * Column of decimal amounts
+     *
+     * Amounts are stored as unscaled values with the scale 2, zero amounts with the scale of the first zero amount
+     * of the column (engines use {@link BigDecimal#ZERO} for missing additional payments).
+     * Scales are stored per amount only if there is an amount with another scale.
+     * Amounts that cannot be stored as a long unscaled value (and nulls) are stored as they are.
+     */
+    private static final class DecimalColumn implements Serializable {
+        private static final long serialVersionUID = -2417326541938209011L;
+
+        private static final int DEFAULT_SCALE = 2;
+
+        /**
+         * Marks an amount that is stored as it is
+         */
+        private static final byte EXACT_SCALE = Byte.MIN_VALUE;
+
+        private long[] unscaledValues;
+        private byte[] scales;
+        private BigDecimal[] exactValues;
+
+        /**
+         * Scale of zero amounts (set by the first zero amount)
+         */
+        private byte zeroScale = DEFAULT_SCALE;
+        private boolean zeroScaleSet;
+
+        private DecimalColumn(int capacity) {
+            this.unscaledValues = new long[capacity];
+        }
+
+        private BigDecimal get(int index) {
+            if (scales == null) {
+                final long unscaledValue = unscaledValues[index];
+                return BigDecimal.valueOf(unscaledValue, unscaledValue == 0 ? zeroScale : DEFAULT_SCALE);
+            }
+
+            if (scales[index] == EXACT_SCALE) {
+                return exactValues[index];
+            }
+
+            return BigDecimal.valueOf(unscaledValues[index], scales[index]);
+        }
+
+        private void set(int index, BigDecimal value) {
+            if (value != null && hasColumnScale(value) && value.unscaledValue().bitLength() < Long.SIZE) {
+                unscaledValues[index] = value.unscaledValue().longValue();
+                if (scales != null) {
+                    scales[index] = (byte) value.scale();
+                }
+                return;
+            }
+
+            if (scales == null) {
+                scales = new byte[unscaledValues.length];
+                for (int i = 0; i < index; i++) {
+                    scales[i] = unscaledValues[i] == 0 ? zeroScale : DEFAULT_SCALE;
+                }
+            }
+
+            if (value != null && value.scale() > EXACT_SCALE && value.scale() <= Byte.MAX_VALUE
+                    && value.unscaledValue().bitLength() < Long.SIZE) {
+                unscaledValues[index] = value.unscaledValue().longValue();
+                scales[index] = (byte) value.scale();
+                return;
+            }
+
+            if (exactValues == null) {
+                exactValues = new BigDecimal[unscaledValues.length];
+            }
+
+            exactValues[index] = value;
+            scales[index] = EXACT_SCALE;
+        }
+
+        /**
+         * @return true if the scale of the amount is the scale of the column for such amounts
+         */
+        private boolean hasColumnScale(BigDecimal value) {
+            if (value.signum() != 0) {
+                return value.scale() == DEFAULT_SCALE;
+            }
+
+            if (!zeroScaleSet && value.scale() > EXACT_SCALE && value.scale() <= Byte.MAX_VALUE) {
+                zeroScale = (byte) value.scale();
+                zeroScaleSet = true;
+            }
+
+            return value.scale() == zeroScale;
+        }
+
+        private void grow(int capacity) {
+            unscaledValues = Arrays.copyOf(unscaledValues, capacity);
+            if (scales != null) {
+                scales = Arrays.copyOf(scales, capacity);
+            }
+            if (exactValues != null) {
+                exactValues = Arrays.copyOf(exactValues, capacity);
+            }
+        }
+
+        /**
+         * @return copy of the column with the capacity equal to the size
+         */
+        private DecimalColumn trim(int size) {
+            DecimalColumn column = new DecimalColumn(0);
+            column.unscaledValues = Arrays.copyOf(unscaledValues, size);
+            column.scales = scales != null ? Arrays.copyOf(scales, size) : null;
+            column.exactValues = exactValues != null ? Arrays.copyOf(exactValues, size) : null;
+            column.zeroScale = zeroScale;
+            column.zeroScaleSet = zeroScaleSet;
+            return column;
+        }
+    }
+}
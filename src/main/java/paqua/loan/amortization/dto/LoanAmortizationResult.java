@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Represents the result of a calculation of one loan in a batch
+ *
+ * Contains either calculated loan amortization or the exception that occurred during the calculation of the loan
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanAmortizationResult implements Serializable {
+    private static final long serialVersionUID = -3141526173290544312L;
+
+    /**
+     * Calculated loan amortization (null if the calculation failed)
+     */
+    private final LoanAmortization amortization;
+
+    /**
+     * Exception that occurred during the calculation (null if the calculation succeeded)
+     */
+    private final LoanAmortizationCalculatorException exception;
+
+    private LoanAmortizationResult(LoanAmortization amortization, LoanAmortizationCalculatorException exception) {
+        this.amortization = amortization;
+        this.exception = exception;
+    }
+
+    /**
+     * Creates a result of a successful calculation
+     *
+     * @param amortization calculated loan amortization
+     * @return result
+     */
+    public static LoanAmortizationResult success(LoanAmortization amortization) {
+        return new LoanAmortizationResult(Objects.requireNonNull(amortization), null);
+    }
+
+    /**
+     * Creates a result of a failed calculation
+     *
+     * @param exception exception that occurred during the calculation
+     * @return result
+     */
+    public static LoanAmortizationResult failure(LoanAmortizationCalculatorException exception) {
+        return new LoanAmortizationResult(null, Objects.requireNonNull(exception));
+    }
+
+    /**
+     * @return true if the loan was calculated
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * @return Calculated loan amortization (null if the calculation failed)
+     */
+    public LoanAmortization getAmortization() {
+        return amortization;
+    }
+
+    /**
+     * @return Exception that occurred during the calculation (null if the calculation succeeded)
+     */
+    public LoanAmortizationCalculatorException getException() {
+        return exception;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoanAmortizationResult that = (LoanAmortizationResult) o;
+        return Objects.equals(amortization, that.amortization) &&
+                Objects.equals(exception, that.exception);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(amortization, exception);
+    }
+
+    @Override
+    public String toString() {
+        return "LoanAmortizationResult{" +
+                "amortization=" + amortization +
+                ", exception=" + exception +
+                '}';
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents totals of loan amortization without the list of monthly payments
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanAmortizationSummary implements Serializable {
+    private static final long serialVersionUID = 5212904563357209188L;
+
+    /**
+     * Amount of calculated monthly payment
+     */
+    private final BigDecimal monthlyPaymentAmount;
+
+    /**
+     * Total amount of overpayment of interests
+     */
+    private final BigDecimal overPaymentAmount;
+
+    /**
+     * Total amount of all monthly payments (principal, interest and early payments)
+     */
+    private final BigDecimal totalPaymentAmount;
+
+    /**
+     * Number of payments in the schedule
+     */
+    private final Integer numberOfPayments;
+
+    /**
+     * Date of the last payment (optional)
+     */
+    private final LocalDate payoffDate;
+
+    @ConstructorProperties({"monthlyPaymentAmount", "overPaymentAmount", "totalPaymentAmount", "numberOfPayments", "payoffDate"})
+    public LoanAmortizationSummary(BigDecimal monthlyPaymentAmount, BigDecimal overPaymentAmount, BigDecimal totalPaymentAmount, Integer numberOfPayments, LocalDate payoffDate) {
+        this.monthlyPaymentAmount = monthlyPaymentAmount;
+        this.overPaymentAmount = overPaymentAmount;
+        this.totalPaymentAmount = totalPaymentAmount;
+        this.numberOfPayments = numberOfPayments;
+        this.payoffDate = payoffDate;
+    }
+
+    /**
+     * Creates a summary of calculated loan amortization
+     *
+     * @param amortization calculated loan amortization
+     * @return summary of the loan amortization
+     */
+    public static LoanAmortizationSummary of(LoanAmortization amortization) {
+        final List<MonthlyPayment> payments = amortization.getMonthlyPayments();
+
+        BigDecimal totalPaymentAmount = BigDecimal.ZERO;
+        for (MonthlyPayment payment : payments) {
+            totalPaymentAmount = totalPaymentAmount.add(payment.getPaymentAmount());
+        }
+
+        return builder()
+                .monthlyPaymentAmount(amortization.getMonthlyPaymentAmount())
+                .overPaymentAmount(amortization.getOverPaymentAmount())
+                .totalPaymentAmount(totalPaymentAmount)
+                .numberOfPayments(payments.size())
+                .payoffDate(payments.isEmpty() ? null : payments.get(payments.size() - 1).getPaymentDate())
+                .build();
+    }
+
+    /**
+     * @return Amount of calculated monthly payment
+     */
+    public BigDecimal getMonthlyPaymentAmount() {
+        return monthlyPaymentAmount;
+    }
+
+    /**
+     * @return Total amount of overpayment of interests
+     */
+    public BigDecimal getOverPaymentAmount() {
+        return overPaymentAmount;
+    }
+
+    /**
+     * @return Total amount of all monthly payments (principal, interest and early payments)
+     */
+    public BigDecimal getTotalPaymentAmount() {
+        return totalPaymentAmount;
+    }
+
+    /**
+     * The actual payoff month is the number of payments - 1 (the numbers of payments start with 0)
+     *
+     * @return Number of payments in the schedule
+     */
+    public Integer getNumberOfPayments() {
+        return numberOfPayments;
+    }
+
+    /**
+     * @return Date of the last payment (optional)
+     */
+    public LocalDate getPayoffDate() {
+        return payoffDate;
+    }
+
+    public static LoanAmortizationSummaryBuilder builder() {
+        return new LoanAmortizationSummaryBuilder();
+    }
+
+    /**
+     * Builder for LoanAmortizationSummary class
+     */
+    public static final class LoanAmortizationSummaryBuilder {
+        private BigDecimal monthlyPaymentAmount;
+        private BigDecimal overPaymentAmount;
+        private BigDecimal totalPaymentAmount;
+        private Integer numberOfPayments;
+        private LocalDate payoffDate;
+
+        public LoanAmortizationSummaryBuilder() {
+        }
+
+        /**
+         * Sets amount for a payment
+         *
+         * @param monthlyPaymentAmount amount for a payment
+         * @return loan amortization summary builder
+         */
+        public LoanAmortizationSummaryBuilder monthlyPaymentAmount(BigDecimal monthlyPaymentAmount) {
+            this.monthlyPaymentAmount = monthlyPaymentAmount;
+            return this;
+        }
+
+        /**
+         * Sets total amount of overpayment
+         *
+         * @param overPaymentAmount total amount of overpayment
+         * @return loan amortization summary builder
+         */
+        public LoanAmortizationSummaryBuilder overPaymentAmount(BigDecimal overPaymentAmount) {
+            this.overPaymentAmount = overPaymentAmount;
+            return this;
+        }
+
+        /**
+         * Sets total amount of all payments
+         *
+         * @param totalPaymentAmount total amount of all payments
+         * @return loan amortization summary builder
+         */
+        public LoanAmortizationSummaryBuilder totalPaymentAmount(BigDecimal totalPaymentAmount) {
+            this.totalPaymentAmount = totalPaymentAmount;
+            return this;
+        }
+
+        /**
+         * Sets number of payments
+         *
+         * @param numberOfPayments number of payments in the schedule
+         * @return loan amortization summary builder
+         */
+        public LoanAmortizationSummaryBuilder numberOfPayments(Integer numberOfPayments) {
+            this.numberOfPayments = numberOfPayments;
+            return this;
+        }
+
+        /**
+         * Sets date of the last payment
+         *
+         * @param payoffDate date of the last payment
+         * @return loan amortization summary builder
+         */
+        public LoanAmortizationSummaryBuilder payoffDate(LocalDate payoffDate) {
+            this.payoffDate = payoffDate;
+            return this;
+        }
+
+        /**
+         * Builds an immutable loan amortization summary object
+         *
+         * @return loan amortization summary
+         */
+        public LoanAmortizationSummary build() {
+            return new LoanAmortizationSummary(monthlyPaymentAmount, overPaymentAmount, totalPaymentAmount, numberOfPayments, payoffDate);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoanAmortizationSummary that = (LoanAmortizationSummary) o;
+        return Objects.equals(monthlyPaymentAmount, that.monthlyPaymentAmount) &&
+                Objects.equals(overPaymentAmount, that.overPaymentAmount) &&
+                Objects.equals(totalPaymentAmount, that.totalPaymentAmount) &&
+                Objects.equals(numberOfPayments, that.numberOfPayments) &&
+                Objects.equals(payoffDate, that.payoffDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(monthlyPaymentAmount, overPaymentAmount, totalPaymentAmount, numberOfPayments, payoffDate);
+    }
+
+    @Override
+    public String toString() {
+        return "LoanAmortizationSummary{" +
+                "monthlyPaymentAmount=" + monthlyPaymentAmount +
+                ", overPaymentAmount=" + overPaymentAmount +
+                ", totalPaymentAmount=" + totalPaymentAmount +
+                ", numberOfPayments=" + numberOfPayments +
+                ", payoffDate=" + payoffDate +
+                '}';
+    }
+}
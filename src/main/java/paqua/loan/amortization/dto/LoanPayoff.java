@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Represents the payoff of a loan: the last payment of the loan amortization and the total interest
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanPayoff implements Serializable {
+    private static final long serialVersionUID = -2690832417585946015L;
+
+    /**
+     * Number of the last payment in the schedule (starts with 0)
+     */
+    private final Integer payoffMonthNumber;
+
+    /**
+     * Total amount of interests (the same as overpayment of loan amortization)
+     */
+    private final BigDecimal totalInterestAmount;
+
+    /**
+     * Amount of the last payment
+     */
+    private final BigDecimal finalPaymentAmount;
+
+    /**
+     * Date of the last payment (optional)
+     */
+    private final LocalDate payoffDate;
+
+    @ConstructorProperties({"payoffMonthNumber", "totalInterestAmount", "finalPaymentAmount", "payoffDate"})
+    public LoanPayoff(Integer payoffMonthNumber, BigDecimal totalInterestAmount, BigDecimal finalPaymentAmount, LocalDate payoffDate) {
+        this.payoffMonthNumber = payoffMonthNumber;
+        this.totalInterestAmount = totalInterestAmount;
+        this.finalPaymentAmount = finalPaymentAmount;
+        this.payoffDate = payoffDate;
+    }
+
+    /**
+     * Creates a payoff of calculated loan amortization
+     *
+     * @param amortization calculated loan amortization
+     * @return payoff of the loan amortization
+     */
+    public static LoanPayoff of(LoanAmortization amortization) {
+        final List<MonthlyPayment> payments = amortization.getMonthlyPayments();
+        final MonthlyPayment lastPayment = payments.isEmpty() ? null : payments.get(payments.size() - 1);
+
+        return builder()
+                .payoffMonthNumber(lastPayment == null ? null : lastPayment.getMonthNumber())
+                .totalInterestAmount(amortization.getOverPaymentAmount())
+                .finalPaymentAmount(lastPayment == null ? null : lastPayment.getPaymentAmount())
+                .payoffDate(lastPayment == null ? null : lastPayment.getPaymentDate())
+                .build();
+    }
+
+    /**
+     * @return Number of the last payment in the schedule (starts with 0)
+     */
+    public Integer getPayoffMonthNumber() {
+        return payoffMonthNumber;
+    }
+
+    /**
+     * @return Total amount of interests
+     */
+    public BigDecimal getTotalInterestAmount() {
+        return totalInterestAmount;
+    }
+
+    /**
+     * @return Amount of the last payment
+     */
+    public BigDecimal getFinalPaymentAmount() {
+        return finalPaymentAmount;
+    }
+
+    /**
+     * @return Date of the last payment (optional)
+     */
+    public LocalDate getPayoffDate() {
+        return payoffDate;
+    }
+
+    public static LoanPayoffBuilder builder() {
+        return new LoanPayoffBuilder();
+    }
+
+    /**
+     * Builder for LoanPayoff class
+     */
+    public static final class LoanPayoffBuilder {
+        private Integer payoffMonthNumber;
+        private BigDecimal totalInterestAmount;
+        private BigDecimal finalPaymentAmount;
+        private LocalDate payoffDate;
+
+        public LoanPayoffBuilder() {
+        }
+
+        /**
+         * Sets number of the last payment
+         *
+         * @param payoffMonthNumber number of the last payment in the schedule
+         * @return loan payoff builder
+         */
+        public LoanPayoffBuilder payoffMonthNumber(Integer payoffMonthNumber) {
+            this.payoffMonthNumber = payoffMonthNumber;
+            return this;
+        }
+
+        /**
+         * Sets total amount of interests
+         *
+         * @param totalInterestAmount total amount of interests
+         * @return loan payoff builder
+         */
+        public LoanPayoffBuilder totalInterestAmount(BigDecimal totalInterestAmount) {
+            this.totalInterestAmount = totalInterestAmount;
+            return this;
+        }
+
+        /**
+         * Sets amount of the last payment
+         *
+         * @param finalPaymentAmount amount of the last payment
+         * @return loan payoff builder
+         */
+        public LoanPayoffBuilder finalPaymentAmount(BigDecimal finalPaymentAmount) {
+            this.finalPaymentAmount = finalPaymentAmount;
+            return this;
+        }
+
+        /**
+         * Sets date of the last payment
+         *
+         * @param payoffDate date of the last payment
+         * @return loan payoff builder
+         */
+        public LoanPayoffBuilder payoffDate(LocalDate payoffDate) {
+            this.payoffDate = payoffDate;
+            return this;
+        }
+
+        /**
+         * Builds an immutable loan payoff object
+         *
+         * @return loan payoff
+         */
+        public LoanPayoff build() {
+            return new LoanPayoff(payoffMonthNumber, totalInterestAmount, finalPaymentAmount, payoffDate);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        LoanPayoff that = (LoanPayoff) o;
+        return Objects.equals(payoffMonthNumber, that.payoffMonthNumber) &&
+                Objects.equals(totalInterestAmount, that.totalInterestAmount) &&
+                Objects.equals(finalPaymentAmount, that.finalPaymentAmount) &&
+                Objects.equals(payoffDate, that.payoffDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(payoffMonthNumber, totalInterestAmount, finalPaymentAmount, payoffDate);
+    }
+
+    @Override
+    public String toString() {
+        return "LoanPayoff{" +
+                "payoffMonthNumber=" + payoffMonthNumber +
+                ", totalInterestAmount=" + totalInterestAmount +
+                ", finalPaymentAmount=" + finalPaymentAmount +
+                ", payoffDate=" + payoffDate +
+                '}';
+    }
+}
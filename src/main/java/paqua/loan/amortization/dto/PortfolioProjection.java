@@ -0,0 +1,373 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Represents the projection of a portfolio of loans: aggregated cash flows by the month number
+ * and the totals of every loan
+ *
+ * Months are numbered from the first payment of every loan (starts with 0), the same as in {@link MonthlyPayment}.
+ * Amounts are stored in primitive arrays as cents, {@link BigDecimal} and {@link LoanAmortizationSummary} objects
+ * are created on access, so a projection of millions of loans is kept in memory compactly.
+ *
+ * The projection is immutable.
+ *
+ * @author Artyom Panfutov
+ */
+public final class PortfolioProjection implements Serializable {
+    private static final long serialVersionUID = 3360823410538806957L;
+
+    /**
+     * Marks a missing payoff date
+     */
+    public static final int NULL_DATE = Integer.MIN_VALUE;
+
+    /**
+     * Interest amounts of all loans by the month number
+     */
+    private final long[] interestAmounts;
+
+    /**
+     * Principal amounts of all loans by the month number
+     */
+    private final long[] principalAmounts;
+
+    /**
+     * Loan balances of all loans before the payment by the month number
+     */
+    private final long[] loanBalanceAmounts;
+
+    /**
+     * Number of loans that are paid in the month by the month number
+     */
+    private final int[] numberOfActiveLoans;
+
+    /**
+     * Monthly payment amounts by the index of the loan
+     */
+    private final long[] monthlyPaymentAmounts;
+
+    /**
+     * Overpayments of interests by the index of the loan
+     */
+    private final long[] overPaymentAmounts;
+
+    /**
+     * Totals of all monthly payments by the index of the loan
+     */
+    private final long[] totalPaymentAmounts;
+
+    /**
+     * Numbers of payments by the index of the loan
+     */
+    private final int[] numberOfPayments;
+
+    /**
+     * Payoff dates as epoch days by the index of the loan
+     */
+    private final int[] payoffDates;
+
+    private PortfolioProjection(PortfolioProjectionBuilder builder) {
+        this.interestAmounts = Objects.requireNonNull(builder.interestAmounts);
+        this.principalAmounts = Objects.requireNonNull(builder.principalAmounts);
+        this.loanBalanceAmounts = Objects.requireNonNull(builder.loanBalanceAmounts);
+        this.numberOfActiveLoans = Objects.requireNonNull(builder.numberOfActiveLoans);
+        this.monthlyPaymentAmounts = Objects.requireNonNull(builder.monthlyPaymentAmounts);
+        this.overPaymentAmounts = Objects.requireNonNull(builder.overPaymentAmounts);
+        this.totalPaymentAmounts = Objects.requireNonNull(builder.totalPaymentAmounts);
+        this.numberOfPayments = Objects.requireNonNull(builder.numberOfPayments);
+        this.payoffDates = Objects.requireNonNull(builder.payoffDates);
+    }
+
+    /**
+     * @return Number of loans in the portfolio
+     */
+    public int getNumberOfLoans() {
+        return monthlyPaymentAmounts.length;
+    }
+
+    /**
+     * @return Number of months in which at least one loan is paid
+     */
+    public int getNumberOfMonths() {
+        return interestAmounts.length;
+    }
+
+    /**
+     * @param monthNumber number of the month (starts with 0)
+     * @return Total interest amount of all loans in the month
+     */
+    public BigDecimal getInterestAmount(int monthNumber) {
+        return toAmount(interestAmounts[monthNumber]);
+    }
+
+    /**
+     * @param monthNumber number of the month (starts with 0)
+     * @return Total principal amount of all loans in the month (including early payments)
+     */
+    public BigDecimal getPrincipalAmount(int monthNumber) {
+        return toAmount(principalAmounts[monthNumber]);
+    }
+
+    /**
+     * @param monthNumber number of the month (starts with 0)
+     * @return Total payment amount of all loans in the month
+     */
+    public BigDecimal getPaymentAmount(int monthNumber) {
+        return toAmount(interestAmounts[monthNumber] + principalAmounts[monthNumber]);
+    }
+
+    /**
+     * @param monthNumber number of the month (starts with 0)
+     * @return Total loan balance of all loans before the payment in the month
+     */
+    public BigDecimal getLoanBalanceAmount(int monthNumber) {
+        return toAmount(loanBalanceAmounts[monthNumber]);
+    }
+
+    /**
+     * @param monthNumber number of the month (starts with 0)
+     * @return Number of loans that are paid in the month
+     */
+    public int getNumberOfActiveLoans(int monthNumber) {
+        return numberOfActiveLoans[monthNumber];
+    }
+
+    /**
+     * @return Total overpayment of interests of all loans
+     */
+    public BigDecimal getOverPaymentAmount() {
+        long total = 0;
+        for (long amount : overPaymentAmounts) {
+            total += amount;
+        }
+        return toAmount(total);
+    }
+
+    /**
+     * @return Total amount of all payments of all loans
+     */
+    public BigDecimal getTotalPaymentAmount() {
+        long total = 0;
+        for (long amount : totalPaymentAmounts) {
+            total += amount;
+        }
+        return toAmount(total);
+    }
+
+    /**
+     * Creates the summary of a loan from the stored totals
+     *
+     * @param loanIndex index of the loan in the portfolio
+     * @return summary of the loan amortization
+     */
+    public LoanAmortizationSummary getSummary(int loanIndex) {
+        return LoanAmortizationSummary.builder()
+                .monthlyPaymentAmount(toAmount(monthlyPaymentAmounts[loanIndex]))
+                .overPaymentAmount(toAmount(overPaymentAmounts[loanIndex]))
+                .totalPaymentAmount(toAmount(totalPaymentAmounts[loanIndex]))
+                .numberOfPayments(numberOfPayments[loanIndex])
+                .payoffDate(payoffDates[loanIndex] == NULL_DATE ? null : LocalDate.ofEpochDay(payoffDates[loanIndex]))
+                .build();
+    }
+
+    public static PortfolioProjectionBuilder builder() {
+        return new PortfolioProjectionBuilder();
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Builder for PortfolioProjection class
+     *
+     * The builder takes the arrays as they are, they must not be changed after the projection is built
+     */
+    public static final class PortfolioProjectionBuilder {
+        private long[] interestAmounts;
+        private long[] principalAmounts;
+        private long[] loanBalanceAmounts;
+        private int[] numberOfActiveLoans;
+        private long[] monthlyPaymentAmounts;
+        private long[] overPaymentAmounts;
+        private long[] totalPaymentAmounts;
+        private int[] numberOfPayments;
+        private int[] payoffDates;
+
+        public PortfolioProjectionBuilder() {
+        }
+
+        /**
+         * Sets interest amounts in cents by the month number
+         *
+         * @param interestAmounts interest amounts of all loans
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder interestAmounts(long[] interestAmounts) {
+            this.interestAmounts = interestAmounts;
+            return this;
+        }
+
+        /**
+         * Sets principal amounts in cents by the month number
+         *
+         * @param principalAmounts principal amounts of all loans
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder principalAmounts(long[] principalAmounts) {
+            this.principalAmounts = principalAmounts;
+            return this;
+        }
+
+        /**
+         * Sets loan balances before the payment in cents by the month number
+         *
+         * @param loanBalanceAmounts loan balances of all loans
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder loanBalanceAmounts(long[] loanBalanceAmounts) {
+            this.loanBalanceAmounts = loanBalanceAmounts;
+            return this;
+        }
+
+        /**
+         * Sets numbers of loans that are paid in the month by the month number
+         *
+         * @param numberOfActiveLoans numbers of loans
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder numberOfActiveLoans(int[] numberOfActiveLoans) {
+            this.numberOfActiveLoans = numberOfActiveLoans;
+            return this;
+        }
+
+        /**
+         * Sets monthly payment amounts in cents by the index of the loan
+         *
+         * @param monthlyPaymentAmounts monthly payment amounts
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder monthlyPaymentAmounts(long[] monthlyPaymentAmounts) {
+            this.monthlyPaymentAmounts = monthlyPaymentAmounts;
+            return this;
+        }
+
+        /**
+         * Sets overpayments of interests in cents by the index of the loan
+         *
+         * @param overPaymentAmounts overpayments of interests
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder overPaymentAmounts(long[] overPaymentAmounts) {
+            this.overPaymentAmounts = overPaymentAmounts;
+            return this;
+        }
+
+        /**
+         * Sets totals of all payments in cents by the index of the loan
+         *
+         * @param totalPaymentAmounts totals of all payments
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder totalPaymentAmounts(long[] totalPaymentAmounts) {
+            this.totalPaymentAmounts = totalPaymentAmounts;
+            return this;
+        }
+
+        /**
+         * Sets numbers of payments by the index of the loan
+         *
+         * @param numberOfPayments numbers of payments
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder numberOfPayments(int[] numberOfPayments) {
+            this.numberOfPayments = numberOfPayments;
+            return this;
+        }
+
+        /**
+         * Sets payoff dates as epoch days ({@link #NULL_DATE} if the loan has no dates) by the index of the loan
+         *
+         * @param payoffDates payoff dates
+         * @return portfolio projection builder
+         */
+        public PortfolioProjectionBuilder payoffDates(int[] payoffDates) {
+            this.payoffDates = payoffDates;
+            return this;
+        }
+
+        /**
+         * Builds an immutable portfolio projection object
+         *
+         * @return portfolio projection
+         */
+        public PortfolioProjection build() {
+            return new PortfolioProjection(this);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PortfolioProjection that = (PortfolioProjection) o;
+        return Arrays.equals(interestAmounts, that.interestAmounts) &&
+                Arrays.equals(principalAmounts, that.principalAmounts) &&
+                Arrays.equals(loanBalanceAmounts, that.loanBalanceAmounts) &&
+                Arrays.equals(numberOfActiveLoans, that.numberOfActiveLoans) &&
+                Arrays.equals(monthlyPaymentAmounts, that.monthlyPaymentAmounts) &&
+                Arrays.equals(overPaymentAmounts, that.overPaymentAmounts) &&
+                Arrays.equals(totalPaymentAmounts, that.totalPaymentAmounts) &&
+                Arrays.equals(numberOfPayments, that.numberOfPayments) &&
+                Arrays.equals(payoffDates, that.payoffDates);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(interestAmounts);
+        result = 31 * result + Arrays.hashCode(principalAmounts);
+        result = 31 * result + Arrays.hashCode(monthlyPaymentAmounts);
+        result = 31 * result + Arrays.hashCode(overPaymentAmounts);
+        result = 31 * result + Arrays.hashCode(numberOfPayments);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PortfolioProjection{" +
+                "numberOfLoans=" + getNumberOfLoans() +
+                ", numberOfMonths=" + getNumberOfMonths() +
+                ", overPaymentAmount=" + getOverPaymentAmount() +
+                ", totalPaymentAmount=" + getTotalPaymentAmount() +
+                '}';
+    }
+}
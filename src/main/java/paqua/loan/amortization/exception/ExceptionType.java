@@ -30,5 +30,7 @@ package paqua.loan.amortization.exception;
  * @author Artyom Panfutov
  */
 public enum ExceptionType {
-    INPUT_VERIFICATION_EXCEPTION
+    INPUT_VERIFICATION_EXCEPTION,
+    SERIALIZATION_EXCEPTION,
+    CALCULATION_EXCEPTION
 }
@@ -40,6 +40,18 @@ public class LoanAmortizationCalculatorException extends RuntimeException {
         this.type = type;
     }
 
+    public LoanAmortizationCalculatorException(ExceptionType type, Throwable cause) {
+        super(cause);
+        this.type = type;
+    }
+
+    /**
+     * @return type of the exception
+     */
+    public ExceptionType getType() {
+        return type;
+    }
+
     @Override
     public String toString() {
         return "LoanAmortizationCalculatorException{" +
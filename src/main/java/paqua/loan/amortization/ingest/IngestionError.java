@@ -0,0 +1,113 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+/**
+ * Represents an error of one record of a loan file
+ *
+ * @author Artyom Panfutov
+ */
+public final class IngestionError {
+    /**
+     * Number of the line on which the record starts
+     */
+    private final long lineNumber;
+
+    /**
+     * Id of the loan (null if the id can't be parsed)
+     */
+    private final String loanId;
+
+    /**
+     * Type of the error
+     */
+    private final ExceptionType type;
+
+    /**
+     * Error message
+     */
+    private final String message;
+
+    /**
+     * Unexpected failure of the calculation (null if the record is rejected)
+     */
+    private final Throwable cause;
+
+    IngestionError(long lineNumber, String loanId, LoanAmortizationCalculatorException exception) {
+        this.lineNumber = lineNumber;
+        this.loanId = loanId;
+        this.type = exception.getType();
+        this.message = exception.getMessage();
+        this.cause = exception.getCause();
+    }
+
+    /**
+     * @return Number of the line on which the record starts
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return Id of the loan
+     */
+    public String getLoanId() {
+        return loanId;
+    }
+
+    /**
+     * @return Type of the error
+     */
+    public ExceptionType getType() {
+        return type;
+    }
+
+    /**
+     * @return Error message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return Unexpected failure of the calculation
+     */
+    public Throwable getCause() {
+        return cause;
+    }
+
+    @Override
+    public String toString() {
+        return "IngestionError{" +
+                "lineNumber=" + lineNumber +
+                ", loanId='" + loanId + '\'' +
+                ", type=" + type +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the result of an ingestion job
+ *
+ * @author Artyom Panfutov
+ */
+public final class IngestionReport {
+    /**
+     * Number of records read from the loan file
+     */
+    private final long recordCount;
+
+    /**
+     * Number of records that failed
+     */
+    private final long failedCount;
+
+    /**
+     * Number of monthly payments written to the output
+     */
+    private final long rowCount;
+
+    /**
+     * Elapsed time in nanoseconds
+     */
+    private final long elapsedNanos;
+
+    /**
+     * Errors of the failed records (in the order of the records, limited by the job)
+     */
+    private final List<IngestionError> errors;
+
+    IngestionReport(long recordCount, long failedCount, long rowCount, long elapsedNanos, List<IngestionError> errors) {
+        this.recordCount = recordCount;
+        this.failedCount = failedCount;
+        this.rowCount = rowCount;
+        this.elapsedNanos = elapsedNanos;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return Number of records read from the loan file
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return Number of records that were calculated and written
+     */
+    public long getSucceededCount() {
+        return recordCount - failedCount;
+    }
+
+    /**
+     * @return Number of records that failed
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return Number of monthly payments written to the output
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return Elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return Throughput in records per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : recordCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * @return Errors of the failed records (the number of errors is limited by the job)
+     */
+    public List<IngestionError> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "IngestionReport{" +
+                "recordCount=" + recordCount +
+                ", failedCount=" + failedCount +
+                ", rowCount=" + rowCount +
+                ", elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) +
+                ", throughput=" + String.format(Locale.ROOT, "%.1f", getThroughput()) + " records/s" +
+                '}';
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal parser of one JSON value
+ *
+ * Objects are parsed to maps, arrays - to lists, numbers - to {@link BigDecimal} (without loss of precision).
+ * Throws {@link IllegalArgumentException} if the text is not valid JSON.
+ *
+ * @author Artyom Panfutov
+ */
+final class JsonParser {
+    private static final int MAX_DEPTH = 32;
+
+    private final String text;
+    private int position;
+
+    private JsonParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses the text
+     *
+     * @param text JSON text
+     * @return parsed value
+     */
+    static Object parse(String text) {
+        final JsonParser parser = new JsonParser(text);
+        final Object value = parser.readValue(0);
+
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error();
+        }
+
+        return value;
+    }
+
+    private Object readValue(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error();
+        }
+
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error();
+        }
+
+        final char c = text.charAt(position);
+        switch (c) {
+            case '{':
+                return readObject(depth);
+            case '[':
+                return readArray(depth);
+            case '"':
+                return readString();
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject(int depth) {
+        final Map<String, Object> object = new LinkedHashMap<>();
+
+        position++;
+        skipWhitespace();
+        if (peek() == '}') {
+            position++;
+            return object;
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error();
+            }
+            final String name = readString();
+
+            skipWhitespace();
+            expect(':');
+            object.put(name, readValue(depth + 1));
+
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray(int depth) {
+        final List<Object> array = new ArrayList<>();
+
+        position++;
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+            return array;
+        }
+
+        while (true) {
+            array.add(readValue(depth + 1));
+
+            skipWhitespace();
+            if (peek() == ',') {
+                position++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String readString() {
+        position++;
+
+        final int start = position;
+        while (position < text.length()) {
+            final char c = text.charAt(position);
+            if (c == '"') {
+                return text.substring(start, position++);
+            }
+            if (c == '\\') {
+                return readEscapedString(start);
+            }
+            if (c < 0x20) {
+                throw error();
+            }
+            position++;
+        }
+
+        throw error();
+    }
+
+    private String readEscapedString(int start) {
+        final StringBuilder value = new StringBuilder(text.length() - start).append(text, start, position);
+
+        while (position < text.length()) {
+            final char c = text.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c < 0x20) {
+                throw error();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+
+            switch (peek()) {
+                case '"':
+                case '\\':
+                case '/':
+                    value.append(text.charAt(position));
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    if (position + 5 > text.length()) {
+                        throw error();
+                    }
+                    value.append((char) Integer.parseInt(text.substring(position + 1, position + 5), 16));
+                    position += 4;
+                    break;
+                default:
+                    throw error();
+            }
+            position++;
+        }
+
+        throw error();
+    }
+
+    private BigDecimal readNumber() {
+        final int start = position;
+        while (position < text.length()) {
+            final char c = text.charAt(position);
+            if ((c < '0' || c > '9') && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                break;
+            }
+            position++;
+        }
+
+        if (start == position) {
+            throw error();
+        }
+
+        return new BigDecimal(text.substring(start, position));
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, position)) {
+            throw error();
+        }
+
+        position += literal.length();
+        return value;
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error();
+        }
+        position++;
+    }
+
+    private char peek() {
+        return position < text.length() ? text.charAt(position) : 0;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length()) {
+            final char c = text.charAt(position);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error() {
+        return new IllegalArgumentException("Malformed JSON at position " + position);
+    }
+}
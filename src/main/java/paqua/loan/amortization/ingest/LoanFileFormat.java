@@ -0,0 +1,46 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+/**
+ * Format of a file with loan definitions
+ *
+ * @author Artyom Panfutov
+ */
+public enum LoanFileFormat {
+    /**
+     * Comma-separated values with a header line (RFC 4180 quoting).
+     *
+     * Columns: loanId, amount, rate, term, firstPaymentDate, earlyPayments.
+     * Early payments are separated by ';', every early payment is
+     * {@code number:amount:strategy[:repeatingStrategy[:repeatToMonthNumber]]}
+     */
+    CSV,
+
+    /**
+     * One JSON object per line with the same attributes as {@link paqua.loan.amortization.dto.Loan} and an optional loanId
+     */
+    JSON_LINES
+}
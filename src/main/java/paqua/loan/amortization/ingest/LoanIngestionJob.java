@@ -0,0 +1,383 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.io.ExportFormat;
+import paqua.loan.amortization.io.ScheduleExportWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch job that calculates schedules of all loans of a loan file
+ *
+ * The file is read record by record, loans are calculated in parallel and monthly payments are written
+ * by {@link ScheduleExportWriter} in the order of the file.
+ * The number of records in flight (read but not written yet) is bounded: when the limit is reached,
+ * reading waits for the oldest record, so memory doesn't depend on the size of the file.
+ *
+ * A record that can't be parsed or calculated doesn't stop the job: it's reported as an {@link IngestionError}.
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanIngestionJob {
+    private static final int DEFAULT_IN_FLIGHT_PER_THREAD = 4;
+    private static final int DEFAULT_MAX_REPORTED_ERRORS = 1000;
+
+    private final LoanAmortizationCalculator calculator;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxInFlight;
+    private final int maxReportedErrors;
+    private final ExportFormat outputFormat;
+
+    private LoanIngestionJob(LoanIngestionJobBuilder builder) {
+        this.calculator = builder.calculator;
+        this.executor = builder.executor;
+        this.parallelism = builder.parallelism;
+        this.maxInFlight = builder.maxInFlight > 0 ? builder.maxInFlight : builder.parallelism * DEFAULT_IN_FLIGHT_PER_THREAD;
+        this.maxReportedErrors = builder.maxReportedErrors;
+        this.outputFormat = builder.outputFormat;
+    }
+
+    public static LoanIngestionJobBuilder builder() {
+        return new LoanIngestionJobBuilder();
+    }
+
+    /**
+     * Calculates schedules of all loans of the input and writes monthly payments to the output
+     *
+     * Neither the input nor the output is closed by the job
+     *
+     * @param input loan file
+     * @param inputFormat format of the loan file
+     * @param output output of monthly payments
+     * @return report of the job
+     * @throws IOException if reading or writing fails
+     * @throws LoanAmortizationCalculatorException if the header of a CSV file doesn't contain required columns
+     */
+    public IngestionReport run(Reader input, LoanFileFormat inputFormat, Writer output) throws IOException {
+        final long start = System.nanoTime();
+
+        final LoanRecordReader reader = LoanRecordReader.create(input, inputFormat);
+        final ScheduleExportWriter writer = ScheduleExportWriter.create(output, outputFormat);
+        final Deque<PendingRecord> inFlight = new ArrayDeque<>(maxInFlight);
+        final List<IngestionError> errors = new ArrayList<>();
+        final ExecutorService pool = executor != null ? executor : Executors.newFixedThreadPool(parallelism);
+
+        long recordCount = 0;
+        long failedCount = 0;
+        try {
+            LoanRecord record;
+            while ((record = reader.read()) != null) {
+                if (inFlight.size() == maxInFlight) {
+                    failedCount += complete(inFlight.poll(), writer, errors);
+                    recordCount++;
+                }
+
+                inFlight.add(submit(pool, record));
+            }
+
+            while (!inFlight.isEmpty()) {
+                failedCount += complete(inFlight.poll(), writer, errors);
+                recordCount++;
+            }
+
+            writer.flush();
+        } finally {
+            for (PendingRecord pending : inFlight) {
+                if (pending.result != null) {
+                    pending.result.cancel(true);
+                }
+            }
+
+            if (pool != executor) {
+                pool.shutdownNow();
+            }
+        }
+
+        return new IngestionReport(recordCount, failedCount, writer.getRowCount(), System.nanoTime() - start, errors);
+    }
+
+    /**
+     * Calculates schedules of all loans of the input file and writes monthly payments to the output file in UTF-8
+     *
+     * @param input loan file
+     * @param inputFormat format of the loan file
+     * @param output output file (replaced if it exists)
+     * @return report of the job
+     * @throws IOException if reading or writing fails
+     */
+    public IngestionReport run(Path input, LoanFileFormat inputFormat, Path output) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            return run(reader, inputFormat, writer);
+        }
+    }
+
+    /**
+     * Runs the job from the command line
+     *
+     * Arguments: input file, output file and optionally parallelism and maximum number of records in flight.
+     * Files with the extension '.csv' are read and written as CSV, other files - as JSON Lines.
+     *
+     * @param args command line arguments
+     * @throws IOException if reading or writing fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 4) {
+            System.err.println("Usage: LoanIngestionJob <input file> <output file> [parallelism] [max in flight]");
+            System.exit(2);
+            return;
+        }
+
+        final Path input = Paths.get(args[0]);
+        final Path output = Paths.get(args[1]);
+
+        final LoanIngestionJobBuilder builder = builder()
+                .outputFormat(isCsv(output) ? ExportFormat.CSV : ExportFormat.JSON_LINES);
+        if (args.length > 2) {
+            builder.parallelism(Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            builder.maxInFlight(Integer.parseInt(args[3]));
+        }
+
+        final IngestionReport report = builder.build().run(input, isCsv(input) ? LoanFileFormat.CSV : LoanFileFormat.JSON_LINES, output);
+
+        for (IngestionError error : report.getErrors()) {
+            System.err.println("Line " + error.getLineNumber() + " (loan " + error.getLoanId() + "): " + error.getType() + " " + error.getMessage());
+        }
+        System.out.println(report);
+    }
+
+    private static boolean isCsv(Path path) {
+        return path.toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    private PendingRecord submit(ExecutorService pool, LoanRecord record) {
+        if (!record.isSuccess()) {
+            return new PendingRecord(record, null);
+        }
+
+        return new PendingRecord(record, pool.submit(() -> {
+            try {
+                return LoanAmortizationResult.success(calculator.calculate(record.getLoan()));
+            } catch (LoanAmortizationCalculatorException e) {
+                return LoanAmortizationResult.failure(e);
+            } catch (RuntimeException e) {
+                // Any other failure of a single loan is reported for its record, the job goes on
+                return LoanAmortizationResult.failure(new LoanAmortizationCalculatorException(ExceptionType.CALCULATION_EXCEPTION, e));
+            }
+        }));
+    }
+
+    /**
+     * Waits for the calculation of the record and writes its monthly payments
+     *
+     * @return 1 if the record failed, 0 otherwise
+     */
+    private int complete(PendingRecord pending, ScheduleExportWriter writer, List<IngestionError> errors) throws IOException {
+        final LoanRecord record = pending.record;
+
+        final LoanAmortizationCalculatorException exception;
+        if (pending.result == null) {
+            exception = record.getException();
+        } else {
+            final LoanAmortizationResult result = await(pending.result);
+            if (result.isSuccess()) {
+                writer.writeAll(record.getLoanId(), result.getAmortization());
+                return 0;
+            }
+            exception = result.getException();
+        }
+
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new IngestionError(record.getLineNumber(), record.getLoanId(), exception));
+        }
+        return 1;
+    }
+
+    private static LoanAmortizationResult await(Future<LoanAmortizationResult> result) throws InterruptedIOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Record that is read but not written yet
+     */
+    private static final class PendingRecord {
+        private final LoanRecord record;
+
+        /**
+         * Result of the calculation (null if the record can't be parsed)
+         */
+        private final Future<LoanAmortizationResult> result;
+
+        PendingRecord(LoanRecord record, Future<LoanAmortizationResult> result) {
+            this.record = record;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Builder for {@link LoanIngestionJob}
+     */
+    public static final class LoanIngestionJobBuilder {
+        private LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+        private ExecutorService executor;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private int maxInFlight;
+        private int maxReportedErrors = DEFAULT_MAX_REPORTED_ERRORS;
+        private ExportFormat outputFormat = ExportFormat.CSV;
+
+        private LoanIngestionJobBuilder() {
+        }
+
+        /**
+         * Sets calculator of loans (must be thread-safe)
+         *
+         * @param calculator calculator of loans
+         * @return job builder
+         */
+        public LoanIngestionJobBuilder calculator(LoanAmortizationCalculator calculator) {
+            this.calculator = Objects.requireNonNull(calculator);
+            return this;
+        }
+
+        /**
+         * Sets executor in which loans are calculated (by default, every run creates its own pool of threads)
+         *
+         * The executor is not shut down by the job
+         *
+         * @param executor executor of calculations
+         * @return job builder
+         */
+        public LoanIngestionJobBuilder executor(ExecutorService executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Sets number of threads of the pool created by the job (number of processors by default)
+         *
+         * @param parallelism number of threads
+         * @return job builder
+         */
+        public LoanIngestionJobBuilder parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                        Messages.PARALLELISM_IS_NOT_POSITIVE.getMessageText());
+            }
+
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of records that are read but not written yet (4 per thread by default)
+         *
+         * @param maxInFlight maximum number of records in flight
+         * @return job builder
+         */
+        public LoanIngestionJobBuilder maxInFlight(int maxInFlight) {
+            if (maxInFlight <= 0) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                        Messages.MAX_IN_FLIGHT_IS_NOT_POSITIVE.getMessageText());
+            }
+
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of errors kept in the report (1000 by default), failed records are counted anyway
+         *
+         * @param maxReportedErrors maximum number of errors in the report
+         * @return job builder
+         */
+        public LoanIngestionJobBuilder maxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = Math.max(0, maxReportedErrors);
+            return this;
+        }
+
+        /**
+         * Sets format of the output (CSV by default)
+         *
+         * @param outputFormat format of the output
+         * @return job builder
+         */
+        public LoanIngestionJobBuilder outputFormat(ExportFormat outputFormat) {
+            this.outputFormat = Objects.requireNonNull(outputFormat);
+            return this;
+        }
+
+        /**
+         * Builds a new job
+         *
+         * @return job
+         */
+        public LoanIngestionJob build() {
+            return new LoanIngestionJob(this);
+        }
+    }
+}
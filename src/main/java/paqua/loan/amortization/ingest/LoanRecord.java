@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.util.Objects;
+
+/**
+ * Represents one record of a loan file
+ *
+ * Contains either parsed loan or the exception that occurred during parsing of the record
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanRecord {
+    /**
+     * Number of the line on which the record starts (starts with 1)
+     */
+    private final long lineNumber;
+
+    /**
+     * Id of the loan (null if the id can't be parsed)
+     */
+    private final String loanId;
+
+    /**
+     * Parsed loan (null if parsing failed)
+     */
+    private final Loan loan;
+
+    /**
+     * Exception that occurred during parsing (null if parsing succeeded)
+     */
+    private final LoanAmortizationCalculatorException exception;
+
+    private LoanRecord(long lineNumber, String loanId, Loan loan, LoanAmortizationCalculatorException exception) {
+        this.lineNumber = lineNumber;
+        this.loanId = loanId;
+        this.loan = loan;
+        this.exception = exception;
+    }
+
+    /**
+     * Creates a record of a parsed loan
+     *
+     * @param lineNumber number of the line on which the record starts
+     * @param loanId id of the loan
+     * @param loan parsed loan
+     * @return record
+     */
+    public static LoanRecord success(long lineNumber, String loanId, Loan loan) {
+        return new LoanRecord(lineNumber, loanId, Objects.requireNonNull(loan), null);
+    }
+
+    /**
+     * Creates a record that can't be parsed
+     *
+     * @param lineNumber number of the line on which the record starts
+     * @param loanId id of the loan (might be null)
+     * @param exception exception that occurred during parsing
+     * @return record
+     */
+    public static LoanRecord failure(long lineNumber, String loanId, LoanAmortizationCalculatorException exception) {
+        return new LoanRecord(lineNumber, loanId, null, Objects.requireNonNull(exception));
+    }
+
+    /**
+     * @return true if the loan was parsed
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * @return Number of the line on which the record starts
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return Id of the loan
+     */
+    public String getLoanId() {
+        return loanId;
+    }
+
+    /**
+     * @return Parsed loan
+     */
+    public Loan getLoan() {
+        return loan;
+    }
+
+    /**
+     * @return Exception that occurred during parsing
+     */
+    public LoanAmortizationCalculatorException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return "LoanRecord{" +
+                "lineNumber=" + lineNumber +
+                ", loanId='" + loanId + '\'' +
+                ", loan=" + loan +
+                ", exception=" + exception +
+                '}';
+    }
+}
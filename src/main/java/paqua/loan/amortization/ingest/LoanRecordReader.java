@@ -0,0 +1,445 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader of loan definitions
+ *
+ * Reads one record at a time, so a file of any size can be read in constant memory.
+ * A record that can't be parsed doesn't stop reading: it's returned as a failed {@link LoanRecord}.
+ * If a record has no loan id, the number of the record (starts with 1) is used as the id.
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanRecordReader implements Closeable {
+    private static final String LOAN_ID = "loanId";
+    private static final String AMOUNT = "amount";
+    private static final String RATE = "rate";
+    private static final String TERM = "term";
+    private static final String FIRST_PAYMENT_DATE = "firstPaymentDate";
+    private static final String EARLY_PAYMENTS = "earlyPayments";
+    private static final String STRATEGY = "strategy";
+    private static final String TYPE = "type";
+    private static final String REPEATING_STRATEGY = "repeatingStrategy";
+    private static final String ADDITIONAL_PARAMETERS = "additionalParameters";
+
+    private static final String[] CSV_COLUMNS = {LOAN_ID, AMOUNT, RATE, TERM, FIRST_PAYMENT_DATE, EARLY_PAYMENTS};
+    private static final int CSV_LOAN_ID = 0;
+    private static final int CSV_AMOUNT = 1;
+    private static final int CSV_RATE = 2;
+    private static final int CSV_TERM = 3;
+    private static final int CSV_FIRST_PAYMENT_DATE = 4;
+    private static final int CSV_EARLY_PAYMENTS = 5;
+
+    private final BufferedReader input;
+    private final LoanFileFormat format;
+
+    /**
+     * Fields of the current CSV record
+     */
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+
+    /**
+     * Indexes of the known CSV columns in a record (-1 if the file doesn't have the column)
+     */
+    private int[] columns;
+
+    private long lineNumber;
+
+    /**
+     * Number of the line on which the current record starts
+     */
+    private long recordLineNumber;
+    private long recordNumber;
+
+    private LoanRecordReader(BufferedReader input, LoanFileFormat format) {
+        this.input = input;
+        this.format = format;
+    }
+
+    /**
+     * Creates a reader of loan definitions
+     *
+     * @param input reader of characters
+     * @param format format of the file
+     * @return loan record reader
+     */
+    public static LoanRecordReader create(Reader input, LoanFileFormat format) {
+        if (input == null || format == null) {
+            throw new NullPointerException();
+        }
+
+        return new LoanRecordReader(input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input), format);
+    }
+
+    /**
+     * Creates a reader of loan definitions in UTF-8
+     *
+     * @param input input stream
+     * @param format format of the file
+     * @return loan record reader
+     */
+    public static LoanRecordReader create(InputStream input, LoanFileFormat format) {
+        return create(new InputStreamReader(input, StandardCharsets.UTF_8), format);
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return next record or null if the end of the input is reached
+     * @throws IOException if reading fails
+     * @throws LoanAmortizationCalculatorException if the header of a CSV file doesn't contain required columns
+     */
+    public LoanRecord read() throws IOException {
+        return format == LoanFileFormat.CSV ? readCsv() : readJsonLine();
+    }
+
+    /**
+     * @return Number of lines read so far
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private LoanRecord readJsonLine() throws IOException {
+        String line;
+        do {
+            line = input.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.trim().isEmpty());
+
+        recordLineNumber = lineNumber;
+        final String defaultId = String.valueOf(++recordNumber);
+
+        final Object parsed;
+        try {
+            parsed = JsonParser.parse(line);
+        } catch (IllegalArgumentException e) {
+            return LoanRecord.failure(recordLineNumber, null, malformed());
+        }
+
+        // A line can be any JSON value (e.g. null or an array), only objects are loan records
+        if (!(parsed instanceof Map)) {
+            return LoanRecord.failure(recordLineNumber, null, malformed());
+        }
+        final Map<?, ?> object = (Map<?, ?>) parsed;
+
+        final Object id = object.get(LOAN_ID);
+        final String loanId = id == null ? defaultId : toText(id);
+
+        try {
+            final Loan.LoanBuilder loan = Loan.builder()
+                    .amount(toDecimal(object.get(AMOUNT)))
+                    .rate(toDecimal(object.get(RATE)))
+                    .term(toInteger(object.get(TERM)))
+                    .firstPaymentDate(toDate(object.get(FIRST_PAYMENT_DATE)));
+
+            final Map<?, ?> earlyPayments = (Map<?, ?>) object.get(EARLY_PAYMENTS);
+            if (earlyPayments != null) {
+                loan.earlyPayments(new HashMap<>());
+                for (Map.Entry<?, ?> entry : earlyPayments.entrySet()) {
+                    loan.earlyPayment(Integer.parseInt((String) entry.getKey()), toEarlyPayment((Map<?, ?>) entry.getValue()));
+                }
+            }
+
+            return LoanRecord.success(recordLineNumber, loanId, loan.build());
+        } catch (IllegalArgumentException | ArithmeticException | ClassCastException | DateTimeException e) {
+            return LoanRecord.failure(recordLineNumber, loanId, malformed());
+        }
+    }
+
+    private LoanRecord readCsv() throws IOException {
+        if (columns == null) {
+            readCsvHeader();
+            if (columns == null) {
+                return null;
+            }
+        }
+
+        boolean complete;
+        do {
+            complete = readCsvRecord();
+            if (fields.isEmpty()) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).trim().isEmpty() && complete);
+
+        final String defaultId = String.valueOf(++recordNumber);
+        final String id = getCsvField(CSV_LOAN_ID);
+        final String loanId = id == null ? defaultId : id;
+
+        if (!complete) {
+            return LoanRecord.failure(recordLineNumber, loanId, malformed());
+        }
+
+        try {
+            final Loan.LoanBuilder loan = Loan.builder()
+                    .amount(toDecimal(getCsvField(CSV_AMOUNT)))
+                    .rate(toDecimal(getCsvField(CSV_RATE)))
+                    .term(toInteger(getCsvField(CSV_TERM)))
+                    .firstPaymentDate(toDate(getCsvField(CSV_FIRST_PAYMENT_DATE)));
+
+            final String earlyPayments = getCsvField(CSV_EARLY_PAYMENTS);
+            if (earlyPayments != null) {
+                for (String earlyPayment : earlyPayments.split(";")) {
+                    if (!earlyPayment.trim().isEmpty()) {
+                        addCsvEarlyPayment(loan, earlyPayment.trim().split(":", -1));
+                    }
+                }
+            }
+
+            return LoanRecord.success(recordLineNumber, loanId, loan.build());
+        } catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+            return LoanRecord.failure(recordLineNumber, loanId, malformed());
+        }
+    }
+
+    private void readCsvHeader() throws IOException {
+        readCsvRecord();
+        if (fields.isEmpty()) {
+            return;
+        }
+
+        final int[] indexes = new int[CSV_COLUMNS.length];
+        for (int column = 0; column < CSV_COLUMNS.length; column++) {
+            indexes[column] = -1;
+            for (int i = 0; i < fields.size(); i++) {
+                if (CSV_COLUMNS[column].equals(fields.get(i).trim())) {
+                    indexes[column] = i;
+                }
+            }
+        }
+
+        if (indexes[CSV_AMOUNT] < 0 || indexes[CSV_RATE] < 0 || indexes[CSV_TERM] < 0) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.SERIALIZATION_EXCEPTION, Messages.MISSING_LOAN_FILE_COLUMNS.getMessageText());
+        }
+
+        columns = indexes;
+    }
+
+    /**
+     * Reads fields of one CSV record (might span several lines if a quoted field contains line breaks)
+     *
+     * @return false if the input ended inside of a quoted field
+     */
+    private boolean readCsvRecord() throws IOException {
+        fields.clear();
+
+        String line = input.readLine();
+        if (line == null) {
+            return true;
+        }
+        recordLineNumber = ++lineNumber;
+
+        field.setLength(0);
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    fields.add(field.toString());
+                    return true;
+                }
+
+                line = input.readLine();
+                if (line == null) {
+                    fields.add(field.toString());
+                    return false;
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+
+            final char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+    }
+
+    private String getCsvField(int column) {
+        final int index = columns[column];
+        if (index < 0 || index >= fields.size()) {
+            return null;
+        }
+
+        final String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static void addCsvEarlyPayment(Loan.LoanBuilder loan, String[] attributes) {
+        if (attributes.length < 3 || attributes.length > 5) {
+            throw new IllegalArgumentException("Unexpected number of early payment attributes");
+        }
+
+        final EarlyPayment.EarlyPaymentBuilder earlyPayment = EarlyPayment.builder()
+                .amount(toDecimal(attributes[1]))
+                .strategy(toEnum(EarlyPaymentStrategy.class, attributes[2]))
+                .repeatingStrategy(attributes.length > 3
+                        ? toEnum(EarlyPaymentRepeatingStrategy.class, attributes[3])
+                        : EarlyPaymentRepeatingStrategy.SINGLE);
+
+        if (attributes.length > 4) {
+            earlyPayment.repeatTo(Integer.parseInt(attributes[4].trim()));
+        }
+
+        loan.earlyPayment(Integer.parseInt(attributes[0].trim()), requireComplete(earlyPayment.build()));
+    }
+
+    private static EarlyPayment toEarlyPayment(Map<?, ?> object) {
+        if (object == null) {
+            throw new IllegalArgumentException("Early payment is null");
+        }
+
+        final Object strategy = object.containsKey(STRATEGY) ? object.get(STRATEGY) : object.get(TYPE);
+
+        Map<EarlyPaymentAdditionalParameters, String> additionalParameters = null;
+        final Map<?, ?> parameters = (Map<?, ?>) object.get(ADDITIONAL_PARAMETERS);
+        if (parameters != null) {
+            additionalParameters = new HashMap<>();
+            for (Map.Entry<?, ?> entry : parameters.entrySet()) {
+                additionalParameters.put(toEnum(EarlyPaymentAdditionalParameters.class, entry.getKey()), toText(entry.getValue()));
+            }
+        }
+
+        final Object repeatingStrategy = object.get(REPEATING_STRATEGY);
+
+        return requireComplete(new EarlyPayment(
+                toDecimal(object.get(AMOUNT)),
+                toEnum(EarlyPaymentStrategy.class, strategy),
+                repeatingStrategy == null
+                        ? EarlyPaymentRepeatingStrategy.SINGLE
+                        : toEnum(EarlyPaymentRepeatingStrategy.class, repeatingStrategy),
+                additionalParameters));
+    }
+
+    /**
+     * Checks that the early payment has all attributes the calculator needs
+     *
+     * @param earlyPayment early payment
+     * @return the same early payment
+     * @throws IllegalArgumentException if an attribute is missing
+     */
+    private static EarlyPayment requireComplete(EarlyPayment earlyPayment) {
+        if (earlyPayment.getAmount() == null || earlyPayment.getStrategy() == null) {
+            throw new IllegalArgumentException("Early payment amount and strategy are required");
+        }
+
+        if (earlyPayment.getRepeatingStrategy() == EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH) {
+            final Map<EarlyPaymentAdditionalParameters, String> parameters = earlyPayment.getAdditionalParameters();
+            final String repeatTo = parameters == null ? null : parameters.get(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER);
+            if (repeatTo == null) {
+                throw new IllegalArgumentException("Month number to repeat the early payment to is required");
+            }
+
+            // Throws NumberFormatException the same way as the calculator does
+            Integer.parseInt(repeatTo);
+        }
+
+        return earlyPayment;
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+
+        return new BigDecimal(((String) value).trim());
+    }
+
+    private static Integer toInteger(Object value) {
+        final BigDecimal decimal = toDecimal(value);
+        return decimal == null ? null : decimal.intValueExact();
+    }
+
+    private static LocalDate toDate(Object value) {
+        return value == null ? null : LocalDate.parse(((String) value).trim());
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, Object value) {
+        return value == null ? null : Enum.valueOf(type, ((String) value).trim());
+    }
+
+    private static String toText(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        return value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+    }
+
+    private static LoanAmortizationCalculatorException malformed() {
+        return new LoanAmortizationCalculatorException(ExceptionType.SERIALIZATION_EXCEPTION, Messages.MALFORMED_LOAN_RECORD.getMessageText());
+    }
+}
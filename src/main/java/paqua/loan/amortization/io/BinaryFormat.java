@@ -0,0 +1,87 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+
+/**
+ * Constants of the binary format
+ *
+ * A record consists of a header and a payload:
+ * <pre>
+ *   version (1 byte) | record type (1 byte) | payload length (varint) | payload
+ * </pre>
+ * The payload is a sequence of variable-length integers (LEB128, signed values are zigzag-encoded):
+ * <ul>
+ *     <li>a nullable value is written as 0 for null and (value + 1) otherwise</li>
+ *     <li>a decimal is written as a header ((zigzag(scale) &lt;&lt; 1 | big) + 1) followed by the unscaled value:
+ *     a signed varlong, or the length and the bytes of the two's-complement representation if it does not fit into a long</li>
+ *     <li>dates are written as epoch days, dates and month numbers of monthly payments as deltas from the previous payment</li>
+ *     <li>enums are written as their codes in the tables below (not ordinals, so the constants can be reordered)</li>
+ * </ul>
+ * Any incompatible change of the payload requires a new version.
+ *
+ * @author Artyom Panfutov
+ */
+final class BinaryFormat {
+    static final int VERSION = 1;
+
+    static final int LOAN = 1;
+    static final int EARLY_PAYMENT = 2;
+    static final int LOAN_AMORTIZATION = 3;
+
+    /**
+     * Maximum length of the header in bytes
+     */
+    static final int MAX_HEADER_LENGTH = 2 + 5;
+
+    /**
+     * Markers of early payments in a map
+     */
+    static final int NULL_EARLY_PAYMENT = 0;
+    static final int SAME_EARLY_PAYMENT = 1;
+    static final int NEW_EARLY_PAYMENT = 2;
+
+    static final EarlyPaymentStrategy[] STRATEGIES = {
+            EarlyPaymentStrategy.DECREASE_TERM,
+            EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT
+    };
+
+    static final EarlyPaymentRepeatingStrategy[] REPEATING_STRATEGIES = {
+            EarlyPaymentRepeatingStrategy.SINGLE,
+            EarlyPaymentRepeatingStrategy.TO_END,
+            EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH
+    };
+
+    static final EarlyPaymentAdditionalParameters[] ADDITIONAL_PARAMETERS = {
+            EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER
+    };
+
+    private BinaryFormat() {
+        throw new IllegalStateException("Instantiation is not allowed");
+    }
+}
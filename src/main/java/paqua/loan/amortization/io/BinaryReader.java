@@ -0,0 +1,491 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads loans, early payments and loan amortizations written by {@link BinaryWriter}
+ *
+ * The payload of a record is read into an internal buffer that is reused, so the reader is not thread-safe.
+ * Records of another version or type and malformed records are rejected with {@link LoanAmortizationCalculatorException}
+ * of type {@link ExceptionType#SERIALIZATION_EXCEPTION}.
+ *
+ * @author Artyom Panfutov
+ */
+public final class BinaryReader {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int position;
+    private int limit;
+
+    /**
+     * Reads a loan from the buffer
+     *
+     * @param source buffer (the position is advanced to the end of the record)
+     * @return loan
+     */
+    public Loan readLoan(ByteBuffer source) {
+        read(source, BinaryFormat.LOAN);
+        return decodeLoan();
+    }
+
+    /**
+     * Reads a loan from the stream
+     *
+     * @param input input stream (exactly one record is read)
+     * @return loan
+     * @throws IOException if the stream cannot be read or ends before the end of the record
+     */
+    public Loan readLoan(InputStream input) throws IOException {
+        read(input, BinaryFormat.LOAN);
+        return decodeLoan();
+    }
+
+    /**
+     * Reads an early payment from the buffer
+     *
+     * @param source buffer (the position is advanced to the end of the record)
+     * @return early payment
+     */
+    public EarlyPayment readEarlyPayment(ByteBuffer source) {
+        read(source, BinaryFormat.EARLY_PAYMENT);
+        return decodeEarlyPayment();
+    }
+
+    /**
+     * Reads an early payment from the stream
+     *
+     * @param input input stream (exactly one record is read)
+     * @return early payment
+     * @throws IOException if the stream cannot be read or ends before the end of the record
+     */
+    public EarlyPayment readEarlyPayment(InputStream input) throws IOException {
+        read(input, BinaryFormat.EARLY_PAYMENT);
+        return decodeEarlyPayment();
+    }
+
+    /**
+     * Reads a loan amortization from the buffer
+     *
+     * @param source buffer (the position is advanced to the end of the record)
+     * @return loan amortization
+     */
+    public LoanAmortization readLoanAmortization(ByteBuffer source) {
+        read(source, BinaryFormat.LOAN_AMORTIZATION);
+        return decodeLoanAmortization();
+    }
+
+    /**
+     * Reads a loan amortization from the stream
+     *
+     * @param input input stream (exactly one record is read)
+     * @return loan amortization
+     * @throws IOException if the stream cannot be read or ends before the end of the record
+     */
+    public LoanAmortization readLoanAmortization(InputStream input) throws IOException {
+        read(input, BinaryFormat.LOAN_AMORTIZATION);
+        return decodeLoanAmortization();
+    }
+
+    private Loan decodeLoan() {
+        final BigDecimal amount = readDecimal();
+        final BigDecimal rate = readDecimal();
+        final Integer term = readNullableInt();
+        final LocalDate firstPaymentDate = readDate();
+        final Map<Integer, EarlyPayment> earlyPayments = readEarlyPayments();
+
+        end();
+        return new Loan(amount, rate, term, earlyPayments, firstPaymentDate);
+    }
+
+    private EarlyPayment decodeEarlyPayment() {
+        final EarlyPayment earlyPayment = readEarlyPayment();
+
+        end();
+        return earlyPayment;
+    }
+
+    private LoanAmortization decodeLoanAmortization() {
+        final BigDecimal monthlyPaymentAmount = readDecimal();
+        final BigDecimal overPaymentAmount = readDecimal();
+        final Map<Integer, EarlyPayment> earlyPayments = readEarlyPayments();
+        final List<MonthlyPayment> monthlyPayments = readMonthlyPayments();
+
+        end();
+        return new LoanAmortization(monthlyPaymentAmount, overPaymentAmount, monthlyPayments, earlyPayments);
+    }
+
+    /**
+     * Reads the header and the payload of a record from the buffer
+     */
+    private void read(ByteBuffer source, int recordType) {
+        try {
+            checkHeader(source.get(), source.get(), recordType);
+
+            long length = 0;
+            for (int shift = 0; ; shift += 7) {
+                final byte b = source.get();
+                length |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+                checkVarLongLength(shift);
+            }
+
+            if (length > source.remaining()) {
+                throw malformed();
+            }
+
+            prepare(length);
+            source.get(buffer, 0, limit);
+        } catch (BufferUnderflowException e) {
+            throw malformed();
+        }
+    }
+
+    /**
+     * Reads the header and the payload of a record from the stream
+     */
+    private void read(InputStream input, int recordType) throws IOException {
+        checkHeader(readByte(input), readByte(input), recordType);
+
+        long length = 0;
+        for (int shift = 0; ; shift += 7) {
+            final int b = readByte(input);
+            length |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            checkVarLongLength(shift);
+        }
+
+        if (length > Integer.MAX_VALUE) {
+            throw malformed();
+        }
+
+        // The length is not trusted: the buffer grows only as the payload actually arrives,
+        // so a truncated or corrupted stream ends with EOFException instead of a huge allocation
+        final int size = (int) length;
+        for (int offset = 0; offset < size; ) {
+            if (offset == buffer.length) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(size, buffer.length * 2L));
+            }
+
+            final int count = input.read(buffer, offset, Math.min(size, buffer.length) - offset);
+            if (count < 0) {
+                throw new EOFException();
+            }
+            offset += count;
+        }
+
+        position = 0;
+        limit = size;
+    }
+
+    private static int readByte(InputStream input) throws IOException {
+        final int b = input.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    private static void checkHeader(int version, int type, int recordType) {
+        if (version != BinaryFormat.VERSION) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.SERIALIZATION_EXCEPTION, Messages.UNSUPPORTED_FORMAT_VERSION.getMessageText());
+        }
+
+        if (type != recordType) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.SERIALIZATION_EXCEPTION, Messages.UNEXPECTED_RECORD_TYPE.getMessageText());
+        }
+    }
+
+    private void prepare(long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw malformed();
+        }
+
+        if (buffer.length < length) {
+            buffer = new byte[(int) Math.max(length, buffer.length * 2L)];
+        }
+
+        position = 0;
+        limit = (int) length;
+    }
+
+    /**
+     * Checks that the whole payload is read
+     */
+    private void end() {
+        if (position != limit) {
+            throw malformed();
+        }
+    }
+
+    private Map<Integer, EarlyPayment> readEarlyPayments() {
+        final int size = readSize();
+        if (size < 0) {
+            return null;
+        }
+
+        final Map<Integer, EarlyPayment> earlyPayments = new HashMap<>(Math.max((int) (size / .75f) + 1, 16));
+
+        int previousKey = 0;
+        EarlyPayment previous = null;
+        for (int i = 0; i < size; i++) {
+            Integer key = null;
+
+            final long encodedKey = readVarLong();
+            if (encodedKey != 0) {
+                key = toInt(previousKey + unzigzag(encodedKey - 1));
+                previousKey = key;
+            }
+
+            EarlyPayment earlyPayment;
+            final long marker = readVarLong();
+            if (marker == BinaryFormat.NULL_EARLY_PAYMENT) {
+                earlyPayment = null;
+            } else if (marker == BinaryFormat.SAME_EARLY_PAYMENT && previous != null) {
+                earlyPayment = previous;
+            } else if (marker == BinaryFormat.NEW_EARLY_PAYMENT) {
+                earlyPayment = readEarlyPayment();
+                previous = earlyPayment;
+            } else {
+                throw malformed();
+            }
+
+            earlyPayments.put(key, earlyPayment);
+        }
+
+        return earlyPayments;
+    }
+
+    private EarlyPayment readEarlyPayment() {
+        final BigDecimal amount = readDecimal();
+        final EarlyPaymentStrategy strategy = readEnum(BinaryFormat.STRATEGIES);
+        final EarlyPaymentRepeatingStrategy repeatingStrategy = readEnum(BinaryFormat.REPEATING_STRATEGIES);
+
+        Map<EarlyPaymentAdditionalParameters, String> parameters = null;
+        final int size = readSize();
+        if (size >= 0) {
+            parameters = new EnumMap<>(EarlyPaymentAdditionalParameters.class);
+            for (int i = 0; i < size; i++) {
+                parameters.put(readEnum(BinaryFormat.ADDITIONAL_PARAMETERS), readString());
+            }
+        }
+
+        return new EarlyPayment(amount, strategy, repeatingStrategy, parameters);
+    }
+
+    private List<MonthlyPayment> readMonthlyPayments() {
+        final int size = readSize();
+        if (size < 0) {
+            return null;
+        }
+
+        final List<MonthlyPayment> payments = new ArrayList<>(size);
+
+        long previousMonthNumber = -1;
+        long previousEpochDay = 0;
+        for (int i = 0; i < size; i++) {
+            Integer monthNumber = null;
+
+            final long encodedMonthNumber = readVarLong();
+            if (encodedMonthNumber != 0) {
+                monthNumber = toInt(previousMonthNumber + unzigzag(encodedMonthNumber - 1));
+                previousMonthNumber = monthNumber;
+            }
+
+            final BigDecimal loanBalanceAmount = readDecimal();
+            final BigDecimal debtPaymentAmount = readDecimal();
+            final BigDecimal interestPaymentAmount = readDecimal();
+            final BigDecimal paymentAmount = readDecimal();
+            final BigDecimal additionalPaymentAmount = readDecimal();
+
+            LocalDate paymentDate = null;
+            final long encodedDate = readVarLong();
+            if (encodedDate != 0) {
+                previousEpochDay += unzigzag(encodedDate - 1);
+                paymentDate = toDate(previousEpochDay);
+            }
+
+            payments.add(new MonthlyPayment(monthNumber, loanBalanceAmount, debtPaymentAmount, interestPaymentAmount,
+                    paymentAmount, additionalPaymentAmount, paymentDate));
+        }
+
+        return Collections.unmodifiableList(payments);
+    }
+
+    private BigDecimal readDecimal() {
+        final long header = readVarLong();
+        if (header == 0) {
+            return null;
+        }
+
+        final int scale = toInt(unzigzag((header - 1) >>> 1));
+
+        if (((header - 1) & 1) == 0) {
+            return BigDecimal.valueOf(unzigzag(readVarLong()), scale);
+        }
+
+        final long length = readVarLong();
+        if (length <= 0 || length > limit - position) {
+            throw malformed();
+        }
+
+        final BigInteger unscaledValue = new BigInteger(Arrays.copyOfRange(buffer, position, position + (int) length));
+        position += (int) length;
+
+        return new BigDecimal(unscaledValue, scale);
+    }
+
+    private LocalDate readDate() {
+        final long value = readVarLong();
+        return value == 0 ? null : toDate(unzigzag(value - 1));
+    }
+
+    private Integer readNullableInt() {
+        final long value = readVarLong();
+        if (value == 0) {
+            return null;
+        }
+
+        return toInt(unzigzag(value - 1));
+    }
+
+    private String readString() {
+        final int length = readSize();
+        if (length < 0) {
+            return null;
+        }
+
+        if (length > limit - position) {
+            throw malformed();
+        }
+
+        final String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private <E extends Enum<E>> E readEnum(E[] table) {
+        final long code = readVarLong();
+        if (code == 0) {
+            return null;
+        }
+
+        if (code < 0 || code > table.length) {
+            throw malformed();
+        }
+        return table[(int) code - 1];
+    }
+
+    /**
+     * @return size of a collection (-1 if it is null)
+     */
+    private int readSize() {
+        final long value = readVarLong();
+
+        // Every element takes at least one byte, a larger size means that the data is corrupted
+        if (value < 0 || value - 1 > limit - position) {
+            throw malformed();
+        }
+        return (int) value - 1;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (position >= limit) {
+                throw malformed();
+            }
+
+            final byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            checkVarLongLength(shift);
+        }
+    }
+
+    private static void checkVarLongLength(int shift) {
+        if (shift >= 63) {
+            throw malformed();
+        }
+    }
+
+    private static int toInt(long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw malformed();
+        }
+        return (int) value;
+    }
+
+    private static LocalDate toDate(long epochDay) {
+        try {
+            return LocalDate.ofEpochDay(epochDay);
+        } catch (DateTimeException e) {
+            throw malformed();
+        }
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static LoanAmortizationCalculatorException malformed() {
+        return new LoanAmortizationCalculatorException(ExceptionType.SERIALIZATION_EXCEPTION, Messages.MALFORMED_BINARY_DATA.getMessageText());
+    }
+}
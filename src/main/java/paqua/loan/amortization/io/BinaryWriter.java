@@ -0,0 +1,415 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes loans, early payments and loan amortizations in the compact binary format (see {@link BinaryFormat})
+ *
+ * A record is encoded into an internal buffer that is reused, so the writer is not thread-safe.
+ * Records can be read by {@link BinaryReader}.
+ *
+ * @author Artyom Panfutov
+ */
+public final class BinaryWriter {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+    /**
+     * Start of the encoded record in the buffer
+     */
+    private int start;
+
+    /**
+     * End of the encoded record in the buffer
+     */
+    private int position;
+
+    /**
+     * Writes the loan to the buffer
+     *
+     * @param loan loan
+     * @param target buffer (the position is advanced)
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer (the buffer is not changed)
+     */
+    public void write(Loan loan, ByteBuffer target) {
+        encode(loan);
+        target.put(buffer, start, position - start);
+    }
+
+    /**
+     * Writes the loan to the stream
+     *
+     * @param loan loan
+     * @param output output stream
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(Loan loan, OutputStream output) throws IOException {
+        encode(loan);
+        output.write(buffer, start, position - start);
+    }
+
+    /**
+     * Writes the early payment to the buffer
+     *
+     * @param earlyPayment early payment
+     * @param target buffer (the position is advanced)
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer (the buffer is not changed)
+     */
+    public void write(EarlyPayment earlyPayment, ByteBuffer target) {
+        encode(earlyPayment);
+        target.put(buffer, start, position - start);
+    }
+
+    /**
+     * Writes the early payment to the stream
+     *
+     * @param earlyPayment early payment
+     * @param output output stream
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(EarlyPayment earlyPayment, OutputStream output) throws IOException {
+        encode(earlyPayment);
+        output.write(buffer, start, position - start);
+    }
+
+    /**
+     * Writes the loan amortization to the buffer
+     *
+     * @param amortization loan amortization
+     * @param target buffer (the position is advanced)
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer (the buffer is not changed)
+     */
+    public void write(LoanAmortization amortization, ByteBuffer target) {
+        encode(amortization);
+        target.put(buffer, start, position - start);
+    }
+
+    /**
+     * Writes the loan amortization to the stream
+     *
+     * @param amortization loan amortization
+     * @param output output stream
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(LoanAmortization amortization, OutputStream output) throws IOException {
+        encode(amortization);
+        output.write(buffer, start, position - start);
+    }
+
+    /**
+     * @param loan loan
+     * @return encoded loan
+     */
+    public byte[] toByteArray(Loan loan) {
+        encode(loan);
+        return Arrays.copyOfRange(buffer, start, position);
+    }
+
+    /**
+     * @param earlyPayment early payment
+     * @return encoded early payment
+     */
+    public byte[] toByteArray(EarlyPayment earlyPayment) {
+        encode(earlyPayment);
+        return Arrays.copyOfRange(buffer, start, position);
+    }
+
+    /**
+     * @param amortization loan amortization
+     * @return encoded loan amortization
+     */
+    public byte[] toByteArray(LoanAmortization amortization) {
+        encode(amortization);
+        return Arrays.copyOfRange(buffer, start, position);
+    }
+
+    private void encode(Loan loan) {
+        begin(loan);
+
+        writeDecimal(loan.getAmount());
+        writeDecimal(loan.getRate());
+        writeNullableInt(loan.getTerm());
+        writeDate(loan.getFirstPaymentDate());
+        writeEarlyPayments(loan.getEarlyPayments());
+
+        end(BinaryFormat.LOAN);
+    }
+
+    private void encode(EarlyPayment earlyPayment) {
+        begin(earlyPayment);
+
+        writeEarlyPayment(earlyPayment);
+
+        end(BinaryFormat.EARLY_PAYMENT);
+    }
+
+    private void encode(LoanAmortization amortization) {
+        begin(amortization);
+
+        writeDecimal(amortization.getMonthlyPaymentAmount());
+        writeDecimal(amortization.getOverPaymentAmount());
+        writeEarlyPayments(amortization.getEarlyPayments());
+        writeMonthlyPayments(amortization.getMonthlyPayments());
+
+        end(BinaryFormat.LOAN_AMORTIZATION);
+    }
+
+    /**
+     * Starts a record: the payload is written after the space reserved for the header
+     */
+    private void begin(Object value) {
+        if (value == null) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.NULL.getMessageText());
+        }
+
+        position = BinaryFormat.MAX_HEADER_LENGTH;
+    }
+
+    /**
+     * Finishes a record: the header is written right before the payload
+     */
+    private void end(int recordType) {
+        final int payloadStart = BinaryFormat.MAX_HEADER_LENGTH;
+        final int payloadLength = position - payloadStart;
+
+        start = payloadStart - 2 - getVarLongLength(payloadLength);
+
+        int index = start;
+        buffer[index++] = (byte) BinaryFormat.VERSION;
+        buffer[index++] = (byte) recordType;
+
+        long value = payloadLength;
+        while ((value & ~0x7FL) != 0) {
+            buffer[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[index] = (byte) value;
+    }
+
+    private void writeEarlyPayments(Map<Integer, EarlyPayment> earlyPayments) {
+        if (earlyPayments == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        writeVarLong(earlyPayments.size() + 1L);
+
+        // Repeated early payments are written once, keys are written as deltas
+        int previousKey = 0;
+        EarlyPayment previous = null;
+        for (Map.Entry<Integer, EarlyPayment> entry : earlyPayments.entrySet()) {
+            final Integer key = entry.getKey();
+            final EarlyPayment earlyPayment = entry.getValue();
+
+            if (key == null) {
+                writeVarLong(0);
+            } else {
+                writeVarLong(zigzag((long) key - previousKey) + 1);
+                previousKey = key;
+            }
+
+            if (earlyPayment == null) {
+                writeVarLong(BinaryFormat.NULL_EARLY_PAYMENT);
+            } else if (earlyPayment.equals(previous)) {
+                writeVarLong(BinaryFormat.SAME_EARLY_PAYMENT);
+            } else {
+                writeVarLong(BinaryFormat.NEW_EARLY_PAYMENT);
+                writeEarlyPayment(earlyPayment);
+                previous = earlyPayment;
+            }
+        }
+    }
+
+    private void writeEarlyPayment(EarlyPayment earlyPayment) {
+        writeDecimal(earlyPayment.getAmount());
+        writeEnum(BinaryFormat.STRATEGIES, earlyPayment.getStrategy());
+        writeEnum(BinaryFormat.REPEATING_STRATEGIES, earlyPayment.getRepeatingStrategy());
+
+        final Map<EarlyPaymentAdditionalParameters, String> parameters = earlyPayment.getAdditionalParameters();
+        if (parameters == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        writeVarLong(parameters.size() + 1L);
+        for (Map.Entry<EarlyPaymentAdditionalParameters, String> entry : parameters.entrySet()) {
+            writeEnum(BinaryFormat.ADDITIONAL_PARAMETERS, entry.getKey());
+            writeString(entry.getValue());
+        }
+    }
+
+    private void writeMonthlyPayments(List<MonthlyPayment> payments) {
+        if (payments == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        writeVarLong(payments.size() + 1L);
+
+        // Month numbers and dates are written as deltas from the previous payment
+        long previousMonthNumber = -1;
+        long previousEpochDay = 0;
+        for (MonthlyPayment payment : payments) {
+            if (payment == null) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.NULL.getMessageText());
+            }
+
+            final Integer monthNumber = payment.getMonthNumber();
+            if (monthNumber == null) {
+                writeVarLong(0);
+            } else {
+                writeVarLong(zigzag(monthNumber - previousMonthNumber) + 1);
+                previousMonthNumber = monthNumber;
+            }
+
+            writeDecimal(payment.getLoanBalanceAmount());
+            writeDecimal(payment.getDebtPaymentAmount());
+            writeDecimal(payment.getInterestPaymentAmount());
+            writeDecimal(payment.getPaymentAmount());
+            writeDecimal(payment.getAdditionalPaymentAmount());
+
+            final LocalDate paymentDate = payment.getPaymentDate();
+            if (paymentDate == null) {
+                writeVarLong(0);
+            } else {
+                writeVarLong(zigzag(paymentDate.toEpochDay() - previousEpochDay) + 1);
+                previousEpochDay = paymentDate.toEpochDay();
+            }
+        }
+    }
+
+    private void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        final BigInteger unscaledValue = value.unscaledValue();
+        final long scale = zigzag(value.scale()) << 1;
+
+        if (unscaledValue.bitLength() < Long.SIZE) {
+            writeVarLong(scale + 1);
+            writeVarLong(zigzag(unscaledValue.longValue()));
+        } else {
+            final byte[] bytes = unscaledValue.toByteArray();
+
+            writeVarLong((scale | 1) + 1);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+    }
+
+    private void writeDate(LocalDate date) {
+        writeVarLong(date == null ? 0 : zigzag(date.toEpochDay()) + 1);
+    }
+
+    private void writeNullableInt(Integer value) {
+        writeVarLong(value == null ? 0 : zigzag(value) + 1);
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        writeBytes(bytes);
+    }
+
+    private <E extends Enum<E>> void writeEnum(E[] table, E value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+
+        for (int code = 0; code < table.length; code++) {
+            if (table[code] == value) {
+                writeVarLong(code + 1L);
+                return;
+            }
+        }
+
+        throw new IllegalStateException(value + " is not supported by the binary format");
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.length - position < length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int getVarLongLength(long value) {
+        int length = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            length++;
+        }
+        return length;
+    }
+}
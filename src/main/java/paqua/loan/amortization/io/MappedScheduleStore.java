@@ -0,0 +1,259 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only store of loan schedules in a memory-mapped file written by {@link ScheduleStoreWriter}
+ *
+ * Monthly payments are stored in fixed-width rows, so a single payment is read by its offset
+ * without reading the rest of the schedule. Schedules are found by a binary search in the index of loan ids.
+ * The file is mapped in segments (a mapping cannot be larger than 2 GB), so the store can be larger than the memory.
+ *
+ * Amounts are returned with the scale 2. The store is thread-safe.
+ * Mappings are released when the store is garbage collected.
+ *
+ * @author Artyom Panfutov
+ */
+public final class MappedScheduleStore {
+    /**
+     * Size of a segment is 1 GB
+     */
+    private static final int SEGMENT_BITS = 30;
+
+    /**
+     * Segments overlap, so a value never crosses the border of a segment
+     */
+    private static final int SEGMENT_OVERLAP = Long.BYTES;
+
+    private final MappedByteBuffer[] segments;
+    private final int segmentBits;
+    private final long segmentMask;
+    private final long count;
+    private final long indexOffset;
+
+    private MappedScheduleStore(MappedByteBuffer[] segments, int segmentBits, long count, long indexOffset) {
+        this.segments = segments;
+        this.segmentBits = segmentBits;
+        this.segmentMask = (1L << segmentBits) - 1;
+        this.count = count;
+        this.indexOffset = indexOffset;
+    }
+
+    /**
+     * Opens the store
+     *
+     * @param path path of the store file
+     * @return store
+     * @throws IOException if the file cannot be read
+     */
+    public static MappedScheduleStore open(Path path) throws IOException {
+        return open(path, SEGMENT_BITS);
+    }
+
+    static MappedScheduleStore open(Path path, int segmentBits) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            ByteBuffer header = ByteBuffer.allocate(ScheduleStoreFormat.HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw malformed();
+                }
+            }
+
+            if (header.getInt(0) != ScheduleStoreFormat.MAGIC) {
+                throw malformed();
+            }
+
+            if (header.getInt(4) != ScheduleStoreFormat.VERSION) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.SERIALIZATION_EXCEPTION, Messages.UNSUPPORTED_FORMAT_VERSION.getMessageText());
+            }
+
+            final long count = header.getLong(ScheduleStoreFormat.COUNT_OFFSET);
+            final long indexOffset = header.getLong(ScheduleStoreFormat.INDEX_OFFSET_OFFSET);
+            if (count < 0 || indexOffset < ScheduleStoreFormat.HEADER_SIZE
+                    || count > (size - indexOffset) / ScheduleStoreFormat.INDEX_ENTRY_SIZE) {
+                throw malformed();
+            }
+
+            final long segmentSize = 1L << segmentBits;
+            final MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + segmentSize - 1) >>> segmentBits)];
+            for (int i = 0; i < segments.length; i++) {
+                final long start = (long) i << segmentBits;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, segmentSize + SEGMENT_OVERLAP));
+            }
+
+            return new MappedScheduleStore(segments, segmentBits, count, indexOffset);
+        }
+    }
+
+    /**
+     * @return number of stored schedules
+     */
+    public long size() {
+        return count;
+    }
+
+    /**
+     * @param loanId id of the loan
+     * @return true if the schedule of the loan is stored
+     */
+    public boolean contains(long loanId) {
+        return findRecord(loanId) >= 0;
+    }
+
+    /**
+     * @param loanId id of the loan
+     * @return number of monthly payments of the loan (-1 if the schedule of the loan is not stored)
+     */
+    public int getNumberOfPayments(long loanId) {
+        final long record = findRecord(loanId);
+        return record < 0 ? -1 : getInt(record);
+    }
+
+    /**
+     * Reads a single monthly payment of the loan
+     *
+     * @param loanId id of the loan
+     * @param paymentIndex index of the payment in the schedule (starts with 0)
+     * @return monthly payment (null if the schedule of the loan is not stored)
+     * @throws IndexOutOfBoundsException if the schedule has no payment with the index
+     */
+    public MonthlyPayment getMonthlyPayment(long loanId, int paymentIndex) {
+        final long record = findRecord(loanId);
+        if (record < 0) {
+            return null;
+        }
+
+        final int numberOfPayments = getInt(record);
+        if (paymentIndex < 0 || paymentIndex >= numberOfPayments) {
+            throw new IndexOutOfBoundsException("Index: " + paymentIndex + ", Size: " + numberOfPayments);
+        }
+
+        return readRow(record + ScheduleStoreFormat.RECORD_HEADER_SIZE + (long) paymentIndex * ScheduleStoreFormat.ROW_SIZE);
+    }
+
+    /**
+     * Reads the whole schedule of the loan
+     *
+     * @param loanId id of the loan
+     * @return loan amortization without early payments (null if the schedule of the loan is not stored)
+     */
+    public LoanAmortization getLoanAmortization(long loanId) {
+        final long record = findRecord(loanId);
+        if (record < 0) {
+            return null;
+        }
+
+        final int numberOfPayments = getInt(record);
+        final List<MonthlyPayment> payments = new ArrayList<>(numberOfPayments);
+
+        long row = record + ScheduleStoreFormat.RECORD_HEADER_SIZE;
+        for (int i = 0; i < numberOfPayments; i++) {
+            payments.add(readRow(row));
+            row += ScheduleStoreFormat.ROW_SIZE;
+        }
+
+        return LoanAmortization.builder()
+                .monthlyPaymentAmount(getAmount(record + 8))
+                .overPaymentAmount(getAmount(record + 16))
+                .monthlyPayments(Collections.unmodifiableList(payments))
+                .earlyPayments(Collections.emptyMap())
+                .build();
+    }
+
+    /**
+     * @return offset of the record of the loan (-1 if the schedule of the loan is not stored)
+     */
+    private long findRecord(long loanId) {
+        long low = 0;
+        long high = count - 1;
+
+        while (low <= high) {
+            final long middle = (low + high) >>> 1;
+            final long entry = indexOffset + middle * ScheduleStoreFormat.INDEX_ENTRY_SIZE;
+            final long middleId = getLong(entry);
+
+            if (middleId < loanId) {
+                low = middle + 1;
+            } else if (middleId > loanId) {
+                high = middle - 1;
+            } else {
+                return getLong(entry + 8);
+            }
+        }
+
+        return -1;
+    }
+
+    private MonthlyPayment readRow(long row) {
+        final int monthNumber = getInt(row);
+        final int epochDay = getInt(row + 4);
+
+        return new MonthlyPayment(
+                monthNumber == ScheduleStoreFormat.NULL_INT ? null : monthNumber,
+                getAmount(row + 8),
+                getAmount(row + 16),
+                getAmount(row + 24),
+                getAmount(row + 32),
+                getAmount(row + 40),
+                epochDay == ScheduleStoreFormat.NULL_INT ? null : LocalDate.ofEpochDay(epochDay));
+    }
+
+    private BigDecimal getAmount(long offset) {
+        final long cents = getLong(offset);
+        return cents == ScheduleStoreFormat.NULL_LONG ? null : BigDecimal.valueOf(cents, 2);
+    }
+
+    private int getInt(long offset) {
+        return segments[(int) (offset >>> segmentBits)].getInt((int) (offset & segmentMask));
+    }
+
+    private long getLong(long offset) {
+        return segments[(int) (offset >>> segmentBits)].getLong((int) (offset & segmentMask));
+    }
+
+    private static LoanAmortizationCalculatorException malformed() {
+        return new LoanAmortizationCalculatorException(ExceptionType.SERIALIZATION_EXCEPTION, Messages.MALFORMED_BINARY_DATA.getMessageText());
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+
+/**
+ * Streaming writer of monthly payments in CSV or JSON Lines format
+ *
+ * Every monthly payment is written as a row (a line) with the id of the loan.
+ * Rows are formatted into an internal character buffer without intermediate strings,
+ * and the buffer is written to the underlying writer when it is full.
+ * Combined with {@link paqua.loan.amortization.api.LoanAmortizationCalculator#iterate} rows are written while the schedule is calculated:
+ * <pre>
+ *     exportWriter.writeAll(loanId, calculator.iterate(loan));
+ * </pre>
+ *
+ * Columns (fields) are: loanId, monthNumber, paymentDate, paymentAmount, interestPaymentAmount, debtPaymentAmount,
+ * loanBalanceAmount, additionalPaymentAmount. Nulls are written as empty values in CSV and as nulls in JSON.
+ *
+ * The writer is not thread-safe.
+ *
+ * @author Artyom Panfutov
+ */
+public final class ScheduleExportWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Maximum length of a formatted integer or date
+     */
+    private static final int MAX_VALUE_LENGTH = 16;
+
+    private static final String[] COLUMNS = {
+            "loanId", "monthNumber", "paymentDate", "paymentAmount", "interestPaymentAmount",
+            "debtPaymentAmount", "loanBalanceAmount", "additionalPaymentAmount"
+    };
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Writer output;
+    private final ExportFormat format;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private long rowCount;
+
+    /**
+     * Digits of a number in the reverse order
+     */
+    private final char[] digits = new char[10];
+
+    private ScheduleExportWriter(Writer output, ExportFormat format) {
+        this.output = output;
+        this.format = format;
+
+        if (format == ExportFormat.CSV) {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    buffer[position++] = ',';
+                }
+                COLUMNS[i].getChars(0, COLUMNS[i].length(), buffer, position);
+                position += COLUMNS[i].length();
+            }
+            buffer[position++] = '\n';
+        }
+    }
+
+    /**
+     * Creates a writer of monthly payments
+     *
+     * @param output writer of characters
+     * @param format format of rows
+     * @return export writer
+     */
+    public static ScheduleExportWriter create(Writer output, ExportFormat format) {
+        if (output == null || format == null) {
+            throw new NullPointerException();
+        }
+
+        return new ScheduleExportWriter(output, format);
+    }
+
+    /**
+     * Creates a writer of monthly payments in UTF-8
+     *
+     * @param output output stream
+     * @param format format of rows
+     * @return export writer
+     */
+    public static ScheduleExportWriter create(OutputStream output, ExportFormat format) {
+        return create(new OutputStreamWriter(output, StandardCharsets.UTF_8), format);
+    }
+
+    /**
+     * Writes monthly payments of the loan amortization
+     *
+     * @param loanId id of the loan
+     * @param amortization loan amortization
+     * @throws IOException if the output cannot be written
+     */
+    public void writeAll(String loanId, LoanAmortization amortization) throws IOException {
+        writeAll(loanId, amortization.getMonthlyPayments().iterator());
+    }
+
+    /**
+     * Writes monthly payments while they are produced by the iterator
+     *
+     * @param loanId id of the loan
+     * @param payments monthly payments (e.g. {@link paqua.loan.amortization.api.LoanAmortizationIterator})
+     * @throws IOException if the output cannot be written
+     */
+    public void writeAll(String loanId, Iterator<? extends MonthlyPayment> payments) throws IOException {
+        while (payments.hasNext()) {
+            write(loanId, payments.next());
+        }
+    }
+
+    /**
+     * Writes a monthly payment
+     *
+     * @param loanId id of the loan
+     * @param payment monthly payment
+     * @throws IOException if the output cannot be written
+     */
+    public void write(String loanId, MonthlyPayment payment) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writeCsvString(loanId);
+            writeChar(',');
+            writeInteger(payment.getMonthNumber(), "");
+            writeChar(',');
+            writeDate(payment.getPaymentDate(), false, "");
+            writeChar(',');
+            writeDecimal(payment.getPaymentAmount(), "");
+            writeChar(',');
+            writeDecimal(payment.getInterestPaymentAmount(), "");
+            writeChar(',');
+            writeDecimal(payment.getDebtPaymentAmount(), "");
+            writeChar(',');
+            writeDecimal(payment.getLoanBalanceAmount(), "");
+            writeChar(',');
+            writeDecimal(payment.getAdditionalPaymentAmount(), "");
+        } else {
+            writeChar('{');
+            writeJsonName(0);
+            writeJsonString(loanId);
+            writeJsonName(1);
+            writeInteger(payment.getMonthNumber(), "null");
+            writeJsonName(2);
+            writeDate(payment.getPaymentDate(), true, "null");
+            writeJsonName(3);
+            writeDecimal(payment.getPaymentAmount(), "null");
+            writeJsonName(4);
+            writeDecimal(payment.getInterestPaymentAmount(), "null");
+            writeJsonName(5);
+            writeDecimal(payment.getDebtPaymentAmount(), "null");
+            writeJsonName(6);
+            writeDecimal(payment.getLoanBalanceAmount(), "null");
+            writeJsonName(7);
+            writeDecimal(payment.getAdditionalPaymentAmount(), "null");
+            writeChar('}');
+        }
+
+        writeChar('\n');
+        rowCount++;
+    }
+
+    /**
+     * @return number of written rows (without the header)
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Writes the buffered rows and flushes the underlying writer
+     *
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        output.flush();
+    }
+
+    /**
+     * Writes the buffered rows and closes the underlying writer
+     *
+     * @throws IOException if the output cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            output.close();
+        }
+    }
+
+    private void writeJsonName(int column) throws IOException {
+        if (column > 0) {
+            writeChar(',');
+        }
+        writeChar('"');
+        writeString(COLUMNS[column]);
+        writeChar('"');
+        writeChar(':');
+    }
+
+    private void writeCsvString(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            final char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!quoted) {
+            writeString(value);
+            return;
+        }
+
+        writeChar('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                writeChar('"');
+            }
+            writeChar(c);
+        }
+        writeChar('"');
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        if (value == null) {
+            writeString("null");
+            return;
+        }
+
+        writeChar('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writeChar('\\');
+                writeChar(c);
+            } else if (c < 0x20) {
+                writeChar('\\');
+                writeChar('u');
+                writeChar('0');
+                writeChar('0');
+                writeChar(DIGITS[c >> 4]);
+                writeChar(DIGITS[c & 0xF]);
+            } else {
+                writeChar(c);
+            }
+        }
+        writeChar('"');
+    }
+
+    private void writeInteger(Integer value, String nullValue) throws IOException {
+        if (value == null) {
+            writeString(nullValue);
+            return;
+        }
+
+        ensureCapacity(MAX_VALUE_LENGTH);
+        writeInt(value);
+    }
+
+    private void writeDate(LocalDate date, boolean quoted, String nullValue) throws IOException {
+        if (date == null) {
+            writeString(nullValue);
+            return;
+        }
+
+        if (date.getYear() < 0 || date.getYear() > 9999) {
+            writeString(quoted ? '"' + date.toString() + '"' : date.toString());
+            return;
+        }
+
+        // ISO-8601 (yyyy-MM-dd)
+        ensureCapacity(MAX_VALUE_LENGTH);
+        if (quoted) {
+            buffer[position++] = '"';
+        }
+        writeDigits(date.getYear(), 4);
+        buffer[position++] = '-';
+        writeDigits(date.getMonthValue(), 2);
+        buffer[position++] = '-';
+        writeDigits(date.getDayOfMonth(), 2);
+        if (quoted) {
+            buffer[position++] = '"';
+        }
+    }
+
+    private void writeDecimal(BigDecimal value, String nullValue) throws IOException {
+        if (value == null) {
+            writeString(nullValue);
+            return;
+        }
+
+        // toString() is cached by BigDecimal and is the same as toPlainString() unless the exponent is needed
+        if (value.scale() >= 0 && value.precision() - value.scale() - 1 >= -6) {
+            writeString(value.toString());
+        } else {
+            writeString(value.toPlainString());
+        }
+    }
+
+    private void writeInt(int value) {
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+
+        int length = 0;
+        do {
+            digits[length++] = (char) ('0' + Math.abs(value % 10));
+            value /= 10;
+        } while (value != 0);
+
+        while (length > 0) {
+            buffer[position++] = digits[--length];
+        }
+    }
+
+    private void writeDigits(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void writeString(String value) throws IOException {
+        int offset = 0;
+        while (offset < value.length()) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+
+            final int length = Math.min(value.length() - offset, buffer.length - position);
+            value.getChars(offset, offset + length, buffer, position);
+            position += length;
+            offset += length;
+        }
+    }
+
+    private void writeChar(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = c;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.length - position < length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            output.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+/**
+ * Layout of the schedule store file
+ *
+ * All values are big-endian.
+ * <pre>
+ *   header:  magic (int) | version (int) | number of schedules (long) | offset of the index (long)
+ *   records: number of payments (int) | reserved (int) | monthly payment amount (long) | overpayment amount (long)
+ *            | payments (fixed-width rows)
+ *   row:     month number (int) | payment date as epoch day (int)
+ *            | loan balance (long) | debt (long) | interest (long) | payment (long) | additional payment (long)
+ *   index:   loan id (long) | offset of the record (long), sorted by loan id
+ * </pre>
+ * Amounts are stored in cents. Nulls are stored as {@link #NULL_INT} and {@link #NULL_LONG}.
+ *
+ * @author Artyom Panfutov
+ */
+final class ScheduleStoreFormat {
+    static final int MAGIC = 0x4C415353;
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 24;
+    static final int COUNT_OFFSET = 8;
+    static final int INDEX_OFFSET_OFFSET = 16;
+
+    static final int RECORD_HEADER_SIZE = 24;
+    static final int ROW_SIZE = 48;
+    static final int INDEX_ENTRY_SIZE = 16;
+
+    static final int NULL_INT = Integer.MIN_VALUE;
+    static final long NULL_LONG = Long.MIN_VALUE;
+
+    private ScheduleStoreFormat() {
+        throw new IllegalStateException("Instantiation is not allowed");
+    }
+}
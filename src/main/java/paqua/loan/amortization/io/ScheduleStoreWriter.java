@@ -0,0 +1,295 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes schedules of loans to a file that is read by {@link MappedScheduleStore}
+ *
+ * Schedules are appended one by one and the index is written when the writer is closed.
+ * Amounts are stored in cents, so every amount of a schedule must have at most two decimal places
+ * (amounts of calculated schedules always have them).
+ * Early payments of the amortization are not stored.
+ *
+ * The writer is not thread-safe.
+ *
+ * @author Artyom Panfutov
+ */
+public final class ScheduleStoreWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_INDEX_CAPACITY = 1024;
+    private static final int AMOUNTS_PER_ROW = 5;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Offset in the file of the start of the buffer
+     */
+    private long bufferOffset = ScheduleStoreFormat.HEADER_SIZE;
+
+    private long[] loanIds = new long[INITIAL_INDEX_CAPACITY];
+    private long[] recordOffsets = new long[INITIAL_INDEX_CAPACITY];
+    private int count;
+
+    /**
+     * Loan ids are appended in the ascending order, so the index is sorted and there are no duplicates
+     */
+    private boolean sorted = true;
+
+    /**
+     * Amounts of the schedule in cents (reused for every schedule)
+     */
+    private long[] cents = new long[0];
+
+    private boolean closed;
+
+    private ScheduleStoreWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Creates a new store file (an existing file is replaced)
+     *
+     * @param path path of the file
+     * @return writer of the store
+     * @throws IOException if the file cannot be created
+     */
+    public static ScheduleStoreWriter create(Path path) throws IOException {
+        return new ScheduleStoreWriter(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    /**
+     * Appends the schedule of the loan
+     *
+     * @param loanId id of the loan (must be unique in the store)
+     * @param amortization calculated loan amortization
+     * @throws IOException if the file cannot be written
+     */
+    public void append(long loanId, LoanAmortization amortization) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The writer is closed");
+        }
+
+        if (amortization == null || amortization.getMonthlyPayments() == null) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.NULL.getMessageText());
+        }
+
+        if (count > 0 && loanId <= loanIds[count - 1]) {
+            if (loanId == loanIds[count - 1]) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.DUPLICATE_LOAN_ID.getMessageText());
+            }
+            sorted = false;
+        }
+
+        final List<MonthlyPayment> payments = amortization.getMonthlyPayments();
+        final long monthlyPaymentAmount = toCents(amortization.getMonthlyPaymentAmount());
+        final long overPaymentAmount = toCents(amortization.getOverPaymentAmount());
+
+        // Amounts are converted before anything is written, so an invalid schedule does not leave a partial record
+        if (cents.length < payments.size() * AMOUNTS_PER_ROW) {
+            cents = new long[payments.size() * AMOUNTS_PER_ROW];
+        }
+        for (int i = 0; i < payments.size(); i++) {
+            final MonthlyPayment payment = payments.get(i);
+            final int index = i * AMOUNTS_PER_ROW;
+
+            cents[index] = toCents(payment.getLoanBalanceAmount());
+            cents[index + 1] = toCents(payment.getDebtPaymentAmount());
+            cents[index + 2] = toCents(payment.getInterestPaymentAmount());
+            cents[index + 3] = toCents(payment.getPaymentAmount());
+            cents[index + 4] = toCents(payment.getAdditionalPaymentAmount());
+        }
+
+        addToIndex(loanId, bufferOffset + buffer.position());
+
+        ensureRemaining(ScheduleStoreFormat.RECORD_HEADER_SIZE);
+        buffer.putInt(payments.size());
+        buffer.putInt(0);
+        buffer.putLong(monthlyPaymentAmount);
+        buffer.putLong(overPaymentAmount);
+
+        for (int i = 0; i < payments.size(); i++) {
+            final MonthlyPayment payment = payments.get(i);
+            final Integer monthNumber = payment.getMonthNumber();
+            final LocalDate paymentDate = payment.getPaymentDate();
+            final int index = i * AMOUNTS_PER_ROW;
+
+            ensureRemaining(ScheduleStoreFormat.ROW_SIZE);
+            buffer.putInt(monthNumber == null ? ScheduleStoreFormat.NULL_INT : monthNumber);
+            buffer.putInt(paymentDate == null ? ScheduleStoreFormat.NULL_INT : Math.toIntExact(paymentDate.toEpochDay()));
+            for (int j = 0; j < AMOUNTS_PER_ROW; j++) {
+                buffer.putLong(cents[index + j]);
+            }
+        }
+    }
+
+    /**
+     * Writes the index and the header of the store and closes the file
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (!sorted) {
+                sortIndex(0, count - 1);
+
+                for (int i = 1; i < count; i++) {
+                    if (loanIds[i] == loanIds[i - 1]) {
+                        throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.DUPLICATE_LOAN_ID.getMessageText());
+                    }
+                }
+            }
+
+            final long indexOffset = bufferOffset + buffer.position();
+            for (int i = 0; i < count; i++) {
+                ensureRemaining(ScheduleStoreFormat.INDEX_ENTRY_SIZE);
+                buffer.putLong(loanIds[i]);
+                buffer.putLong(recordOffsets[i]);
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(ScheduleStoreFormat.HEADER_SIZE);
+            header.putInt(ScheduleStoreFormat.MAGIC);
+            header.putInt(ScheduleStoreFormat.VERSION);
+            header.putLong(count);
+            header.putLong(indexOffset);
+            ((Buffer) header).flip();
+
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void addToIndex(long loanId, long recordOffset) {
+        if (count == loanIds.length) {
+            loanIds = Arrays.copyOf(loanIds, count * 2);
+            recordOffsets = Arrays.copyOf(recordOffsets, count * 2);
+        }
+
+        loanIds[count] = loanId;
+        recordOffsets[count] = recordOffset;
+        count++;
+    }
+
+    /**
+     * Sorts the index by loan ids (quicksort of two parallel arrays)
+     */
+    private void sortIndex(int from, int to) {
+        while (from < to) {
+            final long pivot = loanIds[(from + to) >>> 1];
+
+            int i = from;
+            int j = to;
+            while (i <= j) {
+                while (loanIds[i] < pivot) {
+                    i++;
+                }
+                while (loanIds[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+
+            // Recursion into the smaller part keeps the depth logarithmic
+            if (j - from < to - i) {
+                sortIndex(from, j);
+                from = i;
+            } else {
+                sortIndex(i, to);
+                to = j;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        final long loanId = loanIds[i];
+        loanIds[i] = loanIds[j];
+        loanIds[j] = loanId;
+
+        final long recordOffset = recordOffsets[i];
+        recordOffsets[i] = recordOffsets[j];
+        recordOffsets[j] = recordOffset;
+    }
+
+    private void ensureRemaining(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            bufferOffset += channel.write(buffer, bufferOffset);
+        }
+        ((Buffer) buffer).clear();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return ScheduleStoreFormat.NULL_LONG;
+        }
+
+        try {
+            final long value = amount.movePointRight(2).longValueExact();
+            if (value == ScheduleStoreFormat.NULL_LONG) {
+                throw new ArithmeticException();
+            }
+            return value;
+        } catch (ArithmeticException e) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION, Messages.AMOUNT_IS_NOT_IN_CENTS.getMessageText());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.simulation;
+
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanPayoff;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.RoundingMode;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo simulation of random prepayments of a loan
+ *
+ * Every scenario adds random early payments generated by the {@link PrepaymentModel} to the loan
+ * and solves its payoff by {@link LoanAmortizationCalculator#solvePayoff(Loan)}, so no schedule is kept in memory.
+ * Scenarios are calculated in parallel in a fork-join pool.
+ *
+ * Every scenario has its own random stream: the streams are split from the seed one by one before the calculation,
+ * so the result depends only on the seed, the model and the loan, whatever the number of threads.
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanSimulator {
+    /**
+     * Number of tasks per a thread of the pool
+     */
+    private static final int TASKS_PER_THREAD = 8;
+
+    private static final int DEFAULT_NUMBER_OF_SCENARIOS = 1000;
+
+    private final LoanAmortizationCalculator calculator;
+    private final ForkJoinPool pool;
+    private final PrepaymentModel model;
+    private final int numberOfScenarios;
+    private final long seed;
+
+    private LoanSimulator(LoanSimulatorBuilder builder) {
+        this.calculator = builder.calculator;
+        this.pool = builder.pool;
+        this.model = builder.model;
+        this.numberOfScenarios = builder.numberOfScenarios;
+        this.seed = builder.seed;
+    }
+
+    public static LoanSimulatorBuilder builder() {
+        return new LoanSimulatorBuilder();
+    }
+
+    /**
+     * Simulates scenarios of prepayments of the loan
+     *
+     * @param loan loan attributes
+     * @return distribution of the payoff month and of the total interest
+     */
+    public SimulationResult simulate(Loan loan) {
+        // Invalid loan fails here instead of failing in every scenario
+        calculator.solvePayoff(loan);
+
+        final SplittableRandom random = new SplittableRandom(seed);
+        final SplittableRandom[] randoms = new SplittableRandom[numberOfScenarios];
+        for (int i = 0; i < numberOfScenarios; i++) {
+            randoms[i] = random.split();
+        }
+
+        final int[] payoffMonthNumbers = new int[numberOfScenarios];
+        final long[] interestAmounts = new long[numberOfScenarios];
+        final int threshold = Math.max(1, numberOfScenarios / (pool.getParallelism() * TASKS_PER_THREAD));
+
+        pool.invoke(new SimulationTask(loan, randoms, payoffMonthNumbers, interestAmounts, 0, numberOfScenarios, threshold));
+
+        return new SimulationResult(payoffMonthNumbers, interestAmounts);
+    }
+
+    /**
+     * Calculates scenarios in the range [from, to)
+     */
+    private final class SimulationTask extends RecursiveAction {
+        private static final long serialVersionUID = 6305782195836264211L;
+
+        private final Loan loan;
+        private final SplittableRandom[] randoms;
+        private final int[] payoffMonthNumbers;
+        private final long[] interestAmounts;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        SimulationTask(Loan loan, SplittableRandom[] randoms, int[] payoffMonthNumbers, long[] interestAmounts, int from, int to, int threshold) {
+            this.loan = loan;
+            this.randoms = randoms;
+            this.payoffMonthNumbers = payoffMonthNumbers;
+            this.interestAmounts = interestAmounts;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    final LoanPayoff payoff = calculator.solvePayoff(model.generate(loan, randoms[i]));
+
+                    payoffMonthNumbers[i] = payoff.getPayoffMonthNumber();
+                    interestAmounts[i] = payoff.getTotalInterestAmount().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                }
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(
+                    new SimulationTask(loan, randoms, payoffMonthNumbers, interestAmounts, from, middle, threshold),
+                    new SimulationTask(loan, randoms, payoffMonthNumbers, interestAmounts, middle, to, threshold));
+        }
+    }
+
+    /**
+     * Builder for {@link LoanSimulator}
+     */
+    public static final class LoanSimulatorBuilder {
+        private LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private PrepaymentModel model = PrepaymentModel.builder().build();
+        private int numberOfScenarios = DEFAULT_NUMBER_OF_SCENARIOS;
+        private long seed;
+
+        private LoanSimulatorBuilder() {
+        }
+
+        /**
+         * Sets calculator of scenarios (must be thread-safe)
+         *
+         * @param calculator calculator of loans
+         * @return simulator builder
+         */
+        public LoanSimulatorBuilder calculator(LoanAmortizationCalculator calculator) {
+            this.calculator = Objects.requireNonNull(calculator);
+            return this;
+        }
+
+        /**
+         * Sets pool in which scenarios are calculated (the common pool by default)
+         *
+         * @param pool fork-join pool
+         * @return simulator builder
+         */
+        public LoanSimulatorBuilder pool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool);
+            return this;
+        }
+
+        /**
+         * Sets model of prepayments
+         *
+         * @param model prepayment model
+         * @return simulator builder
+         */
+        public LoanSimulatorBuilder model(PrepaymentModel model) {
+            this.model = Objects.requireNonNull(model);
+            return this;
+        }
+
+        /**
+         * Sets number of scenarios (1000 by default)
+         *
+         * @param numberOfScenarios number of scenarios
+         * @return simulator builder
+         */
+        public LoanSimulatorBuilder numberOfScenarios(int numberOfScenarios) {
+            if (numberOfScenarios <= 0) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                        Messages.NUMBER_OF_SCENARIOS_IS_NOT_POSITIVE.getMessageText());
+            }
+
+            this.numberOfScenarios = numberOfScenarios;
+            return this;
+        }
+
+        /**
+         * Sets seed of the random streams (0 by default)
+         *
+         * @param seed seed
+         * @return simulator builder
+         */
+        public LoanSimulatorBuilder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Builds a new simulator
+         *
+         * @return simulator
+         */
+        public LoanSimulator build() {
+            return new LoanSimulator(this);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.simulation;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Model of random prepayments of a loan
+ *
+ * In every month of the term a prepayment happens with the probability. Its amount is uniformly distributed
+ * between the minimal and the maximal share of the loan amount, its strategy is
+ * {@link EarlyPaymentStrategy#DECREASE_MONTHLY_PAYMENT} with the probability and {@link EarlyPaymentStrategy#DECREASE_TERM} otherwise.
+ *
+ * @author Artyom Panfutov
+ */
+public final class PrepaymentModel {
+    private final double prepaymentProbability;
+    private final double minAmountShare;
+    private final double maxAmountShare;
+    private final double decreaseMonthlyPaymentProbability;
+
+    private PrepaymentModel(PrepaymentModelBuilder builder) {
+        this.prepaymentProbability = builder.prepaymentProbability;
+        this.minAmountShare = builder.minAmountShare;
+        this.maxAmountShare = builder.maxAmountShare;
+        this.decreaseMonthlyPaymentProbability = builder.decreaseMonthlyPaymentProbability;
+    }
+
+    public static PrepaymentModelBuilder builder() {
+        return new PrepaymentModelBuilder();
+    }
+
+    /**
+     * Generates a scenario of prepayments of the loan
+     *
+     * The same number of random values is drawn for every month, so a scenario depends only on the random stream and the loan.
+     * Early payments of the loan are kept, a prepayment in the month of an early payment of the loan is dropped.
+     *
+     * @param loan loan
+     * @param random random stream of the scenario
+     * @return loan with the prepayments of the scenario
+     */
+    Loan generate(Loan loan, SplittableRandom random) {
+        final Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        if (loan.getEarlyPayments() != null) {
+            earlyPayments.putAll(loan.getEarlyPayments());
+        }
+
+        final double amount = loan.getAmount().movePointRight(2).doubleValue();
+        for (int month = 0; month < loan.getTerm(); month++) {
+            final boolean prepaid = random.nextDouble() < prepaymentProbability;
+            final double share = minAmountShare + (maxAmountShare - minAmountShare) * random.nextDouble();
+            final boolean decreaseMonthlyPayment = random.nextDouble() < decreaseMonthlyPaymentProbability;
+
+            if (prepaid) {
+                earlyPayments.putIfAbsent(month, EarlyPayment.builder()
+                        .amount(BigDecimal.valueOf(Math.round(amount * share), 2))
+                        .strategy(decreaseMonthlyPayment ? EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT : EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                        .build());
+            }
+        }
+
+        return Loan.builder()
+                .amount(loan.getAmount())
+                .rate(loan.getRate())
+                .term(loan.getTerm())
+                .firstPaymentDate(loan.getFirstPaymentDate())
+                .earlyPayments(earlyPayments)
+                .build();
+    }
+
+    /**
+     * @return Probability of a prepayment in a month
+     */
+    public double getPrepaymentProbability() {
+        return prepaymentProbability;
+    }
+
+    /**
+     * @return Minimal amount of a prepayment as a share of the loan amount
+     */
+    public double getMinAmountShare() {
+        return minAmountShare;
+    }
+
+    /**
+     * @return Maximal amount of a prepayment as a share of the loan amount
+     */
+    public double getMaxAmountShare() {
+        return maxAmountShare;
+    }
+
+    /**
+     * @return Probability that a prepayment decreases the monthly payment instead of the term
+     */
+    public double getDecreaseMonthlyPaymentProbability() {
+        return decreaseMonthlyPaymentProbability;
+    }
+
+    @Override
+    public String toString() {
+        return "PrepaymentModel{" +
+                "prepaymentProbability=" + prepaymentProbability +
+                ", minAmountShare=" + minAmountShare +
+                ", maxAmountShare=" + maxAmountShare +
+                ", decreaseMonthlyPaymentProbability=" + decreaseMonthlyPaymentProbability +
+                '}';
+    }
+
+    /**
+     * Builder for {@link PrepaymentModel}
+     */
+    public static final class PrepaymentModelBuilder {
+        private double prepaymentProbability = 0.05;
+        private double minAmountShare = 0.01;
+        private double maxAmountShare = 0.1;
+        private double decreaseMonthlyPaymentProbability;
+
+        private PrepaymentModelBuilder() {
+        }
+
+        /**
+         * Sets probability of a prepayment in a month (0.05 by default)
+         *
+         * @param prepaymentProbability probability of a prepayment
+         * @return model builder
+         */
+        public PrepaymentModelBuilder prepaymentProbability(double prepaymentProbability) {
+            this.prepaymentProbability = requireProbability(prepaymentProbability);
+            return this;
+        }
+
+        /**
+         * Sets range of the prepayment amount as shares of the loan amount (from 0.01 to 0.1 by default)
+         *
+         * @param minAmountShare minimal share of the loan amount
+         * @param maxAmountShare maximal share of the loan amount
+         * @return model builder
+         */
+        public PrepaymentModelBuilder amountShare(double minAmountShare, double maxAmountShare) {
+            if (!(minAmountShare >= 0 && minAmountShare <= maxAmountShare) || Double.isInfinite(maxAmountShare)) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                        Messages.PREPAYMENT_AMOUNT_RANGE_IS_INVALID.getMessageText());
+            }
+
+            this.minAmountShare = minAmountShare;
+            this.maxAmountShare = maxAmountShare;
+            return this;
+        }
+
+        /**
+         * Sets probability that a prepayment decreases the monthly payment instead of the term (0 by default)
+         *
+         * @param decreaseMonthlyPaymentProbability probability of {@link EarlyPaymentStrategy#DECREASE_MONTHLY_PAYMENT} strategy
+         * @return model builder
+         */
+        public PrepaymentModelBuilder decreaseMonthlyPaymentProbability(double decreaseMonthlyPaymentProbability) {
+            this.decreaseMonthlyPaymentProbability = requireProbability(decreaseMonthlyPaymentProbability);
+            return this;
+        }
+
+        /**
+         * Builds a new model
+         *
+         * @return prepayment model
+         */
+        public PrepaymentModel build() {
+            return new PrepaymentModel(this);
+        }
+
+        private static double requireProbability(double probability) {
+            if (!(probability >= 0 && probability <= 1)) {
+                throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                        Messages.PROBABILITY_IS_OUT_OF_RANGE.getMessageText());
+            }
+
+            return probability;
+        }
+    }
+}
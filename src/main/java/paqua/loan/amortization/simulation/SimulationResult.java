@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.simulation;
+
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Distribution of the payoff month and of the total interest over the simulated scenarios
+ *
+ * Quantiles are nearest-rank quantiles: the quantile of level q is the smallest value
+ * that is not less than q * 100 percent of the values (level 0 is the minimum, level 1 is the maximum).
+ *
+ * @author Artyom Panfutov
+ */
+public final class SimulationResult {
+    /**
+     * Sorted payoff months of the scenarios
+     */
+    private final int[] payoffMonthNumbers;
+
+    /**
+     * Sorted total interest amounts of the scenarios in cents
+     */
+    private final long[] interestAmounts;
+
+    /**
+     * @param payoffMonthNumbers payoff months of the scenarios (the array is sorted in place)
+     * @param interestAmounts total interest amounts of the scenarios in cents (the array is sorted in place)
+     */
+    SimulationResult(int[] payoffMonthNumbers, long[] interestAmounts) {
+        Arrays.sort(payoffMonthNumbers);
+        Arrays.sort(interestAmounts);
+
+        this.payoffMonthNumbers = payoffMonthNumbers;
+        this.interestAmounts = interestAmounts;
+    }
+
+    /**
+     * @return Number of simulated scenarios
+     */
+    public int getNumberOfScenarios() {
+        return payoffMonthNumbers.length;
+    }
+
+    /**
+     * @param level level of the quantile (between 0 and 1)
+     * @return Quantile of the payoff month number
+     */
+    public int getPayoffMonthQuantile(double level) {
+        return payoffMonthNumbers[getRank(level)];
+    }
+
+    /**
+     * @param level level of the quantile (between 0 and 1)
+     * @return Quantile of the total interest amount
+     */
+    public BigDecimal getInterestQuantile(double level) {
+        return BigDecimal.valueOf(interestAmounts[getRank(level)], 2);
+    }
+
+    /**
+     * @return Mean payoff month number
+     */
+    public double getMeanPayoffMonth() {
+        long total = 0;
+        for (int payoffMonthNumber : payoffMonthNumbers) {
+            total += payoffMonthNumber;
+        }
+        return (double) total / payoffMonthNumbers.length;
+    }
+
+    /**
+     * @return Mean total interest amount rounded to cents
+     */
+    public BigDecimal getMeanInterestAmount() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (long interestAmount : interestAmounts) {
+            total = total.add(BigDecimal.valueOf(interestAmount, 2));
+        }
+        return total.divide(BigDecimal.valueOf(interestAmounts.length), 2, RoundingMode.HALF_UP);
+    }
+
+    private int getRank(double level) {
+        if (!(level >= 0 && level <= 1)) {
+            throw new LoanAmortizationCalculatorException(ExceptionType.INPUT_VERIFICATION_EXCEPTION,
+                    Messages.PROBABILITY_IS_OUT_OF_RANGE.getMessageText());
+        }
+
+        return Math.max(0, (int) Math.ceil(level * payoffMonthNumbers.length) - 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SimulationResult that = (SimulationResult) o;
+        return Arrays.equals(payoffMonthNumbers, that.payoffMonthNumbers) &&
+                Arrays.equals(interestAmounts, that.interestAmounts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(payoffMonthNumbers) + Arrays.hashCode(interestAmounts);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationResult{" +
+                "numberOfScenarios=" + getNumberOfScenarios() +
+                ", payoffMonth(p5/p50/p95)=" + getPayoffMonthQuantile(0.05) + "/" + getPayoffMonthQuantile(0.5) + "/" + getPayoffMonthQuantile(0.95) +
+                ", interest(p5/p50/p95)=" + getInterestQuantile(0.05) + "/" + getInterestQuantile(0.5) + "/" + getInterestQuantile(0.95) +
+                '}';
+    }
+}
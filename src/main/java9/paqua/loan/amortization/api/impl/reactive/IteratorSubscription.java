@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.reactive;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Subscription that pulls elements from an iterator as they are requested
+ *
+ * Signals are delivered by a single drain task in the executor: a request made while the task is running
+ * (e.g. from {@code onNext}) is picked up by the same task, so signals are never concurrent or recursive.
+ *
+ * @param <T> type of elements
+ * @author Artyom Panfutov
+ */
+final class IteratorSubscription<T> implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super T> subscriber;
+    private final Supplier<? extends Iterator<? extends T>> source;
+    private final Executor executor;
+
+    /**
+     * Number of requested elements that are not delivered yet (Long.MAX_VALUE is unbounded)
+     */
+    private final AtomicLong demand = new AtomicLong();
+
+    /**
+     * Number of requests to run the drain task (the task is submitted only by the first one)
+     */
+    private final AtomicInteger work = new AtomicInteger();
+
+    /**
+     * True once the subscription is cancelled or the subscriber is completed
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Error of a request of a non-positive number of elements (rule 3.9 of the reactive streams specification)
+     */
+    private volatile IllegalArgumentException invalidRequest;
+
+    /**
+     * Accessed only by the drain task
+     */
+    private Iterator<? extends T> iterator;
+
+    IteratorSubscription(Flow.Subscriber<? super T> subscriber, Supplier<? extends Iterator<? extends T>> source, Executor executor) {
+        this.subscriber = subscriber;
+        this.source = source;
+        this.executor = executor;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            invalidRequest = new IllegalArgumentException("Number of requested elements must be positive: " + n);
+        } else {
+            demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        }
+
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        schedule();
+    }
+
+    private void schedule() {
+        if (work.getAndIncrement() == 0) {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                cancelled = true;
+                subscriber.onError(e);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        do {
+            if (!cancelled) {
+                drain();
+            }
+
+            if (cancelled) {
+                // Releases the iterator (and the loan schedule) as soon as the subscription is finished
+                iterator = null;
+            }
+
+            missed = work.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drain() {
+        try {
+            if (invalidRequest != null) {
+                cancelled = true;
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            if (iterator == null) {
+                iterator = source.get();
+            }
+
+            final long requested = demand.get();
+            long emitted = 0;
+
+            while (emitted != requested && !cancelled && iterator.hasNext()) {
+                subscriber.onNext(iterator.next());
+                emitted++;
+            }
+
+            // The end of the iterator is checked even without demand, so the subscriber is completed after the last element
+            if (!cancelled && !iterator.hasNext()) {
+                cancelled = true;
+                subscriber.onComplete();
+                return;
+            }
+
+            if (requested != Long.MAX_VALUE && emitted != 0) {
+                demand.addAndGet(-emitted);
+            }
+        } catch (RuntimeException e) {
+            if (!cancelled) {
+                cancelled = true;
+                subscriber.onError(e);
+            }
+        }
+    }
+}
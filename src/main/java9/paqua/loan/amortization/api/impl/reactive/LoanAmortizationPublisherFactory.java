@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.reactive;
+
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Represents a factory for reactive publishers of loan amortization (available on Java 9 and later)
+ *
+ * Publishers are cold: every subscriber gets its own calculation. Nothing is calculated before the first request,
+ * and no more is calculated than requested (plus one monthly payment to detect the end of the schedule),
+ * so a slow subscriber never makes the publisher buffer schedules.
+ *
+ * @author Artyom Panfutov
+ */
+public final class LoanAmortizationPublisherFactory {
+    private LoanAmortizationPublisherFactory() {
+        throw new IllegalStateException("Instantiation of the factory is not allowed");
+    }
+
+    /**
+     * Creates a publisher of the monthly payments of the loan that delivers signals in the common fork-join pool
+     *
+     * @param loan loan attributes
+     * @return publisher of monthly payments
+     */
+    public static Flow.Publisher<MonthlyPayment> createSchedulePublisher(Loan loan) {
+        return createSchedulePublisher(LoanAmortizationCalculatorFactory.create(), loan, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a publisher of the monthly payments of the loan
+     *
+     * Monthly payments are calculated one by one by {@link LoanAmortizationCalculator#iterate(Loan)} as they are requested.
+     * An invalid loan is signalled by {@code onError} with {@link paqua.loan.amortization.exception.LoanAmortizationCalculatorException}.
+     *
+     * @param calculator calculator of the loan (must be thread-safe)
+     * @param loan loan attributes
+     * @param executor executor in which monthly payments are calculated and signals are delivered
+     * @return publisher of monthly payments
+     */
+    public static Flow.Publisher<MonthlyPayment> createSchedulePublisher(LoanAmortizationCalculator calculator, Loan loan, Executor executor) {
+        Objects.requireNonNull(calculator);
+        Objects.requireNonNull(loan);
+
+        return new IteratorPublisher<>(() -> calculator.iterate(loan), Objects.requireNonNull(executor));
+    }
+
+    /**
+     * Creates a publisher of loan amortization of every loan that delivers signals in the common fork-join pool
+     *
+     * @param loans loans to calculate
+     * @return publisher of loan amortization in the order of the loans
+     */
+    public static Flow.Publisher<LoanAmortization> createAmortizationPublisher(Iterable<Loan> loans) {
+        return createAmortizationPublisher(LoanAmortizationCalculatorFactory.create(), loans, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a publisher of loan amortization of every loan
+     *
+     * Loans are taken from the iterable and calculated one by one as they are requested, so the iterable may be lazy
+     * (e.g. read from a file). The first invalid loan terminates the publisher
+     * with {@link paqua.loan.amortization.exception.LoanAmortizationCalculatorException}.
+     *
+     * @param calculator calculator of loans (must be thread-safe)
+     * @param loans loans to calculate
+     * @param executor executor in which loans are calculated and signals are delivered
+     * @return publisher of loan amortization in the order of the loans
+     */
+    public static Flow.Publisher<LoanAmortization> createAmortizationPublisher(LoanAmortizationCalculator calculator, Iterable<Loan> loans,
+                                                                               Executor executor) {
+        Objects.requireNonNull(calculator);
+        Objects.requireNonNull(loans);
+
+        return new IteratorPublisher<>(() -> new Iterator<LoanAmortization>() {
+            private final Iterator<Loan> iterator = loans.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public LoanAmortization next() {
+                return calculator.calculate(iterator.next());
+            }
+        }, Objects.requireNonNull(executor));
+    }
+}
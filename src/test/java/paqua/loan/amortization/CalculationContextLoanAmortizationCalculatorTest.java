@@ -0,0 +1,250 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanCalculationContext;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.LoanCalculationContextFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Integration tests for the reusable calculation context
+ * Schedules of the context are compared with the reference fixtures and with the schedules of the reference calculator
+ *
+ * @author Artyom Panfutov
+ */
+class CalculationContextLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    /**
+     * The same context is reused by all loans of a test
+     */
+    private final LoanCalculationContext context = LoanCalculationContextFactory.create();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchReferenceFixture(String fixture, Loan loan) {
+        context.calculate(loan);
+
+        assertSameSchedule(ReferenceLoanFactory.readReference(fixture), context);
+    }
+
+    @Test
+    void shouldMatchScheduleOfRandomLoans() {
+        Random random = new Random(24);
+
+        for (int i = 0; i < 500; i++) {
+            int term = 1 + random.nextInt(480);
+            Loan.LoanBuilder loan = Loan.builder()
+                    .amount(BigDecimal.valueOf(100 + random.nextInt(100_000_000), random.nextInt(3)))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(30_000), 3))
+                    .term(term);
+
+            if (random.nextBoolean()) {
+                loan.firstPaymentDate(LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1500)));
+            }
+
+            switch (i % 4) {
+                case 1:
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.TO_END));
+                    break;
+                case 2:
+                    for (int j = 0; j < 5; j++) {
+                        EarlyPaymentStrategy strategy = random.nextBoolean() ? EarlyPaymentStrategy.DECREASE_TERM : EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT;
+                        loan.earlyPayment(random.nextInt(term + 10), earlyPayment(random, strategy, EarlyPaymentRepeatingStrategy.SINGLE));
+                    }
+                    break;
+                case 3:
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT, EarlyPaymentRepeatingStrategy.TO_END));
+                    break;
+                default:
+                    break;
+            }
+
+            Loan built = loan.build();
+            context.calculate(built);
+
+            assertSameSchedule(calculator.calculate(built), context);
+        }
+    }
+
+    @Test
+    void shouldCalculateLoanOfPrimitives() {
+        Loan loan = Loan.builder()
+                .amount(new BigDecimal("500000.32"))
+                .rate(new BigDecimal("4.56"))
+                .term(32)
+                .firstPaymentDate(LocalDate.of(2023, 1, 31))
+                .earlyPayment(5, EarlyPayment.builder()
+                        .amount(new BigDecimal("50000"))
+                        .strategy(EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                        .build())
+                .build();
+
+        int numberOfPayments = context
+                .loan(50000032, new BigDecimal("4.56"), 32, LocalDate.of(2023, 1, 31))
+                .earlyPayment(5, 5000000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                .calculate();
+
+        LoanAmortization expected = calculator.calculate(loan);
+        assertEquals(32, numberOfPayments);
+        assertSameSchedule(expected, context);
+        assertEquals(expected.getMonthlyPayments().get(31).getPaymentDate().toEpochDay(), context.getPaymentDate(31));
+        assertEquals(LoanCalculationContext.NO_DATE, context.loan(100000, BigDecimal.TEN, 12, null).calculate() > 0 ? context.getPaymentDate(0) : 0);
+
+        // Early payments of the previous loan are cleared
+        context.loan(50000032, new BigDecimal("4.56"), 32, null).calculate();
+        assertEquals(0, context.getAdditionalPaymentAmount(5));
+    }
+
+    @Test
+    void shouldCopyScheduleToLoanAmortization() {
+        Loan loan = Loan.builder()
+                .amount(new BigDecimal("120000.00"))
+                .rate(new BigDecimal("6.50"))
+                .term(24)
+                .earlyPayment(3, EarlyPayment.builder()
+                        .amount(new BigDecimal("10000.00"))
+                        .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                        .build())
+                .build();
+
+        context.calculate(loan);
+
+        assertEquals(calculator.calculate(loan), context.toLoanAmortization());
+    }
+
+    @Test
+    void shouldNotAllocateInSteadyState() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+
+        BigDecimal rate = new BigDecimal("5.25");
+        LocalDate firstPaymentDate = LocalDate.of(2024, 1, 31);
+        long threadId = Thread.currentThread().getId();
+
+        long checksum = 0;
+        for (int i = 0; i < 2_000; i++) {
+            checksum += calculateWithPrimitives(rate, firstPaymentDate, i);
+        }
+
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 2_000; i++) {
+            checksum += calculateWithPrimitives(rate, firstPaymentDate, i);
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum > 0);
+        // A call of getThreadAllocatedBytes may allocate a few bytes itself, 2000 schedules would allocate megabytes
+        assertTrue(allocated < 1024, "Allocated bytes: " + allocated);
+    }
+
+    @Test
+    void shouldFailOnInvalidInput() {
+        assertThrows(LoanAmortizationCalculatorException.class, () -> context.loan(0, BigDecimal.ONE, 12, null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> context.loan(100, null, 12, null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> context.loan(100, BigDecimal.ONE, 0, null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> context.loan(100, new BigDecimal("1200"), 12, null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> context.loan(100, BigDecimal.ONE, 12, null)
+                .earlyPayment(-1, 100, EarlyPaymentStrategy.DECREASE_TERM));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> context.loan(100, BigDecimal.ONE, 12, null)
+                .earlyPayment(1, 100, null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> context.calculate(Loan.builder()
+                .amount(new BigDecimal("100.001"))
+                .rate(BigDecimal.ONE)
+                .term(12)
+                .build()));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> LoanCalculationContextFactory.create().calculate());
+
+        context.loan(100000, BigDecimal.ONE, 12, null).calculate();
+        assertThrows(IndexOutOfBoundsException.class, () -> context.getPaymentAmount(12));
+    }
+
+    private long calculateWithPrimitives(BigDecimal rate, LocalDate firstPaymentDate, int i) {
+        context.loan(10_000_000 + i, rate, 360, (i & 1) == 0 ? firstPaymentDate : null)
+                .earlyPayment(12, 500_000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                .earlyPayment(24 + i % 12, 200_000, EarlyPaymentStrategy.DECREASE_TERM);
+
+        return context.calculate() + context.getOverPaymentAmount();
+    }
+
+    private static void assertSameSchedule(LoanAmortization expected, LoanCalculationContext context) {
+        List<MonthlyPayment> payments = expected.getMonthlyPayments();
+
+        assertEquals(payments.size(), context.getNumberOfPayments());
+        assertEquals(toCents(expected.getMonthlyPaymentAmount()), context.getMonthlyPaymentAmount());
+        assertEquals(toCents(expected.getOverPaymentAmount()), context.getOverPaymentAmount());
+
+        for (int i = 0; i < payments.size(); i++) {
+            MonthlyPayment payment = payments.get(i);
+
+            assertEquals(toCents(payment.getInterestPaymentAmount()), context.getInterestPaymentAmount(i), "Interest of payment " + i);
+            assertEquals(toCents(payment.getDebtPaymentAmount()), context.getDebtPaymentAmount(i), "Principal of payment " + i);
+            assertEquals(toCents(payment.getPaymentAmount()), context.getPaymentAmount(i), "Payment " + i);
+            assertEquals(toCents(payment.getLoanBalanceAmount()), context.getLoanBalanceAmount(i), "Balance of payment " + i);
+            assertEquals(toCents(payment.getAdditionalPaymentAmount()), context.getAdditionalPaymentAmount(i), "Additional payment " + i);
+            assertEquals(payment.getPaymentDate() == null ? LoanCalculationContext.NO_DATE : payment.getPaymentDate().toEpochDay(),
+                    context.getPaymentDate(i), "Date of payment " + i);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static EarlyPayment earlyPayment(Random random, EarlyPaymentStrategy strategy, EarlyPaymentRepeatingStrategy repeatingStrategy) {
+        return EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(random.nextInt(10_000_000), 2))
+                .strategy(strategy)
+                .repeatingStrategy(repeatingStrategy)
+                .build();
+    }
+}
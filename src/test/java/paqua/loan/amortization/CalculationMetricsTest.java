@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.LoanFactory;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for metrics of the calculation
+ *
+ * @author Artyom Panfutov
+ */
+class CalculationMetricsTest {
+    private final RecordingMetrics metrics = new RecordingMetrics();
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.builder()
+            .metrics(metrics)
+            .build();
+
+    @Test
+    void shouldRecordLatencyTermAndEarlyPayments() {
+        Loan loan = ReferenceLoanFactory.createAll().get("reference-repeating-strategy-to-end.json");
+        LoanAmortization amortization = calculator.calculate(loan);
+
+        assertEquals(1, metrics.latencies.size());
+        assertTrue(metrics.latencies.get(0) > 0);
+        assertEquals(loan.getTerm(), metrics.term);
+        assertEquals(amortization.getEarlyPayments().size(), metrics.numberOfEarlyPayments);
+    }
+
+    @Test
+    void shouldRecordEarlyTermination() {
+        String fixture = "reference-different-early-payments-500000.32-4.56-32.json";
+        Loan loan = ReferenceLoanFactory.createAll().get(fixture);
+
+        calculator.summarize(loan);
+
+        assertEquals(loan.getTerm(), metrics.terminatedTerm);
+        assertEquals(ReferenceLoanFactory.readReference(fixture).getMonthlyPayments().size(), metrics.terminatedNumberOfPayments);
+    }
+
+    @Test
+    void shouldNotRecordEarlyTerminationOfFullSchedule() {
+        calculator.calculate(ReferenceLoanFactory.createAll().get("reference-500000.32-4.56-32.json"));
+
+        assertEquals(-1, metrics.terminatedTerm);
+    }
+
+    @Test
+    void shouldRecordValidationFailures() {
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.calculate(null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.calculate(LoanFactory.getBuilderWithDefaultLoan()
+                .amount(BigDecimal.valueOf(-1))
+                .build()));
+
+        assertEquals(2, metrics.validationFailures.size());
+        assertEquals(Messages.NULL.getMessageText(), metrics.validationFailures.get(0));
+        assertEquals(Messages.NEGATIVE_NUMBER.getMessageText(), metrics.validationFailures.get(1));
+        assertTrue(metrics.latencies.isEmpty());
+    }
+
+    private static final class RecordingMetrics implements CalculationMetrics {
+        private final List<Long> latencies = new ArrayList<>();
+        private final List<String> validationFailures = new ArrayList<>();
+        private int term = -1;
+        private int numberOfEarlyPayments = -1;
+        private int terminatedTerm = -1;
+        private int terminatedNumberOfPayments = -1;
+
+        @Override
+        public void recordLatency(long durationNanos) {
+            latencies.add(durationNanos);
+        }
+
+        @Override
+        public void recordTerm(int term) {
+            this.term = term;
+        }
+
+        @Override
+        public void recordEarlyPayments(int numberOfEarlyPayments) {
+            this.numberOfEarlyPayments = numberOfEarlyPayments;
+        }
+
+        @Override
+        public void recordEarlyTermination(int term, int numberOfPayments) {
+            this.terminatedTerm = term;
+            this.terminatedNumberOfPayments = numberOfPayments;
+        }
+
+        @Override
+        public void recordValidationFailure(String message) {
+            validationFailures.add(message);
+        }
+    }
+}
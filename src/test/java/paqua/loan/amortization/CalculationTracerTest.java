@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.CalculationTracer;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for tracing of the calculation
+ *
+ * @author Artyom Panfutov
+ */
+class CalculationTracerTest {
+    private final RecordingTracer tracer = new RecordingTracer();
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.builder()
+            .tracer(tracer)
+            .build();
+
+    private static Loan referenceLoan(String fixture) {
+        return ReferenceLoanFactory.createAll().get(fixture);
+    }
+
+    @Test
+    void shouldTraceRecalculationsOfMonthlyPaymentAmount() {
+        String fixture = "reference-one-early-payment(5th)-payment-decrease-500000.32-4.56-32.json";
+        LoanAmortization amortization = calculator.calculate(referenceLoan(fixture));
+
+        assertEquals(2, tracer.monthlyPaymentAmounts.size());
+        assertEquals(0, tracer.monthlyPaymentAmounts.get(0));
+        assertEquals(6, tracer.monthlyPaymentAmounts.get(1));
+        assertNotNull(tracer.startedLoan);
+        assertEquals(amortization.getEarlyPayments(), tracer.earlyPayments);
+    }
+
+    @Test
+    void shouldTraceTerminationOfSchedule() {
+        String fixture = "reference-different-early-payments-500000.32-4.56-32.json";
+        LoanAmortization expected = ReferenceLoanFactory.readReference(fixture);
+
+        calculator.calculate(referenceLoan(fixture));
+
+        assertEquals(expected.getMonthlyPayments().size() - 1, tracer.lastPaymentNumber);
+        assertEquals(expected.getMonthlyPayments().size(), tracer.numberOfPayments);
+        assertEquals(expected.getOverPaymentAmount(), tracer.overPaymentAmount);
+    }
+
+    @Test
+    void shouldTraceAdjustedPaymentDates() {
+        calculator.calculate(referenceLoan("reference-when-first-payment-date-is-last-day.json"));
+
+        assertTrue(tracer.adjustedPaymentDates.size() > 0);
+        for (LocalDate date : tracer.adjustedPaymentDates) {
+            assertEquals(date.lengthOfMonth(), date.getDayOfMonth());
+        }
+    }
+
+    private static final class RecordingTracer implements CalculationTracer {
+        private Loan startedLoan;
+        private Map<Integer, EarlyPayment> earlyPayments;
+        private final List<Integer> monthlyPaymentAmounts = new ArrayList<>();
+        private final List<LocalDate> adjustedPaymentDates = new ArrayList<>();
+        private int lastPaymentNumber = -1;
+        private int numberOfPayments = -1;
+        private BigDecimal overPaymentAmount;
+
+        @Override
+        public void onCalculationStarted(Loan loan) {
+            startedLoan = loan;
+        }
+
+        @Override
+        public void onEarlyPaymentsApplied(Map<Integer, EarlyPayment> earlyPayments) {
+            this.earlyPayments = earlyPayments;
+        }
+
+        @Override
+        public void onMonthlyPaymentAmountCalculated(int paymentNumber, BigDecimal loanBalanceAmount, int term, BigDecimal monthlyPaymentAmount) {
+            monthlyPaymentAmounts.add(paymentNumber);
+        }
+
+        @Override
+        public void onPaymentDateAdjusted(int paymentNumber, LocalDate paymentDate) {
+            adjustedPaymentDates.add(paymentDate);
+        }
+
+        @Override
+        public void onScheduleTerminated(int lastPaymentNumber) {
+            this.lastPaymentNumber = lastPaymentNumber;
+        }
+
+        @Override
+        public void onScheduleFinished(int numberOfPayments, BigDecimal overPaymentAmount) {
+            this.numberOfPayments = numberOfPayments;
+            this.overPaymentAmount = overPaymentAmount;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.ColumnarMonthlyPayments;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the columnar storage of monthly payments
+ * The amortization is compared with the reference fixtures
+ *
+ * @author Artyom Panfutov
+ */
+class ColumnarLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.builder()
+            .columnar(true)
+            .build();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchReferenceFixture(String fixture, Loan loan) {
+        LoanAmortization amortization = calculator.calculate(loan);
+
+        assertTrue(amortization.getMonthlyPayments() instanceof ColumnarMonthlyPayments);
+        assertEquals(ReferenceLoanFactory.readReference(fixture), amortization);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldRecalculateColumnarAmortization(String fixture, Loan loan) {
+        Loan previousLoan = Loan.builder()
+                .amount(loan.getAmount())
+                .rate(loan.getRate())
+                .term(loan.getTerm())
+                .firstPaymentDate(loan.getFirstPaymentDate())
+                .build();
+
+        LoanAmortization amortization = calculator.recalculate(previousLoan, calculator.calculate(previousLoan), loan);
+
+        assertTrue(amortization.getMonthlyPayments() instanceof ColumnarMonthlyPayments);
+        assertEquals(ReferenceLoanFactory.readReference(fixture), amortization);
+    }
+}
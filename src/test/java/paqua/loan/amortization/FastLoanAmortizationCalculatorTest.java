@@ -0,0 +1,143 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Integration tests for the fast-path calculator
+ * The results are compared with the reference fixtures and with the reference calculator
+ *
+ * @author Artyom Panfutov
+ */
+class FastLoanAmortizationCalculatorTest {
+    private LoanAmortizationCalculator calculator;
+
+    @BeforeEach
+    void initTarget() {
+        calculator = LoanAmortizationCalculatorFactory.createFast();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchReferenceFixture(String fixture, Loan loan) {
+        assertEquals(ReferenceLoanFactory.readReference(fixture), calculator.calculate(loan));
+    }
+
+    @Test
+    void shouldMatchReferenceCalculatorOnRandomLoans() {
+        LoanAmortizationCalculator reference = LoanAmortizationCalculatorFactory.create();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 300; i++) {
+            Loan.LoanBuilder builder = Loan.builder()
+                    .amount(BigDecimal.valueOf(100000 + random.nextInt(100000000), 2))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(2000), 2))
+                    .term(1 + random.nextInt(360));
+
+            if (random.nextBoolean()) {
+                builder.firstPaymentDate(LocalDate.of(2000 + random.nextInt(30), 1 + random.nextInt(12), 1 + random.nextInt(31 - 3)));
+            }
+
+            if (random.nextBoolean()) {
+                builder.earlyPayment(random.nextInt(10), EarlyPayment.builder()
+                        .amount(BigDecimal.valueOf(random.nextInt(100000), 2))
+                        .strategy(random.nextBoolean() ? EarlyPaymentStrategy.DECREASE_TERM : EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                        .repeatingStrategy(random.nextBoolean() ? EarlyPaymentRepeatingStrategy.SINGLE : EarlyPaymentRepeatingStrategy.TO_END)
+                        .build());
+            }
+
+            Loan loan = builder.build();
+            LoanAmortization expected = reference.calculate(loan);
+
+            assertEquals(expected, calculator.calculate(loan), loan::toString);
+        }
+    }
+
+    @Test
+    void shouldMatchReferenceCalculatorOnLoansWithHighAmountAndRate() {
+        LoanAmortizationCalculator reference = LoanAmortizationCalculatorFactory.create();
+        Random random = new Random(42);
+
+        // A cent of difference in the monthly payment or in the loan balance is compounded at the monthly rate
+        Loan loan = Loan.builder()
+                .amount(new BigDecimal("969870860.58"))
+                .rate(new BigDecimal("84.487"))
+                .term(401)
+                .build();
+        assertEquals(reference.calculate(loan), calculator.calculate(loan));
+
+        for (int i = 0; i < 2000; i++) {
+            loan = Loan.builder()
+                    .amount(BigDecimal.valueOf((random.nextLong() >>> 1) % 100_000_000_000L + 1, 2))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(100000), 3))
+                    .term(1 + random.nextInt(480))
+                    .build();
+
+            assertEquals(reference.calculate(loan), calculator.calculate(loan), loan::toString);
+        }
+    }
+
+    @Test
+    void shouldMatchReferenceCalculatorOnAmountsWithFractionsOfCent() {
+        LoanAmortizationCalculator reference = LoanAmortizationCalculatorFactory.create();
+
+        Loan loan = Loan.builder()
+                .amount(new BigDecimal("500000.325"))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .build();
+        assertEquals(reference.calculate(loan), calculator.calculate(loan));
+
+        loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .earlyPayment(5, EarlyPayment.builder()
+                        .amount(new BigDecimal("50000.005"))
+                        .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                        .build())
+                .build();
+        assertEquals(reference.calculate(loan), calculator.calculate(loan));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanGoalSeeker;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.LoanGoalSeekerFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the goal seeker
+ * Every solved value is checked by calculating the amortization at the value and at the neighbour value
+ *
+ * @author Artyom Panfutov
+ */
+class GoalSeekLoanAmortizationCalculatorTest {
+    private static final BigDecimal CENT = new BigDecimal("0.01");
+    private static final BigDecimal RATE_STEP = new BigDecimal("0.0001");
+
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+    private final LoanGoalSeeker seeker = LoanGoalSeekerFactory.create();
+
+    static Stream<Arguments> randomLoans() {
+        Random random = new Random(19);
+        List<Arguments> loans = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            int term = 2 + random.nextInt(360);
+            Loan.LoanBuilder loan = Loan.builder()
+                    .amount(BigDecimal.valueOf(100_00 + random.nextInt(100_000_000), 2))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(30_000), 3))
+                    .term(term);
+
+            switch (i % 5) {
+                case 1:
+                    for (int j = 0; j < 3; j++) {
+                        loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentStrategy.DECREASE_TERM));
+                    }
+                    break;
+                case 2:
+                    loan.firstPaymentDate(LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1000)));
+                    break;
+                case 3:
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT));
+                    break;
+                case 4:
+                    loan.amount(BigDecimal.valueOf(100_000 + random.nextInt(100_000_000), 3));
+                    break;
+                default:
+                    break;
+            }
+
+            int fromMonthNumber = random.nextInt(term / 2 + 1);
+            int numberOfPayments = fromMonthNumber + 1 + random.nextInt(term - fromMonthNumber);
+
+            loans.add(Arguments.of(i, loan.build(), fromMonthNumber, numberOfPayments));
+        }
+
+        return loans.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("randomLoans")
+    void shouldSolveMinimalExtraPayment(int number, Loan loan, int fromMonthNumber, int numberOfPayments) {
+        BigDecimal extraPayment = seeker.solveExtraPayment(loan, fromMonthNumber, numberOfPayments);
+
+        assertTrue(getPayoffMonthNumber(loan, fromMonthNumber, extraPayment) < numberOfPayments, loan + " " + extraPayment);
+        if (extraPayment.signum() > 0) {
+            assertTrue(getPayoffMonthNumber(loan, fromMonthNumber, extraPayment.subtract(CENT)) >= numberOfPayments, loan + " " + extraPayment);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("randomLoans")
+    void shouldSolveMaximalRate(int number, Loan loan) {
+        BigDecimal monthlyPaymentAmount = calculator.calculate(loan).getMonthlyPaymentAmount();
+        BigDecimal rate = seeker.solveRate(loan, monthlyPaymentAmount);
+
+        assertTrue(getMonthlyPaymentAmount(loan, rate, loan.getAmount()).compareTo(monthlyPaymentAmount) <= 0);
+        assertTrue(getMonthlyPaymentAmount(loan, rate.add(RATE_STEP), loan.getAmount()).compareTo(monthlyPaymentAmount) > 0);
+        assertTrue(rate.compareTo(loan.getRate().setScale(4, BigDecimal.ROUND_DOWN)) >= 0);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("randomLoans")
+    void shouldSolveMaximalPrincipal(int number, Loan loan) {
+        BigDecimal monthlyPaymentAmount = calculator.calculate(loan).getMonthlyPaymentAmount();
+        BigDecimal amount = seeker.solvePrincipal(loan, monthlyPaymentAmount);
+
+        assertTrue(getMonthlyPaymentAmount(loan, loan.getRate(), amount).compareTo(monthlyPaymentAmount) <= 0);
+        assertTrue(getMonthlyPaymentAmount(loan, loan.getRate(), amount.add(CENT)).compareTo(monthlyPaymentAmount) > 0);
+    }
+
+    @Test
+    void shouldSolveExtraPaymentOfLoan() {
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .build();
+
+        BigDecimal extraPayment = seeker.solveExtraPayment(loan, 5, 24);
+
+        assertEquals(23, calculator.solvePayoff(withExtraPayment(loan, 5, extraPayment)).getPayoffMonthNumber());
+        assertEquals(24, calculator.solvePayoff(withExtraPayment(loan, 5, extraPayment.subtract(CENT))).getPayoffMonthNumber());
+    }
+
+    @Test
+    void shouldNotRequireExtraPaymentToPayOffInTerm() {
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .build();
+
+        assertEquals(new BigDecimal("0.00"), seeker.solveExtraPayment(loan, 0, 32));
+        assertEquals(new BigDecimal("0.00"), seeker.solveExtraPayment(loan, 0, 100));
+    }
+
+    @Test
+    void shouldFailWhenGoalIsNotReachable() {
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .build();
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solveExtraPayment(loan, 10, 10));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solveRate(loan, BigDecimal.valueOf(15000)));
+    }
+
+    @Test
+    void shouldRejectRepeatingEarlyPayments() {
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .earlyPayment(3, EarlyPayment.builder()
+                        .amount(1000)
+                        .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_END)
+                        .build())
+                .build();
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solveExtraPayment(loan, 5, 24));
+    }
+
+    @Test
+    void shouldValidateInput() {
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .build();
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solveExtraPayment(null, 0, 10));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solveExtraPayment(loan, -1, 10));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solveExtraPayment(loan, 0, 0));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solveRate(loan, null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> seeker.solvePrincipal(loan, BigDecimal.ZERO));
+    }
+
+    private int getPayoffMonthNumber(Loan loan, int fromMonthNumber, BigDecimal extraPayment) {
+        return calculator.solvePayoff(withExtraPayment(loan, fromMonthNumber, extraPayment)).getPayoffMonthNumber();
+    }
+
+    private BigDecimal getMonthlyPaymentAmount(Loan loan, BigDecimal rate, BigDecimal amount) {
+        return calculator.summarize(Loan.builder()
+                .amount(amount)
+                .rate(rate)
+                .term(loan.getTerm())
+                .build()).getMonthlyPaymentAmount();
+    }
+
+    private static Loan withExtraPayment(Loan loan, int fromMonthNumber, BigDecimal extraPayment) {
+        Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        if (loan.getEarlyPayments() != null) {
+            earlyPayments.putAll(loan.getEarlyPayments());
+        }
+
+        earlyPayments.put(fromMonthNumber, EarlyPayment.builder()
+                .amount(extraPayment)
+                .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_END)
+                .build());
+
+        return Loan.builder()
+                .amount(loan.getAmount())
+                .rate(loan.getRate())
+                .term(loan.getTerm())
+                .firstPaymentDate(loan.getFirstPaymentDate())
+                .earlyPayments(earlyPayments)
+                .build();
+    }
+
+    private static EarlyPayment earlyPayment(Random random, EarlyPaymentStrategy strategy) {
+        return EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(random.nextInt(1_000_000), 2))
+                .strategy(strategy)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                .build();
+    }
+}
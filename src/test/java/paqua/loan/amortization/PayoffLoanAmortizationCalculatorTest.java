@@ -0,0 +1,187 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanPayoff;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the payoff calculation
+ * The payoff is compared with the last payment of the reference fixtures and of the calculated schedules
+ *
+ * @author Artyom Panfutov
+ */
+class PayoffLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchReferenceFixture(String fixture, Loan loan) {
+        assertEquals(LoanPayoff.of(ReferenceLoanFactory.readReference(fixture)), calculator.solvePayoff(loan));
+    }
+
+    static Stream<Arguments> randomLoans() {
+        Random random = new Random(18);
+        List<Arguments> loans = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            int term = 1 + random.nextInt(480);
+            Loan.LoanBuilder loan = Loan.builder()
+                    .amount(BigDecimal.valueOf(100 + random.nextInt(100_000_000), random.nextInt(3)))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(30_000), 3))
+                    .term(term);
+
+            switch (i % 6) {
+                case 1:
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.TO_END));
+                    break;
+                case 2:
+                    for (int j = 0; j < 5; j++) {
+                        loan.earlyPayment(random.nextInt(term + 10), earlyPayment(random, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.SINGLE));
+                    }
+                    break;
+                case 3:
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT, EarlyPaymentRepeatingStrategy.SINGLE));
+                    break;
+                case 4:
+                    loan.firstPaymentDate(LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1000)));
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.TO_END));
+                    break;
+                case 5:
+                    loan.amount(BigDecimal.valueOf(100 + random.nextInt(100_000_000), 3));
+                    break;
+                default:
+                    break;
+            }
+
+            loans.add(Arguments.of(i, loan.build()));
+        }
+
+        return loans.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("randomLoans")
+    void shouldMatchLastPaymentOfSchedule(int number, Loan loan) {
+        assertEquals(LoanPayoff.of(calculator.calculate(loan)), calculator.solvePayoff(loan), loan.toString());
+    }
+
+    @Test
+    void shouldMatchScheduleOfLargeAmounts() {
+        Loan loan = Loan.builder()
+                .amount(new BigDecimal("90000000000000.99"))
+                .rate(new BigDecimal("19.99"))
+                .term(360)
+                .earlyPayment(12, EarlyPayment.builder()
+                        .amount(new BigDecimal("1000000000000.01"))
+                        .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_END)
+                        .build())
+                .build();
+
+        assertEquals(LoanPayoff.of(calculator.calculate(loan)), calculator.solvePayoff(loan));
+    }
+
+    @Test
+    void shouldRecordEarlyTerminationLikeSchedule() {
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .earlyPayment(5, EarlyPayment.builder()
+                        .amount(50000)
+                        .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_END)
+                        .build())
+                .build();
+
+        List<String> calculated = new ArrayList<>();
+        LoanAmortizationCalculatorFactory.builder().metrics(recorder(calculated)).build().calculate(loan);
+
+        List<String> solved = new ArrayList<>();
+        LoanAmortizationCalculatorFactory.builder().metrics(recorder(solved)).build().solvePayoff(loan);
+
+        assertEquals(calculated, solved);
+    }
+
+    @Test
+    void shouldValidateLoanBeforeSolving() {
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.solvePayoff(null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.solvePayoff(Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.valueOf(5))
+                .term(0)
+                .build()));
+    }
+
+    private static EarlyPayment earlyPayment(Random random, EarlyPaymentStrategy strategy, EarlyPaymentRepeatingStrategy repeatingStrategy) {
+        return EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(3)))
+                .strategy(strategy)
+                .repeatingStrategy(repeatingStrategy)
+                .build();
+    }
+
+    private static CalculationMetrics recorder(List<String> events) {
+        return new CalculationMetrics() {
+            @Override
+            public void recordTerm(int term) {
+                events.add("term " + term);
+            }
+
+            @Override
+            public void recordEarlyPayments(int numberOfEarlyPayments) {
+                events.add("early payments " + numberOfEarlyPayments);
+            }
+
+            @Override
+            public void recordEarlyTermination(int term, int numberOfPayments) {
+                events.add("early termination " + term + " " + numberOfPayments);
+            }
+        };
+    }
+}
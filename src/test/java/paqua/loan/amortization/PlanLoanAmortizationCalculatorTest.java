@@ -0,0 +1,191 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.CalculationMetrics;
+import paqua.loan.amortization.api.CachingLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationPlan;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.cache.CachingLoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for compiled loan amortization plans
+ * The amortization calculated by a plan is compared with the amortization of the same loan
+ *
+ * @author Artyom Panfutov
+ */
+class PlanLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchCalculationOfTemplate(String fixture, Loan loan) {
+        LoanAmortizationPlan plan = calculator.compile(loan);
+
+        assertSame(loan, plan.getTemplate());
+        assertEquals(calculator.calculate(loan), plan.calculate(loan.getAmount()));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchCalculationWithOtherAttributes(String fixture, Loan loan) {
+        LoanAmortizationPlan plan = calculator.compile(loan);
+
+        for (BigDecimal amount : new BigDecimal[] {new BigDecimal("1000.01"), new BigDecimal("250000"), new BigDecimal("3500000.99")}) {
+            Loan expected = Loan.builder()
+                    .amount(amount)
+                    .rate(new BigDecimal("7.25"))
+                    .term(loan.getTerm())
+                    .earlyPayments(loan.getEarlyPayments())
+                    .firstPaymentDate(LocalDate.of(2024, 2, 29))
+                    .build();
+
+            assertEquals(calculator.calculate(expected), plan.calculate(amount, new BigDecimal("7.25"), LocalDate.of(2024, 2, 29)));
+        }
+    }
+
+    @Test
+    void shouldApplyRepeatingStrategyOfTemplate() {
+        Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        earlyPayments.put(3, earlyPayment(1000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT, EarlyPaymentRepeatingStrategy.SINGLE));
+        earlyPayments.put(12, earlyPayment(500, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.TO_END));
+
+        Loan template = Loan.builder()
+                .amount(BigDecimal.valueOf(100000))
+                .rate(new BigDecimal("4.56"))
+                .term(120)
+                .earlyPayments(earlyPayments)
+                .build();
+        LoanAmortizationPlan plan = calculator.compile(template);
+
+        for (int amount = 20000; amount <= 200000; amount += 45000) {
+            Loan loan = Loan.builder()
+                    .amount(BigDecimal.valueOf(amount))
+                    .rate(template.getRate())
+                    .term(template.getTerm())
+                    .earlyPayments(earlyPayments)
+                    .build();
+
+            assertEquals(calculator.calculate(loan), plan.calculate(BigDecimal.valueOf(amount)));
+        }
+    }
+
+    @Test
+    void shouldValidateTemplateOnCompilation() {
+        Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        earlyPayments.put(-1, earlyPayment(1000, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.SINGLE));
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.compile(null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.compile(Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.ONE)
+                .term(12)
+                .earlyPayments(earlyPayments)
+                .build()));
+    }
+
+    @Test
+    void shouldValidateAttributesOnCalculation() {
+        LoanAmortizationPlan plan = calculator.compile(Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.ONE)
+                .term(12)
+                .build());
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> plan.calculate(null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> plan.calculate(BigDecimal.ZERO));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> plan.calculate(BigDecimal.TEN, BigDecimal.ZERO, null));
+    }
+
+    @Test
+    void shouldRecordMetricsOnEveryCalculation() {
+        AtomicInteger latencies = new AtomicInteger();
+        AtomicInteger earlyPayments = new AtomicInteger();
+        LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.builder()
+                .metrics(new CalculationMetrics() {
+                    @Override
+                    public void recordLatency(long durationNanos) {
+                        latencies.incrementAndGet();
+                    }
+
+                    @Override
+                    public void recordEarlyPayments(int numberOfEarlyPayments) {
+                        earlyPayments.addAndGet(numberOfEarlyPayments);
+                    }
+                })
+                .build();
+
+        LoanAmortizationPlan plan = calculator.compile(Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.ONE)
+                .term(12)
+                .earlyPayment(2, earlyPayment(100, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.TO_END))
+                .build());
+        plan.calculate(BigDecimal.valueOf(2000));
+        plan.calculate(BigDecimal.valueOf(3000));
+
+        assertEquals(2, latencies.get());
+        assertEquals(20, earlyPayments.get());
+    }
+
+    @Test
+    void shouldCalculateTemplateByDefault() {
+        Loan template = Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.ONE)
+                .term(12)
+                .build();
+        CachingLoanAmortizationCalculator caching = CachingLoanAmortizationCalculatorFactory.create(calculator, 16);
+
+        assertEquals(calculator.calculate(template), caching.compile(template).calculate(template.getAmount()));
+    }
+
+    private static EarlyPayment earlyPayment(int amount, EarlyPaymentStrategy strategy, EarlyPaymentRepeatingStrategy repeatingStrategy) {
+        return EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(amount))
+                .strategy(strategy)
+                .repeatingStrategy(repeatingStrategy)
+                .build();
+    }
+}
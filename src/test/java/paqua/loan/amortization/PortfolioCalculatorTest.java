@@ -0,0 +1,218 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.PortfolioCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.PortfolioCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationSummary;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.dto.PortfolioProjection;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the portfolio calculator
+ * The totals of every loan and the aggregated cash flows are compared with the schedules of the fast-path calculator
+ *
+ * @author Artyom Panfutov
+ */
+class PortfolioCalculatorTest {
+    private final PortfolioCalculator portfolioCalculator = PortfolioCalculatorFactory.create();
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.createFast();
+
+    @Test
+    void shouldMatchReferenceFixtures() {
+        assertProjection(new ArrayList<>(ReferenceLoanFactory.createAll().values()));
+    }
+
+    @Test
+    void shouldMatchFastCalculatorOnRandomPortfolio() {
+        Random random = new Random(20);
+        List<Loan> loans = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            int term = 1 + random.nextInt(360);
+            Loan.LoanBuilder loan = Loan.builder()
+                    .amount(BigDecimal.valueOf(100000 + random.nextInt(100000000), 2))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(2000), 2))
+                    .term(term);
+
+            if (random.nextBoolean()) {
+                loan.firstPaymentDate(LocalDate.of(2000 + random.nextInt(30), 1 + random.nextInt(12), 1 + random.nextInt(31 - 3)));
+            }
+
+            switch (random.nextInt(6)) {
+                case 1:
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentRepeatingStrategy.TO_END));
+                    loan.earlyPayment(random.nextInt(term), earlyPayment(random, EarlyPaymentRepeatingStrategy.SINGLE));
+                    break;
+                case 2:
+                    for (int j = 0; j < 5; j++) {
+                        loan.earlyPayment(random.nextInt(term + 10), earlyPayment(random, EarlyPaymentRepeatingStrategy.SINGLE));
+                    }
+                    break;
+                case 3:
+                    int from = random.nextInt(term);
+                    loan.earlyPayment(from, EarlyPayment.builder()
+                            .amount(BigDecimal.valueOf(random.nextInt(100000), 2))
+                            .strategy(random.nextBoolean() ? EarlyPaymentStrategy.DECREASE_TERM : EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                            .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH)
+                            .repeatTo(from + random.nextInt(term))
+                            .build());
+                    break;
+                case 4:
+                    loan.earlyPayment(random.nextInt(10), EarlyPayment.builder()
+                            .amount(BigDecimal.valueOf(random.nextInt(100000000), 2))
+                            .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                            .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                            .build());
+                    break;
+                default:
+                    break;
+            }
+
+            loans.add(loan.build());
+        }
+
+        assertProjection(loans);
+    }
+
+    @Test
+    void shouldMatchFastCalculatorOnLoansWithHighAmountAndRate() {
+        Random random = new Random(21);
+        List<Loan> loans = new ArrayList<>();
+
+        // A cent of difference in the monthly payment or in the loan balance is compounded at the monthly rate
+        loans.add(Loan.builder()
+                .amount(new BigDecimal("969870860.58"))
+                .rate(new BigDecimal("84.487"))
+                .term(401)
+                .build());
+
+        for (int i = 0; i < 1000; i++) {
+            loans.add(Loan.builder()
+                    .amount(BigDecimal.valueOf((random.nextLong() >>> 1) % 100_000_000_000L + 1, 2))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(100000), 3))
+                    .term(1 + random.nextInt(480))
+                    .build());
+        }
+
+        assertProjection(loans);
+    }
+
+    @Test
+    void shouldProjectEmptyPortfolio() {
+        PortfolioProjection projection = portfolioCalculator.project(Collections.emptyList());
+
+        assertEquals(0, projection.getNumberOfLoans());
+        assertEquals(0, projection.getNumberOfMonths());
+    }
+
+    @Test
+    void shouldValidateLoans() {
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.valueOf(5))
+                .term(12)
+                .build();
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> portfolioCalculator.project(null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> portfolioCalculator.project(Arrays.asList(loan, null)));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> portfolioCalculator.project(Collections.singletonList(Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.valueOf(5))
+                .term(0)
+                .build())));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> portfolioCalculator.project(Collections.singletonList(Loan.builder()
+                .amount(new BigDecimal("1000.005"))
+                .rate(BigDecimal.valueOf(5))
+                .term(12)
+                .build())));
+    }
+
+    private void assertProjection(List<Loan> loans) {
+        PortfolioProjection projection = portfolioCalculator.project(loans);
+
+        int numberOfMonths = 0;
+        int maxTerm = loans.stream().mapToInt(Loan::getTerm).max().orElse(0);
+        BigDecimal[] interestAmounts = new BigDecimal[maxTerm + 1];
+        BigDecimal[] principalAmounts = new BigDecimal[maxTerm + 1];
+        BigDecimal[] loanBalanceAmounts = new BigDecimal[maxTerm + 1];
+        int[] activeLoans = new int[maxTerm + 1];
+        Arrays.fill(interestAmounts, BigDecimal.ZERO);
+        Arrays.fill(principalAmounts, BigDecimal.ZERO);
+        Arrays.fill(loanBalanceAmounts, BigDecimal.ZERO);
+
+        for (int i = 0; i < loans.size(); i++) {
+            LoanAmortization amortization = calculator.calculate(loans.get(i));
+            assertEquals(LoanAmortizationSummary.of(amortization), projection.getSummary(i), loans.get(i)::toString);
+
+            for (MonthlyPayment payment : amortization.getMonthlyPayments()) {
+                int month = payment.getMonthNumber();
+                interestAmounts[month] = interestAmounts[month].add(payment.getInterestPaymentAmount());
+                principalAmounts[month] = principalAmounts[month].add(payment.getDebtPaymentAmount());
+                loanBalanceAmounts[month] = loanBalanceAmounts[month].add(payment.getLoanBalanceAmount());
+                activeLoans[month]++;
+                numberOfMonths = Math.max(numberOfMonths, month + 1);
+            }
+        }
+
+        assertEquals(loans.size(), projection.getNumberOfLoans());
+        assertEquals(numberOfMonths, projection.getNumberOfMonths());
+        for (int month = 0; month < numberOfMonths; month++) {
+            assertEquals(0, interestAmounts[month].compareTo(projection.getInterestAmount(month)), "interest " + month);
+            assertEquals(0, principalAmounts[month].compareTo(projection.getPrincipalAmount(month)), "principal " + month);
+            assertEquals(0, loanBalanceAmounts[month].compareTo(projection.getLoanBalanceAmount(month)), "balance " + month);
+            assertEquals(activeLoans[month], projection.getNumberOfActiveLoans(month), "loans " + month);
+        }
+    }
+
+    private static EarlyPayment earlyPayment(Random random, EarlyPaymentRepeatingStrategy repeatingStrategy) {
+        return EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(random.nextInt(100000), 2))
+                .strategy(random.nextBoolean() ? EarlyPaymentStrategy.DECREASE_TERM : EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                .repeatingStrategy(repeatingStrategy)
+                .build();
+    }
+}
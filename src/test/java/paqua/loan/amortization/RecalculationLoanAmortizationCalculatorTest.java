@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the incremental recalculation
+ * The recalculated amortization is compared with the amortization calculated from scratch
+ *
+ * @author Artyom Panfutov
+ */
+class RecalculationLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    static Stream<Arguments> changedEarlyPayments() {
+        Map<Integer, EarlyPayment> repeated = new HashMap<>();
+        repeated.put(50, earlyPayment(100, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.TO_END));
+
+        Map<Integer, EarlyPayment> repeatedToMonth = new HashMap<>();
+        repeatedToMonth.put(150, new EarlyPayment(BigDecimal.valueOf(500), EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT,
+                EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH,
+                Collections.singletonMap(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER, "180")));
+
+        return Stream.of(
+                Arguments.of("added decrease term", with(200, 10000, EarlyPaymentStrategy.DECREASE_TERM)),
+                Arguments.of("changed amount", with(200, 20000, EarlyPaymentStrategy.DECREASE_TERM)),
+                Arguments.of("changed strategy", with(200, 10000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)),
+                Arguments.of("added before", with(20, 5000, EarlyPaymentStrategy.DECREASE_TERM)),
+                Arguments.of("paid off", with(250, 1000000, EarlyPaymentStrategy.DECREASE_TERM)),
+                Arguments.of("repeated to end", repeated),
+                Arguments.of("repeated to month", repeatedToMonth),
+                Arguments.of("removed", Collections.emptyMap())
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchCalculationWhenEarlyPaymentsAreAdded(String fixture, Loan loan) {
+        Loan previousLoan = withEarlyPayments(loan, null);
+        LoanAmortization previous = calculator.calculate(previousLoan);
+
+        assertEquals(calculator.calculate(loan), calculator.recalculate(previousLoan, previous, loan));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchCalculationWhenEarlyPaymentsAreRemoved(String fixture, Loan loan) {
+        Loan withoutEarlyPayments = withEarlyPayments(loan, null);
+
+        assertEquals(calculator.calculate(withoutEarlyPayments),
+                calculator.recalculate(loan, calculator.calculate(loan), withoutEarlyPayments));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("changedEarlyPayments")
+    void shouldMatchCalculationWhenEarlyPaymentsAreChanged(String change, Map<Integer, EarlyPayment> earlyPayments) {
+        Map<Integer, EarlyPayment> initial = new HashMap<>();
+        initial.put(100, earlyPayment(30000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT, EarlyPaymentRepeatingStrategy.SINGLE));
+        initial.put(200, earlyPayment(10000, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.SINGLE));
+
+        Map<Integer, EarlyPayment> changed = new HashMap<>(initial);
+        changed.remove(200);
+        changed.putAll(earlyPayments);
+
+        Loan loan = withEarlyPayments(getLongLoan(), changed);
+        Loan previousLoan = withEarlyPayments(getLongLoan(), initial);
+        LoanAmortization previous = calculator.calculate(previousLoan);
+
+        assertEquals(calculator.calculate(loan), calculator.recalculate(previousLoan, previous, loan));
+    }
+
+    @Test
+    void shouldReuseMonthlyPaymentsBeforeChangedEarlyPayment() {
+        LoanAmortization previous = calculator.calculate(getLongLoan());
+        LoanAmortization amortization = calculator.recalculate(getLongLoan(), previous,
+                withEarlyPayments(getLongLoan(), with(200, 10000, EarlyPaymentStrategy.DECREASE_TERM)));
+
+        for (int i = 0; i < 200; i++) {
+            assertSame(previous.getMonthlyPayments().get(i), amortization.getMonthlyPayments().get(i));
+        }
+        assertNotSame(previous.getMonthlyPayments().get(200), amortization.getMonthlyPayments().get(200));
+    }
+
+    @Test
+    void shouldRecalculateRepeatedly() {
+        Loan loan = getLongLoan();
+        LoanAmortization amortization = calculator.calculate(loan);
+
+        Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        for (int month = 300; month >= 0; month -= 30) {
+            earlyPayments.put(month, earlyPayment(3000, month % 60 == 0
+                    ? EarlyPaymentStrategy.DECREASE_TERM
+                    : EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT, EarlyPaymentRepeatingStrategy.SINGLE));
+
+            Loan previousLoan = loan;
+            loan = withEarlyPayments(loan, new HashMap<>(earlyPayments));
+            amortization = calculator.recalculate(previousLoan, amortization, loan);
+
+            assertEquals(calculator.calculate(loan), amortization);
+        }
+    }
+
+    @Test
+    void shouldCalculateWholeAmortizationWhenLoanIsChanged() {
+        LoanAmortization previous = calculator.calculate(getLongLoan());
+
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(250000))
+                .rate(BigDecimal.valueOf(4.5))
+                .term(360)
+                .firstPaymentDate(LocalDate.of(2021, 1, 31))
+                .build();
+
+        assertEquals(calculator.calculate(loan), calculator.recalculate(getLongLoan(), previous, loan));
+    }
+
+    @Test
+    void shouldCalculateWholeAmortizationWhenRateIsChanged() {
+        Loan previousLoan = Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.valueOf(4.5))
+                .term(12)
+                .build();
+        LoanAmortization previous = calculator.calculate(previousLoan);
+
+        // The monthly payment and the interest of the first payment are the same as with the previous rate
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(1000))
+                .rate(BigDecimal.valueOf(4.5015))
+                .term(12)
+                .earlyPayments(with(10, 100, EarlyPaymentStrategy.DECREASE_TERM))
+                .build();
+
+        LoanAmortization amortization = calculator.recalculate(previousLoan, previous, loan);
+
+        assertEquals(calculator.calculate(loan), amortization);
+        assertNotSame(previous.getMonthlyPayments().get(0), amortization.getMonthlyPayments().get(0));
+    }
+
+    @Test
+    void shouldCalculateWholeAmortizationWhenFirstPaymentDateIsChanged() {
+        LoanAmortization previous = calculator.calculate(getLongLoan());
+
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(300000))
+                .rate(BigDecimal.valueOf(4.5))
+                .term(360)
+                .firstPaymentDate(LocalDate.of(2021, 2, 28))
+                .build();
+
+        LoanAmortization amortization = calculator.recalculate(getLongLoan(), previous, loan);
+
+        assertEquals(calculator.calculate(loan), amortization);
+        assertTrue(amortization.getMonthlyPayments().stream()
+                .allMatch(payment -> payment.getPaymentDate() != null));
+    }
+
+    @Test
+    void shouldValidateInputBeforeRecalculating() {
+        LoanAmortization previous = calculator.calculate(getLongLoan());
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.recalculate(getLongLoan(), previous, null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.recalculate(getLongLoan(), null, getLongLoan()));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.recalculate(null, previous, getLongLoan()));
+    }
+
+    private static Loan getLongLoan() {
+        return Loan.builder()
+                .amount(BigDecimal.valueOf(300000))
+                .rate(BigDecimal.valueOf(4.5))
+                .term(360)
+                .firstPaymentDate(LocalDate.of(2021, 1, 31))
+                .build();
+    }
+
+    private static Loan withEarlyPayments(Loan loan, Map<Integer, EarlyPayment> earlyPayments) {
+        return Loan.builder()
+                .amount(loan.getAmount())
+                .rate(loan.getRate())
+                .term(loan.getTerm())
+                .firstPaymentDate(loan.getFirstPaymentDate())
+                .earlyPayments(earlyPayments)
+                .build();
+    }
+
+    private static Map<Integer, EarlyPayment> with(int month, int amount, EarlyPaymentStrategy strategy) {
+        return Collections.singletonMap(month, earlyPayment(amount, strategy, EarlyPaymentRepeatingStrategy.SINGLE));
+    }
+
+    private static EarlyPayment earlyPayment(int amount, EarlyPaymentStrategy strategy, EarlyPaymentRepeatingStrategy repeatingStrategy) {
+        return EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(amount))
+                .strategy(strategy)
+                .repeatingStrategy(repeatingStrategy)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationIterator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the streaming mode of the calculator
+ * The iterated schedule is compared with the reference fixtures
+ *
+ * @author Artyom Panfutov
+ */
+class StreamingLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldMatchReferenceFixture(String fixture, Loan loan) {
+        LoanAmortization expected = ReferenceLoanFactory.readReference(fixture);
+        LoanAmortizationIterator iterator = calculator.iterate(loan);
+
+        List<MonthlyPayment> payments = new ArrayList<>();
+        iterator.forEachRemaining(payments::add);
+
+        assertEquals(expected.getMonthlyPayments(), payments);
+        assertEquals(expected.getMonthlyPaymentAmount(), iterator.getMonthlyPaymentAmount());
+        assertEquals(expected.getOverPaymentAmount(), iterator.getOverPaymentAmount());
+        assertEquals(expected.getEarlyPayments(), iterator.getEarlyPayments());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldStreamMonthlyPaymentsOfFastCalculator(String fixture, Loan loan) {
+        LoanAmortization expected = LoanAmortizationCalculatorFactory.createFast().calculate(loan);
+
+        assertEquals(expected.getMonthlyPayments(), LoanAmortizationCalculatorFactory.createFast().iterate(loan)
+                .stream()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldValidateLoanBeforeIterating() {
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.iterate(null));
+    }
+}
@@ -38,4 +38,12 @@ class LoanAmortizationCalculatorFactoryTest {
         assertNotNull(calculator);
         assertTrue(calculator instanceof LoanAmortizationCalculatorImpl);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCreateNewInstanceOfFastLoanAmortizationCalc() {
+        LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.createFast();
+
+        assertNotNull(calculator);
+        assertTrue(calculator instanceof LoanAmortizationCalculatorImpl);
+    }
+}
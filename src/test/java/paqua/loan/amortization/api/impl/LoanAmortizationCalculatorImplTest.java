@@ -28,11 +28,18 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
 import paqua.loan.amortization.dto.Loan;
 import paqua.loan.amortization.dto.LoanAmortization;
 import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
 import paqua.loan.amortization.utils.factory.LoanFactory;
 
+import java.math.BigDecimal;
+import java.util.Collections;
+
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 class LoanAmortizationCalculatorImplTest {
@@ -62,4 +69,20 @@ class LoanAmortizationCalculatorImplTest {
         Assertions.assertThrows(LoanAmortizationCalculatorException.class, () ->
                 calculator.calculate(new Loan(null, null, null, null, null)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldFailWhenEarlyPaymentAttributesAreMissing() {
+        EarlyPayment withoutAmount = new EarlyPayment(null, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.SINGLE, null);
+        EarlyPayment withoutRepeatingStrategy = new EarlyPayment(BigDecimal.TEN, EarlyPaymentStrategy.DECREASE_TERM, null, null);
+        EarlyPayment withoutMonthNumber = new EarlyPayment(BigDecimal.TEN, EarlyPaymentStrategy.DECREASE_TERM,
+                EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH, null);
+        EarlyPayment withInvalidMonthNumber = new EarlyPayment(BigDecimal.TEN, EarlyPaymentStrategy.DECREASE_TERM,
+                EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH,
+                Collections.singletonMap(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER, "six"));
+
+        for (EarlyPayment earlyPayment : new EarlyPayment[] {withoutAmount, withoutRepeatingStrategy, withoutMonthNumber, withInvalidMonthNumber}) {
+            Assertions.assertThrows(LoanAmortizationCalculatorException.class, () ->
+                    calculator.calculate(LoanFactory.getBuilderWithDefaultLoan().earlyPayment(3, earlyPayment).build()));
+        }
+    }
+}
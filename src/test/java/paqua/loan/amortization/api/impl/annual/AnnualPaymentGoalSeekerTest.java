@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.dto.Loan;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnualPaymentGoalSeekerTest {
+
+    @Test
+    void shouldSolveStepFunction() {
+        for (long root = 1; root < 1000; root += 37) {
+            final long r = root;
+            assertEquals(root, AnnualPaymentGoalSeeker.solveMinimalNegative(x -> x >= r ? -1 : 1, 0, 1000));
+        }
+    }
+
+    @Test
+    void shouldSolveAlmostLinearFunctionInFewEvaluations() {
+        AtomicInteger evaluations = new AtomicInteger();
+        LongUnaryOperator balance = x -> {
+            evaluations.incrementAndGet();
+            return 123_456_789L - 27 * x - x * x / 1_000_000_000L;
+        };
+
+        long solved = AnnualPaymentGoalSeeker.solveMinimalNegative(balance, 0, 100_000_000L);
+
+        assertTrue(balance.applyAsLong(solved) < 0);
+        assertTrue(balance.applyAsLong(solved - 1) >= 0);
+        assertTrue(evaluations.get() <= 10, "evaluations: " + evaluations.get());
+    }
+
+    @Test
+    void shouldSolvePrincipalOfMonthlyPayment() {
+        AnnualPaymentGoalSeeker seeker = new AnnualPaymentGoalSeeker(new AnnualPaymentLoanCalculator(), AnnuityFactorTable.empty());
+        Loan loan = Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32)
+                .build();
+
+        // Amounts up to 500000.42 have the same monthly payment
+        assertEquals(new BigDecimal("500000.42"), seeker.solvePrincipal(loan, new BigDecimal("16623.89")));
+        assertEquals(new BigDecimal("4.5600"), seeker.solveRate(loan, new BigDecimal("16623.89")));
+    }
+
+    @Test
+    void shouldSolveRateOfLargeAmounts() {
+        AnnualPaymentLoanCalculator calculator = new AnnualPaymentLoanCalculator();
+        AnnualPaymentGoalSeeker seeker = new AnnualPaymentGoalSeeker(calculator, AnnuityFactorTable.empty());
+        Random random = new Random(19);
+
+        for (int i = 0; i < 50; i++) {
+            Loan loan = Loan.builder()
+                    .amount(BigDecimal.valueOf((random.nextLong() >>> 1) % 1_000_000_000_000_000L + 1, 2))
+                    .rate(BigDecimal.valueOf(1 + random.nextInt(1_000_000), 4))
+                    .term(1 + random.nextInt(480))
+                    .build();
+            BigDecimal payment = calculator.calculate(loan).getMonthlyPaymentAmount();
+
+            BigDecimal rate = seeker.solveRate(loan, payment);
+
+            assertTrue(getMonthlyPaymentAmount(calculator, loan, rate).compareTo(payment) <= 0, loan::toString);
+            assertTrue(getMonthlyPaymentAmount(calculator, loan, rate.add(new BigDecimal("0.0001"))).compareTo(payment) > 0, loan::toString);
+        }
+    }
+
+    private static BigDecimal getMonthlyPaymentAmount(AnnualPaymentLoanCalculator calculator, Loan loan, BigDecimal rate) {
+        return calculator.calculate(Loan.builder()
+                .amount(loan.getAmount())
+                .rate(rate)
+                .term(loan.getTerm())
+                .build()).getMonthlyPaymentAmount();
+    }
+}
@@ -37,4 +37,20 @@ class AnnualPaymentLoanCalculatorFactoryTest {
         assertNotNull(calculator);
         assertTrue(calculator instanceof AnnualPaymentLoanCalculator);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldCreateAnInstanceOfAnnualPaymentLoanCalculatorWithAnnuityFactorTable() {
+        LoanAmortizationCalculator calculator = AnnualPaymentLoanCalculatorFactory.create(AnnuityFactorTable.empty());
+
+        assertNotNull(calculator);
+        assertTrue(calculator instanceof AnnualPaymentLoanCalculator);
+    }
+
+    @Test
+    void shouldCreateAnInstanceOfFastAnnualPaymentLoanCalculator() {
+        LoanAmortizationCalculator calculator = AnnualPaymentLoanCalculatorFactory.createFast();
+
+        assertNotNull(calculator);
+        assertTrue(calculator instanceof FastAnnualPaymentLoanCalculator);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanPayoff;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnualPaymentPayoffSolverTest {
+    private static final BigDecimal MONTHLY_PAYMENT_AMOUNT = new BigDecimal("16623.89");
+
+    @Test
+    void shouldRoundInterestLikeBigDecimal() {
+        Random random = new Random(18);
+
+        for (int i = 0; i < 100_000; i++) {
+            long loanBalance = i % 2 == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextLong() & ((1L << 53) - 1);
+            long rate = 1 + (random.nextLong() & Long.MAX_VALUE) % 999_999_999_999_999L;
+
+            assertEquals(expectedInterest(loanBalance, rate), AnnualPaymentPayoffSolver.getInterestAmount(loanBalance, rate));
+        }
+    }
+
+    @Test
+    void shouldRoundHalfCentUp() {
+        // 1 cent * 0.5 = 0.005 -> 0.01
+        assertEquals(1, AnnualPaymentPayoffSolver.getInterestAmount(1, 500_000_000_000_000L));
+        assertEquals(0, AnnualPaymentPayoffSolver.getInterestAmount(1, 499_999_999_999_999L));
+        assertEquals(expectedInterest(3, 500_000_000_000_000L), AnnualPaymentPayoffSolver.getInterestAmount(3, 500_000_000_000_000L));
+        assertEquals(0, AnnualPaymentPayoffSolver.getInterestAmount(0, 3_800_000_000_000L));
+    }
+
+    @Test
+    void shouldSolveLoanWithoutDatesAndWithDecreaseTermPayments() {
+        Loan loan = Loan.builder()
+                .amount(new BigDecimal("500000.32"))
+                .rate(new BigDecimal("4.56"))
+                .term(32)
+                .earlyPayment(5, earlyPayment(EarlyPaymentStrategy.DECREASE_TERM))
+                .build();
+
+        assertEquals(LoanPayoff.builder()
+                .payoffMonthNumber(28)
+                .totalInterestAmount(new BigDecimal("27029.95"))
+                .finalPaymentAmount(new BigDecimal("11561.35"))
+                .build(), AnnualPaymentPayoffSolver.solve(loan, MONTHLY_PAYMENT_AMOUNT));
+    }
+
+    @Test
+    void shouldNotSolveLoanWhenScheduleIsNotRegular() {
+        Loan.LoanBuilder loan = Loan.builder()
+                .amount(new BigDecimal("500000.32"))
+                .rate(new BigDecimal("4.56"))
+                .term(32);
+
+        assertNotNull(AnnualPaymentPayoffSolver.solve(loan.build(), MONTHLY_PAYMENT_AMOUNT));
+
+        assertNull(AnnualPaymentPayoffSolver.solve(loan.firstPaymentDate(LocalDate.of(2021, 1, 31)).build(), MONTHLY_PAYMENT_AMOUNT));
+        loan.firstPaymentDate(null);
+
+        assertNull(AnnualPaymentPayoffSolver.solve(loan.amount(new BigDecimal("500000.320")).build(), MONTHLY_PAYMENT_AMOUNT));
+        loan.amount(new BigDecimal("500000.32"));
+
+        assertNull(AnnualPaymentPayoffSolver.solve(loan.earlyPayment(5, earlyPayment(EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)).build(), MONTHLY_PAYMENT_AMOUNT));
+
+        assertNull(AnnualPaymentPayoffSolver.solve(loan.earlyPayment(5, EarlyPayment.builder()
+                .amount(new BigDecimal("0.001"))
+                .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                .build()).build(), MONTHLY_PAYMENT_AMOUNT));
+    }
+
+    private static EarlyPayment earlyPayment(EarlyPaymentStrategy strategy) {
+        return EarlyPayment.builder()
+                .amount(50000)
+                .strategy(strategy)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                .build();
+    }
+
+    private static long expectedInterest(long loanBalance, long rate) {
+        return BigDecimal.valueOf(loanBalance, 2)
+                .multiply(BigDecimal.valueOf(rate, 15))
+                .setScale(2, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.annual;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnnuityFactorTableTest {
+    private static final BigDecimal RATE = BigDecimal.valueOf(4.56);
+
+    @Test
+    void shouldMatchCalculatedFactors() {
+        AnnuityFactorTable table = AnnuityFactorTable.builder()
+                .rates(Arrays.asList(RATE, BigDecimal.valueOf(12.5)))
+                .maxTerm(120)
+                .build();
+
+        assertEquals(240, table.size());
+
+        for (BigDecimal rate : Arrays.asList(RATE, BigDecimal.valueOf(12.50))) {
+            BigDecimal monthlyInterestRate = AnnualPaymentSchedule.getMonthlyInterestRate(rate);
+
+            for (int term = 1; term <= 130; term++) {
+                assertEquals(
+                        AnnualPaymentSchedule.getAnnuityFactor(monthlyInterestRate, term),
+                        table.getAnnuityFactor(monthlyInterestRate, term));
+            }
+        }
+    }
+
+    @Test
+    void shouldCalculateFactorsMissingInTable() {
+        BigDecimal monthlyInterestRate = AnnualPaymentSchedule.getMonthlyInterestRate(BigDecimal.valueOf(7));
+
+        assertEquals(
+                AnnualPaymentSchedule.getAnnuityFactor(monthlyInterestRate, 360),
+                AnnuityFactorTable.empty().getAnnuityFactor(monthlyInterestRate, 360));
+    }
+
+    @Test
+    void shouldNotChangeCalculationResult() {
+        AnnuityFactorTable table = AnnuityFactorTable.builder()
+                .rate(RATE)
+                .rate(BigDecimal.valueOf(3.5))
+                .maxTerm(100)
+                .build();
+
+        LoanAmortizationCalculator reference = LoanAmortizationCalculatorFactory.create();
+        LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create(table);
+
+        for (Loan loan : ReferenceLoanFactory.createAll().values()) {
+            assertEquals(reference.calculate(loan), calculator.calculate(loan));
+        }
+    }
+
+    @Test
+    void shouldFailWhenGridIsInvalid() {
+        assertThrows(LoanAmortizationCalculatorException.class, () -> AnnuityFactorTable.builder().rate(RATE).build());
+        assertThrows(LoanAmortizationCalculatorException.class, () -> AnnuityFactorTable.builder().rate(BigDecimal.ZERO).maxTerm(12).build());
+        assertThrows(LoanAmortizationCalculatorException.class, () -> AnnuityFactorTable.builder().rate(null).maxTerm(12).build());
+    }
+}
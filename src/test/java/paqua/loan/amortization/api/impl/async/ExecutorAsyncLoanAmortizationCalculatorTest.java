@@ -0,0 +1,189 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.AsyncLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorAsyncLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldCalculateSameAmortizationAsCalculator() throws Exception {
+        List<Loan> loans = createLoans(50);
+
+        try (AsyncLoanAmortizationCalculator async = AsyncLoanAmortizationCalculatorFactory.create(calculator, 3)) {
+            List<CompletableFuture<LoanAmortization>> futures = new ArrayList<>();
+            for (Loan loan : loans) {
+                futures.add(async.calculateAsync(loan));
+            }
+
+            List<LoanAmortizationResult> results = async.calculateAllAsync(loans).get(10, TimeUnit.SECONDS);
+
+            assertEquals(loans.size(), results.size());
+            for (int i = 0; i < loans.size(); i++) {
+                LoanAmortization expected = calculator.calculate(loans.get(i));
+
+                assertEquals(expected, futures.get(i).get(10, TimeUnit.SECONDS));
+                assertEquals(LoanAmortizationResult.success(expected), results.get(i));
+            }
+        }
+    }
+
+    @Test
+    void shouldReturnFailureOfInvalidLoan() throws Exception {
+        Loan invalid = Loan.builder()
+                .amount(BigDecimal.ONE)
+                .rate(BigDecimal.ONE)
+                .term(0)
+                .build();
+
+        try (AsyncLoanAmortizationCalculator async = AsyncLoanAmortizationCalculatorFactory.create(calculator, executor, 2)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> async.calculateAsync(invalid).get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof LoanAmortizationCalculatorException);
+
+            List<LoanAmortizationResult> results = async.calculateAllAsync(Arrays.asList(createLoans(1).get(0), invalid)).get(10, TimeUnit.SECONDS);
+            assertTrue(results.get(0).isSuccess());
+            assertFalse(results.get(1).isSuccess());
+            assertTrue(async.calculateAllAsync(new ArrayList<>()).get(10, TimeUnit.SECONDS).isEmpty());
+        }
+    }
+
+    @Test
+    void shouldNotExceedMaxConcurrency() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        LoanAmortizationCalculator slow = loan -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+                return calculator.calculate(loan);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+
+        try (AsyncLoanAmortizationCalculator async = AsyncLoanAmortizationCalculatorFactory.create(slow, executor, 2)) {
+            List<LoanAmortizationResult> results = async.calculateAllAsync(createLoans(40)).get(30, TimeUnit.SECONDS);
+
+            assertEquals(40, results.size());
+            assertTrue(maxRunning.get() <= 2);
+        }
+    }
+
+    @Test
+    void shouldTimeOutAndCancelWaitingCalculations() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calculated = new AtomicInteger();
+        LoanAmortizationCalculator blocking = loan -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            calculated.incrementAndGet();
+            return calculator.calculate(loan);
+        };
+
+        List<Loan> loans = createLoans(4);
+        try (AsyncLoanAmortizationCalculator async = AsyncLoanAmortizationCalculatorFactory.create(blocking, executor, 1)) {
+            CompletableFuture<LoanAmortization> first = async.calculateAsync(loans.get(0));
+            CompletableFuture<LoanAmortization> timedOut = async.calculateAsync(loans.get(1), 20, TimeUnit.MILLISECONDS);
+            CompletableFuture<LoanAmortization> cancelled = async.calculateAsync(loans.get(2));
+            CompletableFuture<List<LoanAmortizationResult>> batch = async.calculateAllAsync(loans, 20, TimeUnit.MILLISECONDS);
+
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> timedOut.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof TimeoutException);
+            exception = assertThrows(ExecutionException.class, () -> batch.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof TimeoutException);
+            assertTrue(cancelled.cancel(false));
+
+            release.countDown();
+
+            assertEquals(calculator.calculate(loans.get(0)), first.get(10, TimeUnit.SECONDS));
+            assertThrows(CancellationException.class, cancelled::join);
+            assertEquals(calculator.calculate(loans.get(3)), async.calculateAsync(loans.get(3)).get(10, TimeUnit.SECONDS));
+
+            // Only the first and the last loans reach the calculator, the others are dropped from the queue
+            assertEquals(2, calculated.get());
+        }
+    }
+
+    @Test
+    void shouldRejectCalculationsAfterClose() {
+        AsyncLoanAmortizationCalculator async = AsyncLoanAmortizationCalculatorFactory.create(calculator, 1);
+        async.close();
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> async.calculateAsync(createLoans(1).get(0)).get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof RejectedExecutionException);
+        assertThrows(LoanAmortizationCalculatorException.class,
+                () -> async.calculateAsync(createLoans(1).get(0), 0, TimeUnit.SECONDS));
+    }
+
+    private static List<Loan> createLoans(int count) {
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            loans.add(Loan.builder()
+                    .amount(BigDecimal.valueOf(10000 + i * 1000L))
+                    .rate(BigDecimal.valueOf(3 + i % 7))
+                    .term(12 + i % 48)
+                    .build());
+        }
+        return loans;
+    }
+}
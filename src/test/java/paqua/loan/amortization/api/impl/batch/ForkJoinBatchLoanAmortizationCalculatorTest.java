@@ -0,0 +1,156 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.BatchLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortizationResult;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.utils.factory.LoanFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForkJoinBatchLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    private ForkJoinPool pool;
+    private BatchLoanAmortizationCalculator batchCalculator;
+
+    @BeforeEach
+    void initTarget() {
+        pool = new ForkJoinPool(4);
+        batchCalculator = new ForkJoinBatchLoanAmortizationCalculator(calculator, pool);
+    }
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void shouldReturnResultsInInputOrder() {
+        List<Loan> loans = new ArrayList<>();
+        for (int term = 1; term <= 200; term++) {
+            loans.add(LoanFactory.getBuilderWithDefaultLoan().term(term).build());
+        }
+
+        List<LoanAmortizationResult> results = batchCalculator.calculateAll(loans);
+
+        assertEquals(loans.size(), results.size());
+        for (int i = 0; i < loans.size(); i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(calculator.calculate(loans.get(i)), results.get(i).getAmortization());
+        }
+    }
+
+    @Test
+    void shouldIsolateFailedLoans() {
+        List<Loan> loans = new ArrayList<>();
+        loans.add(LoanFactory.createDefaultWithEarlyPayments());
+        loans.add(LoanFactory.getBuilderWithDefaultLoan().amount(BigDecimal.valueOf(-1)).build());
+        loans.add(null);
+        loans.add(LoanFactory.createDefaultWithEarlyPayments());
+
+        List<LoanAmortizationResult> results = batchCalculator.calculateAll(loans);
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertNull(results.get(1).getAmortization());
+        assertNotNull(results.get(1).getException());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(3).isSuccess());
+    }
+
+    @Test
+    void shouldIsolateLoansWithIncompleteEarlyPayments() {
+        List<Loan> loans = new ArrayList<>();
+        for (int term = 1; term <= 50; term++) {
+            loans.add(LoanFactory.getBuilderWithDefaultLoan().term(term).build());
+        }
+        loans.add(20, LoanFactory.getBuilderWithDefaultLoan()
+                .earlyPayment(3, new EarlyPayment(BigDecimal.TEN, EarlyPaymentStrategy.DECREASE_TERM, null, null))
+                .build());
+        loans.add(40, LoanFactory.getBuilderWithDefaultLoan()
+                .earlyPayment(3, new EarlyPayment(BigDecimal.TEN, EarlyPaymentStrategy.DECREASE_TERM, EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH, null))
+                .build());
+
+        List<LoanAmortizationResult> results = batchCalculator.calculateAll(loans);
+
+        assertEquals(loans.size(), results.size());
+        for (int i = 0; i < loans.size(); i++) {
+            assertEquals(i != 20 && i != 40, results.get(i).isSuccess(), String.valueOf(i));
+        }
+        assertNotNull(results.get(20).getException());
+        assertNotNull(results.get(40).getException());
+    }
+
+    @Test
+    void shouldIsolateLoansFailedWithUnexpectedException() {
+        BatchLoanAmortizationCalculator failingBatchCalculator = new ForkJoinBatchLoanAmortizationCalculator(loan -> {
+            if (loan.getTerm() == 0) {
+                throw new ArithmeticException("Overflow");
+            }
+            return calculator.calculate(loan);
+        }, pool);
+
+        List<Loan> loans = new ArrayList<>();
+        for (int term = 1; term <= 50; term++) {
+            loans.add(LoanFactory.getBuilderWithDefaultLoan().term(term).build());
+        }
+        loans.add(30, LoanFactory.getBuilderWithDefaultLoan().term(0).build());
+
+        List<LoanAmortizationResult> results = failingBatchCalculator.calculateAll(loans);
+
+        assertEquals(loans.size(), results.size());
+        for (int i = 0; i < loans.size(); i++) {
+            assertEquals(i != 30, results.get(i).isSuccess(), String.valueOf(i));
+        }
+        assertEquals(ExceptionType.CALCULATION_EXCEPTION, results.get(30).getException().getType());
+        assertTrue(results.get(30).getException().getCause() instanceof ArithmeticException);
+    }
+
+    @Test
+    void shouldReturnEmptyResultForEmptyBatch() {
+        assertTrue(batchCalculator.calculateAll(Collections.emptyList()).isEmpty());
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.cache;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.CachingLoanAmortizationCalculator;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.LoanFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LruCachingLoanAmortizationCalculatorTest {
+    private final LoanAmortizationCalculator reference = LoanAmortizationCalculatorFactory.create();
+
+    private static Loan loanWithTerm(int term) {
+        return LoanFactory.getBuilderWithDefaultLoan().term(term).build();
+    }
+
+    @Test
+    void shouldReturnCachedAmortization() {
+        CachingLoanAmortizationCalculator calculator = new LruCachingLoanAmortizationCalculator(reference, 10);
+
+        LoanAmortization first = calculator.calculate(loanWithTerm(12));
+        LoanAmortization second = calculator.calculate(loanWithTerm(12));
+
+        assertSame(first, second);
+        assertEquals(reference.calculate(loanWithTerm(12)), first);
+        assertEquals(1, calculator.getHitCount());
+        assertEquals(1, calculator.getMissCount());
+        assertEquals(1, calculator.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedAmortization() {
+        CachingLoanAmortizationCalculator calculator = new LruCachingLoanAmortizationCalculator(reference, 2);
+
+        calculator.calculate(loanWithTerm(1));
+        calculator.calculate(loanWithTerm(2));
+        calculator.calculate(loanWithTerm(1));
+        calculator.calculate(loanWithTerm(3));
+
+        assertEquals(1, calculator.getEvictionCount());
+        assertEquals(2, calculator.size());
+
+        calculator.calculate(loanWithTerm(1));
+        assertEquals(2, calculator.getHitCount());
+
+        calculator.calculate(loanWithTerm(2));
+        assertEquals(4, calculator.getMissCount());
+    }
+
+    @Test
+    void shouldNotBeAffectedByChangedEarlyPayments() {
+        CachingLoanAmortizationCalculator calculator = new LruCachingLoanAmortizationCalculator(reference, 10);
+
+        Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        earlyPayments.put(1, EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(10000))
+                .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                .build());
+
+        Loan loan = LoanFactory.getBuilderWithDefaultLoan().earlyPayments(earlyPayments).build();
+        LoanAmortization beforeChange = calculator.calculate(loan);
+
+        earlyPayments.put(2, EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(20000))
+                .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                .build());
+
+        assertEquals(reference.calculate(loan), calculator.calculate(loan));
+
+        earlyPayments.remove(2);
+
+        assertSame(beforeChange, calculator.calculate(loan));
+    }
+
+    @Test
+    void shouldCacheAmortizationByLoanItWasCalculatedFrom() {
+        Map<Integer, EarlyPayment> earlyPayments = new HashMap<>();
+        earlyPayments.put(1, EarlyPayment.builder()
+                .amount(BigDecimal.valueOf(10000))
+                .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                .build());
+
+        Loan loan = LoanFactory.getBuilderWithDefaultLoan().earlyPayments(earlyPayments).build();
+        LoanAmortization withOneEarlyPayment = reference.calculate(loan);
+
+        CachingLoanAmortizationCalculator calculator = new LruCachingLoanAmortizationCalculator(calculated -> {
+            LoanAmortization amortization = reference.calculate(calculated);
+            // The early payments of the loan are changed while it is being calculated
+            earlyPayments.putIfAbsent(2, EarlyPayment.builder()
+                    .amount(BigDecimal.valueOf(20000))
+                    .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                    .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                    .build());
+            return amortization;
+        }, 10);
+
+        assertEquals(withOneEarlyPayment, calculator.calculate(loan));
+        assertEquals(reference.calculate(loan), calculator.calculate(loan));
+        assertEquals(0, calculator.getHitCount());
+
+        earlyPayments.remove(2);
+
+        assertEquals(withOneEarlyPayment, calculator.calculate(loan));
+        assertEquals(1, calculator.getHitCount());
+    }
+
+    @Test
+    void shouldNotCacheFailedCalculations() {
+        CachingLoanAmortizationCalculator calculator = new LruCachingLoanAmortizationCalculator(reference, 10);
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.calculate(null));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> calculator.calculate(new Loan(null, null, null, null, null)));
+        assertEquals(0, calculator.size());
+    }
+
+    @Test
+    void shouldNotExceedMaximumSizeUnderConcurrentAccess() throws Exception {
+        CachingLoanAmortizationCalculator calculator = new LruCachingLoanAmortizationCalculator(reference, 20);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        int term = 1 + i % 40;
+                        assertEquals(reference.calculate(loanWithTerm(term)), calculator.calculate(loanWithTerm(term)));
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(2000, calculator.getHitCount() + calculator.getMissCount());
+        // Concurrent misses of the same loan replace each other instead of being evicted
+        assertTrue(calculator.getEvictionCount() <= calculator.getMissCount() - calculator.size());
+        assertEquals(20, calculator.size());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.repeating;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EarlyPaymentScheduleTest {
+    private static final EarlyPayment REPEATED = new EarlyPayment(
+            BigDecimal.valueOf(100.00),
+            EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT,
+            EarlyPaymentRepeatingStrategy.SINGLE,
+            null);
+
+    private static final EarlyPayment SINGLE = new EarlyPayment(
+            BigDecimal.valueOf(5000.00),
+            EarlyPaymentStrategy.DECREASE_TERM,
+            EarlyPaymentRepeatingStrategy.SINGLE,
+            null);
+
+    @Test
+    void shouldAnswerRepeatedPaymentWithinRange() {
+        EarlyPaymentSchedule schedule = EarlyPaymentSchedule.repeated(REPEATED, 3, 10);
+
+        assertNull(schedule.getPayment(2));
+        assertSame(REPEATED, schedule.getPayment(3));
+        assertSame(REPEATED, schedule.getPayment(9));
+        assertNull(schedule.getPayment(10));
+        assertFalse(schedule.containsKey("3"));
+        assertEquals(7, schedule.size());
+    }
+
+    @Test
+    void shouldPreferRepeatedPaymentOverSinglePayment() {
+        Map<Integer, EarlyPayment> singlePayments = new HashMap<>();
+        singlePayments.put(1, SINGLE);
+        singlePayments.put(5, SINGLE);
+
+        EarlyPaymentSchedule schedule = EarlyPaymentSchedule.repeated(REPEATED, 3, 10)
+                .withSinglePayments(singlePayments);
+
+        assertSame(SINGLE, schedule.getPayment(1));
+        assertSame(REPEATED, schedule.getPayment(5));
+        assertEquals(8, schedule.size());
+    }
+
+    @Test
+    void shouldBeEqualToMaterializedMap() {
+        Map<Integer, EarlyPayment> singlePayments = new HashMap<>();
+        singlePayments.put(0, SINGLE);
+        singlePayments.put(4, SINGLE);
+        singlePayments.put(12, SINGLE);
+
+        Map<Integer, EarlyPayment> expected = new HashMap<>(singlePayments);
+        for (int i = 2; i < 8; i++) {
+            expected.put(i, REPEATED);
+        }
+
+        EarlyPaymentSchedule schedule = EarlyPaymentSchedule.repeated(REPEATED, 2, 8)
+                .withSinglePayments(singlePayments);
+
+        assertEquals(expected, schedule);
+        assertEquals(schedule, expected);
+        assertEquals(expected.hashCode(), schedule.hashCode());
+        assertEquals(expected, new HashMap<>(schedule));
+    }
+
+    @Test
+    void shouldAnswerSamePaymentsWhenIndexed() {
+        Map<Integer, EarlyPayment> singlePayments = new HashMap<>();
+        singlePayments.put(1, SINGLE);
+        singlePayments.put(5, SINGLE);
+        singlePayments.put(20, SINGLE);
+
+        EarlyPaymentSchedule schedule = EarlyPaymentSchedule.repeated(REPEATED, 3, 10)
+                .withSinglePayments(singlePayments);
+        EarlyPaymentSchedule indexed = schedule.indexed(12);
+
+        for (int i = -1; i < 25; i++) {
+            assertSame(schedule.getPayment(i), indexed.getPayment(i));
+        }
+        assertEquals(schedule, indexed);
+        assertEquals(schedule.size(), indexed.size());
+    }
+
+    @Test
+    void shouldBeEmptyForEmptyRange() {
+        assertTrue(EarlyPaymentSchedule.empty().isEmpty());
+        assertTrue(EarlyPaymentSchedule.repeated(REPEATED, 10, 5).isEmpty());
+    }
+
+    @Test
+    void shouldBeSerializable() throws IOException, ClassNotFoundException {
+        Map<Integer, EarlyPayment> singlePayments = new HashMap<>();
+        singlePayments.put(1, SINGLE);
+
+        EarlyPaymentSchedule schedule = EarlyPaymentSchedule.repeated(REPEATED, 3, 10)
+                .withSinglePayments(singlePayments);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(schedule);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(schedule, in.readObject());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.utils.factory.ObjectMapperFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarMonthlyPaymentsTest {
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.create();
+
+    @Test
+    void shouldKeepAmountsWithAnyScale() {
+        List<MonthlyPayment> payments = new ArrayList<>();
+        payments.add(payment(0, new BigDecimal("10000.00"), LocalDate.of(2021, 1, 31)));
+        payments.add(payment(1, new BigDecimal("10000"), LocalDate.of(2021, 2, 28)));
+        payments.add(payment(2, new BigDecimal("123456789012345678901234.123456789"), null));
+        payments.add(payment(3, new BigDecimal("1E+3"), LocalDate.of(1900, 1, 1)));
+        payments.add(new MonthlyPayment(null, null, null, null, null, null, null));
+        payments.add(payment(5, new BigDecimal("-0.01"), LocalDate.of(2021, 6, 30)));
+
+        ColumnarMonthlyPayments.ColumnarMonthlyPaymentsBuilder builder = ColumnarMonthlyPayments.builder(1);
+        payments.forEach(builder::add);
+        ColumnarMonthlyPayments columnar = builder.build();
+
+        assertEquals(payments, columnar);
+        assertEquals(payments.hashCode(), columnar.hashCode());
+        assertEquals(0, columnar.get(1).getLoanBalanceAmount().scale());
+    }
+
+    @Test
+    void shouldKeepZeroAmountsWithDifferentScales() {
+        List<MonthlyPayment> payments = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            payments.add(MonthlyPayment.builder()
+                    .monthNumber(i)
+                    .loanBalanceAmount(i % 3 == 0 ? BigDecimal.ZERO : new BigDecimal("10.00"))
+                    .debtPaymentAmount(new BigDecimal("0.00"))
+                    .interestPaymentAmount(BigDecimal.ZERO)
+                    .paymentAmount(new BigDecimal("1.00"))
+                    .additionalPaymentAmount(i == 5 ? new BigDecimal("0.00") : BigDecimal.ZERO)
+                    .build());
+        }
+
+        ColumnarMonthlyPayments.ColumnarMonthlyPaymentsBuilder builder = ColumnarMonthlyPayments.builder(1);
+        payments.forEach(builder::add);
+
+        assertEquals(payments, builder.build());
+    }
+
+    @Test
+    void shouldNotStoreScalesOfZeroAmounts() throws IOException {
+        ColumnarMonthlyPayments.ColumnarMonthlyPaymentsBuilder withZero = ColumnarMonthlyPayments.builder(360);
+        ColumnarMonthlyPayments.ColumnarMonthlyPaymentsBuilder withCents = ColumnarMonthlyPayments.builder(360);
+        for (int i = 0; i < 360; i++) {
+            MonthlyPayment payment = payment(i, BigDecimal.valueOf(100000 - i, 2), null);
+            withZero.add(payment);
+            withCents.add(MonthlyPayment.builder()
+                    .monthNumber(payment.getMonthNumber())
+                    .loanBalanceAmount(payment.getLoanBalanceAmount())
+                    .debtPaymentAmount(payment.getDebtPaymentAmount())
+                    .interestPaymentAmount(payment.getInterestPaymentAmount())
+                    .paymentAmount(payment.getPaymentAmount())
+                    .additionalPaymentAmount(new BigDecimal("0.00"))
+                    .build());
+        }
+
+        assertEquals(serialize(withCents.build()).length, serialize(withZero.build()).length);
+    }
+
+    @Test
+    void shouldNotBeChangedByBuilder() {
+        ColumnarMonthlyPayments.ColumnarMonthlyPaymentsBuilder builder = ColumnarMonthlyPayments.builder(2)
+                .add(payment(0, new BigDecimal("1.00"), null));
+        ColumnarMonthlyPayments columnar = builder.build();
+
+        builder.add(payment(1, new BigDecimal("2.00"), null));
+
+        assertEquals(1, columnar.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> columnar.get(1));
+        assertThrows(UnsupportedOperationException.class, () -> columnar.add(payment(1, BigDecimal.ONE, null)));
+    }
+
+    @Test
+    void shouldMatchSerializedAndDeserialized() throws IOException, ClassNotFoundException {
+        ColumnarMonthlyPayments columnar = ColumnarMonthlyPayments.builder(2)
+                .add(payment(0, new BigDecimal("10000.00"), LocalDate.of(2021, 1, 31)))
+                .add(payment(1, new BigDecimal("10000.0001"), null))
+                .build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(columnar);
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(columnar, input.readObject());
+        }
+    }
+
+    @Test
+    void shouldBeSerializedToJsonAsList() throws JsonProcessingException {
+        ColumnarMonthlyPayments columnar = ColumnarMonthlyPayments.builder(1)
+                .add(payment(0, new BigDecimal("10000.00"), LocalDate.of(2021, 1, 31)))
+                .build();
+
+        String serialized = OBJECT_MAPPER.writeValueAsString(columnar);
+        List<MonthlyPayment> deserialized = OBJECT_MAPPER.readValue(serialized, new TypeReference<List<MonthlyPayment>>() {});
+
+        assertEquals(columnar, deserialized);
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static MonthlyPayment payment(int monthNumber, BigDecimal amount, LocalDate paymentDate) {
+        return MonthlyPayment.builder()
+                .monthNumber(monthNumber)
+                .loanBalanceAmount(amount)
+                .debtPaymentAmount(amount)
+                .interestPaymentAmount(amount)
+                .paymentAmount(amount)
+                .additionalPaymentAmount(BigDecimal.ZERO)
+                .paymentDate(paymentDate)
+                .build();
+    }
+}
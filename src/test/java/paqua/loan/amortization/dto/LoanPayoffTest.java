@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.utils.factory.LoanAmortizationFactory;
+import paqua.loan.amortization.utils.factory.ObjectMapperFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanPayoffTest {
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.create();
+
+    @Test
+    void shouldMatchSerializedAndDeserialized() throws JsonProcessingException {
+        LoanPayoff payoff = LoanPayoff.of(LoanAmortizationFactory.create());
+
+        String serialized = OBJECT_MAPPER.writeValueAsString(payoff);
+        LoanPayoff deserialized = OBJECT_MAPPER.readValue(serialized, LoanPayoff.class);
+
+        assertEquals(payoff, deserialized);
+        assertEquals(payoff.hashCode(), deserialized.hashCode());
+    }
+
+    @Test
+    void shouldTakeLastMonthlyPayment() {
+        LoanAmortization amortization = LoanAmortizationFactory.create();
+        LoanPayoff payoff = LoanPayoff.of(amortization);
+
+        List<MonthlyPayment> payments = amortization.getMonthlyPayments();
+        MonthlyPayment lastPayment = payments.get(payments.size() - 1);
+
+        assertEquals(lastPayment.getMonthNumber(), payoff.getPayoffMonthNumber());
+        assertEquals(lastPayment.getPaymentAmount(), payoff.getFinalPaymentAmount());
+        assertEquals(lastPayment.getPaymentDate(), payoff.getPayoffDate());
+        assertEquals(amortization.getOverPaymentAmount(), payoff.getTotalInterestAmount());
+    }
+}
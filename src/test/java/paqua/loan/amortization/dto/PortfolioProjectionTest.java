@@ -0,0 +1,90 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioProjectionTest {
+
+    @Test
+    void shouldCreateSummariesAndTotals() {
+        PortfolioProjection projection = create();
+
+        assertEquals(2, projection.getNumberOfLoans());
+        assertEquals(2, projection.getNumberOfMonths());
+        assertEquals(new BigDecimal("1010.03"), projection.getPaymentAmount(0));
+        assertEquals(new BigDecimal("1015.05"), projection.getTotalPaymentAmount());
+        assertEquals(new BigDecimal("15.05"), projection.getOverPaymentAmount());
+        assertEquals(LoanAmortizationSummary.builder()
+                .monthlyPaymentAmount(new BigDecimal("505.02"))
+                .overPaymentAmount(new BigDecimal("10.04"))
+                .totalPaymentAmount(new BigDecimal("510.04"))
+                .numberOfPayments(1)
+                .payoffDate(LocalDate.of(2024, 2, 29))
+                .build(), projection.getSummary(0));
+        assertNull(projection.getSummary(1).getPayoffDate());
+    }
+
+    @Test
+    void shouldMatchSerializedAndDeserialized() throws IOException, ClassNotFoundException {
+        PortfolioProjection projection = create();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(projection);
+        }
+
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Object deserialized = input.readObject();
+
+            assertEquals(projection, deserialized);
+            assertEquals(projection.hashCode(), deserialized.hashCode());
+        }
+    }
+
+    private static PortfolioProjection create() {
+        return PortfolioProjection.builder()
+                .interestAmounts(new long[] {1003, 502})
+                .principalAmounts(new long[] {100000, 50000})
+                .loanBalanceAmounts(new long[] {100000, 50000})
+                .numberOfActiveLoans(new int[] {2, 1})
+                .monthlyPaymentAmounts(new long[] {50502, 50502})
+                .overPaymentAmounts(new long[] {1004, 501})
+                .totalPaymentAmounts(new long[] {51004, 50501})
+                .numberOfPayments(new int[] {1, 2})
+                .payoffDates(new int[] {(int) LocalDate.of(2024, 2, 29).toEpochDay(), PortfolioProjection.NULL_DATE})
+                .build();
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.io.ExportFormat;
+import paqua.loan.amortization.io.ScheduleExportWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanIngestionJobTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    @Test
+    void shouldWriteSchedulesInOrderOfFile() throws IOException {
+        List<Loan> loans = createLoans(200);
+        String csv = toCsv(loans);
+
+        for (ExportFormat outputFormat : ExportFormat.values()) {
+            String expected = export(loans, outputFormat);
+
+            for (int maxInFlight : new int[]{1, 2, 7, 1000}) {
+                StringWriter output = new StringWriter();
+                IngestionReport report = LoanIngestionJob.builder()
+                        .parallelism(3)
+                        .maxInFlight(maxInFlight)
+                        .outputFormat(outputFormat)
+                        .build()
+                        .run(new StringReader(csv), LoanFileFormat.CSV, output);
+
+                assertEquals(expected, output.toString());
+                assertEquals(loans.size(), report.getRecordCount());
+                assertEquals(loans.size(), report.getSucceededCount());
+                assertEquals(0, report.getFailedCount());
+                assertTrue(report.getErrors().isEmpty());
+                assertTrue(report.getThroughput() > 0);
+            }
+        }
+    }
+
+    @Test
+    void shouldReportErrorsOfRecords() throws IOException {
+        String csv = "loanId,amount,rate,term\n"
+                + "first,1000,5,12\n"
+                + "negative,-1000,5,12\n"
+                + "malformed,1000,five,12\n"
+                + "last,2000,6,24\n";
+
+        StringWriter output = new StringWriter();
+        IngestionReport report = LoanIngestionJob.builder()
+                .parallelism(2)
+                .maxInFlight(2)
+                .build()
+                .run(new StringReader(csv), LoanFileFormat.CSV, output);
+
+        assertEquals(4, report.getRecordCount());
+        assertEquals(2, report.getSucceededCount());
+        assertEquals(2, report.getFailedCount());
+        assertEquals(12 + 24, report.getRowCount());
+
+        List<IngestionError> errors = report.getErrors();
+        assertEquals(2, errors.size());
+
+        assertEquals(3, errors.get(0).getLineNumber());
+        assertEquals("negative", errors.get(0).getLoanId());
+        assertEquals(ExceptionType.INPUT_VERIFICATION_EXCEPTION, errors.get(0).getType());
+        assertNotNull(errors.get(0).getMessage());
+
+        assertEquals(4, errors.get(1).getLineNumber());
+        assertEquals("malformed", errors.get(1).getLoanId());
+        assertEquals(ExceptionType.SERIALIZATION_EXCEPTION, errors.get(1).getType());
+
+        assertTrue(output.toString().contains("\nfirst,0,"));
+        assertTrue(output.toString().contains("\nlast,23,"));
+        assertFalse(output.toString().contains("negative"));
+    }
+
+    @Test
+    void shouldReportMalformedJsonRecordsAndContinue() throws IOException {
+        String jsonLines = "null\n"
+                + "{\"loanId\": \"no-repeating-strategy\", \"amount\": 1000, \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"3\": {\"amount\": 100, \"strategy\": \"DECREASE_TERM\"}}}\n"
+                + "{\"loanId\": \"no-amount\", \"amount\": 1000, \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"3\": {\"strategy\": \"DECREASE_TERM\"}}}\n"
+                + "{\"loanId\": \"no-month\", \"amount\": 1000, \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"3\": {\"amount\": 100, \"strategy\": \"DECREASE_TERM\", \"repeatingStrategy\": \"TO_CERTAIN_MONTH\"}}}\n"
+                + "{\"loanId\": \"last\", \"amount\": 2000, \"rate\": 6, \"term\": 24}\n";
+
+        IngestionReport report = LoanIngestionJob.builder()
+                .parallelism(2)
+                .build()
+                .run(new StringReader(jsonLines), LoanFileFormat.JSON_LINES, new StringWriter());
+
+        assertEquals(5, report.getRecordCount());
+        assertEquals(2, report.getSucceededCount());
+        assertEquals(3, report.getFailedCount());
+        assertEquals(1, report.getErrors().get(0).getLineNumber());
+        assertEquals("no-amount", report.getErrors().get(1).getLoanId());
+        assertEquals("no-month", report.getErrors().get(2).getLoanId());
+    }
+
+    @Test
+    void shouldReportUnexpectedFailuresOfCalculation() throws IOException {
+        String csv = "loanId,amount,rate,term\n"
+                + "first,1000,5,12\n"
+                + "failing,1500,5,12\n"
+                + "last,2000,6,24\n";
+
+        IngestionReport report = LoanIngestionJob.builder()
+                .calculator(loan -> {
+                    if (loan.getAmount().intValue() == 1500) {
+                        throw new ArithmeticException("Overflow");
+                    }
+                    return calculator.calculate(loan);
+                })
+                .parallelism(2)
+                .build()
+                .run(new StringReader(csv), LoanFileFormat.CSV, new StringWriter());
+
+        assertEquals(3, report.getRecordCount());
+        assertEquals(1, report.getFailedCount());
+        assertEquals("failing", report.getErrors().get(0).getLoanId());
+        assertEquals(ExceptionType.CALCULATION_EXCEPTION, report.getErrors().get(0).getType());
+        assertEquals("java.lang.ArithmeticException: Overflow", report.getErrors().get(0).getMessage());
+        assertTrue(report.getErrors().get(0).getCause() instanceof ArithmeticException);
+        assertEquals(12 + 24, report.getRowCount());
+    }
+
+    @Test
+    void shouldLimitNumberOfReportedErrors() throws IOException {
+        StringBuilder jsonLines = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            jsonLines.append("{\"amount\": 1000, \"rate\": 5, \"term\": -1}\n");
+        }
+
+        IngestionReport report = LoanIngestionJob.builder()
+                .maxReportedErrors(3)
+                .build()
+                .run(new StringReader(jsonLines.toString()), LoanFileFormat.JSON_LINES, new StringWriter());
+
+        assertEquals(10, report.getFailedCount());
+        assertEquals(3, report.getErrors().size());
+        assertEquals(0, report.getRowCount());
+    }
+
+    @Test
+    void shouldNotShutDownProvidedExecutor() throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Loan> loans = createLoans(20);
+
+            StringWriter output = new StringWriter();
+            LoanIngestionJob.builder()
+                    .executor(executor)
+                    .maxInFlight(4)
+                    .build()
+                    .run(new StringReader(toCsv(loans)), LoanFileFormat.CSV, output);
+
+            assertEquals(export(loans, ExportFormat.CSV), output.toString());
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldProcessFiles(@TempDir Path directory) throws IOException {
+        List<Loan> loans = createLoans(30);
+        Path input = directory.resolve("loans.csv");
+        Path output = directory.resolve("schedules.jsonl");
+        Files.write(input, toCsv(loans).getBytes(StandardCharsets.UTF_8));
+
+        IngestionReport report = LoanIngestionJob.builder()
+                .outputFormat(ExportFormat.JSON_LINES)
+                .build()
+                .run(input, LoanFileFormat.CSV, output);
+
+        assertEquals(30, report.getRecordCount());
+        assertEquals(export(loans, ExportFormat.JSON_LINES), new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldRunFromCommandLine(@TempDir Path directory) throws IOException {
+        List<Loan> loans = createLoans(5);
+        Path input = directory.resolve("loans.csv");
+        Path output = directory.resolve("schedules.csv");
+        Files.write(input, toCsv(loans).getBytes(StandardCharsets.UTF_8));
+
+        LoanIngestionJob.main(new String[]{input.toString(), output.toString(), "2", "3"});
+
+        assertEquals(export(loans, ExportFormat.CSV), new String(Files.readAllBytes(output), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenParametersAreNotPositive() {
+        assertThrows(LoanAmortizationCalculatorException.class, () -> LoanIngestionJob.builder().parallelism(0));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> LoanIngestionJob.builder().maxInFlight(-1));
+    }
+
+    private String export(List<Loan> loans, ExportFormat format) throws IOException {
+        StringWriter output = new StringWriter();
+        ScheduleExportWriter writer = ScheduleExportWriter.create(output, format);
+        for (int i = 0; i < loans.size(); i++) {
+            writer.writeAll(String.valueOf(i + 1), calculator.calculate(loans.get(i)));
+        }
+        writer.flush();
+        return output.toString();
+    }
+
+    private static String toCsv(List<Loan> loans) {
+        StringBuilder csv = new StringBuilder("amount,rate,term,firstPaymentDate\n");
+        for (Loan loan : loans) {
+            csv.append(loan.getAmount()).append(',')
+                    .append(loan.getRate()).append(',')
+                    .append(loan.getTerm()).append(',')
+                    .append(loan.getFirstPaymentDate()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static List<Loan> createLoans(int count) {
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            loans.add(Loan.builder()
+                    .amount(BigDecimal.valueOf(100000 + i * 7919L, 2))
+                    .rate(BigDecimal.valueOf(300 + i % 50, 2))
+                    .term(1 + (i * 37) % 360)
+                    .firstPaymentDate(LocalDate.of(2021, 1, 1).plusDays(i))
+                    .build());
+        }
+        return loans;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.ObjectMapperFactory;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanRecordReaderTest {
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.create()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void shouldReadCsv() throws IOException {
+        String csv = "loanId,amount,rate,term,firstPaymentDate,earlyPayments\n"
+                + "A-1,500000.32,4.56,32,2021-01-31,\n"
+                + "A-2,100000,7.5,12,,3:5000:DECREASE_TERM;5:1000.50:DECREASE_MONTHLY_PAYMENT:TO_CERTAIN_MONTH:8\n";
+
+        List<LoanRecord> records = readAll(csv, LoanFileFormat.CSV);
+
+        assertEquals(2, records.size());
+        assertTrue(records.get(0).isSuccess());
+        assertEquals("A-1", records.get(0).getLoanId());
+        assertEquals(2, records.get(0).getLineNumber());
+        assertEquals(Loan.builder()
+                .amount(new BigDecimal("500000.32"))
+                .rate(new BigDecimal("4.56"))
+                .term(32)
+                .firstPaymentDate(LocalDate.of(2021, 1, 31))
+                .build(), records.get(0).getLoan());
+
+        assertEquals("A-2", records.get(1).getLoanId());
+        assertEquals(3, records.get(1).getLineNumber());
+        assertEquals(Loan.builder()
+                .amount(new BigDecimal("100000"))
+                .rate(new BigDecimal("7.5"))
+                .term(12)
+                .earlyPayment(3, EarlyPayment.builder()
+                        .amount(new BigDecimal("5000"))
+                        .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                        .build())
+                .earlyPayment(5, EarlyPayment.builder()
+                        .amount(new BigDecimal("1000.50"))
+                        .strategy(EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH)
+                        .repeatTo(8)
+                        .build())
+                .build(), records.get(1).getLoan());
+    }
+
+    @Test
+    void shouldReadCsvColumnsInAnyOrder() throws IOException {
+        String csv = "term,comment,rate,amount\n"
+                + "12,\"first, \"\"quoted\"\"\nand multiline\",5,1000\n"
+                + "\n"
+                + "24,,6,2000\n";
+
+        List<LoanRecord> records = readAll(csv, LoanFileFormat.CSV);
+
+        assertEquals(2, records.size());
+        assertEquals("1", records.get(0).getLoanId());
+        assertEquals(2, records.get(0).getLineNumber());
+        assertEquals(Loan.builder().amount(new BigDecimal("1000")).rate(new BigDecimal("5")).term(12).build(), records.get(0).getLoan());
+
+        assertEquals("2", records.get(1).getLoanId());
+        assertEquals(5, records.get(1).getLineNumber());
+        assertEquals(Loan.builder().amount(new BigDecimal("2000")).rate(new BigDecimal("6")).term(24).build(), records.get(1).getLoan());
+    }
+
+    @Test
+    void shouldReturnFailedCsvRecordAndContinue() throws IOException {
+        String csv = "loanId,amount,rate,term,firstPaymentDate,earlyPayments\n"
+                + "bad-amount,1O00,5,12,,\n"
+                + "bad-date,1000,5,12,2021-02-30,\n"
+                + "bad-early-payment,1000,5,12,,3:100:UNKNOWN\n"
+                + "bad-term,1000,5,12.5,,\n"
+                + "good,1000,5,12,,\n"
+                + "unterminated,\"1000,5,12,,\n";
+
+        List<LoanRecord> records = readAll(csv, LoanFileFormat.CSV);
+
+        assertEquals(6, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            LoanRecord record = records.get(i);
+            assertEquals(i + 2, record.getLineNumber());
+
+            if ("good".equals(record.getLoanId())) {
+                assertTrue(record.isSuccess());
+            } else {
+                assertFalse(record.isSuccess(), record.getLoanId());
+                assertNull(record.getLoan());
+                assertEquals(ExceptionType.SERIALIZATION_EXCEPTION, record.getException().getType());
+            }
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCsvHeaderHasNoRequiredColumns() {
+        LoanRecordReader reader = LoanRecordReader.create(new StringReader("loanId,amount,rate\n1,1000,5\n"), LoanFileFormat.CSV);
+
+        LoanAmortizationCalculatorException exception = assertThrows(LoanAmortizationCalculatorException.class, reader::read);
+        assertEquals(ExceptionType.SERIALIZATION_EXCEPTION, exception.getType());
+    }
+
+    @Test
+    void shouldReadEmptyFile() throws IOException {
+        assertTrue(readAll("", LoanFileFormat.CSV).isEmpty());
+        assertTrue(readAll("loanId,amount,rate,term\n", LoanFileFormat.CSV).isEmpty());
+        assertTrue(readAll("", LoanFileFormat.JSON_LINES).isEmpty());
+        assertTrue(readAll("\n  \n", LoanFileFormat.JSON_LINES).isEmpty());
+    }
+
+    @Test
+    void shouldReadJsonLinesWrittenByJackson() throws IOException {
+        List<Loan> loans = new ArrayList<>(ReferenceLoanFactory.createAll().values());
+        loans.add(Loan.builder()
+                .amount(new BigDecimal("250000.10"))
+                .rate(new BigDecimal("3.2"))
+                .term(120)
+                .firstPaymentDate(LocalDate.of(2022, 3, 31))
+                .build());
+
+        StringBuilder jsonLines = new StringBuilder();
+        for (Loan loan : loans) {
+            jsonLines.append(toJson(loan)).append('\n');
+        }
+
+        List<LoanRecord> records = readAll(jsonLines.toString(), LoanFileFormat.JSON_LINES);
+
+        assertEquals(loans.size(), records.size());
+        for (int i = 0; i < loans.size(); i++) {
+            assertTrue(records.get(i).isSuccess());
+            assertEquals(String.valueOf(i + 1), records.get(i).getLoanId());
+            assertEquals(i + 1, records.get(i).getLineNumber());
+            assertEquals(loans.get(i), records.get(i).getLoan());
+        }
+    }
+
+    @Test
+    void shouldReadJsonLines() throws IOException {
+        String jsonLines = "{\"loanId\": \"L\\u002d1\", \"amount\": \"1000.00\", \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"2\": {\"amount\": 100, \"type\": \"DECREASE_TERM\", \"repeatingStrategy\": \"TO_CERTAIN_MONTH\", "
+                + "\"additionalParameters\": {\"REPEAT_TO_MONTH_NUMBER\": 4}}}, \"extra\": [true, false, null, {}]}\n"
+                + "\n"
+                + "{\"loanId\": 42, \"amount\": 2000, \"rate\": 6.5, \"term\": 24, \"firstPaymentDate\": \"2021-05-31\"}\n";
+
+        List<LoanRecord> records = readAll(jsonLines, LoanFileFormat.JSON_LINES);
+
+        assertEquals(2, records.size());
+        assertEquals("L-1", records.get(0).getLoanId());
+        assertEquals(Loan.builder()
+                .amount(new BigDecimal("1000.00"))
+                .rate(new BigDecimal("5"))
+                .term(12)
+                .earlyPayment(2, EarlyPayment.builder()
+                        .amount(new BigDecimal("100"))
+                        .strategy(EarlyPaymentStrategy.DECREASE_TERM)
+                        .repeatingStrategy(EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH)
+                        .repeatTo(4)
+                        .build())
+                .build(), records.get(0).getLoan());
+
+        assertEquals("42", records.get(1).getLoanId());
+        assertEquals(3, records.get(1).getLineNumber());
+        assertEquals(LocalDate.of(2021, 5, 31), records.get(1).getLoan().getFirstPaymentDate());
+    }
+
+    @Test
+    void shouldReturnFailedJsonRecordAndContinue() throws IOException {
+        String jsonLines = "{\"loanId\": \"truncated\", \"amount\": 1000\n"
+                + "[1, 2, 3]\n"
+                + "{\"loanId\": \"bad-term\", \"amount\": 1000, \"rate\": 5, \"term\": \"twelve\"}\n"
+                + "{\"loanId\": \"bad-early-payment\", \"amount\": 1000, \"rate\": 5, \"term\": 12, \"earlyPayments\": {\"x\": {}}}\n"
+                + "{\"loanId\": \"good\", \"amount\": 1000, \"rate\": 5, \"term\": 12}\n";
+
+        List<LoanRecord> records = readAll(jsonLines, LoanFileFormat.JSON_LINES);
+
+        assertEquals(5, records.size());
+        assertNull(records.get(0).getLoanId());
+        assertNull(records.get(1).getLoanId());
+        assertEquals("bad-term", records.get(2).getLoanId());
+        assertEquals("bad-early-payment", records.get(3).getLoanId());
+        for (int i = 0; i < 4; i++) {
+            assertFalse(records.get(i).isSuccess());
+            assertEquals(i + 1, records.get(i).getLineNumber());
+            assertEquals(ExceptionType.SERIALIZATION_EXCEPTION, records.get(i).getException().getType());
+        }
+        assertTrue(records.get(4).isSuccess());
+    }
+
+    @Test
+    void shouldReturnFailedJsonRecordWhenEarlyPaymentIsIncomplete() throws IOException {
+        String jsonLines = "null\n"
+                + "{\"loanId\": \"null-early-payment\", \"amount\": 1000, \"rate\": 5, \"term\": 12, \"earlyPayments\": {\"3\": null}}\n"
+                + "{\"loanId\": \"no-amount\", \"amount\": 1000, \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"3\": {\"strategy\": \"DECREASE_TERM\"}}}\n"
+                + "{\"loanId\": \"no-strategy\", \"amount\": 1000, \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"3\": {\"amount\": 100}}}\n"
+                + "{\"loanId\": \"no-month\", \"amount\": 1000, \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"3\": {\"amount\": 100, \"strategy\": \"DECREASE_TERM\", \"repeatingStrategy\": \"TO_CERTAIN_MONTH\"}}}\n"
+                + "{\"loanId\": \"bad-month\", \"amount\": 1000, \"rate\": 5, \"term\": 12, "
+                + "\"earlyPayments\": {\"3\": {\"amount\": 100, \"strategy\": \"DECREASE_TERM\", \"repeatingStrategy\": \"TO_CERTAIN_MONTH\", "
+                + "\"additionalParameters\": {\"REPEAT_TO_MONTH_NUMBER\": \"six\"}}}}\n";
+
+        List<LoanRecord> records = readAll(jsonLines, LoanFileFormat.JSON_LINES);
+
+        assertEquals(6, records.size());
+        assertNull(records.get(0).getLoanId());
+        assertEquals("null-early-payment", records.get(1).getLoanId());
+        assertEquals("no-amount", records.get(2).getLoanId());
+        assertEquals("no-strategy", records.get(3).getLoanId());
+        assertEquals("no-month", records.get(4).getLoanId());
+        assertEquals("bad-month", records.get(5).getLoanId());
+        for (LoanRecord record : records) {
+            assertFalse(record.isSuccess());
+            assertEquals(ExceptionType.SERIALIZATION_EXCEPTION, record.getException().getType());
+        }
+    }
+
+    @Test
+    void shouldReadSingleEarlyPaymentWhenRepeatingStrategyIsMissing() throws IOException {
+        String jsonLines = "{\"amount\": 1000, \"rate\": 5, \"term\": 12, \"earlyPayments\": {\"3\": {\"amount\": 100, \"strategy\": \"DECREASE_TERM\"}}}\n";
+        String csv = "amount,rate,term,earlyPayments\n"
+                + "1000,5,12,3:100:DECREASE_TERM\n"
+                + "1000,5,12,3:100:DECREASE_TERM:TO_CERTAIN_MONTH\n";
+
+        List<LoanRecord> jsonRecords = readAll(jsonLines, LoanFileFormat.JSON_LINES);
+        List<LoanRecord> csvRecords = readAll(csv, LoanFileFormat.CSV);
+
+        assertEquals(EarlyPaymentRepeatingStrategy.SINGLE,
+                jsonRecords.get(0).getLoan().getEarlyPayments().get(3).getRepeatingStrategy());
+        assertEquals(csvRecords.get(0).getLoan(), jsonRecords.get(0).getLoan());
+        assertFalse(csvRecords.get(1).isSuccess());
+    }
+
+    private static String toJson(Loan loan) throws JsonProcessingException {
+        return OBJECT_MAPPER.writeValueAsString(loan);
+    }
+
+    private static List<LoanRecord> readAll(String text, LoanFileFormat format) throws IOException {
+        List<LoanRecord> records = new ArrayList<>();
+        try (LoanRecordReader reader = LoanRecordReader.create(new StringReader(text), format)) {
+            LoanRecord record;
+            while ((record = reader.read()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.impl.message.Messages;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.LoanFactory;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryReaderTest {
+    private final BinaryWriter writer = new BinaryWriter();
+    private final BinaryReader reader = new BinaryReader();
+
+    @Test
+    void shouldRejectUnsupportedVersion() {
+        byte[] bytes = writer.toByteArray(LoanFactory.createDefaultWithEarlyPayments());
+        bytes[0] = 2;
+
+        LoanAmortizationCalculatorException exception = assertThrows(LoanAmortizationCalculatorException.class,
+                () -> reader.readLoan(ByteBuffer.wrap(bytes)));
+        assertEquals(Messages.UNSUPPORTED_FORMAT_VERSION.getMessageText(), exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectUnexpectedRecordType() {
+        byte[] bytes = writer.toByteArray(LoanFactory.createDefaultWithEarlyPayments());
+
+        LoanAmortizationCalculatorException exception = assertThrows(LoanAmortizationCalculatorException.class,
+                () -> reader.readLoanAmortization(ByteBuffer.wrap(bytes)));
+        assertEquals(Messages.UNEXPECTED_RECORD_TYPE.getMessageText(), exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectTruncatedRecord() {
+        LoanAmortization amortization = ReferenceLoanFactory.readReference("reference-with-first-payment-date.json");
+        byte[] bytes = Arrays.copyOf(writer.toByteArray(amortization), 100);
+
+        LoanAmortizationCalculatorException exception = assertThrows(LoanAmortizationCalculatorException.class,
+                () -> reader.readLoanAmortization(ByteBuffer.wrap(bytes)));
+        assertEquals(Messages.MALFORMED_BINARY_DATA.getMessageText(), exception.getMessage());
+
+        assertThrows(EOFException.class, () -> reader.readLoanAmortization(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void shouldNotTrustLengthOfTruncatedStream() throws IOException {
+        // Header of a loan amortization with the maximal payload length, but only a few bytes of the payload
+        byte[] bytes = {BinaryFormat.VERSION, BinaryFormat.LOAN_AMORTIZATION, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3};
+
+        assertThrows(EOFException.class, () -> reader.readLoanAmortization(new ByteArrayInputStream(bytes)));
+
+        LoanAmortizationCalculatorException exception = assertThrows(LoanAmortizationCalculatorException.class,
+                () -> reader.readLoanAmortization(ByteBuffer.wrap(bytes)));
+        assertEquals(Messages.MALFORMED_BINARY_DATA.getMessageText(), exception.getMessage());
+
+        // The reader is still usable
+        LoanAmortization amortization = ReferenceLoanFactory.readReference("reference-with-first-payment-date.json");
+        assertEquals(amortization, reader.readLoanAmortization(new ByteArrayInputStream(writer.toByteArray(amortization))));
+    }
+
+    @Test
+    void shouldRejectCorruptedPayload() {
+        LoanAmortization amortization = ReferenceLoanFactory.readReference("reference-with-first-payment-date.json");
+        byte[] bytes = writer.toByteArray(amortization);
+
+        // Every byte of the payload is changed in turn: the reader must either fail with the exception or read some value
+        for (int i = 4; i < bytes.length; i++) {
+            byte[] corrupted = bytes.clone();
+            corrupted[i] = (byte) 0xFF;
+
+            try {
+                reader.readLoanAmortization(ByteBuffer.wrap(corrupted));
+            } catch (LoanAmortizationCalculatorException e) {
+                assertEquals(Messages.MALFORMED_BINARY_DATA.getMessageText(), e.getMessage());
+            }
+        }
+    }
+}
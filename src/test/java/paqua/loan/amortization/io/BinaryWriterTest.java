@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryWriterTest {
+    private final BinaryWriter writer = new BinaryWriter();
+    private final BinaryReader reader = new BinaryReader();
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldReadWrittenLoanAmortization(String fixture, Loan loan) throws IOException {
+        LoanAmortization amortization = ReferenceLoanFactory.readReference(fixture);
+
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        writer.write(amortization, buffer);
+        buffer.flip();
+        assertEquals(amortization, reader.readLoanAmortization(buffer));
+        assertFalse(buffer.hasRemaining());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(amortization, output);
+        assertEquals(amortization, reader.readLoanAmortization(new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")
+    void shouldReadWrittenLoan(String fixture, Loan loan) {
+        assertEquals(loan, reader.readLoan(ByteBuffer.wrap(writer.toByteArray(loan))));
+    }
+
+    @Test
+    void shouldReadWrittenEarlyPayment() throws IOException {
+        EarlyPayment earlyPayment = new EarlyPayment(new BigDecimal("5000.00"), EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT,
+                EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH,
+                Collections.singletonMap(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER, "12"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(earlyPayment, output);
+
+        assertEquals(earlyPayment, reader.readEarlyPayment(new ByteArrayInputStream(output.toByteArray())));
+    }
+
+    @Test
+    void shouldReadWrittenNullsAndUnusualAmounts() {
+        Loan loan = new Loan(new BigDecimal("123456789012345678901234567890.123456789"), new BigDecimal("1E+1"), null,
+                Collections.singletonMap(3, new EarlyPayment(new BigDecimal("-0.000001"), null, null, null)), null);
+
+        assertEquals(loan, reader.readLoan(ByteBuffer.wrap(writer.toByteArray(loan))));
+
+        LoanAmortization amortization = new LoanAmortization(null, BigDecimal.ZERO,
+                Arrays.asList(new MonthlyPayment(null, null, null, null, null, null, null),
+                        new MonthlyPayment(7, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, LocalDate.of(1800, 1, 1)),
+                        new MonthlyPayment(3, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, LocalDate.MAX)),
+                null);
+
+        assertEquals(amortization, reader.readLoanAmortization(ByteBuffer.wrap(writer.toByteArray(amortization))));
+    }
+
+    @Test
+    void shouldReadSeveralRecordsFromStream() throws IOException {
+        Loan loan = ReferenceLoanFactory.createAll().get("reference-repeating-strategy-to-end-from-first.json");
+        LoanAmortization amortization = LoanAmortizationCalculatorFactory.create().calculate(loan);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(loan, output);
+        writer.write(amortization, output);
+
+        ByteArrayInputStream input = new ByteArrayInputStream(output.toByteArray());
+        assertEquals(loan, reader.readLoan(input));
+        assertEquals(amortization, reader.readLoanAmortization(input));
+        assertEquals(-1, input.read());
+    }
+
+    @Test
+    void shouldNotChangeBufferWithoutSpace() {
+        LoanAmortization amortization = ReferenceLoanFactory.readReference("reference-repeating-strategy-to-end-from-first.json");
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+
+        assertThrows(BufferOverflowException.class, () -> writer.write(amortization, buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void shouldBeSmallerThanJavaSerialization() throws IOException {
+        Loan loan = Loan.builder()
+                .amount(new BigDecimal("300000.00"))
+                .rate(new BigDecimal("4.5"))
+                .term(360)
+                .firstPaymentDate(LocalDate.of(2021, 1, 31))
+                .build();
+        LoanAmortization amortization = LoanAmortizationCalculatorFactory.create().calculate(loan);
+
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(serialized)) {
+            output.writeObject(amortization);
+        }
+
+        assertTrue(writer.toByteArray(amortization).length * 4 < serialized.size());
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedScheduleStoreTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadWrittenSchedules() throws IOException {
+        List<Loan> loans = new ArrayList<>(ReferenceLoanFactory.createAll().values());
+        List<LoanAmortization> amortizations = loans.stream().map(calculator::calculate).collect(Collectors.toList());
+
+        // Loan ids are written out of order
+        Path path = directory.resolve("schedules");
+        try (ScheduleStoreWriter writer = ScheduleStoreWriter.create(path)) {
+            for (int i = amortizations.size() - 1; i >= 0; i--) {
+                writer.append(getLoanId(i), amortizations.get(i));
+            }
+        }
+
+        // Small segments, so values of rows are split between segments
+        for (MappedScheduleStore store : new MappedScheduleStore[] {MappedScheduleStore.open(path), MappedScheduleStore.open(path, 7)}) {
+            assertEquals(amortizations.size(), store.size());
+
+            for (int i = 0; i < amortizations.size(); i++) {
+                LoanAmortization expected = amortizations.get(i);
+                LoanAmortization actual = store.getLoanAmortization(getLoanId(i));
+
+                assertEquals(0, expected.getMonthlyPaymentAmount().compareTo(actual.getMonthlyPaymentAmount()));
+                assertEquals(0, expected.getOverPaymentAmount().compareTo(actual.getOverPaymentAmount()));
+                assertEquals(expected.getMonthlyPayments().size(), store.getNumberOfPayments(getLoanId(i)));
+
+                for (int month = 0; month < expected.getMonthlyPayments().size(); month++) {
+                    assertSamePayment(expected.getMonthlyPayments().get(month), actual.getMonthlyPayments().get(month));
+                    assertEquals(actual.getMonthlyPayments().get(month), store.getMonthlyPayment(getLoanId(i), month));
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldNotFindMissingSchedule() throws IOException {
+        Path path = directory.resolve("schedules");
+        try (ScheduleStoreWriter writer = ScheduleStoreWriter.create(path)) {
+            writer.append(42, calculator.calculate(ReferenceLoanFactory.createAll().get("reference-with-first-payment-date.json")));
+        }
+
+        MappedScheduleStore store = MappedScheduleStore.open(path);
+
+        assertTrue(store.contains(42));
+        assertFalse(store.contains(41));
+        assertNull(store.getLoanAmortization(43));
+        assertNull(store.getMonthlyPayment(43, 0));
+        assertEquals(-1, store.getNumberOfPayments(43));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getMonthlyPayment(42, store.getNumberOfPayments(42)));
+    }
+
+    @Test
+    void shouldReadEmptyStore() throws IOException {
+        Path path = directory.resolve("schedules");
+        ScheduleStoreWriter.create(path).close();
+
+        MappedScheduleStore store = MappedScheduleStore.open(path);
+
+        assertEquals(0, store.size());
+        assertFalse(store.contains(0));
+    }
+
+    @Test
+    void shouldRejectDuplicateLoanId() throws IOException {
+        LoanAmortization amortization = calculator.calculate(ReferenceLoanFactory.createAll().get("reference-with-first-payment-date.json"));
+
+        try (ScheduleStoreWriter writer = ScheduleStoreWriter.create(directory.resolve("sorted"))) {
+            writer.append(1, amortization);
+            assertThrows(LoanAmortizationCalculatorException.class, () -> writer.append(1, amortization));
+        }
+
+        ScheduleStoreWriter writer = ScheduleStoreWriter.create(directory.resolve("unsorted"));
+        writer.append(2, amortization);
+        writer.append(1, amortization);
+        writer.append(2, amortization);
+        assertThrows(LoanAmortizationCalculatorException.class, writer::close);
+    }
+
+    @Test
+    void shouldRejectAmountThatIsNotInCents() throws IOException {
+        LoanAmortization amortization = LoanAmortization.builder()
+                .monthlyPaymentAmount(new BigDecimal("100.001"))
+                .overPaymentAmount(BigDecimal.ZERO)
+                .monthlyPayments(Collections.emptyList())
+                .build();
+
+        try (ScheduleStoreWriter writer = ScheduleStoreWriter.create(directory.resolve("schedules"))) {
+            assertThrows(LoanAmortizationCalculatorException.class, () -> writer.append(1, amortization));
+        }
+    }
+
+    @Test
+    void shouldRejectFileOfAnotherFormat() throws IOException {
+        Path path = directory.resolve("schedules");
+        Files.write(path, new byte[64]);
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> MappedScheduleStore.open(path));
+    }
+
+    private static long getLoanId(int index) {
+        return 1_000_000_000_000L + index * 7919L;
+    }
+
+    private static void assertSamePayment(MonthlyPayment expected, MonthlyPayment actual) {
+        assertEquals(expected.getMonthNumber(), actual.getMonthNumber());
+        assertEquals(0, expected.getLoanBalanceAmount().compareTo(actual.getLoanBalanceAmount()));
+        assertEquals(0, expected.getDebtPaymentAmount().compareTo(actual.getDebtPaymentAmount()));
+        assertEquals(0, expected.getInterestPaymentAmount().compareTo(actual.getInterestPaymentAmount()));
+        assertEquals(0, expected.getPaymentAmount().compareTo(actual.getPaymentAmount()));
+        assertEquals(0, expected.getAdditionalPaymentAmount().compareTo(actual.getAdditionalPaymentAmount()));
+        assertEquals(expected.getPaymentDate(), actual.getPaymentDate());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.io;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.utils.factory.ObjectMapperFactory;
+import paqua.loan.amortization.utils.factory.ReferenceLoanFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleExportWriterTest {
+    private static final ObjectMapper OBJECT_MAPPER = ObjectMapperFactory.create();
+
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    @Test
+    void shouldWriteCsv() throws IOException {
+        StringWriter output = new StringWriter();
+        List<String> expected = new ArrayList<>();
+        expected.add("loanId,monthNumber,paymentDate,paymentAmount,interestPaymentAmount,debtPaymentAmount,loanBalanceAmount,additionalPaymentAmount");
+
+        try (ScheduleExportWriter writer = ScheduleExportWriter.create(output, ExportFormat.CSV)) {
+            for (Loan loan : ReferenceLoanFactory.createAll().values()) {
+                writer.writeAll("loan-1", calculator.iterate(loan));
+
+                for (MonthlyPayment payment : calculator.calculate(loan).getMonthlyPayments()) {
+                    expected.add("loan-1," + payment.getMonthNumber()
+                            + "," + (payment.getPaymentDate() == null ? "" : payment.getPaymentDate().toString())
+                            + "," + payment.getPaymentAmount().toPlainString()
+                            + "," + payment.getInterestPaymentAmount().toPlainString()
+                            + "," + payment.getDebtPaymentAmount().toPlainString()
+                            + "," + payment.getLoanBalanceAmount().toPlainString()
+                            + "," + payment.getAdditionalPaymentAmount().toPlainString());
+                }
+            }
+
+            assertEquals(expected.size() - 1, writer.getRowCount());
+        }
+
+        assertEquals(String.join("\n", expected) + "\n", output.toString());
+    }
+
+    @Test
+    void shouldWriteJsonLines() throws IOException {
+        LoanAmortization amortization = calculator.calculate(ReferenceLoanFactory.createAll().get("reference-with-first-payment-date.json"));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ScheduleExportWriter writer = ScheduleExportWriter.create(output, ExportFormat.JSON_LINES)) {
+            writer.writeAll("loan \"1\"", amortization);
+        }
+
+        String[] lines = new String(output.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(amortization.getMonthlyPayments().size(), lines.length);
+
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode row = OBJECT_MAPPER.readTree(lines[i]);
+            MonthlyPayment payment = amortization.getMonthlyPayments().get(i);
+
+            assertEquals("loan \"1\"", row.get("loanId").asText());
+            assertEquals(payment, OBJECT_MAPPER.readerFor(MonthlyPayment.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(lines[i]));
+        }
+    }
+
+    @Test
+    void shouldWriteUnusualValues() throws IOException {
+        MonthlyPayment payment = new MonthlyPayment(null, new BigDecimal("-0.05"), new BigDecimal("1E+3"),
+                new BigDecimal("123456789012345678901234.5"), new BigDecimal("0.000000000000000000001"), null, LocalDate.of(10000, 1, 1));
+
+        StringWriter csv = new StringWriter();
+        try (ScheduleExportWriter writer = ScheduleExportWriter.create(csv, ExportFormat.CSV)) {
+            writer.write("a,\"b\"", payment);
+        }
+
+        assertEquals("\"a,\"\"b\"\"\",,+10000-01-01,0.000000000000000000001,123456789012345678901234.5,1000,-0.05,\n",
+                csv.toString().substring(csv.toString().indexOf('\n') + 1));
+
+        StringWriter json = new StringWriter();
+        try (ScheduleExportWriter writer = ScheduleExportWriter.create(json, ExportFormat.JSON_LINES)) {
+            writer.write("a\\\n", payment);
+            writer.write(null, payment);
+        }
+
+        String[] lines = json.toString().split("\n");
+        assertEquals("a\\\n", OBJECT_MAPPER.readTree(lines[0]).get("loanId").asText());
+        assertTrue(OBJECT_MAPPER.readTree(lines[1]).get("loanId").isNull());
+        assertTrue(OBJECT_MAPPER.readTree(lines[1]).get("monthNumber").isNull());
+        assertEquals(new BigDecimal("-0.05"), OBJECT_MAPPER.readTree(lines[1]).get("loanBalanceAmount").decimalValue());
+    }
+}
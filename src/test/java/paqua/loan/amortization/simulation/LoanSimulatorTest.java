@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.simulation;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanPayoff;
+import paqua.loan.amortization.exception.ExceptionType;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanSimulatorTest {
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    private final Loan loan = Loan.builder()
+            .amount(new BigDecimal("250000"))
+            .rate(new BigDecimal("6.25"))
+            .term(240)
+            .firstPaymentDate(LocalDate.of(2024, 1, 15))
+            .build();
+
+    @Test
+    void shouldBeReproducibleWhateverNumberOfThreads() {
+        PrepaymentModel model = PrepaymentModel.builder()
+                .prepaymentProbability(0.1)
+                .decreaseMonthlyPaymentProbability(0.5)
+                .build();
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool multiple = new ForkJoinPool(4);
+        try {
+            SimulationResult expected = simulate(model, single, 42, 300);
+
+            assertEquals(expected, simulate(model, multiple, 42, 300));
+            assertEquals(expected, simulate(model, ForkJoinPool.commonPool(), 42, 300));
+            assertNotEquals(expected, simulate(model, multiple, 43, 300));
+        } finally {
+            single.shutdown();
+            multiple.shutdown();
+        }
+    }
+
+    @Test
+    void shouldMatchCalculatorForEveryScenario() {
+        PrepaymentModel model = PrepaymentModel.builder()
+                .prepaymentProbability(0.2)
+                .amountShare(0.001, 0.05)
+                .decreaseMonthlyPaymentProbability(0.3)
+                .build();
+
+        SimulationResult result = simulate(model, ForkJoinPool.commonPool(), 7, 50);
+
+        SplittableRandom random = new SplittableRandom(7);
+        int[] payoffMonthNumbers = new int[50];
+        long[] interestAmounts = new long[50];
+        for (int i = 0; i < 50; i++) {
+            Loan scenario = model.generate(loan, random.split());
+            LoanPayoff payoff = calculator.solvePayoff(scenario);
+
+            payoffMonthNumbers[i] = payoff.getPayoffMonthNumber();
+            interestAmounts[i] = payoff.getTotalInterestAmount().movePointRight(2).longValueExact();
+        }
+
+        assertEquals(new SimulationResult(payoffMonthNumbers, interestAmounts), result);
+    }
+
+    @Test
+    void shouldMatchLoanWithoutPrepayments() {
+        PrepaymentModel model = PrepaymentModel.builder()
+                .prepaymentProbability(0)
+                .build();
+
+        SimulationResult result = simulate(model, ForkJoinPool.commonPool(), 1, 100);
+        LoanPayoff payoff = calculator.solvePayoff(loan);
+
+        assertEquals(100, result.getNumberOfScenarios());
+        assertEquals(payoff.getPayoffMonthNumber(), result.getPayoffMonthQuantile(0));
+        assertEquals(payoff.getPayoffMonthNumber(), result.getPayoffMonthQuantile(1));
+        assertEquals(payoff.getTotalInterestAmount(), result.getInterestQuantile(0.5));
+        assertEquals(payoff.getTotalInterestAmount(), result.getMeanInterestAmount());
+    }
+
+    @Test
+    void shouldShortenLoanWithPrepayments() {
+        PrepaymentModel model = PrepaymentModel.builder()
+                .prepaymentProbability(0.1)
+                .build();
+
+        SimulationResult result = simulate(model, ForkJoinPool.commonPool(), 5, 500);
+        LoanPayoff payoff = calculator.solvePayoff(loan);
+
+        assertTrue(result.getPayoffMonthQuantile(1) < payoff.getPayoffMonthNumber());
+        assertTrue(result.getInterestQuantile(1).compareTo(payoff.getTotalInterestAmount()) < 0);
+
+        assertTrue(result.getPayoffMonthQuantile(0.05) <= result.getPayoffMonthQuantile(0.5));
+        assertTrue(result.getPayoffMonthQuantile(0.5) <= result.getPayoffMonthQuantile(0.95));
+        assertTrue(result.getInterestQuantile(0.05).compareTo(result.getInterestQuantile(0.95)) <= 0);
+    }
+
+    @Test
+    void shouldGenerateSameScenarioFromSameStream() {
+        PrepaymentModel model = PrepaymentModel.builder()
+                .prepaymentProbability(0.5)
+                .decreaseMonthlyPaymentProbability(1)
+                .build();
+
+        Loan scenario = model.generate(loan, new SplittableRandom(3));
+
+        assertEquals(scenario, model.generate(loan, new SplittableRandom(3)));
+        assertFalse(scenario.getEarlyPayments().isEmpty());
+        scenario.getEarlyPayments().values().forEach(payment -> {
+            assertEquals(EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT, payment.getStrategy());
+            assertTrue(payment.getAmount().compareTo(new BigDecimal("2500")) >= 0);
+            assertTrue(payment.getAmount().compareTo(new BigDecimal("25000")) <= 0);
+        });
+    }
+
+    @Test
+    void shouldFailOnInvalidInput() {
+        LoanAmortizationCalculatorException exception = assertThrows(LoanAmortizationCalculatorException.class,
+                () -> LoanSimulator.builder().numberOfScenarios(0));
+        assertEquals(ExceptionType.INPUT_VERIFICATION_EXCEPTION, exception.getType());
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> PrepaymentModel.builder().prepaymentProbability(1.5));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> PrepaymentModel.builder().decreaseMonthlyPaymentProbability(Double.NaN));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> PrepaymentModel.builder().amountShare(0.2, 0.1));
+
+        SimulationResult result = simulate(PrepaymentModel.builder().build(), ForkJoinPool.commonPool(), 1, 10);
+        assertThrows(LoanAmortizationCalculatorException.class, () -> result.getPayoffMonthQuantile(-0.1));
+        assertThrows(LoanAmortizationCalculatorException.class, () -> result.getInterestQuantile(1.1));
+
+        assertThrows(LoanAmortizationCalculatorException.class, () -> LoanSimulator.builder().build()
+                .simulate(Loan.builder().amount(BigDecimal.ONE).rate(BigDecimal.ONE).term(0).build()));
+    }
+
+    private SimulationResult simulate(PrepaymentModel model, ForkJoinPool pool, long seed, int numberOfScenarios) {
+        return LoanSimulator.builder()
+                .calculator(calculator)
+                .model(model)
+                .pool(pool)
+                .seed(seed)
+                .numberOfScenarios(numberOfScenarios)
+                .build()
+                .simulate(loan);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.utils.factory;
+
+import org.junit.jupiter.params.provider.Arguments;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentAdditionalParameters;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Loans of the reference fixtures in src/test/resources
+ */
+public class ReferenceLoanFactory {
+    private static final String RESOURCES = "src/test/resources/";
+
+    /**
+     * Creates loans for all the reference fixtures
+     *
+     * @return key: name of the fixture file, value: loan
+     */
+    public static Map<String, Loan> createAll() {
+        Map<String, Loan> loans = new LinkedHashMap<>();
+
+        loans.put("reference-500000.32-4.56-32.json", getBuilder().build());
+
+        loans.put("reference-one-early-payment(5th)-500000.32-4.56-32.json", getBuilder()
+                .earlyPayment(5, single(50000, EarlyPaymentStrategy.DECREASE_TERM))
+                .build());
+
+        loans.put("reference-one-early-payment(5th)-payment-decrease-500000.32-4.56-32.json", getBuilder()
+                .earlyPayment(5, single(50000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT))
+                .build());
+
+        loans.put("reference-different-early-payments-500000.32-4.56-32.json", getBuilder()
+                .term(10)
+                .earlyPayment(0, single(5000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT))
+                .earlyPayment(1, single(50000, EarlyPaymentStrategy.DECREASE_TERM))
+                .earlyPayment(3, single(30000, EarlyPaymentStrategy.DECREASE_TERM))
+                .earlyPayment(5, single(50000, EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT))
+                .earlyPayment(6, single(10000, EarlyPaymentStrategy.DECREASE_TERM))
+                .build());
+
+        loans.put("reference-repeating-strategy-to-end.json", getBuilder()
+                .earlyPayment(5, new EarlyPayment(BigDecimal.valueOf(50000), EarlyPaymentStrategy.DECREASE_TERM,
+                        EarlyPaymentRepeatingStrategy.TO_END, null))
+                .build());
+
+        loans.put("reference-repeating-strategy-to-end-from-first.json", Loan.builder()
+                .amount(BigDecimal.valueOf(6535366))
+                .rate(BigDecimal.valueOf(3))
+                .term(12)
+                .earlyPayment(0, new EarlyPayment(BigDecimal.valueOf(60000), EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT,
+                        EarlyPaymentRepeatingStrategy.TO_END, null))
+                .build());
+
+        loans.put("reference-repeating-strategy-to-certain-month.json", getBuilder()
+                .earlyPayment(5, repeatedTo(10))
+                .build());
+
+        loans.put("reference-repeating-strategy-to-certain-month-and-single.json", getBuilder()
+                .earlyPayment(5, repeatedTo(7))
+                .earlyPayment(15, single(50000, EarlyPaymentStrategy.DECREASE_TERM))
+                .build());
+
+        loans.put("reference-with-first-payment-date.json", Loan.builder()
+                .amount(BigDecimal.valueOf(1500000))
+                .rate(BigDecimal.valueOf(5.32))
+                .term(96)
+                .earlyPayments(Collections.emptyMap())
+                .firstPaymentDate(LocalDate.of(2014, 7, 2))
+                .build());
+
+        loans.put("reference-when-first-payment-date-is-last-day.json", Loan.builder()
+                .amount(BigDecimal.valueOf(1500000))
+                .rate(BigDecimal.valueOf(5.32))
+                .term(96)
+                .earlyPayments(Collections.emptyMap())
+                .firstPaymentDate(LocalDate.of(2014, 7, 31))
+                .build());
+
+        return loans;
+    }
+
+    /**
+     * Arguments of parameterized tests over all the reference fixtures,
+     * use {@code @MethodSource("paqua.loan.amortization.utils.factory.ReferenceLoanFactory#referenceLoans")}
+     *
+     * @return name of the fixture file and loan
+     */
+    public static Stream<Arguments> referenceLoans() {
+        return createAll().entrySet().stream()
+                .map(entry -> Arguments.of(entry.getKey(), entry.getValue()));
+    }
+
+    /**
+     * Reads a reference fixture
+     *
+     * @param name name of the fixture file
+     * @return reference loan amortization
+     */
+    public static LoanAmortization readReference(String name) {
+        try {
+            return ObjectMapperFactory.create().readValue(new File(RESOURCES + name), LoanAmortization.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Loan.LoanBuilder getBuilder() {
+        return Loan.builder()
+                .amount(BigDecimal.valueOf(500000.32))
+                .rate(BigDecimal.valueOf(4.56))
+                .term(32);
+    }
+
+    private static EarlyPayment single(int amount, EarlyPaymentStrategy strategy) {
+        return new EarlyPayment(BigDecimal.valueOf(amount), strategy, EarlyPaymentRepeatingStrategy.SINGLE, null);
+    }
+
+    private static EarlyPayment repeatedTo(int monthNumber) {
+        Map<EarlyPaymentAdditionalParameters, String> parameters = new LinkedHashMap<>();
+        parameters.put(EarlyPaymentAdditionalParameters.REPEAT_TO_MONTH_NUMBER, String.valueOf(monthNumber));
+
+        return new EarlyPayment(BigDecimal.valueOf(50000), EarlyPaymentStrategy.DECREASE_TERM,
+                EarlyPaymentRepeatingStrategy.TO_CERTAIN_MONTH, parameters);
+    }
+}
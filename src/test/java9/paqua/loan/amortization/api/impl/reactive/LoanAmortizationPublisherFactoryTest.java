@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2021 Artyom Panfutov
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package paqua.loan.amortization.api.impl.reactive;
+
+import org.junit.jupiter.api.Test;
+import paqua.loan.amortization.api.LoanAmortizationCalculator;
+import paqua.loan.amortization.api.impl.LoanAmortizationCalculatorFactory;
+import paqua.loan.amortization.api.impl.repeating.EarlyPaymentRepeatingStrategy;
+import paqua.loan.amortization.dto.EarlyPayment;
+import paqua.loan.amortization.dto.EarlyPaymentStrategy;
+import paqua.loan.amortization.dto.Loan;
+import paqua.loan.amortization.dto.LoanAmortization;
+import paqua.loan.amortization.dto.MonthlyPayment;
+import paqua.loan.amortization.exception.LoanAmortizationCalculatorException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoanAmortizationPublisherFactoryTest {
+    /**
+     * Delivers signals in the thread of the request, so every assertion runs after the signals are delivered
+     */
+    private static final Executor DIRECT = Runnable::run;
+
+    private final LoanAmortizationCalculator calculator = LoanAmortizationCalculatorFactory.create();
+
+    private final Loan loan = Loan.builder()
+            .amount(new BigDecimal("150000"))
+            .rate(new BigDecimal("7.1"))
+            .term(36)
+            .firstPaymentDate(LocalDate.of(2024, 3, 10))
+            .earlyPayment(5, EarlyPayment.builder()
+                    .amount(new BigDecimal("20000"))
+                    .strategy(EarlyPaymentStrategy.DECREASE_MONTHLY_PAYMENT)
+                    .repeatingStrategy(EarlyPaymentRepeatingStrategy.SINGLE)
+                    .build())
+            .build();
+
+    @Test
+    void shouldPublishScheduleOfCalculator() {
+        List<MonthlyPayment> expected = calculator.calculate(loan).getMonthlyPayments();
+
+        RecordingSubscriber<MonthlyPayment> oneByOne = new RecordingSubscriber<>(1, true);
+        LoanAmortizationPublisherFactory.createSchedulePublisher(calculator, loan, DIRECT).subscribe(oneByOne);
+
+        RecordingSubscriber<MonthlyPayment> unbounded = new RecordingSubscriber<>(Long.MAX_VALUE, false);
+        LoanAmortizationPublisherFactory.createSchedulePublisher(calculator, loan, DIRECT).subscribe(unbounded);
+
+        assertEquals(expected, oneByOne.items);
+        assertTrue(oneByOne.completed);
+        assertEquals(expected, unbounded.items);
+        assertTrue(unbounded.completed);
+    }
+
+    @Test
+    void shouldPublishOnlyRequestedPayments() {
+        RecordingSubscriber<MonthlyPayment> subscriber = new RecordingSubscriber<>(3, false);
+        LoanAmortizationPublisherFactory.createSchedulePublisher(calculator, loan, DIRECT).subscribe(subscriber);
+
+        assertEquals(3, subscriber.items.size());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(loan.getTerm() - 3);
+
+        assertEquals(loan.getTerm(), subscriber.items.size());
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void shouldStopPublishingWhenCancelled() {
+        RecordingSubscriber<MonthlyPayment> subscriber = new RecordingSubscriber<>(2, false);
+        LoanAmortizationPublisherFactory.createSchedulePublisher(calculator, loan, DIRECT).subscribe(subscriber);
+
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+
+        assertEquals(2, subscriber.items.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void shouldSignalErrors() {
+        RecordingSubscriber<MonthlyPayment> subscriber = new RecordingSubscriber<>(0, false);
+        LoanAmortizationPublisherFactory.createSchedulePublisher(calculator, loan, DIRECT).subscribe(subscriber);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+
+        Loan invalid = Loan.builder()
+                .amount(BigDecimal.ONE)
+                .rate(BigDecimal.ONE)
+                .term(0)
+                .build();
+
+        subscriber = new RecordingSubscriber<>(1, false);
+        LoanAmortizationPublisherFactory.createSchedulePublisher(calculator, invalid, DIRECT).subscribe(subscriber);
+        assertTrue(subscriber.error instanceof LoanAmortizationCalculatorException);
+        assertTrue(subscriber.items.isEmpty());
+
+        List<Loan> loans = new ArrayList<>();
+        loans.add(loan);
+        loans.add(invalid);
+        RecordingSubscriber<LoanAmortization> batch = new RecordingSubscriber<>(Long.MAX_VALUE, false);
+        LoanAmortizationPublisherFactory.createAmortizationPublisher(calculator, loans, DIRECT).subscribe(batch);
+        assertEquals(1, batch.items.size());
+        assertTrue(batch.error instanceof LoanAmortizationCalculatorException);
+        assertFalse(batch.completed);
+    }
+
+    @Test
+    void shouldPullLoansOnDemand() {
+        AtomicInteger pulled = new AtomicInteger();
+        List<Loan> loans = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            loans.add(Loan.builder()
+                    .amount(BigDecimal.valueOf(1000 + i))
+                    .rate(BigDecimal.valueOf(5))
+                    .term(12 + i)
+                    .build());
+        }
+
+        Iterable<Loan> counting = () -> new Iterator<Loan>() {
+            private final Iterator<Loan> iterator = loans.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Loan next() {
+                pulled.incrementAndGet();
+                return iterator.next();
+            }
+        };
+
+        RecordingSubscriber<LoanAmortization> subscriber = new RecordingSubscriber<>(2, false);
+        Flow.Publisher<LoanAmortization> publisher = LoanAmortizationPublisherFactory.createAmortizationPublisher(calculator, counting, DIRECT);
+        assertEquals(0, pulled.get());
+
+        publisher.subscribe(subscriber);
+        assertEquals(2, pulled.get());
+        assertEquals(calculator.calculate(loans.get(1)), subscriber.items.get(1));
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(10, pulled.get());
+        assertEquals(10, subscriber.items.size());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void shouldPublishInCommonPool() throws Exception {
+        CompletableFuture<List<MonthlyPayment>> result = new CompletableFuture<>();
+        LoanAmortizationPublisherFactory.createSchedulePublisher(loan).subscribe(new RecordingSubscriber<MonthlyPayment>(1, true) {
+            @Override
+            public void onComplete() {
+                result.complete(items);
+            }
+        });
+
+        assertEquals(calculator.calculate(loan).getMonthlyPayments(), result.get(10, TimeUnit.SECONDS));
+    }
+
+    private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+        private final long initialRequest;
+        private final boolean requestOnNext;
+
+        final List<T> items = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        RecordingSubscriber(long initialRequest, boolean requestOnNext) {
+            this.initialRequest = initialRequest;
+            this.requestOnNext = requestOnNext;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+            if (requestOnNext) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}